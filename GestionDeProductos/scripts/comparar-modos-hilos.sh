@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Compara throughput y latencias de la API con hilos de plataforma y con hilos virtuales.
+# Requiere Java 21 para que el perfil "virtual" tenga efecto.
+#
+# Uso: scripts/comparar-modos-hilos.sh [concurrencia] [duracion-segundos] [productos]
+set -euo pipefail
+
+CONCURRENCIA=${1:-512}
+DURACION=${2:-30}
+PRODUCTOS=${3:-10000}
+PUERTO=8080
+
+cd "$(dirname "$0")/.."
+mvn -B -q package -DskipTests
+mvn -B -q -Pbenchmark test-compile
+
+for MODO in plataforma virtual; do
+    PERFIL=""
+    if [ "$MODO" = "virtual" ]; then
+        PERFIL="--spring.profiles.active=virtual"
+    fi
+
+    java -jar target/productos-api-1.0.0.jar $PERFIL > "target/carga-$MODO.log" 2>&1 &
+    PID=$!
+    trap 'kill $PID 2>/dev/null || true' EXIT
+
+    until curl -s -o /dev/null "http://localhost:$PUERTO/api/productos/0"; do sleep 1; done
+
+    mvn -B -q -Pbenchmark exec:exec -Dbenchmark.args="--etiqueta=$MODO --concurrencia=$CONCURRENCIA --duracion=$DURACION --productos=$PRODUCTOS"
+
+    kill $PID
+    wait $PID 2>/dev/null || true
+done
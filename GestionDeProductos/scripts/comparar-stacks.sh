@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Compara el stack servlet (Tomcat + JPA) con el reactivo (WebFlux sobre Netty + R2DBC)
+# bajo alta concurrencia y con clientes lentos que leen los listados de a poco.
+# Ambos stacks cargan el catálogo con POST para medir exactamente lo mismo.
+#
+# Uso: scripts/comparar-stacks.sh [concurrencia] [duracion-segundos] [productos] [clientes-lentos]
+set -euo pipefail
+
+CONCURRENCIA=${1:-512}
+DURACION=${2:-30}
+PRODUCTOS=${3:-10000}
+CLIENTES_LENTOS=${4:-200}
+PUERTO=8080
+
+cd "$(dirname "$0")/.."
+mvn -B -q package -DskipTests
+mvn -B -q -Pbenchmark test-compile
+
+for STACK in servlet reactivo; do
+    PERFIL=""
+    if [ "$STACK" = "reactivo" ]; then
+        PERFIL="--spring.profiles.active=reactive"
+    fi
+
+    java -jar target/productos-api-1.0.0.jar $PERFIL > "target/carga-$STACK.log" 2>&1 &
+    PID=$!
+    trap 'kill $PID 2>/dev/null || true' EXIT
+
+    until curl -s -o /dev/null "http://localhost:$PUERTO/api/productos/0"; do sleep 1; done
+
+    mvn -B -q -Pbenchmark exec:exec -Dbenchmark.args="--etiqueta=$STACK --concurrencia=$CONCURRENCIA --duracion=$DURACION --productos=$PRODUCTOS --preparacion=post --clientes-lentos=$CLIENTES_LENTOS"
+
+    kill $PID
+    wait $PID 2>/dev/null || true
+done
@@ -0,0 +1,101 @@
+package com.utn.productos.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.model.Categoria;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compara JSON y CBOR para el listado de productos.
+ * <p>
+ * Para una lista de {@code productos} DTOs (por defecto 10.000) informa los bytes
+ * enviados sin comprimir y con gzip, y el tiempo medio de serialización y
+ * deserialización de la lista completa. Los mappers se construyen igual que en
+ * la aplicación ({@code Jackson2ObjectMapperBuilder}).
+ * <p>
+ * Argumentos (opcionales, formato {@code --clave=valor}): {@code productos},
+ * {@code calentamiento} e {@code iteraciones}.
+ */
+public class BenchmarkSerializacion {
+
+    private static final TypeReference<List<ProductoResponseDTO>> TIPO_LISTA = new TypeReference<>() {
+    };
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> parametros = GeneradorCarga.parsearArgumentos(args);
+        int productos = Integer.parseInt(parametros.getOrDefault("productos", "10000"));
+        int calentamiento = Integer.parseInt(parametros.getOrDefault("calentamiento", "200"));
+        int iteraciones = Integer.parseInt(parametros.getOrDefault("iteraciones", "200"));
+
+        List<ProductoResponseDTO> lista = generarProductos(productos);
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+
+        System.out.printf(Locale.ROOT, "%d productos, %d iteraciones%n", productos, iteraciones);
+        System.out.printf(Locale.ROOT, "%-6s %12s %12s %16s %18s%n",
+                "formato", "bytes", "bytes gzip", "serializar (ms)", "deserializar (ms)");
+        medir("json", json, lista, calentamiento, iteraciones);
+        medir("cbor", cbor, lista, calentamiento, iteraciones);
+    }
+
+    private static void medir(String nombre, ObjectMapper mapper, List<ProductoResponseDTO> lista,
+                              int calentamiento, int iteraciones) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(lista);
+        if (!lista.equals(mapper.readValue(bytes, TIPO_LISTA))) {
+            throw new IllegalStateException("El formato " + nombre + " no preserva los datos");
+        }
+
+        long acumulado = 0;
+        for (int i = 0; i < calentamiento; i++) {
+            acumulado += mapper.writeValueAsBytes(lista).length;
+            acumulado += mapper.readValue(bytes, TIPO_LISTA).size();
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            acumulado += mapper.writeValueAsBytes(lista).length;
+        }
+        double serializar = (System.nanoTime() - inicio) / 1e6 / iteraciones;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < iteraciones; i++) {
+            acumulado += mapper.readValue(bytes, TIPO_LISTA).size();
+        }
+        double deserializar = (System.nanoTime() - inicio) / 1e6 / iteraciones;
+
+        System.out.printf(Locale.ROOT, "%-6s %12d %12d %16.3f %18.3f%n",
+                nombre, bytes.length, comprimir(bytes), serializar, deserializar);
+        if (acumulado == 0) {
+            System.out.println();
+        }
+    }
+
+    private static int comprimir(byte[] bytes) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(bytes);
+        }
+        return salida.size();
+    }
+
+    private static List<ProductoResponseDTO> generarProductos(int cantidad) {
+        Categoria[] categorias = Categoria.values();
+        List<ProductoResponseDTO> lista = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            lista.add(new ProductoResponseDTO((long) i, "Producto " + i,
+                    "Descripción del producto número " + i, 1 + (i % 1000) * 1.5,
+                    i % 100, categorias[i % categorias.length], (long) (i % 3)));
+        }
+        return lista;
+    }
+}
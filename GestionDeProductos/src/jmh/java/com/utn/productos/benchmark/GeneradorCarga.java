@@ -0,0 +1,369 @@
+package com.utn.productos.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga HTTP para la API de productos.
+ * <p>
+ * Corre un escenario de lazo cerrado: cada cliente virtual envía un request,
+ * espera la respuesta y envía el siguiente. La mezcla es 90% {@code GET /{id}}
+ * y 10% {@code GET /categoria/{categoria}}. Antes de medir, carga el catálogo
+ * con la cantidad de productos pedida usando el endpoint de importación CSV.
+ * <p>
+ * {@code productos} acepta varios tamaños de catálogo separados por coma
+ * (por ejemplo {@code 1000,10000,100000}): el escenario se repite para cada
+ * uno, de menor a mayor, completando el catálogo entre corridas. La aplicación
+ * debe empezar con el catálogo vacío para que los IDs vayan de 1 a N.
+ * <p>
+ * Con {@code preparacion=post} el catálogo se carga con requests {@code POST}
+ * concurrentes en lugar de la importación CSV, para las variantes de la API que
+ * no exponen la importación ni la búsqueda (perfil {@code reactive}).
+ * <p>
+ * {@code clientes-lentos} agrega conexiones que piden un listado por categoría y
+ * leen la respuesta de a poco, con un buffer de recepción chico, durante toda la
+ * corrida. Simulan clientes en redes lentas que retienen recursos del servidor
+ * mientras se mide la latencia de los clientes normales.
+ * <p>
+ * Argumentos (todos opcionales, formato {@code --clave=valor}):
+ * {@code url}, {@code concurrencia}, {@code duracion} y {@code calentamiento}
+ * en segundos, {@code productos}, {@code preparacion} ({@code importacion} o
+ * {@code post}), {@code clientes-lentos}, {@code lectura-lenta} (bytes por segundo
+ * de cada cliente lento) y {@code etiqueta} para identificar la corrida.
+ */
+public class GeneradorCarga {
+
+    private static final String[] CATEGORIAS = {"ELECTRONICA", "ROPA", "ALIMENTOS", "HOGAR", "DEPORTES"};
+    private static final Pattern TOTAL = Pattern.compile("\"total\":(\\d+)");
+    private static final int BLOQUE_LECTURA_LENTA = 512;
+    private static final int HILOS_PREPARACION = 32;
+
+    private final HttpClient cliente;
+    private final String url;
+    private final int concurrencia;
+    private final int duracion;
+    private final int calentamiento;
+    private final int[] tamanosCatalogo;
+    private final String etiqueta;
+    private final boolean prepararConPost;
+    private final int clientesLentos;
+    private final int bytesPorSegundoLento;
+    private final URI uri;
+
+    /**
+     * Productos creados por este generador con {@code preparacion=post}.
+     */
+    private int creados;
+
+    public GeneradorCarga(Map<String, String> parametros) {
+        this.url = parametros.getOrDefault("url", "http://localhost:8080") + "/api/productos";
+        this.concurrencia = Integer.parseInt(parametros.getOrDefault("concurrencia", "256"));
+        this.duracion = Integer.parseInt(parametros.getOrDefault("duracion", "30"));
+        this.calentamiento = Integer.parseInt(parametros.getOrDefault("calentamiento", "5"));
+        this.tamanosCatalogo = Arrays.stream(parametros.getOrDefault("productos", "1000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .toArray();
+        this.etiqueta = parametros.getOrDefault("etiqueta", "sin-etiqueta");
+        this.prepararConPost = "post".equals(parametros.getOrDefault("preparacion", "importacion"));
+        this.clientesLentos = Integer.parseInt(parametros.getOrDefault("clientes-lentos", "0"));
+        this.bytesPorSegundoLento = Integer.parseInt(parametros.getOrDefault("lectura-lenta", "16384"));
+        this.uri = URI.create(url);
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrencia / 8)))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeneradorCarga generador = new GeneradorCarga(parsearArgumentos(args));
+        for (int productos : generador.tamanosCatalogo) {
+            generador.prepararCatalogo(productos);
+            Resultado resultado = generador.ejecutar(productos);
+            System.out.println(resultado.formatear());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Completa el catálogo hasta tener al menos {@code productos} productos.
+     */
+    public void prepararCatalogo(int productos) throws Exception {
+        if (prepararConPost) {
+            crearConPost(productos);
+            return;
+        }
+        int existentes = contarProductos();
+        if (existentes >= productos) {
+            return;
+        }
+        StringBuilder csv = new StringBuilder("nombre,descripcion,precio,stock,categoria\n");
+        for (int i = existentes; i < productos; i++) {
+            csv.append("Producto de carga ").append(i)
+                    .append(",Generado por GeneradorCarga,")
+                    .append(precio(i)).append(',')
+                    .append(i % 100).append(',')
+                    .append(CATEGORIAS[i % CATEGORIAS.length]).append('\n');
+        }
+        importarCsv(csv.toString());
+
+        long limite = System.nanoTime() + Duration.ofMinutes(5).toNanos();
+        while (contarProductos() < productos) {
+            if (System.nanoTime() > limite) {
+                throw new IllegalStateException("El catálogo no alcanzó " + productos + " productos");
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    /**
+     * Crea los productos que faltan con requests {@code POST} concurrentes.
+     * Sin búsqueda para contar el catálogo, lleva la cuenta de los que creó.
+     */
+    private void crearConPost(int productos) throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS_PREPARACION);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int i = creados; i < productos; i++) {
+            String cuerpo = String.format(Locale.ROOT,
+                    "{\"nombre\":\"Producto de carga %d\",\"descripcion\":\"Generado por GeneradorCarga\","
+                            + "\"precio\":%s,\"stock\":%d,\"categoria\":\"%s\"}",
+                    i, precio(i), i % 100, CATEGORIAS[i % CATEGORIAS.length]);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                    .build();
+            futuros.add(hilos.submit(() -> {
+                HttpResponse<String> respuesta = cliente.send(request, HttpResponse.BodyHandlers.ofString());
+                if (respuesta.statusCode() != 201) {
+                    throw new IllegalStateException("La creación falló: " + respuesta.statusCode() + " " + respuesta.body());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        hilos.shutdown();
+        creados = Math.max(creados, productos);
+    }
+
+    private static String precio(int i) {
+        return String.format(Locale.ROOT, "%.2f", 1 + (i % 1000) * 1.5);
+    }
+
+    /**
+     * Ejecuta la fase de calentamiento y luego la medición sobre un catálogo
+     * de {@code productos} productos.
+     */
+    public Resultado ejecutar(int productos) throws Exception {
+        correr(calentamiento, productos);
+        return correr(duracion, productos);
+    }
+
+    private Resultado correr(int segundos, int productos) throws Exception {
+        AtomicBoolean detener = new AtomicBoolean(false);
+        AtomicLong respuestasLentas = new AtomicLong();
+        ExecutorService clientes = Executors.newFixedThreadPool(concurrencia + clientesLentos);
+        for (int i = 0; i < clientesLentos; i++) {
+            clientes.submit(() -> clienteLento(detener, respuestasLentas));
+        }
+        List<Future<Resultado>> futuros = new ArrayList<>();
+        for (int i = 0; i < concurrencia; i++) {
+            futuros.add(clientes.submit(() -> clienteVirtual(detener, productos)));
+        }
+
+        long inicio = System.nanoTime();
+        Thread.sleep(segundos * 1000L);
+        detener.set(true);
+
+        Resultado total = new Resultado(etiqueta, concurrencia, productos);
+        for (Future<Resultado> futuro : futuros) {
+            total.sumar(futuro.get());
+        }
+        total.segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        total.respuestasLentas = respuestasLentas.get();
+        total.clientesLentos = clientesLentos;
+        clientes.shutdownNow();
+        return total;
+    }
+
+    private Resultado clienteVirtual(AtomicBoolean detener, int productos) {
+        Resultado resultado = new Resultado(etiqueta, concurrencia, productos);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!detener.get()) {
+            String ruta = random.nextInt(10) == 0
+                    ? "/categoria/" + CATEGORIAS[random.nextInt(CATEGORIAS.length)]
+                    : "/" + (1 + random.nextInt(productos));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + ruta))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> respuesta = cliente.send(request, HttpResponse.BodyHandlers.discarding());
+                long micros = (System.nanoTime() - inicio) / 1_000;
+                if (respuesta.statusCode() < 500) {
+                    resultado.latencias.registrar(micros);
+                } else {
+                    resultado.errores++;
+                }
+            } catch (IOException e) {
+                resultado.errores++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Pide un listado por categoría con un socket de buffer chico y lo lee a
+     * {@code lectura-lenta} bytes por segundo; al terminar, repite. El servidor
+     * no puede escribir más rápido de lo que el cliente lee, así que mantiene la
+     * respuesta en curso (y lo que esta retenga) durante varios segundos.
+     */
+    private void clienteLento(AtomicBoolean detener, AtomicLong respuestasLentas) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long pausaMillis = 1000L * BLOQUE_LECTURA_LENTA / bytesPorSegundoLento;
+        byte[] buffer = new byte[BLOQUE_LECTURA_LENTA];
+        while (!detener.get()) {
+            String ruta = uri.getPath() + "/categoria/" + CATEGORIAS[random.nextInt(CATEGORIAS.length)];
+            try (Socket socket = new Socket()) {
+                socket.setReceiveBufferSize(4096);
+                socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), 5000);
+                OutputStream salida = socket.getOutputStream();
+                salida.write(("GET " + ruta + " HTTP/1.1\r\nHost: " + uri.getHost()
+                        + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                salida.flush();
+                InputStream entrada = socket.getInputStream();
+                while (!detener.get() && entrada.read(buffer) >= 0) {
+                    Thread.sleep(pausaMillis);
+                }
+                if (!detener.get()) {
+                    respuestasLentas.incrementAndGet();
+                }
+            } catch (IOException e) {
+                // El servidor cerró la conexión; se abre otra
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cuenta los productos con una búsqueda de tamaño 1, que devuelve el total
+     * sin transferir el catálogo.
+     */
+    private int contarProductos() throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.send(
+                HttpRequest.newBuilder(URI.create(url + "/search?tamano=1")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher total = TOTAL.matcher(respuesta.body());
+        if (respuesta.statusCode() != 200 || !total.find()) {
+            throw new IllegalStateException("No se pudo contar el catálogo: " + respuesta.statusCode());
+        }
+        return Integer.parseInt(total.group(1));
+    }
+
+    private void importarCsv(String csv) throws IOException, InterruptedException {
+        String limite = "----carga" + UUID.randomUUID();
+        String cuerpo = "--" + limite + "\r\n"
+                + "Content-Disposition: form-data; name=\"archivo\"; filename=\"carga.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + csv + "\r\n--" + limite + "--\r\n";
+        HttpResponse<String> respuesta = cliente.send(
+                HttpRequest.newBuilder(URI.create(url + "/importaciones"))
+                        .header("Content-Type", "multipart/form-data; boundary=" + limite)
+                        .POST(HttpRequest.BodyPublishers.ofString(cuerpo, StandardCharsets.UTF_8))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 202) {
+            throw new IllegalStateException("La importación falló: " + respuesta.statusCode() + " " + respuesta.body());
+        }
+    }
+
+    static Map<String, String> parsearArgumentos(String[] args) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int igual = arg.indexOf('=');
+                parametros.put(arg.substring(2, igual), arg.substring(igual + 1));
+            }
+        }
+        return parametros;
+    }
+
+    /**
+     * Resultado acumulado de una corrida.
+     */
+    public static class Resultado {
+
+        private final String etiqueta;
+        private final int concurrencia;
+        private final int productos;
+        private final HistogramaLatencias latencias = new HistogramaLatencias();
+        private long errores;
+        private double segundos;
+        private int clientesLentos;
+        private long respuestasLentas;
+
+        Resultado(String etiqueta, int concurrencia, int productos) {
+            this.etiqueta = etiqueta;
+            this.concurrencia = concurrencia;
+            this.productos = productos;
+        }
+
+        void sumar(Resultado otro) {
+            latencias.sumar(otro.latencias);
+            errores += otro.errores;
+        }
+
+        public double getRequestsPorSegundo() {
+            return segundos > 0 ? latencias.getTotal() / segundos : 0;
+        }
+
+        public HistogramaLatencias getLatencias() {
+            return latencias;
+        }
+
+        public String formatear() {
+            String linea = String.format(Locale.ROOT,
+                    "%-12s productos=%-8d concurrencia=%-5d req/s=%-10.1f p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms errores=%d",
+                    etiqueta, productos, concurrencia, getRequestsPorSegundo(),
+                    latencias.percentil(50) / 1000.0, latencias.percentil(99) / 1000.0,
+                    latencias.percentil(99.9) / 1000.0, latencias.getMaximo() / 1000.0, errores);
+            if (clientesLentos > 0) {
+                linea += String.format(Locale.ROOT, " lentos=%d respuestas-lentas=%d", clientesLentos, respuestasLentas);
+            }
+            return linea;
+        }
+    }
+}
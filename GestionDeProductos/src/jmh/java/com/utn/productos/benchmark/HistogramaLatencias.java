@@ -0,0 +1,84 @@
+package com.utn.productos.benchmark;
+
+/**
+ * Histograma de latencias de tamaño fijo con error relativo menor al 7%.
+ * Los valores menores a 32 se guardan exactos; a partir de ahí cada potencia
+ * de dos se divide en 16 sub-buckets. No es thread-safe: cada hilo usa el
+ * suyo y al final se combinan con {@link #sumar(HistogramaLatencias)}.
+ */
+public class HistogramaLatencias {
+
+    private static final int EXACTOS = 32;
+    private static final int SUB_BUCKETS = 16;
+
+    private final long[] cuentas = new long[1024];
+    private long total;
+    private long maximo;
+
+    /**
+     * Registra una latencia.
+     * @param valor Latencia en microsegundos
+     */
+    public void registrar(long valor) {
+        long v = Math.max(0, valor);
+        cuentas[indice(v)]++;
+        total++;
+        maximo = Math.max(maximo, v);
+    }
+
+    /**
+     * Acumula las cuentas de otro histograma en este.
+     */
+    public void sumar(HistogramaLatencias otro) {
+        for (int i = 0; i < cuentas.length; i++) {
+            cuentas[i] += otro.cuentas[i];
+        }
+        total += otro.total;
+        maximo = Math.max(maximo, otro.maximo);
+    }
+
+    /**
+     * Devuelve el percentil pedido.
+     * @param percentil Valor entre 0 y 100
+     * @return Límite superior del bucket que contiene el percentil, en microsegundos
+     */
+    public long percentil(double percentil) {
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(total * percentil / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < cuentas.length; i++) {
+            acumulado += cuentas[i];
+            if (acumulado >= Math.max(1, objetivo)) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    private static int indice(long v) {
+        if (v < EXACTOS) {
+            return (int) v;
+        }
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(v) - 4;
+        return EXACTOS + (desplazamiento - 1) * SUB_BUCKETS + (int) ((v >> desplazamiento) - SUB_BUCKETS);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < EXACTOS) {
+            return indice;
+        }
+        int desplazamiento = (indice - EXACTOS) / SUB_BUCKETS + 1;
+        long sub = (indice - EXACTOS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << desplazamiento) - 1;
+    }
+}
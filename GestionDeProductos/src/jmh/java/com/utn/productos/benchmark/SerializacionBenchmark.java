@@ -0,0 +1,78 @@
+package com.utn.productos.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.model.Categoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JMH de serialización de listas de {@link ProductoResponseDTO}
+ * en JSON y CBOR, con mappers construidos igual que en la aplicación.
+ * {@link BenchmarkSerializacion} complementa estos datos con los bytes enviados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private static final TypeReference<List<ProductoResponseDTO>> TIPO_LISTA = new TypeReference<>() {
+    };
+
+    @Param({"100", "1000", "10000"})
+    private int productos;
+
+    @Param({"json", "cbor"})
+    private String formato;
+
+    private ObjectMapper mapper;
+    private List<ProductoResponseDTO> lista;
+    private byte[] serializada;
+
+    @Setup
+    public void iniciar() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("cbor".equals(formato)) {
+            builder.factory(new CBORFactory());
+        }
+        mapper = builder.build();
+
+        Categoria[] categorias = Categoria.values();
+        lista = new ArrayList<>(productos);
+        for (int i = 1; i <= productos; i++) {
+            lista.add(new ProductoResponseDTO((long) i, "Producto " + i, "Descripción del producto número " + i,
+                    1 + (i % 1000) * 1.5, i % 100, categorias[i % categorias.length], (long) (i % 3)));
+        }
+        serializada = mapper.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return mapper.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> deserializar() throws IOException {
+        return mapper.readValue(serializada, TIPO_LISTA);
+    }
+}
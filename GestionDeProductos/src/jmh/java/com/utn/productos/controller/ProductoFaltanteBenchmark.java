@@ -0,0 +1,128 @@
+package com.utn.productos.controller;
+
+import com.utn.productos.ProductosApiApplication;
+import com.utn.productos.exception.GlobalExceptionHandler;
+import com.utn.productos.exception.ProductoNotFoundException;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import com.utn.productos.repository.ProductoBatchRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Throughput de {@code GET /api/productos/{id}} para IDs inexistentes, pasando por
+ * el {@code DispatcherServlet}, el controlador y {@code GlobalExceptionHandler}
+ * (sin la red ni Tomcat).
+ * <p>
+ * Cada iteración consulta uno de {@code faltantes} IDs que no existen, como un bot
+ * que recorre IDs viejos. Con {@code cacheNegativa=false} cada 404 consulta la base
+ * de datos; con {@code true} solo la primera consulta de cada ID. {@code existente}
+ * mide un GET que encuentra el producto, como referencia.
+ * <p>
+ * {@code faltanteControlador} llama directamente al controlador y al handler de la
+ * excepción, sin MockMvc ni serialización: aísla el costo propio del 404 (consulta,
+ * excepción y armado del {@code ErrorResponse}), que en {@code faltante} queda
+ * mezclado con el del {@code DispatcherServlet}.
+ * <p>
+ * Ejecución: {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.clase=org.openjdk.jmh.Main -Dbenchmark.args=ProductoFaltanteBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 20, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ProductoFaltanteBenchmark {
+
+    private static final int PRODUCTOS = 1000;
+
+    @Param({"false", "true"})
+    private boolean cacheNegativa;
+
+    @Param({"1000"})
+    private int faltantes;
+
+    private ConfigurableApplicationContext contexto;
+    private MockMvc mockMvc;
+    private ProductoController controlador;
+    private GlobalExceptionHandler manejador;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(ProductosApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .logStartupInfo(false)
+                // Como argumentos y no como propiedades por defecto, que application.properties pisaría
+                .run("--server.port=0",
+                        "--spring.h2.console.enabled=false",
+                        "--app.cache-negativa.enabled=" + cacheNegativa,
+                        "--logging.level.root=WARN");
+
+        Categoria[] categorias = Categoria.values();
+        List<Producto> productos = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            productos.add(new Producto(null, "Producto " + i, "Producto de benchmark número " + i,
+                    1 + (i % 1000) * 1.5, i % 100, categorias[i % categorias.length], null));
+        }
+        contexto.getBean(ProductoBatchRepository.class).upsertLote(productos);
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto).build();
+        controlador = contexto.getBean(ProductoController.class);
+        manejador = contexto.getBean(GlobalExceptionHandler.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int faltante() throws Exception {
+        long id = PRODUCTOS + 1 + ThreadLocalRandom.current().nextInt(faltantes);
+        return mockMvc.perform(get("/api/productos/" + id)).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public Object faltanteControlador() {
+        long id = PRODUCTOS + 1 + ThreadLocalRandom.current().nextInt(faltantes);
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/productos/" + id));
+        try {
+            return controlador.obtenerPorId(id, request);
+        } catch (ProductoNotFoundException e) {
+            return manejador.handleProductoNotFoundException(e, request);
+        }
+    }
+
+    @Benchmark
+    public int existente() throws Exception {
+        long id = 1 + ThreadLocalRandom.current().nextInt(PRODUCTOS);
+        return mockMvc.perform(get("/api/productos/" + id)).andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,135 @@
+package com.utn.productos.service;
+
+import com.utn.productos.ProductosApiApplication;
+import com.utn.productos.dto.BusquedaProductosDTO;
+import com.utn.productos.dto.FiltroBusquedaDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import com.utn.productos.repository.ProductoBatchRepository;
+import com.utn.productos.repository.ProductoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JMH de {@link ProductoService} contra una base H2 en memoria.
+ * <p>
+ * Levanta el contexto de Spring sin servidor web, carga {@code productos}
+ * productos con el repositorio JDBC y mide cada operación de lectura, además
+ * del costo de {@link ProductoService#convertirAResponse} sobre el catálogo
+ * completo ya cargado en memoria (sin base de datos).
+ * <p>
+ * Ejecución: {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.clase=org.openjdk.jmh.Main -Dbenchmark.args=ProductoServiceBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductoServiceBenchmark {
+
+    private static final int TAMANO_LOTE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    private int productos;
+
+    private ConfigurableApplicationContext contexto;
+    private ProductoService productoService;
+    private List<Producto> entidades;
+    private FiltroBusquedaDTO filtro;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(ProductosApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + productos,
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        ProductoBatchRepository batchRepository = contexto.getBean(ProductoBatchRepository.class);
+        Categoria[] categorias = Categoria.values();
+        List<Producto> lote = new ArrayList<>(TAMANO_LOTE);
+        for (int i = 0; i < productos; i++) {
+            lote.add(new Producto(null, "Producto " + i, "Producto de benchmark número " + i,
+                    1 + (i % 1000) * 1.5, i % 100, categorias[i % categorias.length], null));
+            if (lote.size() == TAMANO_LOTE) {
+                batchRepository.upsertLote(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            batchRepository.upsertLote(lote);
+        }
+
+        productoService = contexto.getBean(ProductoService.class);
+        entidades = contexto.getBean(ProductoRepository.class).findAll();
+
+        filtro = new FiltroBusquedaDTO();
+        filtro.setTexto("producto 1");
+        filtro.setPrecioMin(100.0);
+        filtro.setPrecioMax(500.0);
+        filtro.setCategorias(List.of(Categoria.ELECTRONICA, Categoria.HOGAR));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> obtenerTodos() {
+        return productoService.obtenerTodos();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ProductoResponseDTO obtenerPorId() {
+        return productoService.obtenerPorId(1 + ThreadLocalRandom.current().nextLong(productos));
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> obtenerPorCategoria() {
+        return productoService.obtenerPorCategoria(Categoria.ROPA);
+    }
+
+    @Benchmark
+    public BusquedaProductosDTO buscar() {
+        return productoService.buscar(filtro);
+    }
+
+    /**
+     * Mapeo entidad → DTO del catálogo completo, sin acceso a la base de datos.
+     */
+    @Benchmark
+    public List<ProductoResponseDTO> convertirAResponse() {
+        List<ProductoResponseDTO> resultado = new ArrayList<>(entidades.size());
+        for (Producto producto : entidades) {
+            resultado.add(productoService.convertirAResponse(producto));
+        }
+        return resultado;
+    }
+}
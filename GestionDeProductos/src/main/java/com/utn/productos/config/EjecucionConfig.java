@@ -0,0 +1,54 @@
+package com.utn.productos.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Configuración del modelo de ejecución de la aplicación.
+ * <p>
+ * Por defecto Tomcat atiende cada request en un hilo de plataforma de su pool
+ * y el trabajo {@code @Async} corre en el {@code applicationTaskExecutor}.
+ * Con el perfil {@code virtual} ({@code spring.threads.virtual.enabled=true})
+ * y Java 21, Spring Boot reemplaza ambos por hilos virtuales: el límite de
+ * concurrencia pasa a ser el pool de conexiones de Hikari.
+ * <p>
+ * Con el perfil {@code reactive} la API corre sobre WebFlux y Netty: unos pocos
+ * hilos de event loop atienden todas las conexiones y ningún handler bloquea.
+ */
+@Configuration
+@EnableAsync
+public class EjecucionConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EjecucionConfig.class);
+    
+    private final Environment environment;
+    
+    public EjecucionConfig(Environment environment) {
+        this.environment = environment;
+    }
+    
+    /**
+     * Informa al iniciar qué modelo de hilos quedó activo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void informarModoDeHilos() {
+        boolean solicitado = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (environment.acceptsProfiles(Profiles.of("reactive"))) {
+            logger.info("Modo de ejecución: WebFlux sobre Netty (event loop) y R2DBC");
+        } else if (Threading.VIRTUAL.isActive(environment)) {
+            logger.info("Modo de ejecución: hilos virtuales (Tomcat y @Async)");
+        } else if (solicitado) {
+            logger.warn("Se solicitaron hilos virtuales pero la JVM es Java {}; se requiere Java 21. "
+                    + "Se usan hilos de plataforma", Runtime.version().feature());
+        } else {
+            logger.info("Modo de ejecución: hilos de plataforma (pool de Tomcat)");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.utn.productos.config;
+
+import com.utn.productos.metricas.MetricasJdbcListener;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuración de métricas de la aplicación.
+ * <p>
+ * Spring Boot ya registra {@code http.server.requests} (una serie por método y
+ * URI, es decir, por método del controller), las métricas de Hikari y, con
+ * {@code hibernate.generate_statistics}, las de Hibernate. Esta clase agrega
+ * los timers de {@code @Timed} sobre los servicios y envuelve el DataSource con
+ * datasource-proxy para medir cada sentencia JDBC.
+ */
+@Configuration
+public class MetricasConfig {
+    
+    /**
+     * Habilita {@code @Timed} en beans de Spring.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+    
+    /**
+     * Envuelve el DataSource en un proxy que mide cada ejecución JDBC.
+     * Es estático para no forzar la creación temprana de esta configuración.
+     */
+    @Bean
+    public static BeanPostProcessor metricasDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new MetricasJdbcListener(meterRegistry))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
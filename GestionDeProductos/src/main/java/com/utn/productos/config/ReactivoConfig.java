@@ -0,0 +1,38 @@
+package com.utn.productos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuración del perfil {@code reactive}.
+ * <p>
+ * Spring Boot no crea el {@code DataSource} de JDBC cuando existe un
+ * {@code ConnectionFactory} de R2DBC. Flyway, JPA y los servicios bloqueantes
+ * (modelo de lectura, estadísticas, buffer de stock) lo siguen necesitando, así
+ * que se declara explícitamente con las mismas propiedades {@code spring.datasource.*}.
+ * <p>
+ * Con Tomcat en el classpath Spring Boot también lo prefiere como servidor
+ * reactivo; se declara la fábrica de Netty para atender con su event loop.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactivoConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
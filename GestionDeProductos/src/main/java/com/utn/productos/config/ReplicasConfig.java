@@ -0,0 +1,76 @@
+package com.utn.productos.config;
+
+import com.utn.productos.replicacion.DataSourceEnrutado;
+import com.utn.productos.replicacion.MonitorReplicas;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración de réplicas de lectura ({@code app.replicas.enabled=true}).
+ * <p>
+ * Reemplaza el DataSource de Spring Boot por un {@link DataSourceEnrutado}: las
+ * transacciones {@code readOnly} (las consultas de {@code ProductoService} y los
+ * métodos de lectura de los repositorios) van a una réplica de
+ * {@code app.replicas.urls} y el resto a la primaria ({@code spring.datasource.*}).
+ * Cada réplica tiene su propio pool con la misma configuración de Hikari que la
+ * primaria ({@code spring.datasource.hikari.*}).
+ * <p>
+ * No aplica al perfil {@code reactive}, que declara su propio DataSource.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReplicasConfig {
+
+    @Bean
+    public MonitorReplicas monitorReplicas(DataSourceProperties properties, Environment environment,
+                                           @Value("${app.replicas.urls:}") String[] urls,
+                                           @Value("${app.replicas.username:sa}") String usuario,
+                                           @Value("${app.replicas.password:}") String clave,
+                                           @Value("${app.replicas.latido-ms:250}") long latidoMs,
+                                           @Value("${app.replicas.retraso-maximo-ms:1000}") long retrasoMaximoMs) {
+        HikariDataSource primaria = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primaria));
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            primaria.copyStateTo(replica);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(usuario);
+            replica.setPassword(clave);
+            replica.setReadOnly(true);
+            // Una réplica caída no impide iniciar ni demora una revisión más que el retraso tolerado
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(Math.max(250, retrasoMaximoMs));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        primaria.setPoolName(MonitorReplicas.PRIMARIA);
+        return new MonitorReplicas(primaria, replicas, latidoMs, retrasoMaximoMs);
+    }
+
+    /**
+     * JPA pide la conexión antes de marcar la transacción como de solo lectura: el
+     * proxy la demora hasta la primera sentencia, cuando ya se puede elegir el destino.
+     */
+    @Bean
+    public DataSource dataSource(MonitorReplicas monitorReplicas) {
+        return new LazyConnectionDataSourceProxy(new DataSourceEnrutado(monitorReplicas));
+    }
+}
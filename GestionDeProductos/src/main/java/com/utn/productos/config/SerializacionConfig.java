@@ -0,0 +1,32 @@
+package com.utn.productos.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Formatos de serialización de la API.
+ * <p>
+ * Además de JSON, todos los endpoints aceptan y devuelven CBOR
+ * ({@code application/cbor}), un formato binario con el mismo modelo de datos
+ * que resulta más compacto y más barato de generar para listados grandes.
+ * El formato se elige con los encabezados {@code Accept} y {@code Content-Type}.
+ */
+@Configuration
+public class SerializacionConfig {
+    
+    /**
+     * Conversor CBOR con la misma configuración de Jackson que el conversor JSON
+     * (módulos, formato de fechas, etc.). Spring Boot registra automáticamente
+     * todo {@code HttpMessageConverter} declarado como bean.
+     * @param builder Builder de Jackson configurado por Spring Boot
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+}
@@ -0,0 +1,61 @@
+package com.utn.productos.controller;
+
+import com.utn.productos.service.FlujoCambiosService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controlador que expone los cambios del catálogo como Server-Sent Events.
+ */
+@RestController
+@RequestMapping("/api/productos/cambios")
+@Profile("!reactive")
+@Tag(name = "Cambios", description = "Flujo de cambios de productos (Server-Sent Events)")
+public class CambiosController {
+    
+    private final FlujoCambiosService flujoCambiosService;
+    
+    /**
+     * Constructor con inyección de dependencias.
+     * @param flujoCambiosService Servicio del flujo de cambios
+     */
+    public CambiosController(FlujoCambiosService flujoCambiosService) {
+        this.flujoCambiosService = flujoCambiosService;
+    }
+    
+    /**
+     * Se suscribe al flujo de cambios.
+     * Sin Last-Event-ID (ni {@code desde}) recibe solo los cambios posteriores a la suscripción.
+     * @param lastEventId ID del último evento recibido, enviado por el cliente SSE al reconectarse
+     * @param desde Alternativa a Last-Event-ID para clientes que no pueden enviar la cabecera
+     * @return Flujo de eventos
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse a los cambios", 
+               description = "Eventos CREADO, ACTUALIZADO, STOCK_ACTUALIZADO, ELIMINADO y CATALOGO_MODIFICADO " +
+                             "después de cada commit. Se reanuda con Last-Event-ID; REINICIO indica que se " +
+                             "perdieron eventos y hay que volver a leer el catálogo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suscripción iniciada"),
+        @ApiResponse(responseCode = "503", description = "Se alcanzó el máximo de suscriptores")
+    })
+    public ResponseEntity<SseEmitter> suscribir(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(description = "ID del último evento recibido")
+            @RequestParam(value = "desde", required = false) String desde) {
+        SseEmitter emitter = flujoCambiosService.suscribir(lastEventId != null ? lastEventId : desde);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -0,0 +1,69 @@
+package com.utn.productos.controller;
+
+import com.utn.productos.dto.ImportacionEstadoDTO;
+import com.utn.productos.service.ImportacionProductoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * Controlador REST para la importación masiva de catálogos de productos.
+ */
+@RestController
+@RequestMapping("/api/productos/importaciones")
+@Profile("!reactive")
+@Tag(name = "Importaciones", description = "Importación masiva de productos desde archivos CSV")
+public class ImportacionController {
+    
+    private final ImportacionProductoService importacionService;
+    
+    /**
+     * Constructor con inyección de dependencias.
+     * @param importacionService Servicio de importación
+     */
+    public ImportacionController(ImportacionProductoService importacionService) {
+        this.importacionService = importacionService;
+    }
+    
+    /**
+     * Inicia la importación de un catálogo CSV.
+     * @param archivo Archivo CSV con cabecera (id, nombre, descripcion, precio, stock, categoria)
+     * @return Estado inicial de la importación
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Importar catálogo CSV", 
+               description = "Inicia en segundo plano la importación de un archivo CSV de productos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Importación iniciada")
+    })
+    public ResponseEntity<ImportacionEstadoDTO> importar(@RequestParam("archivo") MultipartFile archivo) 
+            throws IOException {
+        ImportacionEstadoDTO estado = importacionService.iniciarImportacion(archivo);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(estado);
+    }
+    
+    /**
+     * Consulta el progreso de una importación.
+     * @param id ID de la importación
+     * @return Estado de la importación
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar progreso de importación", 
+               description = "Devuelve filas leídas, importadas, rechazadas y filas por segundo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado obtenido"),
+        @ApiResponse(responseCode = "404", description = "Importación no encontrada")
+    })
+    public ResponseEntity<ImportacionEstadoDTO> obtenerEstado(@PathVariable String id) {
+        return ResponseEntity.ok(importacionService.obtenerEstado(id));
+    }
+}
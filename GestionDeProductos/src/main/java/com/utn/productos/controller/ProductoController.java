@@ -1,58 +1,107 @@
 package com.utn.productos.controller;
 
 import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.BusquedaProductosDTO;
+import com.utn.productos.dto.EstadisticaCategoriaDTO;
+import com.utn.productos.dto.FiltroBusquedaDTO;
 import com.utn.productos.dto.ProductoDTO;
 import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.exception.ProductoNotFoundException;
+import com.utn.productos.exception.VersionConflictoException;
 import com.utn.productos.model.Categoria;
+import com.utn.productos.replicacion.DataSourceEnrutado;
+import com.utn.productos.service.CacheNegativaService;
+import com.utn.productos.service.EstadisticasProductoService;
+import com.utn.productos.service.ModeloLecturaService;
 import com.utn.productos.service.ProductoService;
+import com.utn.productos.service.VersionCatalogoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Controlador REST para la gestión de productos.
  * Expone endpoints para operaciones CRUD sobre productos.
+ * Las lecturas se responden desde el modelo de lectura en memoria cuando está
+ * cargado, y desde la base de datos en caso contrario.
+ * Los IDs que ya se sabe que no existen responden 404 sin consultar ninguno de los dos.
  */
 @RestController
 @RequestMapping("/api/productos")
+@Profile("!reactive")
 @Tag(name = "Productos", description = "API REST para gestión de productos")
 public class ProductoController {
     
     private final ProductoService productoService;
+    private final EstadisticasProductoService estadisticasService;
+    private final VersionCatalogoService versionCatalogoService;
+    private final ModeloLecturaService modeloLectura;
+    private final CacheNegativaService cacheNegativa;
     
     /**
      * Constructor con inyección de dependencias.
      * @param productoService Servicio de productos
+     * @param estadisticasService Servicio de estadísticas de inventario
+     * @param versionCatalogoService Servicio que genera los ETags de los listados
+     * @param modeloLectura Modelo de lectura del catálogo en memoria
+     * @param cacheNegativa Caché de IDs inexistentes
      */
-    public ProductoController(ProductoService productoService) {
+    public ProductoController(ProductoService productoService, 
+                              EstadisticasProductoService estadisticasService,
+                              VersionCatalogoService versionCatalogoService,
+                              ModeloLecturaService modeloLectura,
+                              CacheNegativaService cacheNegativa) {
         this.productoService = productoService;
+        this.estadisticasService = estadisticasService;
+        this.versionCatalogoService = versionCatalogoService;
+        this.modeloLectura = modeloLectura;
+        this.cacheNegativa = cacheNegativa;
     }
     
     /**
      * Lista todos los productos disponibles.
+     * Si el catálogo no cambió desde el ETag del cliente responde 304 sin consultar la base de datos.
+     * El ETag cuenta las escrituras confirmadas, así que el listado se lee de la primaria:
+     * una réplica atrasada devolvería datos viejos con el ETag nuevo.
+     * @param request Request con la cabecera If-None-Match
      * @return Lista de productos
      */
     @GetMapping
     @Operation(summary = "Listar todos los productos", 
                description = "Obtiene la lista completa de productos disponibles en el sistema")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista obtenida exitosamente")
+        @ApiResponse(responseCode = "200", description = "Lista obtenida exitosamente"),
+        @ApiResponse(responseCode = "304", description = "El catálogo no cambió")
     })
-    public ResponseEntity<List<ProductoResponseDTO>> listarTodos() {
-        List<ProductoResponseDTO> productos = productoService.obtenerTodos();
-        return ResponseEntity.ok(productos);
+    public ResponseEntity<List<ProductoResponseDTO>> listarTodos(WebRequest request) {
+        String etag = versionCatalogoService.etagListado();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<ProductoResponseDTO> productos = modeloLectura.obtenerTodos()
+                .orElseGet(() -> DataSourceEnrutado.enPrimaria(productoService::obtenerTodos));
+        return ResponseEntity.ok().eTag(etag).body(productos);
     }
     
     /**
      * Obtiene un producto específico por su ID.
+     * Con If-None-Match solo se consulta la versión del producto y, si coincide,
+     * se responde 304 sin cargar ni serializar el producto. Mientras el producto
+     * tenga stock pendiente de escritura la versión no lo identifica, así que se
+     * responde siempre el producto completo y sin ETag.
      * @param id ID del producto
+     * @param request Request con la cabecera If-None-Match
      * @return Producto encontrado
      */
     @GetMapping("/{id}")
@@ -60,15 +109,31 @@ public class ProductoController {
                description = "Busca y retorna un producto específico por su identificador")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Producto encontrado"),
+        @ApiResponse(responseCode = "304", description = "El producto no cambió"),
         @ApiResponse(responseCode = "404", description = "Producto no encontrado")
     })
-    public ResponseEntity<ProductoResponseDTO> obtenerPorId(@PathVariable Long id) {
-        ProductoResponseDTO producto = productoService.obtenerPorId(id);
-        return ResponseEntity.ok(producto);
+    public ResponseEntity<ProductoResponseDTO> obtenerPorId(@PathVariable Long id, WebRequest request) {
+        if (cacheNegativa.contiene(id)) {
+            throw new ProductoNotFoundException(id);
+        }
+        if (productoService.tieneStockPendiente(id)) {
+            return ResponseEntity.ok(buscarPorId(id));
+        }
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = modeloLectura.isDisponible()
+                    ? modeloLectura.obtenerVersion(id)
+                    : productoService.obtenerVersion(id);
+            if (version.isPresent() && request.checkNotModified(etag(id, version.get()))) {
+                return null;
+            }
+        }
+        ProductoResponseDTO producto = buscarPorId(id);
+        return ResponseEntity.ok().eTag(etag(producto)).body(producto);
     }
     
     /**
-     * Filtra productos por categoría.
+     * Filtra productos por categoría. Como el listado completo, se lee de la primaria
+     * para que el ETag corresponda a los datos.
      * @param categoria Categoría a filtrar
      * @return Lista de productos de la categoría especificada
      */
@@ -76,11 +141,53 @@ public class ProductoController {
     @Operation(summary = "Filtrar productos por categoría", 
                description = "Obtiene todos los productos que pertenecen a una categoría específica")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Productos filtrados exitosamente")
+        @ApiResponse(responseCode = "200", description = "Productos filtrados exitosamente"),
+        @ApiResponse(responseCode = "304", description = "La categoría no cambió")
     })
-    public ResponseEntity<List<ProductoResponseDTO>> obtenerPorCategoria(@PathVariable Categoria categoria) {
-        List<ProductoResponseDTO> productos = productoService.obtenerPorCategoria(categoria);
-        return ResponseEntity.ok(productos);
+    public ResponseEntity<List<ProductoResponseDTO>> obtenerPorCategoria(@PathVariable Categoria categoria, 
+                                                                         WebRequest request) {
+        String etag = versionCatalogoService.etagCategoria(categoria);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<ProductoResponseDTO> productos = modeloLectura.obtenerPorCategoria(categoria)
+                .orElseGet(() -> DataSourceEnrutado.enPrimaria(() -> productoService.obtenerPorCategoria(categoria)));
+        return ResponseEntity.ok().eTag(etag).body(productos);
+    }
+    
+    /**
+     * Busca productos combinando filtros y devuelve facetas por categoría.
+     * @param filtro Filtros de texto, precio, stock y categorías, con paginación y orden
+     * @return Página de productos y cantidad de productos por categoría
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Buscar productos con filtros", 
+               description = "Filtra por texto en nombre/descripción, rango de precio, stock disponible y " +
+                             "categorías. Devuelve la página pedida y la cantidad de productos por categoría")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Búsqueda realizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Parámetros de búsqueda inválidos")
+    })
+    public ResponseEntity<BusquedaProductosDTO> buscar(@Valid FiltroBusquedaDTO filtro) {
+        BusquedaProductosDTO resultado = modeloLectura.buscar(filtro)
+                .orElseGet(() -> productoService.buscar(filtro));
+        return ResponseEntity.ok(resultado);
+    }
+    
+    /**
+     * Obtiene estadísticas de inventario por categoría.
+     * @return Cantidad, stock total, valor del stock y rango de precios de cada categoría
+     */
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Estadísticas por categoría", 
+               description = "Cantidad de productos, stock total, valor del stock (precio * stock) " +
+                             "y precios mínimo y máximo de cada categoría")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
+    })
+    public ResponseEntity<List<EstadisticaCategoriaDTO>> obtenerEstadisticas() {
+        List<EstadisticaCategoriaDTO> estadisticas = estadisticasService.obtenerEstadisticas();
+        return ResponseEntity.ok(estadisticas);
     }
     
     /**
@@ -97,13 +204,16 @@ public class ProductoController {
     })
     public ResponseEntity<ProductoResponseDTO> crear(@Valid @RequestBody ProductoDTO dto) {
         ProductoResponseDTO productoCreado = productoService.crearProducto(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(productoCreado);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(productoCreado)).body(productoCreado);
     }
     
     /**
      * Actualiza un producto existente.
+     * Si se envía If-Match con el ETag leído, la actualización solo se aplica
+     * cuando el producto no fue modificado desde entonces.
      * @param id ID del producto a actualizar
      * @param dto DTO con los nuevos datos del producto
+     * @param ifMatch ETag del producto leído por el cliente (opcional)
      * @return Producto actualizado
      */
     @PutMapping("/{id}")
@@ -112,13 +222,17 @@ public class ProductoController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Producto actualizado exitosamente"),
         @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
-        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos")
+        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+        @ApiResponse(responseCode = "409", description = "Modificación concurrente del producto"),
+        @ApiResponse(responseCode = "412", description = "El producto cambió desde el ETag indicado")
     })
     public ResponseEntity<ProductoResponseDTO> actualizar(
             @PathVariable Long id, 
-            @Valid @RequestBody ProductoDTO dto) {
-        ProductoResponseDTO productoActualizado = productoService.actualizarProducto(id, dto);
-        return ResponseEntity.ok(productoActualizado);
+            @Valid @RequestBody ProductoDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductoResponseDTO productoActualizado = 
+                productoService.actualizarProducto(id, dto, versionDeIfMatch(id, ifMatch));
+        return ResponseEntity.ok().eTag(etag(productoActualizado)).body(productoActualizado);
     }
     
     /**
@@ -139,7 +253,10 @@ public class ProductoController {
             @PathVariable Long id, 
             @Valid @RequestBody ActualizarStockDTO dto) {
         ProductoResponseDTO productoActualizado = productoService.actualizarStock(id, dto);
-        return ResponseEntity.ok(productoActualizado);
+        if (productoService.tieneStockPendiente(id)) {
+            return ResponseEntity.ok(productoActualizado);
+        }
+        return ResponseEntity.ok().eTag(etag(productoActualizado)).body(productoActualizado);
     }
     
     /**
@@ -158,4 +275,45 @@ public class ProductoController {
         productoService.eliminarProducto(id);
         return ResponseEntity.noContent().build();
     }
+    
+    /**
+     * Obtiene un producto del modelo de lectura o, si no está cargado, de la base de datos.
+     * La excepción del 404 se lanza acá, fuera de la transacción del servicio.
+     */
+    private ProductoResponseDTO buscarPorId(Long id) {
+        return modeloLectura.obtenerPorId(id).orElseGet(() -> productoService.buscarPorId(id)
+                .orElseThrow(() -> new ProductoNotFoundException(id)));
+    }
+    
+    /**
+     * ETag fuerte de un producto, derivado de su ID y su versión.
+     */
+    private static String etag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+    
+    private static String etag(ProductoResponseDTO producto) {
+        return etag(producto.getId(), producto.getVersion());
+    }
+    
+    /**
+     * Obtiene la versión esperada a partir de la cabecera If-Match.
+     * @return La versión, o null si no hay cabecera o es "*"
+     * @throws VersionConflictoException si el ETag no corresponde a este producto
+     */
+    private static Long versionDeIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        String prefijo = "\"" + id + "-";
+        if (valor.startsWith(prefijo) && valor.endsWith("\"")) {
+            try {
+                return Long.valueOf(valor.substring(prefijo.length(), valor.length() - 1));
+            } catch (NumberFormatException e) {
+                // ETag con formato inválido: se trata como no coincidente
+            }
+        }
+        throw new VersionConflictoException("El ETag " + valor + " no corresponde al producto con ID " + id);
+    }
 }
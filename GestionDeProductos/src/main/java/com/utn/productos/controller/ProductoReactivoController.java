@@ -0,0 +1,121 @@
+package com.utn.productos.controller;
+
+import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.service.ProductoReactivoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST de productos sobre WebFlux, activo con el perfil {@code reactive}.
+ * Expone las mismas rutas CRUD que {@link ProductoController}; los listados se
+ * devuelven como {@link Flux} y se escriben a medida que llegan las filas
+ * (como arreglo JSON, o un objeto por línea con {@code Accept: application/x-ndjson}).
+ * <p>
+ * No incluye la búsqueda, las estadísticas, la importación, el flujo de cambios
+ * ni los ETags, que siguen disponibles solo en el stack servlet.
+ */
+@RestController
+@RequestMapping("/api/productos")
+@Profile("reactive")
+@Tag(name = "Productos (reactivo)", description = "API REST reactiva para gestión de productos")
+public class ProductoReactivoController {
+    
+    private final ProductoReactivoService productoService;
+    
+    /**
+     * Constructor con inyección de dependencias.
+     * @param productoService Servicio reactivo de productos
+     */
+    public ProductoReactivoController(ProductoReactivoService productoService) {
+        this.productoService = productoService;
+    }
+    
+    /**
+     * Lista todos los productos.
+     * @return Flujo de productos ordenados por ID
+     */
+    @GetMapping
+    @Operation(summary = "Listar todos los productos")
+    public Flux<ProductoResponseDTO> listarTodos() {
+        return productoService.obtenerTodos();
+    }
+    
+    /**
+     * Obtiene un producto específico por su ID.
+     * @param id ID del producto
+     * @return Producto encontrado
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener producto por ID")
+    public Mono<ProductoResponseDTO> obtenerPorId(@PathVariable Long id) {
+        return productoService.obtenerPorId(id);
+    }
+    
+    /**
+     * Filtra productos por categoría.
+     * @param categoria Categoría a filtrar
+     * @return Flujo de productos de la categoría
+     */
+    @GetMapping("/categoria/{categoria}")
+    @Operation(summary = "Filtrar productos por categoría")
+    public Flux<ProductoResponseDTO> obtenerPorCategoria(@PathVariable Categoria categoria) {
+        return productoService.obtenerPorCategoria(categoria);
+    }
+    
+    /**
+     * Crea un nuevo producto.
+     * @param dto DTO con los datos del producto a crear
+     * @return Producto creado
+     */
+    @PostMapping
+    @Operation(summary = "Crear un nuevo producto")
+    public Mono<ResponseEntity<ProductoResponseDTO>> crear(@Valid @RequestBody ProductoDTO dto) {
+        return productoService.crearProducto(dto)
+                .map(producto -> ResponseEntity.status(HttpStatus.CREATED).body(producto));
+    }
+    
+    /**
+     * Actualiza un producto existente.
+     * @param id ID del producto a actualizar
+     * @param dto DTO con los nuevos datos del producto
+     * @return Producto actualizado
+     */
+    @PutMapping("/{id}")
+    @Operation(summary = "Actualizar producto existente")
+    public Mono<ProductoResponseDTO> actualizar(@PathVariable Long id, @Valid @RequestBody ProductoDTO dto) {
+        return productoService.actualizarProducto(id, dto);
+    }
+    
+    /**
+     * Actualiza únicamente el stock de un producto.
+     * @param id ID del producto
+     * @param dto DTO con el nuevo stock
+     * @return Producto con stock actualizado
+     */
+    @PatchMapping("/{id}/stock")
+    @Operation(summary = "Actualizar solo el stock del producto")
+    public Mono<ProductoResponseDTO> actualizarStock(@PathVariable Long id, @Valid @RequestBody ActualizarStockDTO dto) {
+        return productoService.actualizarStock(id, dto);
+    }
+    
+    /**
+     * Elimina un producto por su ID.
+     * @param id ID del producto a eliminar
+     * @return Respuesta sin contenido
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Eliminar producto por ID")
+    public Mono<ResponseEntity<Void>> eliminar(@PathVariable Long id) {
+        return productoService.eliminarProducto(id).thenReturn(ResponseEntity.noContent().build());
+    }
+}
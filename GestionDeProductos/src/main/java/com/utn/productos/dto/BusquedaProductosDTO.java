@@ -0,0 +1,25 @@
+package com.utn.productos.dto;
+
+import com.utn.productos.model.Categoria;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con el resultado de una búsqueda de productos.
+ * Incluye la página pedida y la cantidad de productos por categoría (facetas).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaProductosDTO {
+    
+    private List<ProductoResponseDTO> productos;
+    private long total;
+    private int pagina;
+    private int tamano;
+    private Map<Categoria, Long> facetas;
+}
@@ -0,0 +1,28 @@
+package com.utn.productos.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un evento del flujo de cambios del catálogo.
+ * Solo se incluyen los campos que aplican a cada tipo:
+ * {@code producto} en altas y actualizaciones, {@code stock} en cambios de stock,
+ * {@code filas} en modificaciones masivas ({@code CATALOGO_MODIFICADO}) y
+ * {@code desde} en {@code REINICIO}, que indica que se perdieron eventos y el
+ * cliente debe volver a leer el catálogo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CambioProductoDTO {
+    
+    private String tipo;
+    private Long id;
+    private ProductoResponseDTO producto;
+    private Integer stock;
+    private Integer filas;
+    private String desde;
+}
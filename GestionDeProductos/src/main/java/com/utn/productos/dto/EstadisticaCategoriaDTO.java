@@ -0,0 +1,23 @@
+package com.utn.productos.dto;
+
+import com.utn.productos.model.Categoria;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las estadísticas de inventario de una categoría.
+ * Los precios mínimo y máximo son null si la categoría no tiene productos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaCategoriaDTO {
+    
+    private Categoria categoria;
+    private long cantidad;
+    private long stockTotal;
+    private double valorStock;
+    private Double precioMinimo;
+    private Double precioMaximo;
+}
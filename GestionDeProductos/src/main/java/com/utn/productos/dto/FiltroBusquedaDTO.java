@@ -0,0 +1,48 @@
+package com.utn.productos.dto;
+
+import com.utn.productos.model.Categoria;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los filtros de la búsqueda de productos.
+ * Se completa a partir de los parámetros de la URL; todos son opcionales.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroBusquedaDTO {
+    
+    @Size(max = 100, message = "El texto no puede exceder los 100 caracteres")
+    private String texto;
+    
+    @Min(value = 0, message = "El precio mínimo no puede ser negativo")
+    private Double precioMin;
+    
+    @Min(value = 0, message = "El precio máximo no puede ser negativo")
+    private Double precioMax;
+    
+    private Boolean conStock;
+    
+    private List<Categoria> categorias;
+    
+    @Min(value = 0, message = "La página no puede ser negativa")
+    private int pagina = 0;
+    
+    @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+    @Max(value = 100, message = "El tamaño de página no puede superar 100")
+    private int tamano = 20;
+    
+    @Pattern(regexp = "id|nombre|precio", message = "El orden debe ser id, nombre o precio")
+    private String orden = "id";
+    
+    @Pattern(regexp = "asc|desc", message = "La dirección debe ser asc o desc")
+    private String direccion = "asc";
+}
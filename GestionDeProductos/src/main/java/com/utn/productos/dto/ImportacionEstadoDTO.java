@@ -0,0 +1,29 @@
+package com.utn.productos.dto;
+
+import com.utn.productos.model.EstadoImportacion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con el progreso de una importación de catálogo CSV.
+ * Es una foto del estado del job en el momento de la consulta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacionEstadoDTO {
+    
+    private String id;
+    private EstadoImportacion estado;
+    private long filasLeidas;
+    private long filasImportadas;
+    private long filasRechazadas;
+    private double filasPorSegundo;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private List<String> errores;
+}
@@ -20,4 +20,5 @@ public class ProductoResponseDTO {
     private Double precio;
     private Integer stock;
     private Categoria categoria;
+    private Long version;
 }
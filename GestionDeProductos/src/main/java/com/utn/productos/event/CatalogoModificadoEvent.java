@@ -0,0 +1,11 @@
+package com.utn.productos.event;
+
+/**
+ * Evento publicado cuando el catálogo se modifica en bloque (por ejemplo, al terminar
+ * una importación CSV) sin detalle por producto. Los listeners deben descartar cualquier
+ * información derivada del catálogo completo.
+ *
+ * @param filas Cantidad de filas escritas
+ */
+public record CatalogoModificadoEvent(int filas) {
+}
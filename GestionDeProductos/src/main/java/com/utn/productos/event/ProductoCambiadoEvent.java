@@ -0,0 +1,15 @@
+package com.utn.productos.event;
+
+import com.utn.productos.dto.ProductoResponseDTO;
+
+/**
+ * Evento publicado por {@code ProductoService} cada vez que se modifica un producto.
+ * Los listeners lo reciben después del commit de la transacción.
+ *
+ * @param tipo Tipo de cambio
+ * @param id ID del producto
+ * @param anterior Estado previo del producto (null si fue creado)
+ * @param actual Estado nuevo del producto (null si fue eliminado)
+ */
+public record ProductoCambiadoEvent(TipoCambio tipo, Long id, ProductoResponseDTO anterior, ProductoResponseDTO actual) {
+}
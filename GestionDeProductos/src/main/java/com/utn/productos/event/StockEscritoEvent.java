@@ -0,0 +1,13 @@
+package com.utn.productos.event;
+
+import java.util.List;
+
+/**
+ * Evento publicado por {@code BufferStockService} después de escribir en la base de
+ * datos un lote de stock diferido. Cada producto del lote incrementó su versión,
+ * que los listeners no conocen: deben releer los productos si la necesitan.
+ *
+ * @param ids IDs de los productos escritos
+ */
+public record StockEscritoEvent(List<Long> ids) {
+}
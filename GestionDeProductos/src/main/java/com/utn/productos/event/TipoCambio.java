@@ -0,0 +1,11 @@
+package com.utn.productos.event;
+
+/**
+ * Enum que representa los tipos de cambio que puede sufrir un producto.
+ */
+public enum TipoCambio {
+    CREADO,
+    ACTUALIZADO,
+    STOCK_ACTUALIZADO,
+    ELIMINADO
+}
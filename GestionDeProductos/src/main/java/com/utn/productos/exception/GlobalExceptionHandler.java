@@ -1,11 +1,17 @@
 package com.utn.productos.exception;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
@@ -13,10 +19,17 @@ import java.util.stream.Collectors;
 /**
  * Manejador global de excepciones para la API.
  * Captura y procesa las excepciones lanzadas en los controladores.
+ * <p>
+ * Los 404 de productos pueden llegar a un ritmo alto (bots, clientes con IDs
+ * viejos), así que el camino común solo arma el {@link ErrorResponse}: la ruta
+ * se toma directamente del request, sin pasar por {@link WebRequest#getDescription}.
  */
 @ControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
     
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    
     /**
      * Maneja la excepción cuando no se encuentra un producto.
      */
@@ -24,15 +37,38 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleProductoNotFoundException(
             ProductoNotFoundException ex, 
             WebRequest request) {
-        
-        ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.NOT_FOUND.value(),
-                ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
-        );
-        
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return respuesta(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+    }
+    
+    /**
+     * Maneja la excepción cuando no se encuentra una importación.
+     */
+    @ExceptionHandler(ImportacionNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleImportacionNotFoundException(
+            ImportacionNotFoundException ex, 
+            WebRequest request) {
+        return respuesta(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+    }
+    
+    /**
+     * Maneja la excepción cuando la versión indicada en If-Match no es la actual.
+     */
+    @ExceptionHandler(VersionConflictoException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflictoException(
+            VersionConflictoException ex, 
+            WebRequest request) {
+        return respuesta(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request);
+    }
+    
+    /**
+     * Maneja el conflicto de bloqueo optimista entre dos actualizaciones concurrentes.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex, 
+            WebRequest request) {
+        return respuesta(HttpStatus.CONFLICT,
+                "El producto fue modificado por otra operación; vuelva a leerlo e intente nuevamente", request);
     }
     
     /**
@@ -49,31 +85,54 @@ public class GlobalExceptionHandler {
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .collect(Collectors.joining(", "));
         
-        ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.BAD_REQUEST.value(),
-                "Error de validación: " + errores,
-                request.getDescription(false).replace("uri=", "")
-        );
-        
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respuesta(HttpStatus.BAD_REQUEST, "Error de validación: " + errores, request);
+    }
+    
+    /**
+     * Maneja la subida de un archivo que supera spring.servlet.multipart.max-file-size
+     * o max-request-size.
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededException(
+            MaxUploadSizeExceededException ex, 
+            WebRequest request) {
+        return respuesta(HttpStatus.PAYLOAD_TOO_LARGE,
+                "El archivo supera el tamaño máximo permitido para las importaciones", request);
     }
     
     /**
      * Maneja excepciones genéricas no capturadas por otros handlers.
+     * El detalle se registra en el log y no se expone al cliente.
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(
             Exception ex, 
             WebRequest request) {
-        
+        String ruta = ruta(request);
+        logger.error("Error no controlado en {}", ruta, ex);
+        return new ResponseEntity<>(
+                new ErrorResponse(LocalDateTime.now(), HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                        "Error interno del servidor", ruta),
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+    
+    private static ResponseEntity<ErrorResponse> respuesta(HttpStatus status, String mensaje, WebRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(
                 LocalDateTime.now(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Error interno del servidor: " + ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
+                status.value(),
+                mensaje,
+                ruta(request)
         );
-        
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return new ResponseEntity<>(errorResponse, status);
+    }
+    
+    /**
+     * Ruta del request, sin el prefijo {@code uri=} de {@link WebRequest#getDescription}.
+     */
+    private static String ruta(WebRequest request) {
+        if (request instanceof ServletWebRequest servletRequest) {
+            return servletRequest.getRequest().getRequestURI();
+        }
+        return request.getDescription(false).replace("uri=", "");
     }
 }
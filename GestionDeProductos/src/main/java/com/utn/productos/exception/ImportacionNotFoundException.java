@@ -0,0 +1,11 @@
+package com.utn.productos.exception;
+
+/**
+ * Excepción personalizada para cuando no se encuentra una importación.
+ */
+public class ImportacionNotFoundException extends RuntimeException {
+    
+    public ImportacionNotFoundException(String id) {
+        super("Importación no encontrada con ID: " + id);
+    }
+}
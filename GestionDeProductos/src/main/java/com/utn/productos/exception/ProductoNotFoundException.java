@@ -2,14 +2,18 @@ package com.utn.productos.exception;
 
 /**
  * Excepción personalizada para cuando no se encuentra un producto.
+ * <p>
+ * Se traduce siempre a un 404 y nunca se registra en el log, así que no captura
+ * la traza de la pila: construirla era el costo principal de cada consulta a un
+ * ID inexistente.
  */
 public class ProductoNotFoundException extends RuntimeException {
     
     public ProductoNotFoundException(String mensaje) {
-        super(mensaje);
+        super(mensaje, null, false, false);
     }
     
     public ProductoNotFoundException(Long id) {
-        super("Producto no encontrado con ID: " + id);
+        this("Producto no encontrado con ID: " + id);
     }
 }
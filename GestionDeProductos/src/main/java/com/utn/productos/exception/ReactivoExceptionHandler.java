@@ -0,0 +1,98 @@
+package com.utn.productos.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+/**
+ * Manejador de excepciones del stack reactivo (perfil {@code reactive}).
+ * Devuelve el mismo {@link ErrorResponse} que {@link GlobalExceptionHandler},
+ * que depende de tipos del stack servlet.
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactivoExceptionHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactivoExceptionHandler.class);
+    
+    /**
+     * Maneja la excepción cuando no se encuentra un producto.
+     */
+    @ExceptionHandler(ProductoNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleProductoNotFoundException(
+            ProductoNotFoundException ex, 
+            ServerHttpRequest request) {
+        return respuesta(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+    }
+    
+    /**
+     * Maneja el conflicto de bloqueo optimista entre dos actualizaciones concurrentes.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, 
+            ServerHttpRequest request) {
+        return respuesta(HttpStatus.CONFLICT,
+                "El producto fue modificado por otra operación; vuelva a leerlo e intente nuevamente", request);
+    }
+    
+    /**
+     * Maneja las excepciones de validación de datos.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(
+            WebExchangeBindException ex, 
+            ServerHttpRequest request) {
+        String errores = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        return respuesta(HttpStatus.BAD_REQUEST, "Error de validación: " + errores, request);
+    }
+    
+    /**
+     * Maneja los errores de WebFlux que ya traen su código (cuerpo ilegible, parámetro inválido, etc.).
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(
+            ResponseStatusException ex, 
+            ServerHttpRequest request) {
+        return respuesta(ex.getStatusCode(), ex.getReason(), request);
+    }
+    
+    /**
+     * Maneja excepciones genéricas no capturadas por otros handlers.
+     * El detalle se registra en el log y no se expone al cliente.
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(
+            Exception ex, 
+            ServerHttpRequest request) {
+        logger.error("Error no controlado en {}", request.getPath().value(), ex);
+        return respuesta(HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor", request);
+    }
+    
+    private static ResponseEntity<ErrorResponse> respuesta(HttpStatusCode status, String mensaje,
+                                                           ServerHttpRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                mensaje,
+                request.getPath().value()
+        );
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
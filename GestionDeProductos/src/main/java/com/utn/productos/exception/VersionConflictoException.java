@@ -0,0 +1,16 @@
+package com.utn.productos.exception;
+
+/**
+ * Excepción para cuando la versión del producto indicada por el cliente
+ * (cabecera If-Match) no coincide con la versión actual.
+ */
+public class VersionConflictoException extends RuntimeException {
+    
+    public VersionConflictoException(String mensaje) {
+        super(mensaje);
+    }
+    
+    public VersionConflictoException(Long id, Long versionActual) {
+        super("El producto con ID " + id + " fue modificado (versión actual: " + versionActual + ")");
+    }
+}
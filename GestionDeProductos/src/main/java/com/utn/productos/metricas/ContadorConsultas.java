@@ -0,0 +1,63 @@
+package com.utn.productos.metricas;
+
+/**
+ * Acumula las sentencias JDBC ejecutadas por el request HTTP en curso.
+ * <p>
+ * {@link MetricasRequestFilter} inicia el conteo al recibir el request y lo
+ * finaliza al responder; {@link MetricasJdbcListener} suma cada ejecución.
+ * Las sentencias ejecutadas fuera de un request (importaciones en segundo
+ * plano, migraciones) no se cuentan.
+ */
+public final class ContadorConsultas {
+    
+    private static final ThreadLocal<ContadorConsultas> ACTUAL = new ThreadLocal<>();
+    
+    private int consultas;
+    private long nanosJdbc;
+    
+    private ContadorConsultas() {
+    }
+    
+    /**
+     * Inicia el conteo para el hilo actual.
+     * @return El contador del request
+     */
+    static ContadorConsultas iniciar() {
+        ContadorConsultas contador = new ContadorConsultas();
+        ACTUAL.set(contador);
+        return contador;
+    }
+    
+    /**
+     * Termina el conteo del hilo actual.
+     */
+    static void finalizar() {
+        ACTUAL.remove();
+    }
+    
+    /**
+     * Registra una ejecución JDBC en el contador del hilo actual, si hay uno.
+     * @param nanos Duración de la ejecución
+     */
+    static void registrar(long nanos) {
+        ContadorConsultas contador = ACTUAL.get();
+        if (contador != null) {
+            contador.consultas++;
+            contador.nanosJdbc += nanos;
+        }
+    }
+    
+    /**
+     * Cantidad de ejecuciones JDBC (un lote cuenta como una).
+     */
+    public int getConsultas() {
+        return consultas;
+    }
+    
+    /**
+     * Tiempo total esperando a JDBC, en nanosegundos.
+     */
+    public long getNanosJdbc() {
+        return nanosJdbc;
+    }
+}
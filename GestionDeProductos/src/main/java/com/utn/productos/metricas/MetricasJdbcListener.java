@@ -0,0 +1,84 @@
+package com.utn.productos.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener de datasource-proxy que mide cada ejecución JDBC.
+ * <p>
+ * Registra el timer {@code jdbc.statements} con el tipo de sentencia
+ * (select, insert, update, delete, other), si fue un lote y si terminó con error,
+ * y suma la ejecución al {@link ContadorConsultas} del request en curso.
+ */
+public class MetricasJdbcListener implements QueryExecutionListener {
+    
+    private static final String INICIO = MetricasJdbcListener.class.getName() + ".inicio";
+    
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+    
+    /**
+     * @param registryProvider Registro de métricas; se resuelve en la primera
+     *                         ejecución porque el DataSource se crea antes
+     */
+    public MetricasJdbcListener(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(INICIO, System.nanoTime());
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long inicio = execInfo.getCustomValue(INICIO, Long.class);
+        if (inicio == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - inicio;
+        ContadorConsultas.registrar(nanos);
+        
+        MeterRegistry meterRegistry = obtenerRegistry();
+        if (meterRegistry == null) {
+            return;
+        }
+        QueryType tipo = queryInfoList.isEmpty()
+                ? QueryType.OTHER
+                : QueryUtils.getQueryType(queryInfoList.get(0).getQuery());
+        String tipoTag = tipo.name().toLowerCase(Locale.ROOT);
+        String loteTag = String.valueOf(execInfo.isBatch());
+        String resultadoTag = execInfo.isSuccess() ? "ok" : "error";
+        
+        timers.computeIfAbsent(tipoTag + '|' + loteTag + '|' + resultadoTag,
+                clave -> Timer.builder("jdbc.statements")
+                        .description("Duración de las ejecuciones JDBC")
+                        .tag("tipo", tipoTag)
+                        .tag("lote", loteTag)
+                        .tag("resultado", resultadoTag)
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private MeterRegistry obtenerRegistry() {
+        MeterRegistry actual = registry;
+        if (actual == null) {
+            actual = registryProvider.getIfAvailable();
+            registry = actual;
+        }
+        return actual;
+    }
+}
@@ -0,0 +1,67 @@
+package com.utn.productos.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro que registra, por endpoint, cuántas sentencias JDBC ejecutó cada
+ * request ({@code http.server.requests.queries}) y cuánto tiempo esperó a la
+ * base de datos ({@code http.server.requests.jdbc}).
+ * Usa los mismos tags {@code method} y {@code uri} que {@code http.server.requests}.
+ */
+@Component
+@Profile("!reactive")
+public class MetricasRequestFilter extends OncePerRequestFilter {
+    
+    private final MeterRegistry meterRegistry;
+    
+    public MetricasRequestFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorConsultas contador = ContadorConsultas.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContadorConsultas.finalizar();
+            registrar(request, contador);
+        }
+    }
+    
+    private void registrar(HttpServletRequest request, ContadorConsultas contador) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (patron == null) {
+            // Sin handler (404 de ruta, recursos estáticos): no aporta información por endpoint
+            return;
+        }
+        String uri = patron.toString();
+        String metodo = request.getMethod();
+        
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("Sentencias JDBC ejecutadas por request")
+                .baseUnit("queries")
+                .tags("method", metodo, "uri", uri)
+                .register(meterRegistry)
+                .record(contador.getConsultas());
+        Timer.builder("http.server.requests.jdbc")
+                .description("Tiempo de JDBC por request")
+                .tags("method", metodo, "uri", uri)
+                .register(meterRegistry)
+                .record(contador.getNanosJdbc(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,10 @@
+package com.utn.productos.model;
+
+/**
+ * Enum que representa los estados posibles de una importación de catálogo.
+ */
+public enum EstadoImportacion {
+    EN_CURSO,
+    COMPLETADA,
+    FALLIDA
+}
@@ -35,4 +35,11 @@ public class Producto {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Categoria categoria;
+    
+    /**
+     * Versión para bloqueo optimista; se incrementa con cada modificación.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
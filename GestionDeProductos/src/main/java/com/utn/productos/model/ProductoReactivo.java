@@ -0,0 +1,37 @@
+package com.utn.productos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Fila de la tabla productos para el stack reactivo (Spring Data R2DBC).
+ * Mapea las mismas columnas que {@link Producto}; es una clase aparte porque
+ * Spring Data asigna cada repositorio a JPA o a R2DBC según las anotaciones de
+ * la entidad, y una entidad con ambas quedaría asignada a los dos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("productos")
+public class ProductoReactivo {
+    
+    @Id
+    private Long id;
+    
+    private String nombre;
+    
+    private String descripcion;
+    
+    private Double precio;
+    
+    private Integer stock;
+    
+    private Categoria categoria;
+    
+    @Version
+    private Long version;
+}
@@ -0,0 +1,90 @@
+package com.utn.productos.replicacion;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.function.Supplier;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a una réplica y todo lo
+ * demás (escrituras y sentencias sin transacción) a la base primaria. La réplica la
+ * elige {@link MonitorReplicas} entre las que están al día.
+ * <p>
+ * El destino se decide al pedir la conexión. El administrador de transacciones de
+ * JPA la pide antes de marcar la transacción como de solo lectura, así que este
+ * DataSource se usa detrás de un {@link LazyConnectionDataSourceProxy}, que demora
+ * la conexión real hasta la primera sentencia.
+ * <p>
+ * Una réplica puede no tener todavía una escritura ya confirmada. Quien guarde en
+ * memoria lo que leyó, y no lo corrija después, consulta
+ * {@link #transaccionEnReplica()} o lee con {@link #enPrimaria(Supplier)}.
+ */
+public class DataSourceEnrutado extends AbstractRoutingDataSource {
+
+    /**
+     * Recurso de la transacción actual con el nombre de la réplica que la atiende.
+     */
+    private static final Object REPLICA_DE_LA_TRANSACCION = new Object();
+
+    private static final ThreadLocal<Boolean> forzarPrimaria = new ThreadLocal<>();
+
+    private final MonitorReplicas monitor;
+
+    /**
+     * @param monitor Monitor con la primaria y las réplicas
+     */
+    public DataSourceEnrutado(MonitorReplicas monitor) {
+        this.monitor = monitor;
+        setTargetDataSources(new HashMap<>(monitor.destinos()));
+        setDefaultTargetDataSource(monitor.primaria());
+        afterPropertiesSet();
+    }
+
+    /**
+     * Indica si la transacción actual lee de una réplica. Sin réplicas configuradas,
+     * o antes de la primera sentencia de la transacción, es false.
+     * @return true si la conexión de la transacción actual es de una réplica
+     */
+    public static boolean transaccionEnReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_DE_LA_TRANSACCION);
+    }
+
+    /**
+     * Ejecuta una lectura en la primaria: las transacciones de solo lectura que
+     * empiecen dentro de {@code lectura} no van a una réplica.
+     * @param lectura Consultas a ejecutar
+     * @return El resultado de {@code lectura}
+     */
+    public static <T> T enPrimaria(Supplier<T> lectura) {
+        Boolean anterior = forzarPrimaria.get();
+        forzarPrimaria.set(Boolean.TRUE);
+        try {
+            return lectura.get();
+        } finally {
+            if (anterior == null) {
+                forzarPrimaria.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String destino = monitor.elegirDestino(TransactionSynchronizationManager.isCurrentTransactionReadOnly(),
+                forzarPrimaria.get() == null);
+        if (!MonitorReplicas.PRIMARIA.equals(destino)
+                && TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(REPLICA_DE_LA_TRANSACCION)) {
+            TransactionSynchronizationManager.bindResource(REPLICA_DE_LA_TRANSACCION, destino);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_DE_LA_TRANSACCION);
+                }
+            });
+        }
+        return destino;
+    }
+}
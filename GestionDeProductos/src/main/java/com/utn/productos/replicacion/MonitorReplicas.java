@@ -0,0 +1,316 @@
+package com.utn.productos.replicacion;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide el retraso de cada réplica de lectura y elige el destino de cada conexión
+ * que pide {@link DataSourceEnrutado}.
+ * <p>
+ * Cada {@code latido-ms} escribe la hora actual en la tabla {@code latido_replicacion}
+ * de la primaria y lee esa misma fila en cada réplica: la diferencia con la hora
+ * actual es el retraso de la réplica. Las dos horas salen del reloj de esta
+ * aplicación, así que la medición no depende de que los servidores estén
+ * sincronizados. Una réplica al día muestra el latido anterior, por lo que su
+ * retraso medido incluye hasta un intervalo de latido.
+ * <p>
+ * Una réplica con un retraso mayor que {@code retraso-maximo-ms}, o que no responde,
+ * deja de recibir lecturas hasta una revisión que la encuentre al día. Las lecturas
+ * se reparten en turnos entre las réplicas disponibles; sin ninguna disponible van
+ * a la primaria. Hasta la primera revisión, al terminar de iniciar la aplicación,
+ * ninguna réplica está disponible.
+ */
+public class MonitorReplicas implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorReplicas.class);
+
+    /**
+     * Clave de la base primaria en {@link DataSourceEnrutado}.
+     */
+    public static final String PRIMARIA = "primaria";
+
+    private static final String ESCRIBIR_LATIDO = "UPDATE latido_replicacion SET instante = ? WHERE id = 1";
+    private static final String LEER_LATIDO = "SELECT instante FROM latido_replicacion WHERE id = 1";
+
+    private final HikariDataSource primaria;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long latidoMs;
+    private final long retrasoMaximoMs;
+
+    /**
+     * Réplicas que reciben lecturas; se reemplaza entera en cada revisión.
+     */
+    private volatile List<Replica> disponibles = List.of();
+
+    private final AtomicInteger turno = new AtomicInteger();
+    private final LongAdder escrituras = new LongAdder();
+    private final LongAdder lecturasEnPrimaria = new LongAdder();
+
+    private boolean latidoFallando;
+
+    private ScheduledExecutorService programador;
+
+    /**
+     * @param primaria Pool de la base primaria
+     * @param replicas Pools de las réplicas por nombre
+     * @param latidoMs Intervalo entre latidos y revisiones
+     * @param retrasoMaximoMs Retraso máximo para que una réplica reciba lecturas
+     * @throws IllegalArgumentException si no hay réplicas o el retraso máximo no supera al latido
+     */
+    public MonitorReplicas(HikariDataSource primaria, Map<String, HikariDataSource> replicas,
+                           long latidoMs, long retrasoMaximoMs) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("app.replicas.urls debe indicar al menos una réplica");
+        }
+        if (latidoMs <= 0 || retrasoMaximoMs <= latidoMs) {
+            throw new IllegalArgumentException("app.replicas.retraso-maximo-ms (" + retrasoMaximoMs
+                    + ") debe ser mayor que app.replicas.latido-ms (" + latidoMs
+                    + "): el retraso medido incluye hasta un latido");
+        }
+        this.primaria = primaria;
+        replicas.forEach((nombre, dataSource) -> this.replicas.add(new Replica(nombre, dataSource)));
+        this.latidoMs = latidoMs;
+        this.retrasoMaximoMs = retrasoMaximoMs;
+    }
+
+    /**
+     * Empieza a escribir latidos una vez que Flyway creó la tabla.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "monitor-replicas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::revisar, 0, latidoMs, TimeUnit.MILLISECONDS);
+        logger.info("Réplicas de lectura: {} (latido {} ms, retraso máximo {} ms)",
+                replicas.stream().map(r -> r.nombre).toList(), latidoMs, retrasoMaximoMs);
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        if (programador != null) {
+            programador.shutdownNow();
+            programador.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        replicas.forEach(replica -> replica.dataSource.close());
+        primaria.close();
+    }
+
+    /**
+     * Elige a qué base enviar una conexión.
+     * @param soloLectura true si la transacción actual es de solo lectura
+     * @param admiteReplica false si la lectura tiene que ver todas las escrituras confirmadas
+     * @return {@link #PRIMARIA} o el nombre de una réplica disponible
+     */
+    String elegirDestino(boolean soloLectura, boolean admiteReplica) {
+        if (!soloLectura) {
+            escrituras.increment();
+            return PRIMARIA;
+        }
+        List<Replica> candidatas = admiteReplica ? disponibles : List.of();
+        if (candidatas.isEmpty()) {
+            lecturasEnPrimaria.increment();
+            return PRIMARIA;
+        }
+        Replica replica = candidatas.get(Math.floorMod(turno.getAndIncrement(), candidatas.size()));
+        replica.lecturas.increment();
+        return replica.nombre;
+    }
+
+    /**
+     * Escribe un latido en la primaria y actualiza el retraso de cada réplica.
+     */
+    void revisar() {
+        long ahora = System.currentTimeMillis();
+        escribirLatido(ahora);
+        List<Replica> alDia = new ArrayList<>();
+        for (Replica replica : replicas) {
+            try {
+                long retraso = Math.max(0, ahora - leerLatido(replica.dataSource));
+                replica.retrasoMs = retraso;
+                if (retraso <= retrasoMaximoMs) {
+                    if (!Boolean.TRUE.equals(replica.disponible)) {
+                        logger.info("Réplica {} disponible (retraso {} ms)", replica.nombre, retraso);
+                    }
+                    replica.disponible = Boolean.TRUE;
+                    alDia.add(replica);
+                } else {
+                    if (!Boolean.FALSE.equals(replica.disponible)) {
+                        logger.warn("Réplica {} atrasada {} ms (máximo {} ms): no recibe lecturas",
+                                replica.nombre, retraso, retrasoMaximoMs);
+                    }
+                    replica.disponible = Boolean.FALSE;
+                }
+            } catch (SQLException e) {
+                if (!Boolean.FALSE.equals(replica.disponible)) {
+                    logger.warn("Réplica {} no responde: {}", replica.nombre, e.getMessage());
+                }
+                replica.retrasoMs = -1;
+                replica.disponible = Boolean.FALSE;
+            }
+        }
+        disponibles = List.copyOf(alDia);
+    }
+
+    private void escribirLatido(long ahora) {
+        try (Connection conexion = primaria.getConnection();
+             PreparedStatement sentencia = conexion.prepareStatement(ESCRIBIR_LATIDO)) {
+            sentencia.setLong(1, ahora);
+            sentencia.executeUpdate();
+            latidoFallando = false;
+        } catch (SQLException e) {
+            // Sin latidos el retraso de todas las réplicas crece y las lecturas pasan a la primaria
+            if (!latidoFallando) {
+                logger.warn("No se pudo escribir el latido de replicación en la primaria: {}", e.getMessage());
+            }
+            latidoFallando = true;
+        }
+    }
+
+    private static long leerLatido(DataSource replica) throws SQLException {
+        try (Connection conexion = replica.getConnection();
+             PreparedStatement sentencia = conexion.prepareStatement(LEER_LATIDO);
+             ResultSet resultado = sentencia.executeQuery()) {
+            if (!resultado.next()) {
+                throw new SQLException("La réplica no tiene la fila de latido");
+            }
+            return resultado.getLong(1);
+        }
+    }
+
+    /**
+     * Registra el retraso de cada réplica, las conexiones por destino y las métricas
+     * de Hikari de cada pool.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindPool(primaria, registry);
+        FunctionCounter.builder("productos.datasource.conexiones", escrituras, LongAdder::sum)
+                .description("Conexiones pedidas por destino y tipo de transacción")
+                .tags("destino", PRIMARIA, "tipo", "escritura")
+                .register(registry);
+        FunctionCounter.builder("productos.datasource.conexiones", lecturasEnPrimaria, LongAdder::sum)
+                .description("Conexiones pedidas por destino y tipo de transacción")
+                .tags("destino", PRIMARIA, "tipo", "lectura")
+                .register(registry);
+        for (Replica replica : replicas) {
+            bindPool(replica.dataSource, registry);
+            FunctionCounter.builder("productos.datasource.conexiones", replica.lecturas, LongAdder::sum)
+                    .description("Conexiones pedidas por destino y tipo de transacción")
+                    .tags("destino", replica.nombre, "tipo", "lectura")
+                    .register(registry);
+            TimeGauge.builder("productos.replicas.retraso", replica, TimeUnit.MILLISECONDS,
+                            r -> r.retrasoMs >= 0 ? r.retrasoMs : Double.NaN)
+                    .description("Retraso medido con el último latido; vacío si la réplica no responde")
+                    .tag("replica", replica.nombre)
+                    .register(registry);
+        }
+        Gauge.builder("productos.replicas.disponibles", this, monitor -> monitor.disponibles.size())
+                .description("Réplicas que reciben lecturas")
+                .register(registry);
+    }
+
+    /**
+     * Los pools no son beans, así que Spring Boot no les registra las métricas de Hikari.
+     */
+    private static void bindPool(HikariDataSource pool, MeterRegistry registry) {
+        if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+            pool.setMetricRegistry(registry);
+        }
+    }
+
+    HikariDataSource primaria() {
+        return primaria;
+    }
+
+    /**
+     * Todos los destinos posibles, con la primaria, por clave.
+     */
+    Map<String, DataSource> destinos() {
+        Map<String, DataSource> destinos = new LinkedHashMap<>();
+        destinos.put(PRIMARIA, primaria);
+        replicas.forEach(replica -> destinos.put(replica.nombre, replica.dataSource));
+        return destinos;
+    }
+
+    /**
+     * @param nombre Nombre de la réplica
+     * @return true si la última revisión la encontró al día
+     */
+    public boolean isDisponible(String nombre) {
+        return disponibles.stream().anyMatch(replica -> replica.nombre.equals(nombre));
+    }
+
+    /**
+     * @param nombre Nombre de la réplica
+     * @return Retraso medido en la última revisión, -1 si no respondió o todavía no se revisó
+     */
+    public long getRetrasoMs(String nombre) {
+        return replicas.stream().filter(replica -> replica.nombre.equals(nombre))
+                .findFirst().map(replica -> replica.retrasoMs).orElse(-1L);
+    }
+
+    /**
+     * @return Conexiones de solo lectura enviadas a alguna réplica
+     */
+    public long getLecturasEnReplicas() {
+        return replicas.stream().mapToLong(replica -> replica.lecturas.sum()).sum();
+    }
+
+    /**
+     * @return Conexiones de solo lectura enviadas a la primaria, por no haber réplicas
+     * disponibles o por pedirlo la lectura
+     */
+    public long getLecturasEnPrimaria() {
+        return lecturasEnPrimaria.sum();
+    }
+
+    /**
+     * Réplica con su último retraso medido.
+     */
+    private static final class Replica {
+
+        private final String nombre;
+        private final HikariDataSource dataSource;
+        private final LongAdder lecturas = new LongAdder();
+
+        private volatile long retrasoMs = -1;
+
+        /**
+         * Resultado de la última revisión, null antes de la primera. Solo lo usa el
+         * hilo del monitor, para registrar los cambios de estado.
+         */
+        private Boolean disponible;
+
+        private Replica(String nombre, HikariDataSource dataSource) {
+            this.nombre = nombre;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.utn.productos.repository;
+
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repositorio JDBC para escrituras y lecturas masivas de productos.
+ * Evita el contexto de persistencia de JPA y envía las sentencias en lotes,
+ * lo que lo hace adecuado para importaciones de catálogos grandes y para cargar
+ * el catálogo completo en memoria.
+ */
+@Repository
+public class ProductoBatchRepository {
+
+    private static final String SQL_INSERT =
+            "INSERT INTO productos (nombre, descripcion, precio, stock, categoria) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SQL_MERGE =
+            "MERGE INTO productos p "
+            + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(500)), "
+            + "CAST(? AS FLOAT(53)), CAST(? AS INTEGER), CAST(? AS VARCHAR(255)))) "
+            + "v (id, nombre, descripcion, precio, stock, categoria) ON p.id = v.id "
+            + "WHEN MATCHED THEN UPDATE SET nombre = v.nombre, descripcion = v.descripcion, "
+            + "precio = v.precio, stock = v.stock, categoria = v.categoria, version = p.version + 1 "
+            + "WHEN NOT MATCHED THEN INSERT (id, nombre, descripcion, precio, stock, categoria) "
+            + "VALUES (v.id, v.nombre, v.descripcion, v.precio, v.stock, v.categoria)";
+
+    private static final String SQL_ACTUALIZAR_STOCK =
+            "UPDATE productos SET stock = ?, version = version + 1 WHERE id = ?";
+
+    private static final String SQL_SELECT =
+            "SELECT id, nombre, descripcion, precio, stock, categoria, version FROM productos ";
+
+    private static final RowMapper<Producto> MAPEO_PRODUCTO = (rs, fila) -> new Producto(
+            rs.getLong("id"),
+            rs.getString("nombre"),
+            rs.getString("descripcion"),
+            rs.getDouble("precio"),
+            rs.getInt("stock"),
+            Categoria.valueOf(rs.getString("categoria")),
+            rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductoBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserta o actualiza un lote de productos.
+     * Los productos con ID se actualizan incrementando su versión (o se insertan
+     * con ese ID si no existen); los productos sin ID se insertan con un ID generado.
+     * @param productos Lote de productos a escribir
+     */
+    public void upsertLote(List<Producto> productos) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> merges = new ArrayList<>();
+
+        for (Producto p : productos) {
+            if (p.getId() == null) {
+                inserts.add(new Object[]{
+                        p.getNombre(), p.getDescripcion(), p.getPrecio(), p.getStock(), p.getCategoria().name()
+                });
+            } else {
+                merges.add(new Object[]{
+                        p.getId(), p.getNombre(), p.getDescripcion(), p.getPrecio(), p.getStock(), p.getCategoria().name()
+                });
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERT, inserts, new int[]{
+                    Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.INTEGER, Types.VARCHAR
+            });
+        }
+        if (!merges.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_MERGE, merges, new int[]{
+                    Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.INTEGER, Types.VARCHAR
+            });
+        }
+    }
+
+    /**
+     * Actualiza el stock de varios productos en un único lote, incrementando su versión.
+     * @param stocks Stock nuevo por ID de producto
+     * @return Filas actualizadas por cada sentencia, en el orden de iteración de {@code stocks}
+     */
+    public int[] actualizarStockLote(List<Map.Entry<Long, Integer>> stocks) {
+        List<Object[]> parametros = new ArrayList<>(stocks.size());
+        for (Map.Entry<Long, Integer> stock : stocks) {
+            parametros.add(new Object[]{stock.getValue(), stock.getKey()});
+        }
+        return jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_STOCK, parametros, new int[]{Types.INTEGER, Types.BIGINT});
+    }
+
+    /**
+     * Divide el catálogo en bloques de la misma cantidad de productos recorriendo
+     * solo el índice de la clave primaria.
+     * @param tamanoBloque Cantidad de productos por bloque
+     * @return ID inicial de cada bloque, en orden; el primero es {@link Long#MIN_VALUE}
+     */
+    public List<Long> limitesDeBloques(int tamanoBloque) {
+        List<Long> limites = new ArrayList<>();
+        limites.add(Long.MIN_VALUE);
+        long[] fila = {0};
+        jdbcTemplate.query("SELECT id FROM productos ORDER BY id", (RowCallbackHandler) rs -> {
+            if (fila[0]++ % tamanoBloque == 0 && fila[0] > 1) {
+                limites.add(rs.getLong(1));
+            }
+        });
+        return limites;
+    }
+
+    /**
+     * Lee los productos con ID dentro del rango, ordenados por ID.
+     * @param desdeId ID mínimo (inclusive)
+     * @param hastaId ID máximo (inclusive)
+     * @return Productos del rango, sin asociar a un contexto de persistencia
+     */
+    public List<Producto> leerRango(long desdeId, long hastaId) {
+        return jdbcTemplate.query(SQL_SELECT + "WHERE id BETWEEN ? AND ? ORDER BY id",
+                MAPEO_PRODUCTO, desdeId, hastaId);
+    }
+
+    /**
+     * Lee los productos con los IDs indicados. Los IDs inexistentes se omiten.
+     * @param ids IDs de los productos
+     * @return Productos encontrados, sin asociar a un contexto de persistencia
+     */
+    public List<Producto> leerPorIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String parametros = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query(SQL_SELECT + "WHERE id IN (" + parametros + ")",
+                MAPEO_PRODUCTO, ids.toArray());
+    }
+
+    /**
+     * Ajusta la columna identidad para que los próximos IDs generados no
+     * colisionen con IDs explícitos escritos por {@link #upsertLote(List)}.
+     */
+    public void sincronizarSecuenciaId() {
+        Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM productos", Long.class);
+        jdbcTemplate.execute("ALTER TABLE productos ALTER COLUMN id RESTART WITH " + (maximo + 1));
+    }
+}
@@ -0,0 +1,23 @@
+package com.utn.productos.repository;
+
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.ProductoReactivo;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Repositorio reactivo (R2DBC) de productos, usado con el perfil {@code reactive}.
+ * Equivalente no bloqueante de {@link ProductoRepository}: los resultados se
+ * emiten a medida que se leen las filas.
+ */
+@Repository
+public interface ProductoReactivoRepository extends R2dbcRepository<ProductoReactivo, Long> {
+    
+    /**
+     * Busca productos por categoría.
+     * @param categoria Categoría por la que filtrar
+     * @return Productos de la categoría
+     */
+    Flux<ProductoReactivo> findByCategoria(Categoria categoria);
+}
@@ -1,18 +1,23 @@
 package com.utn.productos.repository;
 
+import com.utn.productos.dto.EstadisticaCategoriaDTO;
 import com.utn.productos.model.Categoria;
 import com.utn.productos.model.Producto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para la entidad Producto.
  * Proporciona operaciones CRUD y consultas personalizadas.
+ * Las búsquedas con filtros combinados están en {@link ProductoRepositoryCustom}.
  */
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends JpaRepository<Producto, Long>, ProductoRepositoryCustom {
     
     /**
      * Busca todos los productos de una categoría específica.
@@ -20,4 +25,32 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * @return Lista de productos de la categoría especificada
      */
     List<Producto> findByCategoria(Categoria categoria);
+    
+    /**
+     * Obtiene solo la versión de un producto.
+     * @param id ID del producto
+     * @return Versión del producto, vacío si no existe
+     */
+    @Query("SELECT p.version FROM Producto p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    /**
+     * Calcula cantidad, stock total, valor del stock y rango de precios de cada categoría.
+     * Recorre toda la tabla: solo devuelve categorías con productos.
+     * @return Estadísticas agrupadas por categoría
+     */
+    @Query("SELECT new com.utn.productos.dto.EstadisticaCategoriaDTO(" +
+           "p.categoria, COUNT(p), SUM(p.stock), SUM(p.precio * p.stock), MIN(p.precio), MAX(p.precio)) " +
+           "FROM Producto p GROUP BY p.categoria")
+    List<EstadisticaCategoriaDTO> calcularEstadisticasPorCategoria();
+    
+    /**
+     * Calcula las estadísticas de una sola categoría.
+     * @param categoria La categoría a calcular
+     * @return Estadísticas de la categoría, vacío si no tiene productos
+     */
+    @Query("SELECT new com.utn.productos.dto.EstadisticaCategoriaDTO(" +
+           "p.categoria, COUNT(p), SUM(p.stock), SUM(p.precio * p.stock), MIN(p.precio), MAX(p.precio)) " +
+           "FROM Producto p WHERE p.categoria = :categoria GROUP BY p.categoria")
+    Optional<EstadisticaCategoriaDTO> calcularEstadisticasDeCategoria(@Param("categoria") Categoria categoria);
 }
@@ -0,0 +1,32 @@
+package com.utn.productos.repository;
+
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas de productos construidas con la API Criteria.
+ */
+public interface ProductoRepositoryCustom {
+    
+    /**
+     * Busca una página de productos sin ejecutar la consulta de conteo.
+     * @param spec Filtro a aplicar
+     * @param orden Orden de los resultados
+     * @param desde Posición del primer resultado
+     * @param cantidad Cantidad máxima de resultados
+     * @return Productos que cumplen el filtro
+     */
+    List<Producto> buscar(Specification<Producto> spec, Sort orden, int desde, int cantidad);
+    
+    /**
+     * Cuenta los productos que cumplen el filtro agrupados por categoría.
+     * @param spec Filtro a aplicar
+     * @return Cantidad de productos por categoría (solo categorías con productos)
+     */
+    Map<Categoria, Long> contarPorCategoria(Specification<Producto> spec);
+}
@@ -0,0 +1,67 @@
+package com.utn.productos.repository;
+
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación de {@link ProductoRepositoryCustom}.
+ * Spring Data la combina con {@link ProductoRepository} por convención de nombre.
+ */
+public class ProductoRepositoryImpl implements ProductoRepositoryCustom {
+    
+    private final EntityManager entityManager;
+    
+    public ProductoRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+    
+    @Override
+    public List<Producto> buscar(Specification<Producto> spec, Sort orden, int desde, int cantidad) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Producto> query = cb.createQuery(Producto.class);
+        Root<Producto> root = query.from(Producto.class);
+        query.select(root).orderBy(QueryUtils.toOrders(orden, root, cb));
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) {
+            query.where(filtro);
+        }
+        
+        return entityManager.createQuery(query)
+                .setFirstResult(desde)
+                .setMaxResults(cantidad)
+                .getResultList();
+    }
+    
+    @Override
+    public Map<Categoria, Long> contarPorCategoria(Specification<Producto> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Producto> root = query.from(Producto.class);
+        Path<Categoria> categoria = root.get("categoria");
+        query.multiselect(categoria, cb.count(root)).groupBy(categoria);
+        Predicate filtro = spec.toPredicate(root, query, cb);
+        if (filtro != null) {
+            query.where(filtro);
+        }
+        
+        Map<Categoria, Long> conteos = new EnumMap<>(Categoria.class);
+        for (Tuple fila : entityManager.createQuery(query).getResultList()) {
+            conteos.put(fila.get(0, Categoria.class), fila.get(1, Long.class));
+        }
+        return conteos;
+    }
+}
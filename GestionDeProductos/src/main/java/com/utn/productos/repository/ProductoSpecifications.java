@@ -0,0 +1,60 @@
+package com.utn.productos.repository;
+
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Especificaciones JPA reutilizables para filtrar productos.
+ */
+public final class ProductoSpecifications {
+    
+    private ProductoSpecifications() {
+    }
+    
+    /**
+     * Productos cuyo nombre o descripción contiene el texto (sin distinguir mayúsculas).
+     */
+    public static Specification<Producto> textoContiene(String texto) {
+        String patron = "%" + escaparLike(texto.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("nombre")), patron, '\\'),
+                cb.like(cb.lower(root.get("descripcion")), patron, '\\')
+        );
+    }
+    
+    /**
+     * Productos con precio dentro del rango. Cualquiera de los extremos puede ser null.
+     */
+    public static Specification<Producto> precioEntre(Double minimo, Double maximo) {
+        return (root, query, cb) -> {
+            if (minimo != null && maximo != null) {
+                return cb.between(root.get("precio"), minimo, maximo);
+            }
+            return minimo != null
+                    ? cb.greaterThanOrEqualTo(root.get("precio"), minimo)
+                    : cb.lessThanOrEqualTo(root.get("precio"), maximo);
+        };
+    }
+    
+    /**
+     * Productos con stock disponible.
+     */
+    public static Specification<Producto> conStock() {
+        return (root, query, cb) -> cb.greaterThan(root.get("stock"), 0);
+    }
+    
+    /**
+     * Productos que pertenecen a alguna de las categorías.
+     */
+    public static Specification<Producto> categoriaEn(Collection<Categoria> categorias) {
+        return (root, query, cb) -> root.get("categoria").in(categorias);
+    }
+    
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,303 @@
+package com.utn.productos.service;
+
+import com.utn.productos.event.StockEscritoEvent;
+import com.utn.productos.repository.ProductoBatchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Buffer de escritura diferida (write-behind) para los cambios de stock.
+ * <p>
+ * Con {@code app.stock.write-behind.enabled=true}, {@link ProductoService#actualizarStock}
+ * no escribe en la base de datos: deja el stock nuevo en este buffer y las lecturas
+ * de productos lo superponen al valor persistido. Varios cambios sobre el mismo
+ * producto se combinan en uno (gana el último) y el buffer se vacía cada
+ * {@code intervalo-ms} con un único UPDATE en lote. El mapa es un
+ * {@link ConcurrentHashMap}, que bloquea por bin: los cambios sobre productos
+ * distintos no compiten entre sí.
+ * <p>
+ * El tamaño está acotado: si hay {@code max-pendientes} productos pendientes, un
+ * cambio sobre otro producto se escribe directamente y se adelanta el próximo
+ * vaciado. Cada vaciado corre en su propia transacción y escribe solo lo que había
+ * al comenzar, en lotes de {@code tamano-lote}. Al cerrar la aplicación se vacía
+ * por completo; desde ese momento los cambios se escriben directamente.
+ * <p>
+ * Las actualizaciones completas y las bajas descartan el stock pendiente del
+ * producto, pero solo si su transacción confirma: si fallan (un conflicto de
+ * versión, un rollback), el cambio de stock ya confirmado al cliente se sigue
+ * escribiendo. Mientras tanto el producto queda reservado (esperando a un vaciado
+ * en curso) y los vaciados lo saltean, así que un vaciado nunca pisa una
+ * escritura posterior. Después de cada lote se publica un {@link StockEscritoEvent}
+ * con los productos escritos, todavía dentro del vaciado.
+ */
+@Service
+public class BufferStockService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BufferStockService.class);
+    
+    private final ProductoBatchRepository productoBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.stock.write-behind.enabled:false}")
+    private boolean habilitado;
+    
+    @Value("${app.stock.write-behind.intervalo-ms:100}")
+    private long intervaloMs;
+    
+    @Value("${app.stock.write-behind.max-pendientes:10000}")
+    private int maxPendientes;
+    
+    @Value("${app.stock.write-behind.tamano-lote:1000}")
+    private int tamanoLote;
+    
+    /**
+     * Stock pendiente de escribir por ID de producto.
+     */
+    private final Map<Long, Integer> pendientes = new ConcurrentHashMap<>();
+    
+    /**
+     * Serializa los vaciados y los descartes.
+     */
+    private final ReentrantLock lockVaciado = new ReentrantLock();
+    
+    /**
+     * Productos con un reemplazo o una baja en curso, con la cantidad de
+     * transacciones que los reservaron. Los vaciados no los escriben.
+     */
+    private final Map<Long, Integer> reservados = new ConcurrentHashMap<>();
+    
+    /**
+     * Los registros toman la lectura; el cierre toma la escritura para que ningún
+     * cambio entre al buffer después del vaciado final.
+     */
+    private final ReentrantReadWriteLock lockCierre = new ReentrantReadWriteLock();
+    
+    private boolean cerrado;
+    
+    private ScheduledExecutorService programador;
+    
+    /**
+     * Constructor con inyección de dependencias.
+     * @param productoBatchRepository Repositorio JDBC usado para el UPDATE en lote
+     * @param transactionManager Administrador de transacciones para cada vaciado
+     * @param eventPublisher Publicador del evento de stock escrito
+     */
+    public BufferStockService(ProductoBatchRepository productoBatchRepository,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher) {
+        this.productoBatchRepository = productoBatchRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "stock-write-behind");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::vaciarProgramado, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        logger.info("Escritura diferida de stock habilitada (intervalo {} ms, máximo {} pendientes)",
+                intervaloMs, maxPendientes);
+    }
+    
+    /**
+     * Indica si el modo de escritura diferida está habilitado.
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+    
+    /**
+     * Deja el stock nuevo de un producto en el buffer.
+     * @param id ID del producto
+     * @param stock Stock nuevo
+     * @return true si quedó en el buffer; false si el buffer está deshabilitado o
+     *         cerrado y el llamador debe escribir el cambio directamente
+     */
+    public boolean registrar(Long id, int stock) {
+        if (!habilitado) {
+            return false;
+        }
+        lockCierre.readLock().lock();
+        try {
+            if (cerrado) {
+                return false;
+            }
+            if (pendientes.size() >= maxPendientes && !pendientes.containsKey(id)) {
+                programador.execute(this::vaciarProgramado);
+                return false;
+            }
+            pendientes.put(id, stock);
+            return true;
+        } finally {
+            lockCierre.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Stock pendiente de un producto.
+     * @param id ID del producto
+     * @return El stock pendiente, o null si no hay cambios sin escribir
+     */
+    public Integer stockPendiente(Long id) {
+        return pendientes.isEmpty() ? null : pendientes.get(id);
+    }
+    
+    /**
+     * Descarta el stock pendiente de un producto cuando la transacción actual
+     * confirme su reemplazo o su baja. Debe llamarse antes de escribir el producto:
+     * espera a un vaciado en curso y, hasta que la transacción termine, los vaciados
+     * no escriben el stock pendiente del producto. Si la transacción se revierte,
+     * el stock pendiente se conserva. Sin transacción lo descarta en el momento.
+     * @param id ID del producto
+     */
+    public void descartarAlConfirmar(Long id) {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        Integer descartado;
+        lockVaciado.lock();
+        try {
+            descartado = pendientes.get(id);
+            if (descartado == null) {
+                return;
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                pendientes.remove(id, descartado);
+                return;
+            }
+            reservados.merge(id, 1, Integer::sum);
+        } finally {
+            lockVaciado.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                liberar(id, status == STATUS_COMMITTED ? descartado : null);
+            }
+        });
+    }
+    
+    /**
+     * Libera la reserva de un producto y, si se confirmó el reemplazo, quita el
+     * stock descartado. Un cambio de stock registrado después es más nuevo y se conserva.
+     */
+    private void liberar(Long id, Integer descartado) {
+        lockVaciado.lock();
+        try {
+            if (descartado != null) {
+                pendientes.remove(id, descartado);
+            }
+            reservados.computeIfPresent(id, (clave, cantidad) -> cantidad == 1 ? null : cantidad - 1);
+        } finally {
+            lockVaciado.unlock();
+        }
+    }
+    
+    /**
+     * Cantidad de productos con stock pendiente de escribir.
+     */
+    public int cantidadPendientes() {
+        return pendientes.size();
+    }
+    
+    /**
+     * Escribe en la base de datos los cambios pendientes al momento de la llamada.
+     * Los cambios que llegan mientras tanto, y los de productos reservados por un
+     * reemplazo en curso, quedan para el próximo vaciado.
+     * Usa una conexión propia: no debe llamarse desde dentro de una transacción,
+     * para no retener dos conexiones del pool a la vez.
+     * @return Cantidad de productos escritos
+     */
+    public int vaciar() {
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        lockVaciado.lock();
+        try {
+            List<Map.Entry<Long, Integer>> instantanea = new ArrayList<>(pendientes.size());
+            for (Map.Entry<Long, Integer> entrada : pendientes.entrySet()) {
+                if (reservados.containsKey(entrada.getKey())) {
+                    continue;
+                }
+                instantanea.add(Map.entry(entrada.getKey(), entrada.getValue()));
+            }
+            for (int desde = 0; desde < instantanea.size(); desde += tamanoLote) {
+                List<Map.Entry<Long, Integer>> lote =
+                        instantanea.subList(desde, Math.min(desde + tamanoLote, instantanea.size()));
+                transactionTemplate.executeWithoutResult(status -> productoBatchRepository.actualizarStockLote(lote));
+                // Solo se quita lo escrito: si el stock cambió durante el vaciado, queda pendiente
+                List<Long> escritos = new ArrayList<>(lote.size());
+                for (Map.Entry<Long, Integer> escrito : lote) {
+                    pendientes.remove(escrito.getKey(), escrito.getValue());
+                    escritos.add(escrito.getKey());
+                }
+                eventPublisher.publishEvent(new StockEscritoEvent(escritos));
+            }
+            return instantanea.size();
+        } finally {
+            lockVaciado.unlock();
+        }
+    }
+    
+    private void vaciarProgramado() {
+        try {
+            vaciar();
+        } catch (RuntimeException e) {
+            // Los cambios siguen en el buffer y se reintentan en el próximo intervalo
+            logger.error("No se pudo escribir el stock pendiente de {} productos", pendientes.size(), e);
+        }
+    }
+    
+    /**
+     * Vacía el buffer al cerrar la aplicación. A partir de este momento
+     * {@link #registrar} devuelve false y los cambios se escriben directamente.
+     */
+    @PreDestroy
+    void cerrar() {
+        if (!habilitado) {
+            return;
+        }
+        lockCierre.writeLock().lock();
+        try {
+            cerrado = true;
+        } finally {
+            lockCierre.writeLock().unlock();
+        }
+        programador.shutdown();
+        try {
+            programador.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int escritos = vaciar();
+        logger.info("Escritura diferida de stock cerrada: {} productos escritos al cerrar", escritos);
+    }
+}
@@ -0,0 +1,110 @@
+package com.utn.productos.service;
+
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.event.ProductoCambiadoEvent;
+import com.utn.productos.event.TipoCambio;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché acotada de IDs que se sabe que no existen.
+ * <p>
+ * Bots y clientes con datos viejos consultan IDs inexistentes a un ritmo alto y
+ * cada consulta abría una transacción y ejecutaba un SELECT para responder 404.
+ * Con esta caché, a partir de la segunda consulta el 404 se responde sin tocar
+ * la base de datos.
+ * <p>
+ * Guarda hasta {@code app.cache-negativa.capacidad} IDs y descarta primero los
+ * más antiguos. Un ID sale de la caché cuando se crea o se actualiza ese producto,
+ * y la caché se vacía ante un cambio masivo (importación CSV). Los IDs eliminados
+ * se agregan directamente.
+ * <p>
+ * Un ID solo se registra si no llegó ningún cambio desde que se obtuvo la
+ * generación, antes de consultar la base de datos: así una creación confirmada
+ * durante la consulta no queda tapada por un faltante viejo. Las lecturas no
+ * toman locks; las escrituras se serializan con el monitor de este servicio.
+ */
+@Service
+public class CacheNegativaService {
+
+    private final Map<Long, Boolean> faltantes = new ConcurrentHashMap<>();
+
+    /**
+     * Orden de llegada de los IDs, para descartar los más antiguos; protegido por
+     * el monitor. Puede conservar IDs que ya salieron de la caché, por lo que se
+     * acota su propio tamaño y no el del mapa.
+     */
+    private final ArrayDeque<Long> orden = new ArrayDeque<>();
+
+    @Value("${app.cache-negativa.enabled:true}")
+    private boolean habilitada;
+
+    @Value("${app.cache-negativa.capacidad:10000}")
+    private int capacidad;
+
+    /**
+     * Cantidad de altas y cambios masivos recibidos; protegida por el monitor.
+     */
+    private long generacion;
+
+    /**
+     * Indica si se sabe que el producto no existe.
+     * @param id ID del producto
+     * @return true si el ID está en la caché
+     */
+    public boolean contiene(Long id) {
+        return habilitada && faltantes.containsKey(id);
+    }
+
+    /**
+     * Generación actual; se debe leer antes de consultar la base de datos.
+     */
+    public synchronized long generacion() {
+        return generacion;
+    }
+
+    /**
+     * Registra un ID que la base de datos no encontró.
+     * @param id ID consultado
+     * @param generacionLeida Generación obtenida antes de la consulta
+     */
+    public synchronized void registrar(Long id, long generacionLeida) {
+        if (habilitada && generacion == generacionLeida) {
+            agregar(id);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductoCambiado(ProductoCambiadoEvent evento) {
+        if (evento.tipo() == TipoCambio.ELIMINADO) {
+            if (habilitada) {
+                agregar(evento.id());
+            }
+            return;
+        }
+        generacion++;
+        faltantes.remove(evento.id());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogoModificado(CatalogoModificadoEvent evento) {
+        generacion++;
+        faltantes.clear();
+        orden.clear();
+    }
+
+    private void agregar(Long id) {
+        if (faltantes.put(id, Boolean.TRUE) != null) {
+            return;
+        }
+        orden.add(id);
+        while (orden.size() > capacidad) {
+            faltantes.remove(orden.poll());
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.BusquedaProductosDTO;
+import com.utn.productos.dto.FiltroBusquedaDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Catálogo de productos en arreglos paralelos (uno por columna), usado por
+ * {@link ModeloLecturaService}.
+ * <p>
+ * Cada producto ocupa una posición fija. Se indexa por ID con una tabla de
+ * direccionamiento abierto que guarda solo posiciones, y por categoría con listas
+ * de posiciones ordenadas por ID. Las bajas dejan la posición marcada con su última
+ * versión, para descartar eventos atrasados del mismo producto; solo una recarga
+ * compacta los arreglos.
+ * <p>
+ * Cada cambio se aplica solo si trae una versión mayor a la guardada, por lo que
+ * aplicar un cambio repetido o atrasado no tiene efecto. No es thread-safe: el
+ * servicio lo protege con un lock de lectura/escritura.
+ */
+class CatalogoEnMemoria {
+
+    private static final Categoria[] CATEGORIAS = Categoria.values();
+    private static final byte ELIMINADO = -1;
+
+    private final BufferStockService bufferStock;
+
+    private long[] ids;
+    private String[] nombres;
+    private String[] descripciones;
+    private double[] precios;
+    private int[] stocks;
+    private long[] versiones;
+    private byte[] categorias;
+    private int tamano;
+
+    /**
+     * Posición + 1 de cada producto (0 = libre); la clave se lee de {@link #ids}.
+     */
+    private int[] indice;
+
+    private final ListaPosiciones todos;
+    private final ListaPosiciones[] porCategoria = new ListaPosiciones[CATEGORIAS.length];
+
+    /**
+     * Crea el catálogo a partir de bloques de productos leídos en orden de ID.
+     * @param bloques Bloques con rangos de ID disjuntos, en orden
+     * @param bufferStock Buffer de escritura diferida, para devolver el stock pendiente
+     */
+    CatalogoEnMemoria(List<List<Producto>> bloques, BufferStockService bufferStock) {
+        this.bufferStock = bufferStock;
+        int total = 0;
+        for (List<Producto> bloque : bloques) {
+            total += bloque.size();
+        }
+        int capacidad = Math.max(total, 16);
+        ids = new long[capacidad];
+        nombres = new String[capacidad];
+        descripciones = new String[capacidad];
+        precios = new double[capacidad];
+        stocks = new int[capacidad];
+        versiones = new long[capacidad];
+        categorias = new byte[capacidad];
+        indice = new int[capacidadIndice(capacidad)];
+        todos = new ListaPosiciones(total);
+        for (int i = 0; i < porCategoria.length; i++) {
+            porCategoria[i] = new ListaPosiciones(total / CATEGORIAS.length);
+        }
+
+        for (List<Producto> bloque : bloques) {
+            for (Producto p : bloque) {
+                int posicion = nuevaPosicion(p.getId());
+                escribir(posicion, p.getNombre(), p.getDescripcion(), p.getPrecio(), p.getStock(),
+                        p.getCategoria(), p.getVersion());
+                todos.agregarAlFinal(posicion);
+                porCategoria[categorias[posicion]].agregarAlFinal(posicion);
+            }
+        }
+    }
+
+    /**
+     * Cantidad de productos activos.
+     */
+    int cantidad() {
+        return todos.tamano;
+    }
+
+    /**
+     * Agrega o reemplaza un producto si la versión es mayor a la guardada.
+     */
+    void guardar(long id, String nombre, String descripcion, double precio, int stock,
+                 Categoria categoria, long version) {
+        int posicion = buscar(id);
+        if (posicion < 0) {
+            posicion = nuevaPosicion(id);
+            escribir(posicion, nombre, descripcion, precio, stock, categoria, version);
+            todos.insertar(posicion, ids);
+            porCategoria[categoria.ordinal()].insertar(posicion, ids);
+            return;
+        }
+        if (categorias[posicion] == ELIMINADO || version <= versiones[posicion]) {
+            return;
+        }
+        byte anterior = categorias[posicion];
+        escribir(posicion, nombre, descripcion, precio, stock, categoria, version);
+        if (anterior != categorias[posicion]) {
+            porCategoria[anterior].quitar(posicion, ids);
+            porCategoria[categorias[posicion]].insertar(posicion, ids);
+        }
+    }
+
+    void guardar(ProductoResponseDTO p) {
+        guardar(p.getId(), p.getNombre(), p.getDescripcion(), p.getPrecio(), p.getStock(),
+                p.getCategoria(), p.getVersion());
+    }
+
+    void guardar(Producto p) {
+        guardar(p.getId(), p.getNombre(), p.getDescripcion(), p.getPrecio(), p.getStock(),
+                p.getCategoria(), p.getVersion());
+    }
+
+    /**
+     * Marca un producto como eliminado. Si no estaba, se registra igual para
+     * descartar un alta que llegue después.
+     * @param id ID del producto
+     * @param version Última versión que tuvo el producto
+     */
+    void eliminar(long id, long version) {
+        int posicion = buscar(id);
+        if (posicion < 0) {
+            posicion = nuevaPosicion(id);
+            categorias[posicion] = ELIMINADO;
+        } else if (categorias[posicion] != ELIMINADO) {
+            todos.quitar(posicion, ids);
+            porCategoria[categorias[posicion]].quitar(posicion, ids);
+            categorias[posicion] = ELIMINADO;
+            nombres[posicion] = null;
+            descripciones[posicion] = null;
+        }
+        versiones[posicion] = Math.max(versiones[posicion], version + 1);
+    }
+
+    /**
+     * Producto con el ID indicado, o null si no existe.
+     */
+    ProductoResponseDTO obtener(long id) {
+        int posicion = buscar(id);
+        return posicion < 0 || categorias[posicion] == ELIMINADO ? null : aDTO(posicion);
+    }
+
+    /**
+     * Versión del producto con el ID indicado, o null si no existe.
+     */
+    Long version(long id) {
+        int posicion = buscar(id);
+        return posicion < 0 || categorias[posicion] == ELIMINADO ? null : versiones[posicion];
+    }
+
+    /**
+     * Todos los productos, ordenados por ID.
+     */
+    List<ProductoResponseDTO> listar() {
+        return aDTOs(todos);
+    }
+
+    /**
+     * Productos de una categoría, ordenados por ID.
+     */
+    List<ProductoResponseDTO> listar(Categoria categoria) {
+        return aDTOs(porCategoria[categoria.ordinal()]);
+    }
+
+    /**
+     * Búsqueda con las mismas reglas que {@link ProductoService#buscar}: las facetas
+     * usan todos los filtros salvo el de categoría y el orden desempata por ID.
+     */
+    BusquedaProductosDTO buscar(FiltroBusquedaDTO filtro) {
+        String texto = filtro.getTexto() == null || filtro.getTexto().isBlank()
+                ? null
+                : filtro.getTexto().trim().toLowerCase(Locale.ROOT);
+        double minimo = filtro.getPrecioMin() != null ? filtro.getPrecioMin() : Double.NEGATIVE_INFINITY;
+        double maximo = filtro.getPrecioMax() != null ? filtro.getPrecioMax() : Double.POSITIVE_INFINITY;
+        boolean conStock = Boolean.TRUE.equals(filtro.getConStock());
+        boolean[] seleccionadas = new boolean[CATEGORIAS.length];
+        if (filtro.getCategorias() == null || filtro.getCategorias().isEmpty()) {
+            Arrays.fill(seleccionadas, true);
+        } else {
+            filtro.getCategorias().forEach(c -> seleccionadas[c.ordinal()] = true);
+        }
+
+        long desde = (long) filtro.getPagina() * filtro.getTamano();
+        long hasta = desde + filtro.getTamano();
+        boolean descendente = "desc".equals(filtro.getDireccion());
+        boolean porId = "id".equals(filtro.getOrden());
+        long[] facetas = new long[CATEGORIAS.length];
+        long total = 0;
+
+        // Por ID alcanza con recorrer la lista ordenada; por otro campo se conservan
+        // los primeros 'hasta' resultados en un heap cuya raíz es el peor de ellos
+        List<Integer> pagina = new ArrayList<>();
+        Comparator<Integer> orden = porId ? null : comparador(filtro.getOrden(), descendente);
+        PriorityQueue<Integer> mejores = porId ? null : new PriorityQueue<>(orden.reversed());
+
+        for (int i = 0; i < todos.tamano; i++) {
+            int posicion = todos.posiciones[descendente && porId ? todos.tamano - 1 - i : i];
+            if (precios[posicion] < minimo || precios[posicion] > maximo
+                    || (conStock && stocks[posicion] <= 0)
+                    || (texto != null && !contiene(nombres[posicion], texto)
+                            && !contiene(descripciones[posicion], texto))) {
+                continue;
+            }
+            facetas[categorias[posicion]]++;
+            if (!seleccionadas[categorias[posicion]]) {
+                continue;
+            }
+            if (porId) {
+                if (total >= desde && total < hasta) {
+                    pagina.add(posicion);
+                }
+            } else if (mejores.size() < hasta) {
+                mejores.add(posicion);
+            } else if (orden.compare(posicion, mejores.peek()) < 0) {
+                mejores.poll();
+                mejores.add(posicion);
+            }
+            total++;
+        }
+
+        if (!porId) {
+            List<Integer> primeros = new ArrayList<>(mejores);
+            primeros.sort(orden);
+            if (desde < primeros.size()) {
+                pagina = primeros.subList((int) desde, primeros.size());
+            }
+        }
+
+        Map<Categoria, Long> facetasPorCategoria = new EnumMap<>(Categoria.class);
+        for (Categoria categoria : CATEGORIAS) {
+            facetasPorCategoria.put(categoria, facetas[categoria.ordinal()]);
+        }
+        List<ProductoResponseDTO> productos = new ArrayList<>(pagina.size());
+        for (int posicion : pagina) {
+            productos.add(aDTO(posicion));
+        }
+        return new BusquedaProductosDTO(productos, total, filtro.getPagina(), filtro.getTamano(), facetasPorCategoria);
+    }
+
+    /**
+     * Memoria aproximada ocupada por el catálogo, incluidos los textos
+     * (suponiendo strings Latin-1, que la JVM guarda con un byte por carácter).
+     */
+    long bytesEstimados() {
+        long bytes = (long) ids.length * (8 + 4 + 4 + 8 + 4 + 8 + 1) + (long) indice.length * 4
+                + (long) todos.posiciones.length * 4;
+        for (ListaPosiciones lista : porCategoria) {
+            bytes += (long) lista.posiciones.length * 4;
+        }
+        for (int i = 0; i < tamano; i++) {
+            bytes += bytesString(nombres[i]) + bytesString(descripciones[i]);
+        }
+        return bytes;
+    }
+
+    private static long bytesString(String texto) {
+        // Objeto String (24 bytes) + byte[] (16 bytes de encabezado + contenido, alineado a 8)
+        return texto == null ? 0 : 24 + ((16 + texto.length() + 7) & ~7);
+    }
+
+    private Comparator<Integer> comparador(String campo, boolean descendente) {
+        Comparator<Integer> primario = "precio".equals(campo)
+                ? (a, b) -> Double.compare(precios[a], precios[b])
+                : (a, b) -> nombres[a].compareTo(nombres[b]);
+        if (descendente) {
+            primario = primario.reversed();
+        }
+        return primario.thenComparing((a, b) -> Long.compare(ids[a], ids[b]));
+    }
+
+    private static boolean contiene(String valor, String textoMinusculas) {
+        if (valor == null) {
+            return false;
+        }
+        int largo = textoMinusculas.length();
+        for (int i = 0; i + largo <= valor.length(); i++) {
+            if (valor.regionMatches(true, i, textoMinusculas, 0, largo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ProductoResponseDTO> aDTOs(ListaPosiciones lista) {
+        List<ProductoResponseDTO> resultado = new ArrayList<>(lista.tamano);
+        for (int i = 0; i < lista.tamano; i++) {
+            resultado.add(aDTO(lista.posiciones[i]));
+        }
+        return resultado;
+    }
+
+    private ProductoResponseDTO aDTO(int posicion) {
+        Integer stockPendiente = bufferStock.stockPendiente(ids[posicion]);
+        return new ProductoResponseDTO(
+                ids[posicion],
+                nombres[posicion],
+                descripciones[posicion],
+                precios[posicion],
+                stockPendiente != null ? stockPendiente : stocks[posicion],
+                CATEGORIAS[categorias[posicion]],
+                versiones[posicion]
+        );
+    }
+
+    private void escribir(int posicion, String nombre, String descripcion, double precio, int stock,
+                          Categoria categoria, long version) {
+        nombres[posicion] = nombre;
+        descripciones[posicion] = descripcion;
+        precios[posicion] = precio;
+        stocks[posicion] = stock;
+        categorias[posicion] = (byte) categoria.ordinal();
+        versiones[posicion] = version;
+    }
+
+    /**
+     * Posición del producto con el ID indicado, o -1 si nunca se registró.
+     */
+    private int buscar(long id) {
+        int mascara = indice.length - 1;
+        for (int i = hash(id) & mascara; indice[i] != 0; i = (i + 1) & mascara) {
+            if (ids[indice[i] - 1] == id) {
+                return indice[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reserva una posición al final de los arreglos y la registra en el índice.
+     */
+    private int nuevaPosicion(long id) {
+        if (tamano == ids.length) {
+            int capacidad = tamano + (tamano >> 1);
+            ids = Arrays.copyOf(ids, capacidad);
+            nombres = Arrays.copyOf(nombres, capacidad);
+            descripciones = Arrays.copyOf(descripciones, capacidad);
+            precios = Arrays.copyOf(precios, capacidad);
+            stocks = Arrays.copyOf(stocks, capacidad);
+            versiones = Arrays.copyOf(versiones, capacidad);
+            categorias = Arrays.copyOf(categorias, capacidad);
+        }
+        int posicion = tamano++;
+        ids[posicion] = id;
+        if (tamano * 2 > indice.length) {
+            reindexar(capacidadIndice(ids.length));
+        } else {
+            indexar(posicion);
+        }
+        return posicion;
+    }
+
+    private void reindexar(int capacidad) {
+        indice = new int[capacidad];
+        for (int posicion = 0; posicion < tamano; posicion++) {
+            indexar(posicion);
+        }
+    }
+
+    private void indexar(int posicion) {
+        int mascara = indice.length - 1;
+        int i = hash(ids[posicion]) & mascara;
+        while (indice[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        indice[i] = posicion + 1;
+    }
+
+    /**
+     * Potencia de dos con factor de carga de a lo sumo 0,5.
+     */
+    private static int capacidadIndice(int elementos) {
+        return Integer.highestOneBit(Math.max(elementos, 8) * 2 - 1) << 1;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Lista de posiciones ordenada por el ID del producto de cada posición.
+     */
+    private static final class ListaPosiciones {
+
+        private int[] posiciones;
+        private int tamano;
+
+        ListaPosiciones(int capacidad) {
+            posiciones = new int[Math.max(capacidad, 8)];
+        }
+
+        void agregarAlFinal(int posicion) {
+            if (tamano == posiciones.length) {
+                posiciones = Arrays.copyOf(posiciones, tamano + (tamano >> 1));
+            }
+            posiciones[tamano++] = posicion;
+        }
+
+        void insertar(int posicion, long[] ids) {
+            // Los productos nuevos casi siempre tienen el mayor ID
+            if (tamano == 0 || ids[posiciones[tamano - 1]] < ids[posicion]) {
+                agregarAlFinal(posicion);
+                return;
+            }
+            int i = -(indiceDe(ids[posicion], ids) + 1);
+            agregarAlFinal(posicion);
+            System.arraycopy(posiciones, i, posiciones, i + 1, tamano - 1 - i);
+            posiciones[i] = posicion;
+        }
+
+        void quitar(int posicion, long[] ids) {
+            int i = indiceDe(ids[posicion], ids);
+            if (i >= 0) {
+                System.arraycopy(posiciones, i + 1, posiciones, i, tamano - 1 - i);
+                tamano--;
+            }
+        }
+
+        /**
+         * Búsqueda binaria por ID, con la convención de {@link Arrays#binarySearch}.
+         */
+        private int indiceDe(long id, long[] ids) {
+            int bajo = 0;
+            int alto = tamano - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                long actual = ids[posiciones[medio]];
+                if (actual < id) {
+                    bajo = medio + 1;
+                } else if (actual > id) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -(bajo + 1);
+        }
+    }
+}
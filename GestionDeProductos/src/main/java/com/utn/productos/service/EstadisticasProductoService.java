@@ -0,0 +1,315 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.EstadisticaCategoriaDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.event.ProductoCambiadoEvent;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.replicacion.DataSourceEnrutado;
+import com.utn.productos.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio que calcula las estadísticas de inventario por categoría.
+ * <p>
+ * Sin caché, cada consulta ejecuta un GROUP BY sobre toda la tabla. Con la caché
+ * habilitada ({@code app.estadisticas.cache.enabled}) los acumuladores de cada
+ * categoría se cargan una vez y luego se actualizan con los eventos que publica
+ * {@link ProductoService} después de cada commit, por lo que una consulta cuesta
+ * O(cantidad de categorías).
+ * <p>
+ * Una carga desde la base de datos solo se instala si mientras se ejecutaba no
+ * llegó ningún cambio y no hay escrituras en curso: una escritura confirmada antes
+ * de la consulta, pero cuyo evento todavía no se aplicó, quedaría contada dos veces.
+ * Cada cambio se registra como en curso al publicarse, dentro de su transacción, y
+ * deja de estarlo al aplicarse después del commit o al descartarse con el rollback.
+ * <p>
+ * Cantidad, stock y valor se actualizan de forma exacta. El mínimo y el máximo no
+ * pueden recalcularse al quitar el producto que los definía: en ese caso la
+ * categoría se marca y se recalcula con una consulta indexada en la próxima lectura.
+ * <p>
+ * Los cambios de stock diferidos ({@link BufferStockService}) ya llegaron como
+ * eventos pero no están en la base de datos, así que antes de consultarla se
+ * escribe el stock pendiente. Por eso la consulta no abre una transacción propia:
+ * cada consulta del repositorio corre en su transacción de solo lectura.
+ * <p>
+ * Con réplicas de lectura, las consultas que cargan la caché van a la primaria:
+ * una réplica atrasada no tiene escrituras cuyos eventos ya se aplicaron, y la
+ * caché nunca se corregiría.
+ */
+@Service
+public class EstadisticasProductoService {
+
+    private static final int MAX_REINTENTOS_CARGA = 3;
+
+    private final ProductoRepository productoRepository;
+    private final BufferStockService bufferStock;
+
+    @Value("${app.estadisticas.cache.enabled:false}")
+    private boolean cacheHabilitada;
+
+    /**
+     * Acumuladores por categoría; null mientras la caché no esté cargada.
+     * Protegido por el monitor de este servicio.
+     */
+    private Map<Categoria, Acumulador> acumuladores;
+
+    /**
+     * Cantidad de cambios recibidos. Permite descartar una carga desde la base de
+     * datos si llegó un evento mientras se ejecutaba la consulta.
+     */
+    private long generacion;
+
+    /**
+     * Cambios publicados dentro de una transacción que todavía no terminó. Se
+     * comparan por identidad: dos eventos iguales son dos escrituras distintas.
+     */
+    private final Set<ProductoCambiadoEvent> cambiosEnCurso = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param productoRepository Repositorio de productos
+     * @param bufferStock Buffer de escritura diferida de stock
+     */
+    public EstadisticasProductoService(ProductoRepository productoRepository, BufferStockService bufferStock) {
+        this.productoRepository = productoRepository;
+        this.bufferStock = bufferStock;
+    }
+
+    /**
+     * Obtiene las estadísticas de todas las categorías.
+     * @return Una entrada por categoría, en el orden del enum
+     */
+    public List<EstadisticaCategoriaDTO> obtenerEstadisticas() {
+        if (!cacheHabilitada) {
+            bufferStock.vaciar();
+            return completar(productoRepository.calcularEstadisticasPorCategoria());
+        }
+
+        for (int intento = 0; intento < MAX_REINTENTOS_CARGA; intento++) {
+            List<EstadisticaCategoriaDTO> resultado = leerCache();
+            if (resultado != null) {
+                return resultado;
+            }
+            cargarCache();
+        }
+        // Demasiada concurrencia de escrituras durante la carga: se responde sin caché
+        bufferStock.vaciar();
+        return completar(productoRepository.calcularEstadisticasPorCategoria());
+    }
+
+    /**
+     * Registra un cambio publicado dentro de una transacción, antes de su commit.
+     * Sin transacción el cambio se aplica en el momento y no queda en curso.
+     */
+    @EventListener
+    public synchronized void onProductoCambiando(ProductoCambiadoEvent evento) {
+        // Misma condición con la que los listeners transaccionales esperan al commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            cambiosEnCurso.add(evento);
+        }
+    }
+
+    /**
+     * Aplica el cambio de un producto a los acumuladores.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductoCambiado(ProductoCambiadoEvent evento) {
+        cambiosEnCurso.remove(evento);
+        generacion++;
+        if (acumuladores == null) {
+            return;
+        }
+        if (evento.anterior() != null) {
+            acumuladores.get(evento.anterior().getCategoria()).quitar(evento.anterior());
+        }
+        if (evento.actual() != null) {
+            acumuladores.get(evento.actual().getCategoria()).agregar(evento.actual());
+        }
+    }
+
+    /**
+     * Olvida un cambio cuya transacción se revirtió.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public synchronized void onProductoCambioRevertido(ProductoCambiadoEvent evento) {
+        cambiosEnCurso.remove(evento);
+    }
+
+    /**
+     * Descarta la caché ante cambios masivos sin detalle por producto.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogoModificado(CatalogoModificadoEvent evento) {
+        generacion++;
+        acumuladores = null;
+    }
+
+    /**
+     * Devuelve las estadísticas desde la caché, recalculando las categorías
+     * cuyo mínimo o máximo quedó desactualizado.
+     * @return Las estadísticas, o null si la caché no está cargada
+     */
+    private List<EstadisticaCategoriaDTO> leerCache() {
+        List<Categoria> pendientes = new ArrayList<>();
+        long generacionLeida;
+        synchronized (this) {
+            if (acumuladores == null) {
+                return null;
+            }
+            for (Acumulador acumulador : acumuladores.values()) {
+                if (!acumulador.extremosValidos) {
+                    pendientes.add(acumulador.categoria);
+                }
+            }
+            if (pendientes.isEmpty()) {
+                return aDTOs(acumuladores);
+            }
+            generacionLeida = generacion;
+        }
+
+        bufferStock.vaciar();
+        Map<Categoria, Acumulador> recalculados = new EnumMap<>(Categoria.class);
+        for (Categoria categoria : pendientes) {
+            recalculados.put(categoria, DataSourceEnrutado.enPrimaria(
+                            () -> productoRepository.calcularEstadisticasDeCategoria(categoria))
+                    .map(Acumulador::new)
+                    .orElseGet(() -> new Acumulador(categoria)));
+        }
+
+        synchronized (this) {
+            if (acumuladores == null || !sinCambiosDesde(generacionLeida)) {
+                return null;
+            }
+            acumuladores.putAll(recalculados);
+            return aDTOs(acumuladores);
+        }
+    }
+
+    /**
+     * Carga todos los acumuladores con un GROUP BY, salvo que haya llegado
+     * algún cambio mientras se ejecutaba la consulta o haya escrituras en curso.
+     */
+    private void cargarCache() {
+        long generacionLeida;
+        synchronized (this) {
+            generacionLeida = generacion;
+        }
+
+        bufferStock.vaciar();
+        Map<Categoria, Acumulador> cargados = new EnumMap<>(Categoria.class);
+        List<EstadisticaCategoriaDTO> estadisticas =
+                DataSourceEnrutado.enPrimaria(productoRepository::calcularEstadisticasPorCategoria);
+        for (EstadisticaCategoriaDTO dto : completar(estadisticas)) {
+            cargados.put(dto.getCategoria(), new Acumulador(dto));
+        }
+
+        synchronized (this) {
+            if (sinCambiosDesde(generacionLeida)) {
+                acumuladores = cargados;
+            }
+        }
+    }
+
+    /**
+     * Indica si un resultado leído de la base de datos se puede instalar: no llegó
+     * ningún cambio desde que se empezó a leer y no hay escrituras en curso que la
+     * consulta pudo haber visto antes de que llegue su evento.
+     */
+    private boolean sinCambiosDesde(long generacionLeida) {
+        return generacion == generacionLeida && cambiosEnCurso.isEmpty();
+    }
+
+    /**
+     * Agrega una entrada vacía para cada categoría sin productos.
+     */
+    private static List<EstadisticaCategoriaDTO> completar(List<EstadisticaCategoriaDTO> parciales) {
+        Map<Categoria, EstadisticaCategoriaDTO> porCategoria = new EnumMap<>(Categoria.class);
+        for (Categoria categoria : Categoria.values()) {
+            porCategoria.put(categoria, new EstadisticaCategoriaDTO(categoria, 0, 0, 0.0, null, null));
+        }
+        for (EstadisticaCategoriaDTO dto : parciales) {
+            porCategoria.put(dto.getCategoria(), dto);
+        }
+        return new ArrayList<>(porCategoria.values());
+    }
+
+    private static List<EstadisticaCategoriaDTO> aDTOs(Map<Categoria, Acumulador> acumuladores) {
+        List<EstadisticaCategoriaDTO> resultado = new ArrayList<>(acumuladores.size());
+        for (Acumulador acumulador : acumuladores.values()) {
+            resultado.add(acumulador.aDTO());
+        }
+        return resultado;
+    }
+
+    /**
+     * Agregados de una categoría.
+     */
+    private static class Acumulador {
+
+        private final Categoria categoria;
+        private long cantidad;
+        private long stockTotal;
+        private double valorStock;
+        private double precioMinimo = Double.POSITIVE_INFINITY;
+        private double precioMaximo = Double.NEGATIVE_INFINITY;
+        private boolean extremosValidos = true;
+
+        Acumulador(Categoria categoria) {
+            this.categoria = categoria;
+        }
+
+        Acumulador(EstadisticaCategoriaDTO dto) {
+            this(dto.getCategoria());
+            cantidad = dto.getCantidad();
+            stockTotal = dto.getStockTotal();
+            valorStock = dto.getValorStock();
+            if (dto.getPrecioMinimo() != null) {
+                precioMinimo = dto.getPrecioMinimo();
+                precioMaximo = dto.getPrecioMaximo();
+            }
+        }
+
+        void agregar(ProductoResponseDTO producto) {
+            cantidad++;
+            stockTotal += producto.getStock();
+            valorStock += producto.getPrecio() * producto.getStock();
+            precioMinimo = Math.min(precioMinimo, producto.getPrecio());
+            precioMaximo = Math.max(precioMaximo, producto.getPrecio());
+        }
+
+        void quitar(ProductoResponseDTO producto) {
+            cantidad--;
+            stockTotal -= producto.getStock();
+            valorStock -= producto.getPrecio() * producto.getStock();
+            if (cantidad == 0) {
+                valorStock = 0.0;
+                precioMinimo = Double.POSITIVE_INFINITY;
+                precioMaximo = Double.NEGATIVE_INFINITY;
+                extremosValidos = true;
+            } else if (producto.getPrecio() <= precioMinimo || producto.getPrecio() >= precioMaximo) {
+                extremosValidos = false;
+            }
+        }
+
+        EstadisticaCategoriaDTO aDTO() {
+            boolean vacia = cantidad == 0;
+            return new EstadisticaCategoriaDTO(categoria, cantidad, stockTotal, valorStock,
+                    vacia ? null : precioMinimo, vacia ? null : precioMaximo);
+        }
+    }
+}
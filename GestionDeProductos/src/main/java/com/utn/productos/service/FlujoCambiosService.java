@@ -0,0 +1,436 @@
+package com.utn.productos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.productos.dto.CambioProductoDTO;
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.event.ProductoCambiadoEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio que publica los cambios del catálogo como un flujo de Server-Sent Events.
+ * <p>
+ * Cada cambio confirmado se guarda en un buffer circular con un offset creciente
+ * (los últimos {@code app.cambios.capacidad}). El ID de cada evento SSE es
+ * {@code <ejecución>-<offset>}: al reconectarse con {@code Last-Event-ID} el cliente
+ * recibe los eventos posteriores. Si ese offset ya salió del buffer, o pertenece a
+ * otra ejecución de la aplicación, recibe un evento {@code REINICIO} y debe volver
+ * a leer el catálogo.
+ * <p>
+ * Cada evento se serializa a JSON una sola vez, al publicarlo. Los suscriptores
+ * no ocupan hilos: son requests asincrónicos ({@link SseEmitter}).
+ * Un pool chico de hilos de envío reparte los eventos; cada suscriptor es atendido
+ * por un solo hilo a la vez y avanza con su propio cursor. Lo pendiente de cada
+ * suscriptor está acotado por el buffer: si se atrasa más, recibe {@code REINICIO}.
+ * <p>
+ * {@link SseEmitter#send} es E/S bloqueante: un cliente que deja de leer bloquea el
+ * hilo que le escribe hasta el timeout de escritura del servidor. Si un envío tarda
+ * más de {@code app.cambios.envio-maximo-ms}, el suscriptor se desconecta (no recibe
+ * más eventos y su emisor se completa cuando la escritura termina) y el pool suma un
+ * hilo mientras dure la escritura bloqueada, así que los demás siguen recibiendo con
+ * {@code app.cambios.hilos-envio} hilos.
+ */
+@Service
+public class FlujoCambiosService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FlujoCambiosService.class);
+    
+    private static final String TIPO_CATALOGO = "CATALOGO_MODIFICADO";
+    private static final String TIPO_REINICIO = "REINICIO";
+    private static final int MAX_EVENTOS_POR_ENVIO = 256;
+    
+    /**
+     * Valores de {@link Suscriptor#envioDesde}: sin envío en curso, o envío bloqueado
+     * que ya desconectó al suscriptor.
+     */
+    private static final long SIN_ENVIO = 0;
+    private static final long ENVIO_BLOQUEADO = Long.MIN_VALUE;
+    
+    /**
+     * Identifica esta ejecución: los offsets de una ejecución anterior no son válidos.
+     */
+    private final String ejecucion = Long.toString(System.currentTimeMillis(), 36);
+    
+    private final int capacidad;
+    private final int hilosEnvio;
+    private final long timeoutMs;
+    private final long envioMaximoNs;
+    private final int maxSuscriptores;
+    
+    /**
+     * Buffer circular de eventos; la posición de un offset es {@code offset % capacidad}.
+     * Protegido por el monitor de este servicio junto con {@link #siguienteOffset}.
+     */
+    private final Evento[] anillo;
+    private long siguienteOffset;
+    
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor envios;
+    
+    /**
+     * Hilos agregados al pool por envíos bloqueados; protegido por {@link #envios}.
+     */
+    private int hilosBloqueados;
+    private final ScheduledExecutorService latidos;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * @throws IllegalArgumentException si la capacidad, los hilos o los intervalos no son positivos
+     */
+    public FlujoCambiosService(ObjectMapper objectMapper,
+                               @Value("${app.cambios.capacidad:10000}") int capacidad,
+                               @Value("${app.cambios.hilos-envio:4}") int hilosEnvio,
+                               @Value("${app.cambios.timeout-ms:300000}") long timeoutMs,
+                               @Value("${app.cambios.latido-ms:15000}") long latidoMs,
+                               @Value("${app.cambios.envio-maximo-ms:5000}") long envioMaximoMs,
+                               @Value("${app.cambios.max-suscriptores:10000}") int maxSuscriptores) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("app.cambios.capacidad debe ser mayor que 0: " + capacidad);
+        }
+        if (hilosEnvio <= 0) {
+            throw new IllegalArgumentException("app.cambios.hilos-envio debe ser mayor que 0: " + hilosEnvio);
+        }
+        if (latidoMs <= 0 || envioMaximoMs <= 0) {
+            throw new IllegalArgumentException("app.cambios.latido-ms (" + latidoMs
+                    + ") y app.cambios.envio-maximo-ms (" + envioMaximoMs + ") deben ser mayores que 0");
+        }
+        this.capacidad = capacidad;
+        this.hilosEnvio = hilosEnvio;
+        this.timeoutMs = timeoutMs;
+        this.envioMaximoNs = TimeUnit.MILLISECONDS.toNanos(envioMaximoMs);
+        this.maxSuscriptores = maxSuscriptores;
+        this.objectMapper = objectMapper;
+        this.anillo = new Evento[capacidad];
+        this.envios = new ThreadPoolExecutor(hilosEnvio, hilosEnvio, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), hilos("cambios-envio"));
+        this.latidos = Executors.newSingleThreadScheduledExecutor(hilos("cambios-latido"));
+        this.latidos.scheduleWithFixedDelay(this::enviarLatidos, latidoMs, latidoMs, TimeUnit.MILLISECONDS);
+        long revision = Math.max(1, envioMaximoMs / 2);
+        this.latidos.scheduleWithFixedDelay(this::revisarEnvios, revision, revision, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Registra un suscriptor nuevo.
+     * @param ultimoEventoId ID del último evento recibido (Last-Event-ID), o null
+     *                       para recibir solo los cambios a partir de ahora
+     * @return El emisor SSE del suscriptor, o null si se alcanzó el máximo de suscriptores
+     */
+    public SseEmitter suscribir(String ultimoEventoId) {
+        if (suscriptores.size() >= maxSuscriptores) {
+            return null;
+        }
+        SseEmitter emitter = crearEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(emitter);
+        
+        synchronized (this) {
+            long primero = Math.max(0, siguienteOffset - capacidad);
+            Long offset = offsetDe(ultimoEventoId);
+            if (ultimoEventoId == null) {
+                suscriptor.cursor = siguienteOffset;
+            } else if (offset == null || offset + 1 < primero || offset >= siguienteOffset) {
+                suscriptor.reinicio = true;
+                suscriptor.cursor = primero;
+            } else {
+                suscriptor.cursor = offset + 1;
+            }
+        }
+        
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        emitter.onError(e -> suscriptores.remove(suscriptor));
+        suscriptores.add(suscriptor);
+        programar(suscriptor);
+        return emitter;
+    }
+    
+    /**
+     * Crea el emisor de un suscriptor nuevo; los tests lo reemplazan para simular clientes.
+     */
+    SseEmitter crearEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+    
+    /**
+     * Cantidad de suscriptores conectados.
+     */
+    public int cantidadSuscriptores() {
+        return suscriptores.size();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        CambioProductoDTO cambio = switch (evento.tipo()) {
+            case CREADO, ACTUALIZADO -> new CambioProductoDTO(evento.tipo().name(), evento.id(), evento.actual(), null, null, null);
+            case STOCK_ACTUALIZADO -> new CambioProductoDTO(evento.tipo().name(), evento.id(), null, evento.actual().getStock(), null, null);
+            case ELIMINADO -> new CambioProductoDTO(evento.tipo().name(), evento.id(), null, null, null, null);
+        };
+        publicar(cambio);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoModificado(CatalogoModificadoEvent evento) {
+        publicar(new CambioProductoDTO(TIPO_CATALOGO, null, null, null, evento.filas(), null));
+    }
+    
+    /**
+     * Agrega un cambio al buffer y avisa a los suscriptores. No bloquea: el envío
+     * corre en el pool de envío.
+     */
+    private void publicar(CambioProductoDTO cambio) {
+        Evento evento = new Evento(cambio.getTipo(), serializar(cambio));
+        synchronized (this) {
+            anillo[(int) (siguienteOffset % capacidad)] = evento;
+            siguienteOffset++;
+        }
+        for (Suscriptor suscriptor : suscriptores) {
+            programar(suscriptor);
+        }
+    }
+    
+    private void programar(Suscriptor suscriptor) {
+        if (suscriptor.enviando.compareAndSet(false, true)) {
+            envios.execute(() -> enviar(suscriptor));
+        }
+    }
+    
+    /**
+     * Envía al suscriptor todo lo que le falta. Solo un hilo por suscriptor a la vez.
+     */
+    private void enviar(Suscriptor suscriptor) {
+        try {
+            while (true) {
+                if (suscriptor.reinicio) {
+                    suscriptor.reinicio = false;
+                    enviarEvento(suscriptor, SseEmitter.event()
+                            .id(eventoId(suscriptor.cursor - 1))
+                            .name(TIPO_REINICIO)
+                            .data(serializar(new CambioProductoDTO(TIPO_REINICIO, null, null, null, null,
+                                    eventoId(suscriptor.cursor - 1)))));
+                }
+                if (suscriptor.latido) {
+                    suscriptor.latido = false;
+                    enviarEvento(suscriptor, SseEmitter.event().comment("latido"));
+                }
+                
+                List<Evento> pendientes = new ArrayList<>();
+                long desde;
+                synchronized (this) {
+                    long primero = Math.max(0, siguienteOffset - capacidad);
+                    if (suscriptor.cursor < primero) {
+                        // El suscriptor quedó demasiado atrás: se perdieron eventos
+                        suscriptor.cursor = primero;
+                        suscriptor.reinicio = true;
+                        continue;
+                    }
+                    desde = suscriptor.cursor;
+                    long hasta = Math.min(siguienteOffset, desde + MAX_EVENTOS_POR_ENVIO);
+                    for (long offset = desde; offset < hasta; offset++) {
+                        pendientes.add(anillo[(int) (offset % capacidad)]);
+                    }
+                }
+                
+                if (pendientes.isEmpty()) {
+                    suscriptor.enviando.set(false);
+                    // Un evento pudo llegar entre la lectura y el set: se vuelve a tomar el turno
+                    if (hayPendientes(suscriptor) && suscriptor.enviando.compareAndSet(false, true)) {
+                        continue;
+                    }
+                    return;
+                }
+                
+                for (int i = 0; i < pendientes.size(); i++) {
+                    Evento evento = pendientes.get(i);
+                    enviarEvento(suscriptor, SseEmitter.event()
+                            .id(eventoId(desde + i))
+                            .name(evento.tipo())
+                            .data(evento.datos()));
+                }
+                suscriptor.cursor = desde + pendientes.size();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado, emisor ya completado o envío bloqueado demasiado tiempo
+            suscriptores.remove(suscriptor);
+            suscriptor.emitter.completeWithError(e);
+        }
+    }
+    
+    /**
+     * Envía un evento marcando el inicio del envío para {@link #revisarEnvios()}.
+     * @throws IOException si el cliente se desconectó o el envío superó el máximo
+     *                     y el suscriptor ya se desconectó
+     */
+    private void enviarEvento(Suscriptor suscriptor, SseEmitter.SseEventBuilder evento) throws IOException {
+        long inicio = System.nanoTime();
+        if (inicio == SIN_ENVIO || inicio == ENVIO_BLOQUEADO) {
+            inicio++;
+        }
+        suscriptor.envioDesde.set(inicio);
+        try {
+            suscriptor.emitter.send(evento);
+        } finally {
+            if (!suscriptor.envioDesde.compareAndSet(inicio, SIN_ENVIO)) {
+                // revisarEnvios lo marcó como bloqueado y agregó un hilo al pool
+                suscriptor.envioDesde.set(SIN_ENVIO);
+                cambiarHilosBloqueados(-1);
+            }
+        }
+        if (!suscriptores.contains(suscriptor)) {
+            throw new IOException("Suscriptor desconectado");
+        }
+    }
+    
+    /**
+     * Desconecta a los suscriptores con un envío en curso desde hace más de
+     * {@code app.cambios.envio-maximo-ms} y agrega un hilo al pool por cada uno.
+     * No toca los emisores: sus métodos se sincronizan con el envío bloqueado. El
+     * hilo bloqueado los completa cuando su escritura termina.
+     */
+    private void revisarEnvios() {
+        long ahora = System.nanoTime();
+        for (Suscriptor suscriptor : suscriptores) {
+            long desde = suscriptor.envioDesde.get();
+            if (desde != SIN_ENVIO && desde != ENVIO_BLOQUEADO && ahora - desde > envioMaximoNs
+                    && suscriptor.envioDesde.compareAndSet(desde, ENVIO_BLOQUEADO)) {
+                suscriptores.remove(suscriptor);
+                cambiarHilosBloqueados(1);
+                logger.warn("Suscriptor desconectado: un envío lleva más de {} ms bloqueado",
+                        TimeUnit.NANOSECONDS.toMillis(envioMaximoNs));
+            }
+        }
+    }
+    
+    private void cambiarHilosBloqueados(int delta) {
+        synchronized (envios) {
+            hilosBloqueados += delta;
+            int hilos = hilosEnvio + hilosBloqueados;
+            // El máximo nunca puede quedar por debajo del núcleo
+            if (delta > 0) {
+                envios.setMaximumPoolSize(hilos);
+                envios.setCorePoolSize(hilos);
+            } else {
+                envios.setCorePoolSize(hilos);
+                envios.setMaximumPoolSize(hilos);
+            }
+        }
+    }
+    
+    private boolean hayPendientes(Suscriptor suscriptor) {
+        synchronized (this) {
+            return suscriptor.cursor < siguienteOffset || suscriptor.reinicio || suscriptor.latido;
+        }
+    }
+    
+    /**
+     * Envía un comentario SSE a cada suscriptor para mantener viva la conexión
+     * y detectar clientes desconectados.
+     */
+    private void enviarLatidos() {
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.latido = true;
+            programar(suscriptor);
+        }
+    }
+    
+    private String serializar(CambioProductoDTO cambio) {
+        try {
+            return objectMapper.writeValueAsString(cambio);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el cambio " + cambio, e);
+        }
+    }
+    
+    private String eventoId(long offset) {
+        return ejecucion + "-" + offset;
+    }
+    
+    /**
+     * Obtiene el offset de un ID de evento de esta ejecución.
+     * @return El offset, o null si el ID no es válido o es de otra ejecución
+     */
+    private Long offsetDe(String eventoId) {
+        if (eventoId == null || !eventoId.startsWith(ejecucion + "-")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(eventoId.substring(ejecucion.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    @PreDestroy
+    void cerrar() {
+        latidos.shutdownNow();
+        envios.shutdownNow();
+        for (Suscriptor suscriptor : suscriptores) {
+            // Un emisor con un envío en curso se completa al terminar el envío
+            if (suscriptor.envioDesde.get() == SIN_ENVIO) {
+                suscriptor.emitter.complete();
+            }
+        }
+        logger.info("Flujo de cambios cerrado ({} suscriptores)", suscriptores.size());
+    }
+    
+    private static ThreadFactory hilos(String nombre) {
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread hilo = new Thread(r, nombre + "-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+    
+    /**
+     * Evento del buffer, ya serializado.
+     */
+    private record Evento(String tipo, String datos) {
+    }
+    
+    /**
+     * Estado de envío de un suscriptor.
+     */
+    private static class Suscriptor {
+        
+        private final SseEmitter emitter;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        
+        /**
+         * {@link System#nanoTime()} al empezar el envío en curso, {@link #SIN_ENVIO} o
+         * {@link #ENVIO_BLOQUEADO}.
+         */
+        private final AtomicLong envioDesde = new AtomicLong(SIN_ENVIO);
+        
+        /**
+         * Próximo offset a enviar. Solo lo modifica el hilo que tiene el turno de envío
+         * (o el alta, antes de publicarse el suscriptor).
+         */
+        private volatile long cursor;
+        private volatile boolean reinicio;
+        private volatile boolean latido;
+        
+        Suscriptor(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
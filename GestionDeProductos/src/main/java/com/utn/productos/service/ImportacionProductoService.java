@@ -0,0 +1,364 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.ImportacionEstadoDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.exception.ImportacionNotFoundException;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.EstadoImportacion;
+import com.utn.productos.model.Producto;
+import com.utn.productos.repository.ProductoBatchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio que importa catálogos de productos desde archivos CSV.
+ * <p>
+ * El archivo se procesa en segundo plano leyendo un registro por vez. Cada fila
+ * se valida con las mismas reglas que {@link ProductoDTO} y las filas válidas se
+ * escriben en lotes JDBC, cada lote en su propia transacción. La memoria usada
+ * depende del tamaño del lote y no del tamaño del archivo.
+ * <p>
+ * Al terminar, aunque haya fallado a mitad de camino, se publica un solo
+ * {@link CatalogoModificadoEvent} con todas las filas escritas: con un evento
+ * por lote, el modelo de lectura recargaría el catálogo completo tras cada uno.
+ * Mientras la importación corre, las cachés que invalida ese evento pueden no
+ * ver los lotes ya escritos.
+ * <p>
+ * Columnas reconocidas en la cabecera: id (opcional), nombre, descripcion,
+ * precio, stock y categoria. Las filas con id actualizan el producto existente.
+ */
+@Service
+public class ImportacionProductoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionProductoService.class);
+
+    private static final int MAX_CARACTERES_REGISTRO = 16 * 1024;
+
+    private final ProductoBatchRepository productoBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final TaskExecutor taskExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BufferStockService bufferStock;
+
+    /**
+     * Importaciones recientes, ordenadas de la más antigua a la más nueva.
+     */
+    private final Map<String, Importacion> importaciones = new LinkedHashMap<>();
+
+    @Value("${app.importacion.tamano-lote:1000}")
+    private int tamanoLote;
+
+    @Value("${app.importacion.max-errores:100}")
+    private int maxErrores;
+
+    @Value("${app.importacion.max-historial:20}")
+    private int maxHistorial;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param productoBatchRepository Repositorio de escrituras masivas
+     * @param transactionTemplate Plantilla para demarcar la transacción de cada lote
+     * @param validator Validador de Bean Validation
+     * @param taskExecutor Ejecutor donde corren los jobs de importación
+     * @param eventPublisher Publicador del evento de catálogo modificado al terminar
+     * @param bufferStock Buffer de stock diferido, que se vacía antes de cada lote
+     */
+    public ImportacionProductoService(ProductoBatchRepository productoBatchRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      Validator validator,
+                                      TaskExecutor taskExecutor,
+                                      ApplicationEventPublisher eventPublisher,
+                                      BufferStockService bufferStock) {
+        this.productoBatchRepository = productoBatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.taskExecutor = taskExecutor;
+        this.eventPublisher = eventPublisher;
+        this.bufferStock = bufferStock;
+    }
+
+    /**
+     * Inicia la importación de un archivo CSV en segundo plano.
+     * El archivo se copia a disco antes de responder para no retenerlo en memoria.
+     * @param archivo Archivo CSV subido
+     * @return Estado inicial de la importación
+     * @throws IOException si no se puede copiar el archivo
+     */
+    public ImportacionEstadoDTO iniciarImportacion(MultipartFile archivo) throws IOException {
+        Path temporal = Files.createTempFile("productos-importacion-", ".csv");
+        try {
+            archivo.transferTo(temporal);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+
+        Importacion importacion = new Importacion(UUID.randomUUID().toString());
+        registrar(importacion);
+        taskExecutor.execute(() -> ejecutar(importacion, temporal));
+        return importacion.aDTO();
+    }
+
+    /**
+     * Obtiene el progreso de una importación.
+     * @param id ID de la importación
+     * @return Estado actual de la importación
+     * @throws ImportacionNotFoundException si no existe la importación
+     */
+    public ImportacionEstadoDTO obtenerEstado(String id) {
+        Importacion importacion;
+        synchronized (importaciones) {
+            importacion = importaciones.get(id);
+        }
+        if (importacion == null) {
+            throw new ImportacionNotFoundException(id);
+        }
+        return importacion.aDTO();
+    }
+
+    /**
+     * Lee el archivo, valida cada fila y escribe los lotes.
+     */
+    private void ejecutar(Importacion importacion, Path archivo) {
+        try (LectorCsv lector = new LectorCsv(
+                new InputStreamReader(Files.newInputStream(archivo), StandardCharsets.UTF_8),
+                ',', MAX_CARACTERES_REGISTRO)) {
+
+            List<String> cabecera = lector.siguienteRegistro();
+            if (cabecera == null) {
+                throw new IllegalArgumentException("El archivo está vacío");
+            }
+            Map<String, Integer> columnas = indexarCabecera(cabecera);
+
+            List<Producto> lote = new ArrayList<>(tamanoLote);
+            boolean conIdExplicito = false;
+            List<String> registro;
+            while ((registro = lector.siguienteRegistro()) != null) {
+                if (registro.size() == 1 && registro.get(0).isBlank()) {
+                    continue;
+                }
+                importacion.filasLeidas.incrementAndGet();
+
+                Producto producto = convertirFila(registro, columnas, lector.getNumeroRegistro(), importacion);
+                if (producto == null) {
+                    continue;
+                }
+                conIdExplicito |= producto.getId() != null;
+                lote.add(producto);
+
+                if (lote.size() >= tamanoLote) {
+                    escribirLote(lote, importacion);
+                }
+            }
+            escribirLote(lote, importacion);
+
+            if (conIdExplicito) {
+                productoBatchRepository.sincronizarSecuenciaId();
+            }
+            publicarCambios(importacion);
+            importacion.finalizar(EstadoImportacion.COMPLETADA);
+        } catch (Exception e) {
+            logger.error("Error en la importación {}", importacion.id, e);
+            importacion.agregarError("Importación interrumpida: " + e.getMessage(), maxErrores);
+            if (!importacion.cambiosPublicados) {
+                // Los lotes ya confirmados quedan en la base aunque la importación falle
+                publicarCambios(importacion);
+            }
+            importacion.finalizar(EstadoImportacion.FALLIDA);
+        } finally {
+            try {
+                Files.deleteIfExists(archivo);
+            } catch (IOException e) {
+                logger.warn("No se pudo borrar el archivo temporal {}", archivo, e);
+            }
+        }
+    }
+
+    /**
+     * Escribe un lote en su propia transacción y lo vacía.
+     * Antes escribe el stock diferido pendiente para que no pise los datos importados.
+     */
+    private void escribirLote(List<Producto> lote, Importacion importacion) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        bufferStock.vaciar();
+        transactionTemplate.executeWithoutResult(status -> productoBatchRepository.upsertLote(lote));
+        importacion.filasImportadas.addAndGet(lote.size());
+        lote.clear();
+    }
+
+    /**
+     * Publica un único evento con las filas escritas por toda la importación,
+     * antes de marcarla como terminada: quien ve el estado final ya lee el catálogo actualizado.
+     */
+    private void publicarCambios(Importacion importacion) {
+        importacion.cambiosPublicados = true;
+        long filas = importacion.filasImportadas.get();
+        if (filas > 0) {
+            eventPublisher.publishEvent(new CatalogoModificadoEvent((int) Math.min(filas, Integer.MAX_VALUE)));
+        }
+    }
+
+    /**
+     * Convierte una fila en un producto validado.
+     * @return El producto, o null si la fila fue rechazada
+     */
+    private Producto convertirFila(List<String> registro, Map<String, Integer> columnas,
+                                   long numeroFila, Importacion importacion) {
+        ProductoDTO dto = new ProductoDTO();
+        Long id = null;
+        try {
+            String idTexto = campo(registro, columnas, "id");
+            if (idTexto != null) {
+                id = Long.valueOf(idTexto);
+            }
+            dto.setNombre(campo(registro, columnas, "nombre"));
+            dto.setDescripcion(campo(registro, columnas, "descripcion"));
+            String precio = campo(registro, columnas, "precio");
+            dto.setPrecio(precio == null ? null : Double.valueOf(precio));
+            String stock = campo(registro, columnas, "stock");
+            dto.setStock(stock == null ? null : Integer.valueOf(stock));
+            String categoria = campo(registro, columnas, "categoria");
+            dto.setCategoria(categoria == null ? null : Categoria.valueOf(categoria.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            rechazar(importacion, numeroFila, "formato inválido (" + e.getMessage() + ")");
+            return null;
+        }
+
+        Set<ConstraintViolation<ProductoDTO>> violaciones = validator.validate(dto);
+        if (!violaciones.isEmpty()) {
+            rechazar(importacion, numeroFila, violaciones.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+
+        return new Producto(id, dto.getNombre(), dto.getDescripcion(),
+                dto.getPrecio(), dto.getStock(), dto.getCategoria(), null);
+    }
+
+    private void rechazar(Importacion importacion, long numeroFila, String motivo) {
+        importacion.filasRechazadas.incrementAndGet();
+        importacion.agregarError("Fila " + numeroFila + ": " + motivo, maxErrores);
+    }
+
+    /**
+     * Devuelve el valor recortado de una columna, o null si la columna no existe o está vacía.
+     */
+    private static String campo(List<String> registro, Map<String, Integer> columnas, String nombre) {
+        Integer indice = columnas.get(nombre);
+        if (indice == null || indice >= registro.size()) {
+            return null;
+        }
+        String valor = registro.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static Map<String, Integer> indexarCabecera(List<String> cabecera) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String nombre = cabecera.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columnas.put(nombre, i);
+        }
+        for (String obligatoria : List.of("nombre", "precio", "stock", "categoria")) {
+            if (!columnas.containsKey(obligatoria)) {
+                throw new IllegalArgumentException("Falta la columna obligatoria '" + obligatoria + "'");
+            }
+        }
+        return columnas;
+    }
+
+    /**
+     * Registra una importación y descarta las terminadas más antiguas
+     * cuando se supera el tamaño del historial.
+     */
+    private void registrar(Importacion importacion) {
+        synchronized (importaciones) {
+            importaciones.put(importacion.id, importacion);
+            Iterator<Importacion> it = importaciones.values().iterator();
+            while (importaciones.size() > maxHistorial && it.hasNext()) {
+                if (it.next().estado != EstadoImportacion.EN_CURSO) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Estado mutable de una importación en curso.
+     */
+    private static class Importacion {
+
+        private final String id;
+        private final LocalDateTime inicio = LocalDateTime.now();
+        private final long inicioNanos = System.nanoTime();
+        private final AtomicLong filasLeidas = new AtomicLong();
+        private final AtomicLong filasImportadas = new AtomicLong();
+        private final AtomicLong filasRechazadas = new AtomicLong();
+        private final List<String> errores = Collections.synchronizedList(new ArrayList<>());
+        private volatile EstadoImportacion estado = EstadoImportacion.EN_CURSO;
+        private boolean cambiosPublicados;
+        private volatile LocalDateTime fin;
+        private volatile long finNanos;
+
+        Importacion(String id) {
+            this.id = id;
+        }
+
+        void agregarError(String error, int maxErrores) {
+            if (errores.size() < maxErrores) {
+                errores.add(error);
+            }
+        }
+
+        void finalizar(EstadoImportacion estadoFinal) {
+            finNanos = System.nanoTime();
+            fin = LocalDateTime.now();
+            estado = estadoFinal;
+        }
+
+        ImportacionEstadoDTO aDTO() {
+            long hasta = estado == EstadoImportacion.EN_CURSO ? System.nanoTime() : finNanos;
+            double segundos = (hasta - inicioNanos) / 1_000_000_000.0;
+            long leidas = filasLeidas.get();
+            double filasPorSegundo = segundos > 0 ? leidas / segundos : 0.0;
+            List<String> copiaErrores;
+            synchronized (errores) {
+                copiaErrores = new ArrayList<>(errores);
+            }
+            return new ImportacionEstadoDTO(id, estado, leidas, filasImportadas.get(),
+                    filasRechazadas.get(), filasPorSegundo, inicio, fin, copiaErrores);
+        }
+    }
+}
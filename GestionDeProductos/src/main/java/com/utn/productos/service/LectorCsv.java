@@ -0,0 +1,124 @@
+package com.utn.productos.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector incremental de archivos CSV (RFC 4180).
+ * Lee un registro por vez, por lo que la memoria usada depende del tamaño
+ * del registro y no del tamaño del archivo. Soporta campos entre comillas,
+ * comillas escapadas ("") y saltos de línea dentro de campos entrecomillados.
+ */
+public class LectorCsv implements Closeable {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final Reader reader;
+    private final char separador;
+    private final int maxCaracteresRegistro;
+    private final char[] buffer = new char[TAMANO_BUFFER];
+    private int posicion;
+    private int limite;
+    private long numeroRegistro;
+
+    /**
+     * Crea un lector CSV.
+     * @param reader Fuente de caracteres (no se envuelve en otro buffer)
+     * @param separador Separador de campos
+     * @param maxCaracteresRegistro Tamaño máximo permitido para un registro
+     */
+    public LectorCsv(Reader reader, char separador, int maxCaracteresRegistro) {
+        this.reader = reader;
+        this.separador = separador;
+        this.maxCaracteresRegistro = maxCaracteresRegistro;
+    }
+
+    /**
+     * Lee el siguiente registro del archivo.
+     * @return Lista de campos, o null si se llegó al final del archivo
+     * @throws IOException si falla la lectura o el registro supera el tamaño máximo
+     */
+    public List<String> siguienteRegistro() throws IOException {
+        int c = leer();
+        if (c == -1) {
+            return null;
+        }
+        numeroRegistro++;
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        int caracteres = 0;
+
+        while (c != -1) {
+            if (++caracteres > maxCaracteresRegistro) {
+                throw new IOException("El registro " + numeroRegistro
+                        + " supera los " + maxCaracteresRegistro + " caracteres");
+            }
+            char ch = (char) c;
+            if (entreComillas) {
+                if (ch == '"') {
+                    int siguiente = leer();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else {
+                    campo.append(ch);
+                }
+            } else if (ch == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else if (ch == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch == '\r') {
+                int siguiente = leer();
+                if (siguiente != '\n' && siguiente != -1) {
+                    posicion--;
+                }
+                break;
+            } else {
+                campo.append(ch);
+            }
+            c = leer();
+        }
+
+        if (entreComillas) {
+            throw new IOException("Comillas sin cerrar en el registro " + numeroRegistro);
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Número del último registro leído (comenzando en 1).
+     */
+    public long getNumeroRegistro() {
+        return numeroRegistro;
+    }
+
+    private int leer() throws IOException {
+        if (posicion == limite) {
+            limite = reader.read(buffer, 0, buffer.length);
+            posicion = 0;
+            if (limite <= 0) {
+                limite = 0;
+                return -1;
+            }
+        }
+        return buffer[posicion++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
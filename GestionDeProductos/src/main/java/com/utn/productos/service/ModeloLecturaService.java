@@ -0,0 +1,359 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.BusquedaProductosDTO;
+import com.utn.productos.dto.FiltroBusquedaDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.event.ProductoCambiadoEvent;
+import com.utn.productos.event.StockEscritoEvent;
+import com.utn.productos.exception.ProductoNotFoundException;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import com.utn.productos.repository.ProductoBatchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Modelo de lectura del catálogo en memoria (CQRS): con
+ * {@code app.modelo-lectura.enabled=true} los GET de productos se responden desde
+ * un {@link CatalogoEnMemoria} sin abrir transacciones ni usar JDBC. La base de
+ * datos sigue siendo la fuente de verdad y todas las escrituras pasan por ella.
+ * <p>
+ * Al iniciar, el catálogo se carga en bloques de {@code tamano-bloque} productos
+ * leídos en paralelo por {@code hilos-carga} hilos. Después se mantiene con los
+ * eventos que se publican tras cada commit; sus listeners corren antes que los de
+ * {@link VersionCatalogoService}, así que un ETag nuevo nunca acompaña datos viejos.
+ * Los cambios que llegan durante una carga se guardan y se aplican al catálogo
+ * cargado, descartando los que ya estaban incluidos gracias a la versión.
+ * <p>
+ * Un cambio masivo ({@link CatalogoModificadoEvent}) invalida el catálogo y programa
+ * una recarga. Mientras no hay un catálogo cargado, cada método devuelve vacío y el
+ * llamador consulta la base de datos.
+ */
+@Service
+public class ModeloLecturaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModeloLecturaService.class);
+
+    private final ProductoBatchRepository productoBatchRepository;
+    private final BufferStockService bufferStock;
+
+    @Value("${app.modelo-lectura.enabled:false}")
+    private boolean habilitado;
+
+    @Value("${app.modelo-lectura.hilos-carga:4}")
+    private int hilosCarga;
+
+    @Value("${app.modelo-lectura.tamano-bloque:50000}")
+    private int tamanoBloque;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Catálogo vigente; null mientras no esté cargado. Protegido por {@link #lock}.
+     */
+    private CatalogoEnMemoria catalogo;
+
+    /**
+     * Cambios recibidos durante la carga en curso; null si no hay una carga en curso.
+     * Protegido por {@link #lock}.
+     */
+    private List<Consumer<CatalogoEnMemoria>> cambiosDuranteCarga;
+
+    /**
+     * Cantidad de cambios masivos recibidos. Una carga que empezó antes de uno se descarta.
+     * Protegido por {@link #lock}.
+     */
+    private long invalidaciones;
+
+    private final AtomicBoolean cargaProgramada = new AtomicBoolean();
+
+    private ExecutorService cargador;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param productoBatchRepository Repositorio JDBC usado para cargar el catálogo
+     * @param bufferStock Buffer de escritura diferida, para devolver el stock pendiente
+     */
+    public ModeloLecturaService(ProductoBatchRepository productoBatchRepository, BufferStockService bufferStock) {
+        this.productoBatchRepository = productoBatchRepository;
+        this.bufferStock = bufferStock;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        cargador = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "modelo-lectura");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Carga el catálogo en segundo plano cuando la aplicación ya aplicó las migraciones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onAplicacionLista() {
+        if (habilitado) {
+            programarCarga();
+        }
+    }
+
+    /**
+     * Indica si hay un catálogo cargado para responder las lecturas.
+     */
+    public boolean isDisponible() {
+        return leer(c -> Boolean.TRUE).isPresent();
+    }
+
+    /**
+     * Obtiene todos los productos, ordenados por ID.
+     * @return Los productos, o vacío si el catálogo no está cargado
+     */
+    public Optional<List<ProductoResponseDTO>> obtenerTodos() {
+        return leer(CatalogoEnMemoria::listar);
+    }
+
+    /**
+     * Obtiene un producto por su ID.
+     * @param id ID del producto
+     * @return El producto, o vacío si el catálogo no está cargado
+     * @throws ProductoNotFoundException si el catálogo está cargado y no contiene el producto
+     */
+    public Optional<ProductoResponseDTO> obtenerPorId(Long id) {
+        return leer(c -> Optional.ofNullable(c.obtener(id))
+                .orElseThrow(() -> new ProductoNotFoundException(id)));
+    }
+
+    /**
+     * Obtiene la versión de un producto.
+     * @param id ID del producto
+     * @return La versión, o vacío si el producto no existe o el catálogo no está cargado
+     */
+    public Optional<Long> obtenerVersion(Long id) {
+        return leer(c -> c.version(id));
+    }
+
+    /**
+     * Obtiene los productos de una categoría, ordenados por ID.
+     * @param categoria Categoría por la que filtrar
+     * @return Los productos, o vacío si el catálogo no está cargado
+     */
+    public Optional<List<ProductoResponseDTO>> obtenerPorCategoria(Categoria categoria) {
+        return leer(c -> c.listar(categoria));
+    }
+
+    /**
+     * Busca productos con las mismas reglas que {@link ProductoService#buscar}.
+     * @param filtro Filtros, paginación y orden de la búsqueda
+     * @return Página de productos, total y facetas, o vacío si el catálogo no está cargado
+     */
+    public Optional<BusquedaProductosDTO> buscar(FiltroBusquedaDTO filtro) {
+        return leer(c -> c.buscar(filtro));
+    }
+
+    /**
+     * Aplica el cambio de un producto al catálogo.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        ProductoResponseDTO actual = evento.actual();
+        long versionAnterior = evento.anterior() != null ? evento.anterior().getVersion() : 0;
+        aplicar(actual != null
+                ? c -> c.guardar(actual)
+                : c -> c.eliminar(evento.id(), versionAnterior));
+    }
+
+    /**
+     * Relee los productos cuyo stock diferido se escribió, para tomar su nueva versión.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockEscrito(StockEscritoEvent evento) {
+        if (!habilitado || (!isDisponible() && !cargando())) {
+            return;
+        }
+        List<Producto> productos = productoBatchRepository.leerPorIds(evento.ids());
+        aplicar(c -> productos.forEach(c::guardar));
+    }
+
+    /**
+     * Invalida el catálogo ante cambios masivos sin detalle por producto y programa una recarga.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoModificado(CatalogoModificadoEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            catalogo = null;
+            invalidaciones++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        programarCarga();
+    }
+
+    /**
+     * Recarga el catálogo y espera a que termine. Tiene visibilidad de paquete para las pruebas.
+     */
+    void recargar() throws InterruptedException, ExecutionException {
+        cargador.submit(this::cargar).get();
+    }
+
+    private <T> Optional<T> leer(Function<CatalogoEnMemoria, T> consulta) {
+        lock.readLock().lock();
+        try {
+            return catalogo == null ? Optional.empty() : Optional.ofNullable(consulta.apply(catalogo));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean cargando() {
+        lock.readLock().lock();
+        try {
+            return cambiosDuranteCarga != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void aplicar(Consumer<CatalogoEnMemoria> cambio) {
+        lock.writeLock().lock();
+        try {
+            if (catalogo != null) {
+                cambio.accept(catalogo);
+            }
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.add(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Programa una carga, salvo que ya haya una programada que todavía no empezó.
+     */
+    private void programarCarga() {
+        if (cargaProgramada.compareAndSet(false, true)) {
+            cargador.execute(() -> {
+                cargaProgramada.set(false);
+                cargar();
+            });
+        }
+    }
+
+    private void cargar() {
+        long invalidacionesLeidas;
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteCarga = new ArrayList<>();
+            invalidacionesLeidas = invalidaciones;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long inicio = System.nanoTime();
+        CatalogoEnMemoria nuevo = null;
+        int bloques = 0;
+        try {
+            List<Long> limites = productoBatchRepository.limitesDeBloques(tamanoBloque);
+            bloques = limites.size();
+            nuevo = new CatalogoEnMemoria(leerBloques(limites), bufferStock);
+        } catch (RuntimeException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Las lecturas siguen yendo a la base de datos hasta el próximo cambio masivo
+            logger.error("No se pudo cargar el modelo de lectura", e);
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Consumer<CatalogoEnMemoria>> cambios = cambiosDuranteCarga;
+            cambiosDuranteCarga = null;
+            if (nuevo == null || invalidaciones != invalidacionesLeidas) {
+                return;
+            }
+            for (Consumer<CatalogoEnMemoria> cambio : cambios) {
+                cambio.accept(nuevo);
+            }
+            catalogo = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Modelo de lectura cargado: {} productos en {} bloques, {} ms, ~{} MB",
+                nuevo.cantidad(), bloques, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio),
+                nuevo.bytesEstimados() / (1024 * 1024));
+    }
+
+    /**
+     * Lee cada bloque en un hilo del pool de carga.
+     * @param limites ID inicial de cada bloque
+     * @return Productos de cada bloque, en el orden de los límites
+     */
+    private List<List<Producto>> leerBloques(List<Long> limites) throws InterruptedException, ExecutionException {
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(hilosCarga, limites.size()), r -> {
+            Thread hilo = new Thread(r, "modelo-lectura-carga-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            List<Future<List<Producto>>> futuros = new ArrayList<>(limites.size());
+            for (int i = 0; i < limites.size(); i++) {
+                long desde = limites.get(i);
+                long hasta = i + 1 < limites.size() ? limites.get(i + 1) - 1 : Long.MAX_VALUE;
+                futuros.add(pool.submit(() -> productoBatchRepository.leerRango(desde, hasta)));
+            }
+            List<List<Producto>> bloques = new ArrayList<>(futuros.size());
+            for (Future<List<Producto>> futuro : futuros) {
+                bloques.add(futuro.get());
+            }
+            return bloques;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        if (cargador != null) {
+            cargador.shutdownNow();
+        }
+    }
+}
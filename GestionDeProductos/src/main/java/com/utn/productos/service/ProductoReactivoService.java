@@ -0,0 +1,174 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.exception.ProductoNotFoundException;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.ProductoReactivo;
+import com.utn.productos.repository.ProductoReactivoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lógica de negocio de productos para el stack reactivo (perfil {@code reactive}).
+ * Equivalente de {@link ProductoService} sobre R2DBC: ningún método bloquea un hilo.
+ * <p>
+ * Cada operación ejecuta una sola sentencia de escritura, así que no usa
+ * transacciones; las actualizaciones concurrentes quedan protegidas por el
+ * bloqueo optimista de {@code @Version}. No publica eventos de cambio: el modelo
+ * de lectura, las estadísticas y el flujo de cambios pertenecen al stack servlet.
+ * <p>
+ * Los listados piden todas las filas a R2DBC sin esperar al cliente: la respuesta
+ * se sigue escribiendo a medida que el cliente lee, pero la conexión vuelve al pool
+ * apenas termina la consulta. Sin el buffer, un cliente lento retiene una de las
+ * pocas conexiones del pool mientras descarga el listado y deja sin conexiones al
+ * resto de los requests. El buffer es acotado ({@code app.reactivo.buffer-listado}
+ * filas por listado): si el cliente queda más atrás, el listado termina con error
+ * y la respuesta se corta, en lugar de retener el resultado completo en memoria.
+ */
+@Service
+@Profile("reactive")
+public class ProductoReactivoService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductoReactivoService.class);
+    
+    private final ProductoReactivoRepository productoRepository;
+    
+    private final int bufferListado;
+    
+    /**
+     * Constructor con inyección de dependencias.
+     * @param productoRepository Repositorio reactivo de productos
+     * @param bufferListado Filas que un listado retiene, como máximo, mientras el cliente las lee
+     * @throws IllegalArgumentException si {@code bufferListado} no es positivo
+     */
+    public ProductoReactivoService(ProductoReactivoRepository productoRepository,
+                                   @Value("${app.reactivo.buffer-listado:10000}") int bufferListado) {
+        if (bufferListado <= 0) {
+            throw new IllegalArgumentException("app.reactivo.buffer-listado debe ser positivo: " + bufferListado);
+        }
+        this.productoRepository = productoRepository;
+        this.bufferListado = bufferListado;
+    }
+    
+    /**
+     * Crea un nuevo producto.
+     * @param productoDTO DTO con los datos del producto a crear
+     * @return DTO del producto creado
+     */
+    public Mono<ProductoResponseDTO> crearProducto(ProductoDTO productoDTO) {
+        ProductoReactivo producto = new ProductoReactivo();
+        copiarDatos(productoDTO, producto);
+        return productoRepository.save(producto).map(this::convertirAResponse);
+    }
+    
+    /**
+     * Obtiene todos los productos, ordenados por ID.
+     * @return Flujo con todos los productos
+     */
+    public Flux<ProductoResponseDTO> obtenerTodos() {
+        return listar(productoRepository.findAll(Sort.by("id")));
+    }
+    
+    /**
+     * Obtiene un producto por su ID.
+     * @param id ID del producto
+     * @return DTO del producto, o error {@link ProductoNotFoundException} si no existe
+     */
+    public Mono<ProductoResponseDTO> obtenerPorId(Long id) {
+        return buscar(id).map(this::convertirAResponse);
+    }
+    
+    /**
+     * Obtiene todos los productos de una categoría específica.
+     * @param categoria Categoría por la que filtrar
+     * @return Flujo con los productos de la categoría
+     */
+    public Flux<ProductoResponseDTO> obtenerPorCategoria(Categoria categoria) {
+        return listar(productoRepository.findByCategoria(categoria));
+    }
+    
+    /**
+     * Actualiza un producto existente.
+     * @param id ID del producto a actualizar
+     * @param productoDTO DTO con los nuevos datos
+     * @return DTO del producto actualizado
+     */
+    public Mono<ProductoResponseDTO> actualizarProducto(Long id, ProductoDTO productoDTO) {
+        return buscar(id)
+                .flatMap(producto -> {
+                    copiarDatos(productoDTO, producto);
+                    return productoRepository.save(producto);
+                })
+                .map(this::convertirAResponse);
+    }
+    
+    /**
+     * Actualiza solo el stock de un producto.
+     * @param id ID del producto
+     * @param stockDTO DTO con el nuevo stock
+     * @return DTO del producto actualizado
+     */
+    public Mono<ProductoResponseDTO> actualizarStock(Long id, ActualizarStockDTO stockDTO) {
+        return buscar(id)
+                .flatMap(producto -> {
+                    producto.setStock(stockDTO.getStock());
+                    return productoRepository.save(producto);
+                })
+                .map(this::convertirAResponse);
+    }
+    
+    /**
+     * Elimina un producto por su ID.
+     * @param id ID del producto a eliminar
+     * @return Señal de finalización, o error {@link ProductoNotFoundException} si no existe
+     */
+    public Mono<Void> eliminarProducto(Long id) {
+        return buscar(id).flatMap(productoRepository::delete);
+    }
+    
+    /**
+     * Lee las filas sin esperar al cliente, con a lo sumo {@code bufferListado}
+     * pendientes de enviar. Al desbordarse el buffer se cancela la consulta, y el
+     * flujo termina con error después de entregar lo que quedó en el buffer.
+     */
+    private Flux<ProductoResponseDTO> listar(Flux<ProductoReactivo> filas) {
+        return filas
+                .onBackpressureBuffer(bufferListado, descartado -> logger.warn(
+                        "Listado cortado: el cliente quedó más de {} productos atrás (app.reactivo.buffer-listado)",
+                        bufferListado))
+                .map(this::convertirAResponse);
+    }
+    
+    private Mono<ProductoReactivo> buscar(Long id) {
+        return productoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ProductoNotFoundException(id)));
+    }
+    
+    private static void copiarDatos(ProductoDTO productoDTO, ProductoReactivo producto) {
+        producto.setNombre(productoDTO.getNombre());
+        producto.setDescripcion(productoDTO.getDescripcion());
+        producto.setPrecio(productoDTO.getPrecio());
+        producto.setStock(productoDTO.getStock());
+        producto.setCategoria(productoDTO.getCategoria());
+    }
+    
+    private ProductoResponseDTO convertirAResponse(ProductoReactivo producto) {
+        return new ProductoResponseDTO(
+                producto.getId(),
+                producto.getNombre(),
+                producto.getDescripcion(),
+                producto.getPrecio(),
+                producto.getStock(),
+                producto.getCategoria(),
+                producto.getVersion()
+        );
+    }
+}
@@ -1,33 +1,73 @@
 package com.utn.productos.service;
 
 import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.BusquedaProductosDTO;
+import com.utn.productos.dto.FiltroBusquedaDTO;
 import com.utn.productos.dto.ProductoDTO;
 import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.event.ProductoCambiadoEvent;
+import com.utn.productos.event.TipoCambio;
 import com.utn.productos.exception.ProductoNotFoundException;
+import com.utn.productos.exception.VersionConflictoException;
 import com.utn.productos.model.Categoria;
 import com.utn.productos.model.Producto;
+import com.utn.productos.replicacion.DataSourceEnrutado;
 import com.utn.productos.repository.ProductoRepository;
+import com.utn.productos.repository.ProductoSpecifications;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Servicio que contiene la lógica de negocio para la gestión de productos.
+ * Cada escritura publica un {@link ProductoCambiadoEvent} con el estado anterior
+ * y el nuevo del producto, que los listeners reciben después del commit.
+ * Cada método público se mide con el timer {@code productos.servicio}.
+ * <p>
+ * Con la escritura diferida de stock habilitada ({@link BufferStockService}),
+ * los cambios de stock se acumulan en memoria y todas las lecturas devuelven
+ * el stock pendiente en lugar del persistido.
+ * <p>
+ * Las consultas por ID que no encuentran el producto lo registran en
+ * {@link CacheNegativaService}, para responder el próximo 404 sin consultar la base.
  */
 @Service
 @Transactional
+@Timed(value = "productos.servicio", description = "Duración de las operaciones de ProductoService")
 public class ProductoService {
     
     private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BufferStockService bufferStock;
+    private final CacheNegativaService cacheNegativa;
     
     /**
      * Constructor con inyección de dependencias.
      * @param productoRepository Repositorio de productos
+     * @param eventPublisher Publicador de eventos de cambio de productos
+     * @param bufferStock Buffer de escritura diferida de stock
+     * @param cacheNegativa Caché de IDs inexistentes
      */
-    public ProductoService(ProductoRepository productoRepository) {
+    public ProductoService(ProductoRepository productoRepository, 
+                           ApplicationEventPublisher eventPublisher,
+                           BufferStockService bufferStock,
+                           CacheNegativaService cacheNegativa) {
         this.productoRepository = productoRepository;
+        this.eventPublisher = eventPublisher;
+        this.bufferStock = bufferStock;
+        this.cacheNegativa = cacheNegativa;
     }
     
     /**
@@ -44,7 +84,9 @@ public class ProductoService {
         producto.setCategoria(productoDTO.getCategoria());
         
         Producto productoGuardado = productoRepository.save(producto);
-        return convertirAResponse(productoGuardado);
+        ProductoResponseDTO respuesta = convertirAResponse(productoGuardado);
+        eventPublisher.publishEvent(new ProductoCambiadoEvent(TipoCambio.CREADO, respuesta.getId(), null, respuesta));
+        return respuesta;
     }
     
     /**
@@ -67,9 +109,55 @@ public class ProductoService {
      */
     @Transactional(readOnly = true)
     public ProductoResponseDTO obtenerPorId(Long id) {
-        Producto producto = productoRepository.findById(id)
-                .orElseThrow(() -> new ProductoNotFoundException(id));
-        return convertirAResponse(producto);
+        return buscarPorId(id).orElseThrow(() -> new ProductoNotFoundException(id));
+    }
+    
+    /**
+     * Busca un producto por su ID sin lanzar una excepción si no existe.
+     * Permite responder un 404 sin que la excepción atraviese el proxy
+     * transaccional, que marcaría la transacción para rollback.
+     * Un faltante leído de una réplica no se registra en la caché negativa: puede
+     * ser un producto recién creado que la réplica todavía no tiene.
+     * @param id ID del producto
+     * @return DTO del producto, vacío si no existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProductoResponseDTO> buscarPorId(Long id) {
+        long generacion = cacheNegativa.generacion();
+        Optional<Producto> producto = productoRepository.findById(id);
+        if (producto.isEmpty() && !DataSourceEnrutado.transaccionEnReplica()) {
+            cacheNegativa.registrar(id, generacion);
+        }
+        return producto.map(this::convertirAResponse);
+    }
+    
+    /**
+     * Obtiene solo la versión de un producto, sin cargar la entidad.
+     * Permite responder a un GET condicional sin construir la respuesta.
+     * Como en {@link #buscarPorId(Long)}, un faltante leído de una réplica no se
+     * registra en la caché negativa.
+     * @param id ID del producto
+     * @return Versión del producto, vacío si no existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> obtenerVersion(Long id) {
+        long generacion = cacheNegativa.generacion();
+        Optional<Long> version = productoRepository.findVersionById(id);
+        if (version.isEmpty() && !DataSourceEnrutado.transaccionEnReplica()) {
+            cacheNegativa.registrar(id, generacion);
+        }
+        return version;
+    }
+    
+    /**
+     * Indica si el producto tiene un cambio de stock sin escribir en la base de datos.
+     * Mientras lo tenga, su versión no identifica el stock que se devuelve.
+     * @param id ID del producto
+     * @return true si hay stock pendiente en el buffer de escritura diferida
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean tieneStockPendiente(Long id) {
+        return bufferStock.stockPendiente(id) != null;
     }
     
     /**
@@ -85,6 +173,70 @@ public class ProductoService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Busca productos combinando texto, rango de precio, stock y categorías.
+     * Además de la página pedida devuelve la cantidad de productos por categoría
+     * (facetas), calculada con todos los filtros salvo el de categoría para que
+     * el cliente pueda mostrar cuántos resultados tendría al cambiar de categoría.
+     * @param filtro Filtros, paginación y orden de la búsqueda
+     * @return Página de productos, total y facetas por categoría
+     */
+    @Transactional(readOnly = true)
+    public BusquedaProductosDTO buscar(FiltroBusquedaDTO filtro) {
+        Specification<Producto> spec = Specification.where(null);
+        if (filtro.getTexto() != null && !filtro.getTexto().isBlank()) {
+            spec = spec.and(ProductoSpecifications.textoContiene(filtro.getTexto().trim()));
+        }
+        boolean conRangoPrecio = filtro.getPrecioMin() != null || filtro.getPrecioMax() != null;
+        if (conRangoPrecio) {
+            spec = spec.and(ProductoSpecifications.precioEntre(filtro.getPrecioMin(), filtro.getPrecioMax()));
+        }
+        if (Boolean.TRUE.equals(filtro.getConStock())) {
+            spec = spec.and(ProductoSpecifications.conStock());
+        }
+        
+        // Con rango de precio se restringe explícitamente a las categorías (todas si no se pidió
+        // ninguna) para que la consulta pueda usar el índice (categoria, precio).
+        Set<Categoria> todas = EnumSet.allOf(Categoria.class);
+        Set<Categoria> seleccionadas = filtro.getCategorias() == null || filtro.getCategorias().isEmpty()
+                ? todas
+                : EnumSet.copyOf(filtro.getCategorias());
+        Specification<Producto> specFacetas = conRangoPrecio
+                ? spec.and(ProductoSpecifications.categoriaEn(todas))
+                : spec;
+        Specification<Producto> specResultados = conRangoPrecio || seleccionadas.size() < todas.size()
+                ? spec.and(ProductoSpecifications.categoriaEn(seleccionadas))
+                : spec;
+        
+        Map<Categoria, Long> facetas = new EnumMap<>(Categoria.class);
+        todas.forEach(c -> facetas.put(c, 0L));
+        facetas.putAll(productoRepository.contarPorCategoria(specFacetas));
+        long total = seleccionadas.stream().mapToLong(facetas::get).sum();
+        
+        // El total sale de las facetas, así que la página se pide sin consulta de conteo
+        long desde = (long) filtro.getPagina() * filtro.getTamano();
+        List<ProductoResponseDTO> productos = List.of();
+        if (desde < total) {
+            productos = productoRepository.buscar(specResultados, ordenBusqueda(filtro), (int) desde, filtro.getTamano())
+                    .stream()
+                    .map(this::convertirAResponse)
+                    .collect(Collectors.toList());
+        }
+        
+        return new BusquedaProductosDTO(productos, total, filtro.getPagina(), filtro.getTamano(), facetas);
+    }
+    
+    /**
+     * Orden de la página de resultados, desempatado por ID para que la paginación
+     * sea estable. Si ya se ordena por ID no se repite la columna.
+     * @param filtro Filtro con el orden y la dirección pedidos
+     * @return Orden a aplicar en la consulta
+     */
+    static Sort ordenBusqueda(FiltroBusquedaDTO filtro) {
+        Sort orden = Sort.by(Sort.Direction.fromString(filtro.getDireccion()), filtro.getOrden());
+        return "id".equals(filtro.getOrden()) ? orden : orden.and(Sort.by("id"));
+    }
+    
     /**
      * Actualiza un producto existente.
      * @param id ID del producto a actualizar
@@ -93,8 +245,28 @@ public class ProductoService {
      * @throws ProductoNotFoundException si no existe el producto
      */
     public ProductoResponseDTO actualizarProducto(Long id, ProductoDTO productoDTO) {
+        return actualizarProducto(id, productoDTO, null);
+    }
+    
+    /**
+     * Actualiza un producto existente solo si su versión es la esperada.
+     * Las actualizaciones concurrentes quedan además protegidas por el bloqueo
+     * optimista de {@code @Version}.
+     * @param id ID del producto a actualizar
+     * @param productoDTO DTO con los nuevos datos
+     * @param versionEsperada Versión que el cliente leyó, o null para no verificarla
+     * @return DTO del producto actualizado
+     * @throws ProductoNotFoundException si no existe el producto
+     * @throws VersionConflictoException si la versión actual no es la esperada
+     */
+    public ProductoResponseDTO actualizarProducto(Long id, ProductoDTO productoDTO, Long versionEsperada) {
         Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new ProductoNotFoundException(id));
+        if (versionEsperada != null && !versionEsperada.equals(producto.getVersion())) {
+            throw new VersionConflictoException(id, producto.getVersion());
+        }
+        ProductoResponseDTO anterior = convertirAResponse(producto);
+        bufferStock.descartarAlConfirmar(id);
         
         producto.setNombre(productoDTO.getNombre());
         producto.setDescripcion(productoDTO.getDescripcion());
@@ -102,12 +274,17 @@ public class ProductoService {
         producto.setStock(productoDTO.getStock());
         producto.setCategoria(productoDTO.getCategoria());
         
-        Producto productoActualizado = productoRepository.save(producto);
-        return convertirAResponse(productoActualizado);
+        Producto productoActualizado = productoRepository.saveAndFlush(producto);
+        // El stock pendiente se descarta recién con el commit: la respuesta lleva el escrito
+        ProductoResponseDTO respuesta = convertirAResponse(productoActualizado, productoActualizado.getStock());
+        eventPublisher.publishEvent(new ProductoCambiadoEvent(TipoCambio.ACTUALIZADO, id, anterior, respuesta));
+        return respuesta;
     }
     
     /**
      * Actualiza solo el stock de un producto.
+     * Con la escritura diferida habilitada el cambio queda en el buffer y la
+     * versión devuelta es la persistida, que se incrementa al escribirlo.
      * @param id ID del producto
      * @param stockDTO DTO con el nuevo stock
      * @return DTO del producto actualizado
@@ -116,11 +293,20 @@ public class ProductoService {
     public ProductoResponseDTO actualizarStock(Long id, ActualizarStockDTO stockDTO) {
         Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new ProductoNotFoundException(id));
+        ProductoResponseDTO anterior = convertirAResponse(producto);
+        
+        if (bufferStock.registrar(id, stockDTO.getStock())) {
+            ProductoResponseDTO respuesta = convertirAResponse(producto);
+            eventPublisher.publishEvent(new ProductoCambiadoEvent(TipoCambio.STOCK_ACTUALIZADO, id, anterior, respuesta));
+            return respuesta;
+        }
         
         producto.setStock(stockDTO.getStock());
         
-        Producto productoActualizado = productoRepository.save(producto);
-        return convertirAResponse(productoActualizado);
+        Producto productoActualizado = productoRepository.saveAndFlush(producto);
+        ProductoResponseDTO respuesta = convertirAResponse(productoActualizado);
+        eventPublisher.publishEvent(new ProductoCambiadoEvent(TipoCambio.STOCK_ACTUALIZADO, id, anterior, respuesta));
+        return respuesta;
     }
     
     /**
@@ -129,25 +315,36 @@ public class ProductoService {
      * @throws ProductoNotFoundException si no existe el producto
      */
     public void eliminarProducto(Long id) {
-        if (!productoRepository.existsById(id)) {
-            throw new ProductoNotFoundException(id);
-        }
-        productoRepository.deleteById(id);
+        Producto producto = productoRepository.findById(id)
+                .orElseThrow(() -> new ProductoNotFoundException(id));
+        ProductoResponseDTO anterior = convertirAResponse(producto);
+        bufferStock.descartarAlConfirmar(id);
+        
+        productoRepository.delete(producto);
+        eventPublisher.publishEvent(new ProductoCambiadoEvent(TipoCambio.ELIMINADO, id, anterior, null));
     }
     
     /**
-     * Convierte una entidad Producto a ProductoResponseDTO.
+     * Convierte una entidad Producto a ProductoResponseDTO, con el stock
+     * pendiente de escritura si lo hay.
+     * Tiene visibilidad de paquete para poder medirla en ProductoServiceBenchmark.
      * @param producto Entidad a convertir
      * @return DTO de respuesta
      */
-    private ProductoResponseDTO convertirAResponse(Producto producto) {
+    ProductoResponseDTO convertirAResponse(Producto producto) {
+        Integer stockPendiente = bufferStock.stockPendiente(producto.getId());
+        return convertirAResponse(producto, stockPendiente != null ? stockPendiente : producto.getStock());
+    }
+    
+    private ProductoResponseDTO convertirAResponse(Producto producto, Integer stock) {
         return new ProductoResponseDTO(
                 producto.getId(),
                 producto.getNombre(),
                 producto.getDescripcion(),
                 producto.getPrecio(),
-                producto.getStock(),
-                producto.getCategoria()
+                stock,
+                producto.getCategoria(),
+                producto.getVersion()
         );
     }
 }
@@ -0,0 +1,66 @@
+package com.utn.productos.service;
+
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.event.ProductoCambiadoEvent;
+import com.utn.productos.event.StockEscritoEvent;
+import com.utn.productos.model.Categoria;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio que lleva un contador de cambios del catálogo para generar ETags
+ * de los listados sin consultar la base de datos.
+ * <p>
+ * El contador se incrementa después del commit de cada escritura. El ETag se
+ * debe obtener antes de leer los datos: si una escritura ocurre en el medio, la
+ * respuesta lleva datos nuevos con un ETag viejo y el cliente simplemente recibe
+ * el listado completo en la próxima consulta, nunca un 304 con datos obsoletos.
+ * <p>
+ * Los ETags son débiles ({@code W/}): identifican el contenido y no los bytes
+ * exactos, que varían según el formato y la compresión negociados. Tomcat no
+ * comprime respuestas con ETag fuerte.
+ */
+@Service
+public class VersionCatalogoService {
+    
+    /**
+     * Instante de inicio: evita reutilizar ETags de una ejecución anterior.
+     */
+    private final String prefijo = Long.toString(System.currentTimeMillis(), 36);
+    
+    private final AtomicLong cambios = new AtomicLong();
+    
+    /**
+     * ETag del listado completo de productos.
+     */
+    public String etagListado() {
+        return "W/\"" + prefijo + "-" + cambios.get() + "\"";
+    }
+    
+    /**
+     * ETag del listado de productos de una categoría.
+     */
+    public String etagCategoria(Categoria categoria) {
+        return "W/\"" + prefijo + "-" + cambios.get() + "-" + categoria.name() + "\"";
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductoCambiado(ProductoCambiadoEvent evento) {
+        cambios.incrementAndGet();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoModificado(CatalogoModificadoEvent evento) {
+        cambios.incrementAndGet();
+    }
+    
+    /**
+     * Escribir el stock diferido incrementa la versión de cada producto escrito.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockEscrito(StockEscritoEvent evento) {
+        cambios.incrementAndGet();
+    }
+}
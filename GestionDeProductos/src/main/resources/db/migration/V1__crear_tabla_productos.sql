@@ -0,0 +1,11 @@
+-- Tabla de productos (equivalente al esquema que generaba Hibernate con ddl-auto=update)
+CREATE TABLE productos (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre      VARCHAR(100) NOT NULL,
+    descripcion VARCHAR(500),
+    precio      FLOAT(53)    NOT NULL,
+    stock       INTEGER      NOT NULL,
+    categoria   VARCHAR(255) NOT NULL
+        CHECK (categoria IN ('ELECTRONICA', 'ROPA', 'ALIMENTOS', 'HOGAR', 'DEPORTES')),
+    PRIMARY KEY (id)
+);
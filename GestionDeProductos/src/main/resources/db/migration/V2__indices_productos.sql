@@ -0,0 +1,5 @@
+-- Índices para los patrones de acceso de ProductoRepository.
+-- (categoria, precio) cubre también las búsquedas solo por categoria (prefijo del índice),
+-- por lo que no se crea un índice separado sobre categoria.
+CREATE INDEX idx_productos_categoria_precio ON productos (categoria, precio);
+CREATE INDEX idx_productos_nombre ON productos (nombre);
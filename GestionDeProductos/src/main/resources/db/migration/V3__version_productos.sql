@@ -0,0 +1,2 @@
+-- Columna de versión para bloqueo optimista (@Version) y ETags
+ALTER TABLE productos ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
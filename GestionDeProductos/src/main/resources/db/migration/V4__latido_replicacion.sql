@@ -0,0 +1,9 @@
+-- Latido de replicación: con réplicas de lectura la aplicación escribe la hora actual en la
+-- primaria y mide el retraso de cada réplica leyendo la copia replicada de esta fila
+CREATE TABLE latido_replicacion (
+    id       INTEGER NOT NULL,
+    instante BIGINT  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO latido_replicacion (id, instante) VALUES (1, 0);
@@ -0,0 +1,152 @@
+package com.utn.productos.controller;
+
+import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.service.ProductoReactivoService;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica la API del perfil {@code reactive} sobre Netty y R2DBC: el CRUD, los
+ * listados como NDJSON y que un cliente que deja de leer no haga crecer el buffer
+ * del listado más allá de {@code app.reactivo.buffer-listado} ni retenga la conexión.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@TestPropertySource(properties = "app.reactivo.buffer-listado=5")
+@DirtiesContext
+class ProductoReactivoControllerTest {
+
+    private static final int PRODUCTOS = 20;
+
+    @Autowired
+    private WebTestClient cliente;
+
+    @Autowired
+    private ProductoReactivoService productoService;
+
+    @Autowired
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        for (ProductoResponseDTO producto : productoService.obtenerTodos().collectList().block()) {
+            productoService.eliminarProducto(producto.getId()).block();
+        }
+        for (int i = 1; i <= PRODUCTOS; i++) {
+            Categoria categoria = i % 2 == 0 ? Categoria.HOGAR : Categoria.ROPA;
+            cliente.post().uri("/api/productos")
+                    .bodyValue(new ProductoDTO("Producto " + i, "Producto de prueba", 10.0 + i, i, categoria))
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+    }
+
+    @Test
+    void listaComoNdjsonMasProductosQueElBufferSiElClienteLee() {
+        List<ProductoResponseDTO> productos = cliente.get().uri("/api/productos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProductoResponseDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(PRODUCTOS, productos.size());
+        for (int i = 1; i < productos.size(); i++) {
+            assertTrue(productos.get(i - 1).getId() < productos.get(i).getId(), "El listado se ordena por ID");
+        }
+
+        cliente.get().uri("/api/productos/categoria/{categoria}", Categoria.HOGAR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductoResponseDTO.class).hasSize(PRODUCTOS / 2);
+    }
+
+    @Test
+    void actualizaYEliminaPorId() {
+        Long id = productoService.obtenerTodos().blockFirst().getId();
+
+        cliente.patch().uri("/api/productos/{id}/stock", id)
+                .bodyValue(new ActualizarStockDTO(99))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductoResponseDTO.class)
+                .value(producto -> assertEquals(99, producto.getStock()));
+
+        cliente.delete().uri("/api/productos/{id}", id)
+                .exchange()
+                .expectStatus().is2xxSuccessful();
+        cliente.get().uri("/api/productos/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void cortaElListadoYLiberaLaConexionSiElClienteQuedaMasAtrasQueElBuffer() throws InterruptedException {
+        ClienteQueNoLee lento = new ClienteQueNoLee();
+        productoService.obtenerTodos().subscribe(lento);
+        esperar(() -> lento.recibidos == 1, "No llegó el primer producto");
+        esperar(() -> pool.getMetrics().orElseThrow().acquiredSize() == 0,
+                "La conexión tenía que volver al pool aunque el cliente no lea");
+
+        // Al retomar la lectura recibe lo que quedó en el buffer y después el error
+        lento.request(Long.MAX_VALUE);
+        esperar(() -> lento.error != null, "El listado tenía que terminar con error al desbordarse el buffer");
+        assertTrue(Exceptions.isOverflow(lento.error), lento.error.toString());
+        assertEquals(1 + 5, lento.recibidos, "El buffer retiene como máximo app.reactivo.buffer-listado productos");
+    }
+
+    private static void esperar(BooleanSupplier condicion, String mensaje) throws InterruptedException {
+        long limite = System.nanoTime() + 10_000_000_000L;
+        while (!condicion.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(condicion.getAsBoolean(), mensaje);
+    }
+
+    /**
+     * Suscriptor que pide un solo producto y deja de leer hasta que se le pide más.
+     */
+    private static class ClienteQueNoLee extends BaseSubscriber<ProductoResponseDTO> {
+
+        private volatile int recibidos;
+        private volatile Throwable error;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(1);
+        }
+
+        @Override
+        protected void hookOnNext(ProductoResponseDTO producto) {
+            recibidos++;
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.utn.productos.replicacion;
+
+import com.utn.productos.config.ReplicasConfig;
+import com.utn.productos.controller.ProductoController;
+import com.utn.productos.dto.EstadisticaCategoriaDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.repository.ProductoBatchRepository;
+import com.utn.productos.service.BufferStockService;
+import com.utn.productos.service.CacheNegativaService;
+import com.utn.productos.service.EstadisticasProductoService;
+import com.utn.productos.service.ModeloLecturaService;
+import com.utn.productos.service.ProductoService;
+import com.utn.productos.service.VersionCatalogoService;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el enrutamiento a réplicas con dos servidores H2 en modo TCP, la primaria
+ * y una réplica que {@link ReplicadorH2} mantiene al día: las escrituras van a la
+ * primaria, las lecturas a la réplica mientras su retraso sea tolerable y a la
+ * primaria cuando deja de serlo. Lo que se guarda en memoria (la caché negativa y
+ * la de estadísticas) no se llena con datos atrasados de la réplica, y los listados
+ * con ETag no pueden responder 304 sobre datos que la réplica todavía no tiene.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReplicasConfig.class, ProductoService.class, BufferStockService.class, CacheNegativaService.class,
+        EstadisticasProductoService.class, ProductoBatchRepository.class, ProductoController.class,
+        VersionCatalogoService.class, ModeloLecturaService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "app.replicas.enabled=true",
+        "app.replicas.latido-ms=100",
+        "app.replicas.retraso-maximo-ms=1500",
+        "app.estadisticas.cache.enabled=true"
+})
+@DirtiesContext
+class EnrutamientoReplicasTest {
+
+    private static final String REPLICA = "replica-1";
+
+    private static final Server servidorPrimaria = iniciarServidor();
+    private static final Server servidorReplica = iniciarServidor();
+    private static final String URL_PRIMARIA = url(servidorPrimaria, "primaria");
+    private static final String URL_REPLICA = url(servidorReplica, "replica");
+
+    private static ReplicadorH2 replicador;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CacheNegativaService cacheNegativa;
+
+    @Autowired
+    private EstadisticasProductoService estadisticas;
+
+    @Autowired
+    private MonitorReplicas monitor;
+
+    @Autowired
+    private ProductoController controlador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void bases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL_PRIMARIA);
+        registry.add("app.replicas.urls", () -> URL_REPLICA);
+    }
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // La primaria ya tiene el esquema: Flyway corrió al crear el contexto
+        if (replicador == null) {
+            replicador = new ReplicadorH2(URL_PRIMARIA, URL_REPLICA, 50);
+        }
+        replicador.reanudar();
+        esperar(() -> monitor.isDisponible(REPLICA), "La réplica no se puso al día");
+    }
+
+    @AfterEach
+    void reanudar() {
+        replicador.reanudar();
+    }
+
+    @AfterAll
+    static void detenerServidores() throws InterruptedException {
+        if (replicador != null) {
+            replicador.close();
+        }
+        servidorPrimaria.stop();
+        servidorReplica.stop();
+    }
+
+    @Test
+    void lasLecturasVanALaReplicaYLasEscriturasALaPrimaria() throws Exception {
+        Long id = crearYReplicar("Original");
+
+        replicador.pausar();
+        productoService.actualizarProducto(id, producto("Modificado"));
+        assertEquals("Modificado", nombreEn(URL_PRIMARIA, id));
+        assertEquals("Original", nombreEn(URL_REPLICA, id));
+
+        long lecturas = monitor.getLecturasEnReplicas();
+        assertEquals("Original", productoService.obtenerPorId(id).getNombre(),
+                "Con un retraso tolerable la lectura la responde la réplica, todavía sin el cambio");
+        assertEquals(lecturas + 1, monitor.getLecturasEnReplicas());
+    }
+
+    @Test
+    void conRetrasoExcesivoLasLecturasVuelvenALaPrimaria() throws Exception {
+        Long id = crearYReplicar("Original");
+
+        replicador.pausar();
+        productoService.actualizarProducto(id, producto("Modificado"));
+        esperar(() -> !monitor.isDisponible(REPLICA), "La réplica atrasada siguió disponible");
+        assertTrue(monitor.getRetrasoMs(REPLICA) > 1500);
+
+        long enPrimaria = monitor.getLecturasEnPrimaria();
+        assertEquals("Modificado", productoService.obtenerPorId(id).getNombre());
+        assertEquals(enPrimaria + 1, monitor.getLecturasEnPrimaria());
+
+        replicador.reanudar();
+        esperar(() -> monitor.isDisponible(REPLICA), "La réplica no volvió a estar disponible");
+        long enReplicas = monitor.getLecturasEnReplicas();
+        assertEquals("Modificado", productoService.obtenerPorId(id).getNombre());
+        assertEquals(enReplicas + 1, monitor.getLecturasEnReplicas());
+    }
+
+    @Test
+    void unFaltanteLeidoDeLaReplicaNoSeRegistraEnLaCacheNegativa() throws Exception {
+        replicador.pausar();
+        Long id = productoService.crearProducto(producto("Nuevo")).getId();
+
+        long lecturas = monitor.getLecturasEnReplicas();
+        assertTrue(productoService.buscarPorId(id).isEmpty(), "La réplica atrasada todavía no tiene el producto");
+        assertTrue(productoService.obtenerVersion(id).isEmpty());
+        assertEquals(lecturas + 2, monitor.getLecturasEnReplicas());
+        assertFalse(cacheNegativa.contiene(id), "Un faltante de la réplica taparía el producto con un 404");
+
+        replicador.sincronizar();
+        assertEquals("Nuevo", productoService.buscarPorId(id).orElseThrow().getNombre());
+    }
+
+    @Test
+    void laCacheDeEstadisticasSeCargaDesdeLaPrimaria() throws Exception {
+        crearYReplicar("Original");
+        replicador.pausar();
+        productoService.crearProducto(producto("Sin replicar"));
+        long enPrimaria = monitor.getLecturasEnPrimaria();
+
+        // Dentro de una transacción de solo lectura las consultas del repositorio irían a la réplica
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        EstadisticaCategoriaDTO hogar = soloLectura.execute(status -> estadisticas.obtenerEstadisticas())
+                .get(Categoria.HOGAR.ordinal());
+        assertEquals(contarEn(URL_PRIMARIA), hogar.getCantidad(),
+                "La carga desde una réplica atrasada no vería el último producto y nunca se corregiría");
+        assertTrue(monitor.getLecturasEnPrimaria() > enPrimaria);
+    }
+
+    @Test
+    void losListadosConEtagSeLeenDeLaPrimaria() throws Exception {
+        crearYReplicar("Original");
+        replicador.pausar();
+        Long id = productoService.crearProducto(producto("Sin replicar")).getId();
+
+        ResponseEntity<List<ProductoResponseDTO>> listado = controlador.listarTodos(request(null));
+        assertTrue(listado.getBody().stream().anyMatch(p -> p.getId().equals(id)),
+                "El ETag ya cuenta la escritura: un listado de la réplica quedaría fijo hasta la próxima");
+        ResponseEntity<List<ProductoResponseDTO>> categoria =
+                controlador.obtenerPorCategoria(Categoria.HOGAR, request(null));
+        assertTrue(categoria.getBody().stream().anyMatch(p -> p.getId().equals(id)));
+
+        // Con el mismo ETag el cliente recibe 304 y se queda con lo que ya tiene
+        assertEquals(null, controlador.listarTodos(request(listado.getHeaders().getETag())));
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private Long crearYReplicar(String nombre) throws SQLException {
+        Long id = productoService.crearProducto(producto(nombre)).getId();
+        replicador.sincronizar();
+        assertEquals(nombre, nombreEn(URL_REPLICA, id));
+        return id;
+    }
+
+    private static ProductoDTO producto(String nombre) {
+        return new ProductoDTO(nombre, "Producto replicado", 10.0, 5, Categoria.HOGAR);
+    }
+
+    private static String nombreEn(String url, Long id) throws SQLException {
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement sentencia = conexion.prepareStatement("SELECT nombre FROM productos WHERE id = ?")) {
+            sentencia.setLong(1, id);
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                return resultado.next() ? resultado.getString(1) : null;
+            }
+        }
+    }
+
+    private static long contarEn(String url) throws SQLException {
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement sentencia = conexion.prepareStatement("SELECT COUNT(*) FROM productos");
+             ResultSet resultado = sentencia.executeQuery()) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    private static void esperar(BooleanSupplier condicion, String mensaje) throws InterruptedException {
+        long limite = System.nanoTime() + 10_000_000_000L;
+        while (!condicion.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(condicion.getAsBoolean(), mensaje);
+    }
+
+    private static Server iniciarServidor() {
+        try {
+            return Server.createTcpServer("-tcpPort", "0", "-ifNotExists", "-tcpDaemon").start();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String url(Server servidor, String base) {
+        return "jdbc:h2:tcp://localhost:" + servidor.getPort() + "/mem:" + base + ";DB_CLOSE_DELAY=-1";
+    }
+}
@@ -0,0 +1,112 @@
+package com.utn.productos.replicacion;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replicación simulada entre dos bases H2: aplica las migraciones en la réplica y
+ * copia las tablas de la primaria cada {@code intervaloMs} mientras no esté pausada.
+ * Pausarla deja la réplica con los datos de la última copia, como una réplica atrasada.
+ */
+class ReplicadorH2 implements AutoCloseable {
+
+    private static final List<String> TABLAS = List.of("productos", "latido_replicacion");
+
+    private final String urlPrimaria;
+    private final String urlReplica;
+    private final ScheduledExecutorService programador;
+
+    private boolean pausado;
+
+    ReplicadorH2(String urlPrimaria, String urlReplica, long intervaloMs) {
+        this.urlPrimaria = urlPrimaria;
+        this.urlReplica = urlReplica;
+        Flyway.configure().dataSource(urlReplica, "sa", "").load().migrate();
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "replicador-h2");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::sincronizarSiCorresponde, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene la copia; al volver, ninguna copia está en curso.
+     */
+    synchronized void pausar() {
+        pausado = true;
+    }
+
+    synchronized void reanudar() {
+        pausado = false;
+    }
+
+    /**
+     * Copia todas las tablas replicadas en una sola transacción de la réplica.
+     */
+    synchronized void sincronizar() throws SQLException {
+        try (Connection primaria = DriverManager.getConnection(urlPrimaria, "sa", "");
+             Connection replica = DriverManager.getConnection(urlReplica, "sa", "")) {
+            replica.setAutoCommit(false);
+            for (String tabla : TABLAS) {
+                copiar(tabla, primaria, replica);
+            }
+            replica.commit();
+        }
+    }
+
+    private synchronized void sincronizarSiCorresponde() {
+        if (pausado) {
+            return;
+        }
+        try {
+            sincronizar();
+        } catch (SQLException e) {
+            // La base puede no estar lista todavía; se reintenta en la próxima copia
+        }
+    }
+
+    private static void copiar(String tabla, Connection primaria, Connection replica) throws SQLException {
+        try (Statement borrar = replica.createStatement()) {
+            borrar.executeUpdate("DELETE FROM " + tabla);
+        }
+        try (Statement leer = primaria.createStatement();
+             ResultSet filas = leer.executeQuery("SELECT * FROM " + tabla)) {
+            ResultSetMetaData columnas = filas.getMetaData();
+            int cantidad = columnas.getColumnCount();
+            StringBuilder nombres = new StringBuilder();
+            for (int i = 1; i <= cantidad; i++) {
+                nombres.append(i > 1 ? ", " : "").append(columnas.getColumnName(i));
+            }
+            String insert = "INSERT INTO " + tabla + " (" + nombres + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(cantidad, "?")) + ")";
+            try (PreparedStatement insertar = replica.prepareStatement(insert)) {
+                while (filas.next()) {
+                    for (int i = 1; i <= cantidad; i++) {
+                        insertar.setObject(i, filas.getObject(i));
+                    }
+                    insertar.addBatch();
+                }
+                insertar.executeBatch();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        programador.shutdownNow();
+        programador.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
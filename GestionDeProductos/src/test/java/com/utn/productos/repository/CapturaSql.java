@@ -0,0 +1,35 @@
+package com.utn.productos.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementInspector de Hibernate que registra el SQL generado,
+ * para que los tests puedan analizar el plan de cada consulta.
+ */
+public class CapturaSql implements StatementInspector {
+
+    private static final List<String> sentencias = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (sentencias) {
+            sentencias.add(sql);
+        }
+        return sql;
+    }
+
+    public static void limpiar() {
+        synchronized (sentencias) {
+            sentencias.clear();
+        }
+    }
+
+    public static List<String> sentencias() {
+        synchronized (sentencias) {
+            return new ArrayList<>(sentencias);
+        }
+    }
+}
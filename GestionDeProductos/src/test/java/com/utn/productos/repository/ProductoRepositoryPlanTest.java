@@ -0,0 +1,138 @@
+package com.utn.productos.repository;
+
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con EXPLAIN de H2 que cada consulta de {@link ProductoRepository}
+ * use un índice en lugar de recorrer toda la tabla.
+ * <p>
+ * Cada método declarado en el repositorio debe tener su caso acá: si se agrega
+ * una consulta nueva sin verificar su plan, {@link #todasLasConsultasTienenPlanVerificado()} falla.
+ */
+@DataJpaTest
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.utn.productos.repository.CapturaSql")
+class ProductoRepositoryPlanTest {
+
+    /**
+     * Métodos de ProductoRepository cuyo plan se verifica en esta clase.
+     */
+    private static final Set<String> CONSULTAS_VERIFICADAS = Set.of(
+            "findByCategoria",
+            "findVersionById",
+            "buscar",
+            "contarPorCategoria",
+            "calcularEstadisticasDeCategoria"
+    );
+
+    /**
+     * Consultas que recorren toda la tabla a propósito (agregados sobre el catálogo completo).
+     */
+    private static final Set<String> CONSULTAS_RECORRIDO_COMPLETO = Set.of(
+            "calcularEstadisticasPorCategoria"
+    );
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        CapturaSql.limpiar();
+    }
+
+    @Test
+    void todasLasConsultasTienenPlanVerificado() {
+        Set<String> declaradas = new TreeSet<>();
+        for (Class<?> tipo : List.of(ProductoRepository.class, ProductoRepositoryCustom.class)) {
+            for (Method metodo : tipo.getDeclaredMethods()) {
+                if (!metodo.isDefault() && !metodo.isSynthetic()) {
+                    declaradas.add(metodo.getName());
+                }
+            }
+        }
+        declaradas.removeAll(CONSULTAS_VERIFICADAS);
+        declaradas.removeAll(CONSULTAS_RECORRIDO_COMPLETO);
+        assertTrue(declaradas.isEmpty(), "Consultas sin plan verificado: " + declaradas);
+    }
+
+    @Test
+    void findByCategoriaUsaIndice() {
+        productoRepository.findByCategoria(Categoria.ELECTRONICA);
+        assertUsaIndice(ultimaConsulta(), "IDX_PRODUCTOS_CATEGORIA_PRECIO");
+    }
+
+    @Test
+    void findVersionByIdUsaClavePrimaria() {
+        productoRepository.findVersionById(1L);
+        assertUsaIndice(ultimaConsulta(), "PRIMARY_KEY");
+    }
+
+    @Test
+    void buscarPorCategoriasYPrecioUsaIndice() {
+        Specification<Producto> spec = ProductoSpecifications.categoriaEn(EnumSet.of(Categoria.ELECTRONICA, Categoria.HOGAR))
+                .and(ProductoSpecifications.precioEntre(10.0, 500.0))
+                .and(ProductoSpecifications.textoContiene("usb"))
+                .and(ProductoSpecifications.conStock());
+        productoRepository.buscar(spec, Sort.by("precio"), 0, 20);
+        assertUsaIndice(ultimaConsulta(), "IDX_PRODUCTOS_CATEGORIA_PRECIO");
+    }
+
+    @Test
+    void contarPorCategoriaConRangoDePrecioUsaIndice() {
+        Specification<Producto> spec = ProductoSpecifications.precioEntre(null, 500.0)
+                .and(ProductoSpecifications.categoriaEn(EnumSet.allOf(Categoria.class)));
+        productoRepository.contarPorCategoria(spec);
+        assertUsaIndice(ultimaConsulta(), "IDX_PRODUCTOS_CATEGORIA_PRECIO");
+    }
+
+    @Test
+    void calcularEstadisticasDeCategoriaUsaIndice() {
+        productoRepository.calcularEstadisticasDeCategoria(Categoria.HOGAR);
+        assertUsaIndice(ultimaConsulta(), "IDX_PRODUCTOS_CATEGORIA_PRECIO");
+    }
+
+    /**
+     * Devuelve el último SELECT generado por Hibernate.
+     */
+    private String ultimaConsulta() {
+        List<String> sentencias = CapturaSql.sentencias();
+        assertFalse(sentencias.isEmpty(), "No se capturó ninguna sentencia SQL");
+        return sentencias.get(sentencias.size() - 1);
+    }
+
+    private void assertUsaIndice(String sql, String indice) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), () -> "La consulta recorre toda la tabla:\n" + plan);
+        assertTrue(plan.contains(indice), () -> "La consulta no usa " + indice + ":\n" + plan);
+    }
+
+    @Test
+    void indicesCreadosPorMigracion() {
+        List<String> indices = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name = 'PRODUCTOS'",
+                String.class);
+        assertTrue(indices.containsAll(List.of("IDX_PRODUCTOS_CATEGORIA_PRECIO", "IDX_PRODUCTOS_NOMBRE")),
+                () -> "Índices encontrados: " + indices);
+    }
+}
@@ -0,0 +1,185 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import com.utn.productos.repository.ProductoBatchRepository;
+import com.utn.productos.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica la escritura diferida de stock: lecturas del valor pendiente, vaciado
+ * en lote, límite de pendientes, descarte ante actualizaciones completas (solo si
+ * confirman) y vaciado al cerrar. El vaciado periódico se desactiva con un intervalo largo
+ * para controlar cuándo se escribe.
+ */
+@DataJpaTest
+@Import({ProductoService.class, BufferStockService.class, CacheNegativaService.class,
+        ProductoBatchRepository.class, ContadorSentencias.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "app.stock.write-behind.enabled=true",
+        "app.stock.write-behind.intervalo-ms=3600000",
+        "app.stock.write-behind.max-pendientes=3"
+})
+class BufferStockServiceTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private BufferStockService bufferStock;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        bufferStock.vaciar();
+        productoRepository.deleteAllInBatch();
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            productos.add(new Producto(null, "Producto " + i, "Producto de prueba " + i, 10.0, 1, Categoria.HOGAR, null));
+        }
+        ids = productoRepository.saveAll(productos).stream().map(Producto::getId).toList();
+    }
+
+    @Test
+    void cambiosDeStockSeLeenDelBufferYSeEscribenEnUnVaciado() {
+        Long id = ids.get(0);
+        ContadorSentencias.reiniciar();
+        for (int stock = 10; stock <= 50; stock += 10) {
+            productoService.actualizarStock(id, new ActualizarStockDTO(stock));
+        }
+        assertEquals(0, ContadorSentencias.actual().getUpdate(), "El stock no debe escribirse al actualizarlo");
+        assertEquals(50, productoService.obtenerPorId(id).getStock());
+        assertEquals(1, stockPersistido(id));
+
+        assertEquals(1, bufferStock.vaciar());
+        assertEquals(50, stockPersistido(id));
+        assertEquals(1L, versionPersistida(id), "Los cambios combinados incrementan la versión una sola vez");
+        assertFalse(productoService.tieneStockPendiente(id));
+    }
+
+    @Test
+    void conElBufferLlenoLosProductosNuevosSeEscribenDirectoYSeAdelantaElVaciado() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            productoService.actualizarStock(ids.get(i), new ActualizarStockDTO(100));
+        }
+        productoService.actualizarStock(ids.get(3), new ActualizarStockDTO(100));
+        assertEquals(100, stockPersistido(ids.get(3)));
+
+        long limite = System.nanoTime() + 5_000_000_000L;
+        while (bufferStock.cantidadPendientes() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, bufferStock.cantidadPendientes());
+        assertEquals(100, stockPersistido(ids.get(0)));
+    }
+
+    @Test
+    void actualizacionCompletaDescartaElStockPendiente() {
+        Long id = ids.get(0);
+        productoService.actualizarStock(id, new ActualizarStockDTO(99));
+        productoService.actualizarProducto(id, new ProductoDTO("Nuevo", "Actualización completa", 20.0, 7, Categoria.HOGAR));
+
+        bufferStock.vaciar();
+        assertEquals(7, stockPersistido(id));
+    }
+
+    @Test
+    void unaActualizacionEnConflictoNoDescartaElStockPendiente() {
+        Long id = ids.get(0);
+        productoService.actualizarStock(id, new ActualizarStockDTO(99));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    productoRepository.findById(id);
+                    // Otra escritura confirma mientras tanto: el PUT termina en 409
+                    jdbcTemplate.update("UPDATE productos SET version = version + 1 WHERE id = ?", id);
+                    productoService.actualizarProducto(id,
+                            new ProductoDTO("Nuevo", "Actualización completa", 20.0, 7, Categoria.HOGAR));
+                }));
+
+        assertEquals(99, productoService.obtenerPorId(id).getStock());
+        assertEquals(1, bufferStock.vaciar());
+        assertEquals(99, stockPersistido(id), "El cambio de stock ya confirmado al cliente se escribe igual");
+    }
+
+    @Test
+    void unReemplazoRevertidoConservaElStockPendienteYNoSeVaciaMientrasTanto() {
+        Long id = ids.get(0);
+        productoService.actualizarStock(id, new ActualizarStockDTO(99));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productoService.actualizarProducto(id,
+                    new ProductoDTO("Nuevo", "Actualización completa", 20.0, 7, Categoria.HOGAR));
+            // Un vaciado no puede escribir el stock viejo sobre el reemplazo en curso
+            assertEquals(0, bufferStock.vaciar());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(productoService.tieneStockPendiente(id));
+        assertEquals(1, bufferStock.vaciar());
+        assertEquals(99, stockPersistido(id));
+    }
+
+    @Test
+    void eliminarDescartaElStockPendiente() {
+        Long id = ids.get(0);
+        productoService.actualizarStock(id, new ActualizarStockDTO(99));
+        productoService.eliminarProducto(id);
+
+        assertFalse(productoService.tieneStockPendiente(id));
+        assertEquals(0, bufferStock.vaciar());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void cerrarVaciaElBufferYLuegoEscribeDirecto() {
+        productoService.actualizarStock(ids.get(0), new ActualizarStockDTO(42));
+        assertTrue(productoService.tieneStockPendiente(ids.get(0)));
+
+        bufferStock.cerrar();
+        assertEquals(42, stockPersistido(ids.get(0)));
+
+        productoService.actualizarStock(ids.get(1), new ActualizarStockDTO(43));
+        assertEquals(43, stockPersistido(ids.get(1)));
+        assertEquals(0, bufferStock.cantidadPendientes());
+    }
+
+    private int stockPersistido(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM productos WHERE id = ?", Integer.class, id);
+    }
+
+    private long versionPersistida(Long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM productos WHERE id = ?", Long.class, id);
+    }
+}
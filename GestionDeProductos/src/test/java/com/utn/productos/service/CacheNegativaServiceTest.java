@@ -0,0 +1,79 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.event.ProductoCambiadoEvent;
+import com.utn.productos.event.TipoCambio;
+import com.utn.productos.model.Categoria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que la caché negativa no devuelva un 404 para un producto que existe:
+ * ni después de crearlo, ni si se creó mientras se consultaba la base de datos.
+ */
+class CacheNegativaServiceTest {
+
+    private CacheNegativaService cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheNegativaService();
+        ReflectionTestUtils.setField(cache, "habilitada", true);
+        ReflectionTestUtils.setField(cache, "capacidad", 3);
+    }
+
+    @Test
+    void registraFaltantesYLosQuitaAlCrearlos() {
+        cache.registrar(10L, cache.generacion());
+        assertTrue(cache.contiene(10L));
+
+        cache.onProductoCambiado(new ProductoCambiadoEvent(TipoCambio.CREADO, 10L, null, producto(10L)));
+        assertFalse(cache.contiene(10L));
+    }
+
+    @Test
+    void noRegistraSiHuboUnCambioDuranteLaConsulta() {
+        long generacion = cache.generacion();
+        cache.onProductoCambiado(new ProductoCambiadoEvent(TipoCambio.CREADO, 10L, null, producto(10L)));
+        cache.registrar(10L, generacion);
+        assertFalse(cache.contiene(10L));
+
+        generacion = cache.generacion();
+        cache.onCatalogoModificado(new CatalogoModificadoEvent(1));
+        cache.registrar(11L, generacion);
+        assertFalse(cache.contiene(11L));
+    }
+
+    @Test
+    void agregaLosEliminadosYSeVaciaConUnCambioMasivo() {
+        cache.onProductoCambiado(new ProductoCambiadoEvent(TipoCambio.ELIMINADO, 5L, producto(5L), null));
+        assertTrue(cache.contiene(5L));
+
+        cache.onCatalogoModificado(new CatalogoModificadoEvent(100));
+        assertFalse(cache.contiene(5L));
+    }
+
+    @Test
+    void descartaLosMasAntiguosAlSuperarLaCapacidad() {
+        for (long id = 1; id <= 3; id++) {
+            cache.registrar(id, cache.generacion());
+        }
+        cache.onProductoCambiado(new ProductoCambiadoEvent(TipoCambio.CREADO, 2L, null, producto(2L)));
+        cache.registrar(4L, cache.generacion());
+        cache.registrar(5L, cache.generacion());
+
+        assertFalse(cache.contiene(1L));
+        assertFalse(cache.contiene(2L));
+        assertTrue(cache.contiene(4L));
+        assertTrue(cache.contiene(5L));
+    }
+
+    private static ProductoResponseDTO producto(Long id) {
+        return new ProductoResponseDTO(id, "Producto " + id, "Producto de prueba", 10.0, 1, Categoria.HOGAR, 0L);
+    }
+}
@@ -0,0 +1,52 @@
+package com.utn.productos.service;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuración de test que envuelve el DataSource con datasource-proxy y
+ * cuenta las sentencias SQL ejecutadas en el hilo actual.
+ * <p>
+ * Uso: importar esta clase en el test, llamar a {@link #reiniciar()} antes de
+ * la operación a medir y leer el conteo con {@link #actual()}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class ContadorSentencias {
+
+    @Bean
+    static BeanPostProcessor contadorSentenciasPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .countQuery()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Pone en cero el conteo del hilo actual.
+     */
+    public static void reiniciar() {
+        QueryCountHolder.clear();
+    }
+
+    /**
+     * Sentencias ejecutadas en el hilo actual desde el último {@link #reiniciar()}.
+     */
+    public static QueryCount actual() {
+        return QueryCountHolder.getGrandTotal();
+    }
+}
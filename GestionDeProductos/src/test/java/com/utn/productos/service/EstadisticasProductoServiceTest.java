@@ -0,0 +1,154 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.EstadisticaCategoriaDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.repository.ProductoBatchRepository;
+import com.utn.productos.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica que la caché incremental de estadísticas coincida siempre con el
+ * GROUP BY directo sobre la base de datos, también cuando se carga entre el
+ * commit de una escritura y la aplicación de su evento.
+ * <p>
+ * Los precios son enteros para que las sumas incrementales sean exactas.
+ */
+@DataJpaTest
+@Import({EstadisticasProductoService.class, ProductoService.class, BufferStockService.class,
+        CacheNegativaService.class, ProductoBatchRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "app.estadisticas.cache.enabled=true")
+class EstadisticasProductoServiceTest {
+
+    @Autowired
+    private EstadisticasProductoService estadisticas;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository.deleteAllInBatch();
+        estadisticas.onCatalogoModificado(null);
+        productoService.crearProducto(producto("Lámpara", 10.0, 3, Categoria.HOGAR));
+        productoService.crearProducto(producto("Sillón", 50.0, 1, Categoria.HOGAR));
+        productoService.crearProducto(producto("Mouse", 20.0, 4, Categoria.ELECTRONICA));
+        // Carga la caché; de acá en más se actualiza con los eventos
+        assertEquals(directas(), estadisticas.obtenerEstadisticas());
+    }
+
+    @Test
+    void seActualizaConAltasModificacionesYBajas() {
+        Long id = productoService.crearProducto(producto("Alfombra", 30.0, 2, Categoria.HOGAR)).getId();
+        assertEquals(directas(), estadisticas.obtenerEstadisticas());
+
+        productoService.actualizarProducto(id, producto("Teclado", 40.0, 5, Categoria.ELECTRONICA));
+        assertEquals(directas(), estadisticas.obtenerEstadisticas());
+
+        productoService.actualizarStock(id, new ActualizarStockDTO(7));
+        assertEquals(directas(), estadisticas.obtenerEstadisticas());
+
+        productoService.eliminarProducto(id);
+        assertEquals(directas(), estadisticas.obtenerEstadisticas());
+    }
+
+    @Test
+    void recalculaLosExtremosAlQuitarElProductoQueLosDefinia() {
+        Long sillon = buscar("Sillón");
+        productoService.eliminarProducto(sillon);
+
+        EstadisticaCategoriaDTO hogar = estadisticas.obtenerEstadisticas().get(Categoria.HOGAR.ordinal());
+        assertEquals(10.0, hogar.getPrecioMaximo());
+        assertEquals(directas(), estadisticas.obtenerEstadisticas());
+
+        productoService.eliminarProducto(buscar("Lámpara"));
+        hogar = estadisticas.obtenerEstadisticas().get(Categoria.HOGAR.ordinal());
+        assertEquals(0, hogar.getCantidad());
+        assertEquals(null, hogar.getPrecioMinimo());
+    }
+
+    @Test
+    void noCuentaDosVecesUnaEscrituraConfirmadaCuyoEventoNoSeAplico() {
+        List<List<EstadisticaCategoriaDTO>> leidas = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productoService.crearProducto(producto("Alfombra", 30.0, 2, Categoria.HOGAR));
+            // Se invalida la caché para que la próxima lectura la cargue desde la base de datos
+            estadisticas.onCatalogoModificado(null);
+            // afterCommit corre después del commit y antes que los listeners AFTER_COMMIT
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    TransactionTemplate nueva = new TransactionTemplate(transactionManager);
+                    nueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    leidas.add(nueva.execute(s -> estadisticas.obtenerEstadisticas()));
+                }
+            });
+        });
+
+        assertEquals(directas(), leidas.get(0), "La lectura entre el commit y el evento ve la base de datos");
+        assertEquals(directas(), estadisticas.obtenerEstadisticas());
+        assertEquals(directas(), estadisticas.obtenerEstadisticas());
+    }
+
+    @Test
+    void unaEscrituraRevertidaNoImpideVolverACargar() {
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        plantilla.executeWithoutResult(status -> {
+            productoService.crearProducto(producto("Alfombra", 30.0, 2, Categoria.HOGAR));
+            status.setRollbackOnly();
+        });
+        estadisticas.onCatalogoModificado(null);
+
+        List<EstadisticaCategoriaDTO> cargadas = estadisticas.obtenerEstadisticas();
+        assertEquals(directas(), cargadas);
+
+        // Un borrado sin eventos no llega a la caché: solo la ve una consulta directa
+        productoRepository.deleteAllInBatch();
+        assertEquals(cargadas, estadisticas.obtenerEstadisticas(),
+                "Tras el rollback la caché tiene que volver a instalarse");
+    }
+
+    private List<EstadisticaCategoriaDTO> directas() {
+        List<EstadisticaCategoriaDTO> porCategoria = new ArrayList<>();
+        for (Categoria categoria : Categoria.values()) {
+            porCategoria.add(productoRepository.calcularEstadisticasDeCategoria(categoria)
+                    .orElseGet(() -> new EstadisticaCategoriaDTO(categoria, 0, 0, 0.0, null, null)));
+        }
+        return porCategoria;
+    }
+
+    private Long buscar(String nombre) {
+        return productoRepository.findAll().stream()
+                .filter(producto -> producto.getNombre().equals(nombre))
+                .findFirst().orElseThrow().getId();
+    }
+
+    private static ProductoDTO producto(String nombre, double precio, int stock, Categoria categoria) {
+        return new ProductoDTO(nombre, "Producto de prueba", precio, stock, categoria);
+    }
+}
@@ -0,0 +1,176 @@
+package com.utn.productos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utn.productos.event.CatalogoModificadoEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el flujo de cambios con emisores simulados: orden y reanudación con
+ * Last-Event-ID, {@code REINICIO} al salir del buffer, y que un cliente que deja
+ * de leer no detenga el envío a los demás.
+ */
+class FlujoCambiosServiceTest {
+
+    private static final long SIN_LATIDOS = 3_600_000;
+
+    private final Queue<EmisorDePrueba> emisores = new ArrayDeque<>();
+
+    private FlujoCambiosService flujo;
+
+    @AfterEach
+    void tearDown() {
+        if (flujo != null) {
+            flujo.cerrar();
+        }
+    }
+
+    @Test
+    void rechazaUnaCapacidadNoPositiva() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FlujoCambiosService(new ObjectMapper(), 0, 1, 1000, SIN_LATIDOS, 1000, 10));
+    }
+
+    @Test
+    void entregaLosEventosEnOrdenYReanudaDesdeElUltimoId() throws InterruptedException {
+        flujo = crear(10, 1, 5000);
+        EmisorDePrueba primero = suscribir(null);
+        for (int filas = 1; filas <= 3; filas++) {
+            flujo.onCatalogoModificado(new CatalogoModificadoEvent(filas));
+        }
+        esperar(() -> primero.eventos.size() == 3, "No llegaron los tres eventos");
+        assertTrue(primero.eventos.get(0).contains("\"filas\":1"));
+        assertTrue(primero.eventos.get(2).contains("\"filas\":3"));
+
+        EmisorDePrueba reconectado = suscribir(id(primero.eventos.get(0)));
+        esperar(() -> reconectado.eventos.size() == 2, "No se reenviaron los eventos posteriores");
+        assertEquals(primero.eventos.subList(1, 3), reconectado.eventos);
+    }
+
+    @Test
+    void enviaReinicioSiElUltimoIdSalioDelBuffer() throws InterruptedException {
+        flujo = crear(2, 1, 5000);
+        EmisorDePrueba primero = suscribir(null);
+        flujo.onCatalogoModificado(new CatalogoModificadoEvent(1));
+        esperar(() -> primero.eventos.size() == 1, "No llegó el primer evento");
+        for (int filas = 2; filas <= 4; filas++) {
+            flujo.onCatalogoModificado(new CatalogoModificadoEvent(filas));
+        }
+
+        EmisorDePrueba reconectado = suscribir(id(primero.eventos.get(0)));
+        esperar(() -> reconectado.eventos.size() == 3, "No llegaron el reinicio y los eventos retenidos");
+        assertTrue(reconectado.eventos.get(0).contains("event:REINICIO"));
+        assertTrue(reconectado.eventos.get(1).contains("\"filas\":3"));
+        assertTrue(reconectado.eventos.get(2).contains("\"filas\":4"));
+    }
+
+    @Test
+    void losClientesBloqueadosSeDesconectanSinDetenerALosDemas() throws InterruptedException {
+        flujo = crear(100, 1, 100);
+        CountDownLatch liberar = new CountDownLatch(1);
+        EmisorDePrueba bloqueado1 = suscribir(null, liberar);
+        EmisorDePrueba bloqueado2 = suscribir(null, liberar);
+        EmisorDePrueba sano = suscribir(null);
+
+        flujo.onCatalogoModificado(new CatalogoModificadoEvent(1));
+        // Con un solo hilo de envío, sin la desconexión el segundo bloqueado nunca empezaría
+        esperar(() -> bloqueado1.intentos.getCount() == 0 && bloqueado2.intentos.getCount() == 0,
+                "Los dos clientes bloqueados tenían que ocupar un hilo cada uno");
+        flujo.onCatalogoModificado(new CatalogoModificadoEvent(2));
+        esperar(() -> sano.eventos.size() == 2, "El cliente sano dejó de recibir eventos");
+        assertEquals(1, flujo.cantidadSuscriptores());
+
+        liberar.countDown();
+        esperar(() -> bloqueado1.completadoConError && bloqueado2.completadoConError,
+                "Los emisores bloqueados se completan cuando termina la escritura");
+        flujo.onCatalogoModificado(new CatalogoModificadoEvent(3));
+        esperar(() -> sano.eventos.size() == 3, "El cliente sano dejó de recibir eventos");
+    }
+
+    private FlujoCambiosService crear(int capacidad, int hilosEnvio, long envioMaximoMs) {
+        return new FlujoCambiosService(new ObjectMapper(), capacidad, hilosEnvio, 300_000, SIN_LATIDOS,
+                envioMaximoMs, 10) {
+            @Override
+            SseEmitter crearEmitter(long timeoutMs) {
+                return emisores.remove();
+            }
+        };
+    }
+
+    private EmisorDePrueba suscribir(String ultimoEventoId) {
+        return suscribir(ultimoEventoId, null);
+    }
+
+    private EmisorDePrueba suscribir(String ultimoEventoId, CountDownLatch liberar) {
+        EmisorDePrueba emisor = new EmisorDePrueba(liberar);
+        emisores.add(emisor);
+        assertSame(emisor, flujo.suscribir(ultimoEventoId));
+        return emisor;
+    }
+
+    private static String id(String evento) {
+        return evento.lines().filter(linea -> linea.startsWith("id:")).findFirst().orElseThrow().substring(3);
+    }
+
+    private static void esperar(BooleanSupplier condicion, String mensaje) throws InterruptedException {
+        long limite = System.nanoTime() + 10_000_000_000L;
+        while (!condicion.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(condicion.getAsBoolean(), mensaje);
+    }
+
+    /**
+     * Emisor que guarda el texto de cada evento. Con {@code liberar}, simula un cliente
+     * que dejó de leer: el primer envío se bloquea hasta que se libera.
+     */
+    private static class EmisorDePrueba extends SseEmitter {
+
+        private final CountDownLatch liberar;
+        private final CountDownLatch intentos = new CountDownLatch(1);
+        private final List<String> eventos = new CopyOnWriteArrayList<>();
+        private volatile boolean completadoConError;
+
+        EmisorDePrueba(CountDownLatch liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            intentos.countDown();
+            if (liberar != null) {
+                try {
+                    liberar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            eventos.add(evento.build().stream()
+                    .map(dato -> dato.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void completeWithError(Throwable error) {
+            completadoConError = true;
+            super.completeWithError(error);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.ImportacionEstadoDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.EstadoImportacion;
+import com.utn.productos.model.Producto;
+import com.utn.productos.repository.ProductoBatchRepository;
+import com.utn.productos.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica la importación CSV de punta a punta: escritura en lotes, altas y
+ * actualizaciones por ID, rechazo de filas inválidas y resincronización de la
+ * secuencia de IDs. Los jobs corren en el hilo del test, así que cada
+ * importación termina antes de que {@code iniciarImportacion} responda.
+ */
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({ImportacionProductoService.class, ProductoService.class, BufferStockService.class,
+        CacheNegativaService.class, ProductoBatchRepository.class,
+        ImportacionProductoServiceTest.EjecucionSincronica.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "app.importacion.tamano-lote=2",
+        "app.importacion.max-errores=2"
+})
+@RecordApplicationEvents
+class ImportacionProductoServiceTest {
+
+    private static final String CABECERA = "id,nombre,descripcion,precio,stock,categoria\n";
+
+    @Autowired
+    private ImportacionProductoService importacion;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void escribeLasFilasEnLotesDelTamanoConfigurado() throws IOException {
+        ImportacionEstadoDTO estado = importar(CABECERA
+                + ",Mesa,\"Roble, 4 patas\",100.5,3,hogar\n"
+                + ",Silla,,20,10,HOGAR\n"
+                + "\n"
+                + ",Remera,\"Talle \"\"M\"\"\",15,7,ropa\r\n"
+                + ",Pelota,,8,2,deportes\n"
+                + ",Arroz,,1.5,100,alimentos");
+
+        assertEquals(EstadoImportacion.COMPLETADA, estado.getEstado());
+        assertEquals(5, estado.getFilasLeidas(), "La línea en blanco no cuenta como fila");
+        assertEquals(5, estado.getFilasImportadas());
+        assertEquals(List.of(5), eventos.stream(CatalogoModificadoEvent.class)
+                .map(CatalogoModificadoEvent::filas).toList(), "Un solo evento al terminar, no uno por lote");
+
+        Producto remera = buscar("Remera");
+        assertEquals("Talle \"M\"", remera.getDescripcion());
+        assertEquals(Categoria.ROPA, remera.getCategoria());
+        assertEquals("Roble, 4 patas", buscar("Mesa").getDescripcion());
+        assertEquals(5, productoRepository.count());
+    }
+
+    @Test
+    void actualizaPorIdYRechazaLasFilasInvalidas() throws IOException {
+        Long id = productoService.crearProducto(
+                new ProductoDTO("Lámpara", "Original", 10.0, 1, Categoria.HOGAR)).getId();
+
+        ImportacionEstadoDTO estado = importar(CABECERA
+                + id + ",Lámpara LED,Actualizada,12,4,hogar\n"
+                + ",Sin precio,,,1,hogar\n"
+                + ",Negativo,,-5,1,hogar\n"
+                + ",Categoría inexistente,,5,1,juguetes\n"
+                + ",Válido,,5,1,hogar\n");
+
+        assertEquals(EstadoImportacion.COMPLETADA, estado.getEstado());
+        assertEquals(5, estado.getFilasLeidas());
+        assertEquals(2, estado.getFilasImportadas());
+        assertEquals(3, estado.getFilasRechazadas());
+        assertEquals(2, estado.getErrores().size(), "Se guardan como máximo app.importacion.max-errores");
+        assertTrue(estado.getErrores().get(0).startsWith("Fila 3: "), estado.getErrores().get(0));
+
+        Producto actualizado = productoRepository.findById(id).orElseThrow();
+        assertEquals("Lámpara LED", actualizado.getNombre());
+        assertEquals(4, actualizado.getStock());
+        assertEquals(1L, actualizado.getVersion(), "El upsert incrementa la versión");
+        assertEquals(2, productoRepository.count());
+    }
+
+    @Test
+    void resincronizaLaSecuenciaDespuesDeInsertarConIdExplicito() throws IOException {
+        importar(CABECERA + "500,Importado,,10,1,hogar\n");
+        assertEquals("Importado", productoRepository.findById(500L).orElseThrow().getNombre());
+
+        Long nuevo = productoService.crearProducto(
+                new ProductoDTO("Creado después", "Sin ID", 10.0, 1, Categoria.HOGAR)).getId();
+        assertTrue(nuevo > 500, "El próximo ID generado no puede chocar con el importado: " + nuevo);
+    }
+
+    @Test
+    void fallaSiFaltaUnaColumnaObligatoria() throws IOException {
+        ImportacionEstadoDTO estado = importar("nombre,precio,stock\nMesa,10,1\n");
+
+        assertEquals(EstadoImportacion.FALLIDA, estado.getEstado());
+        assertTrue(estado.getErrores().get(0).contains("categoria"), estado.getErrores().get(0));
+        assertEquals(0, productoRepository.count());
+    }
+
+    @Test
+    void unaImportacionInterrumpidaPublicaLosLotesYaEscritos() throws IOException {
+        ImportacionEstadoDTO estado = importar(CABECERA
+                + ",Mesa,,100,3,hogar\n"
+                + ",Silla,,20,10,hogar\n"
+                + ",Remera,,15,7,ropa\n"
+                + ",Pelota,\"Sin cerrar,8,2,deportes\n");
+
+        assertEquals(EstadoImportacion.FALLIDA, estado.getEstado());
+        assertEquals(2, productoRepository.count(), "El primer lote ya estaba confirmado");
+        assertEquals(List.of(2), eventos.stream(CatalogoModificadoEvent.class)
+                .map(CatalogoModificadoEvent::filas).toList());
+    }
+
+    private ImportacionEstadoDTO importar(String csv) throws IOException {
+        ImportacionEstadoDTO inicial = importacion.iniciarImportacion(new MockMultipartFile(
+                "archivo", "productos.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+        return importacion.obtenerEstado(inicial.getId());
+    }
+
+    private Producto buscar(String nombre) {
+        return productoRepository.findAll().stream()
+                .filter(producto -> producto.getNombre().equals(nombre))
+                .findFirst().orElseThrow();
+    }
+
+    /**
+     * Ejecuta los jobs de importación en el hilo que los inicia.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class EjecucionSincronica {
+
+        @Bean
+        TaskExecutor taskExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.utn.productos.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el lector CSV contra los casos de RFC 4180. Cada caso se lee también
+ * de a un carácter por lectura, para que los saltos de línea CRLF y las comillas
+ * escapadas queden partidos entre dos recargas del buffer.
+ */
+class LectorCsvTest {
+
+    @Test
+    void separaCamposSimplesYVacios() throws IOException {
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("", "x", "")),
+                leerTodo("a,b,c\n,x,\n"));
+    }
+
+    @Test
+    void aceptaCrlfLfYUnUltimoRegistroSinSaltoDeLinea() throws IOException {
+        assertEquals(List.of(List.of("a", "1"), List.of("b", "2"), List.of("c", "3"), List.of("d", "4")),
+                leerTodo("a,1\r\nb,2\nc,3\rd,4"));
+    }
+
+    @Test
+    void respetaSeparadoresYSaltosDeLineaEntreComillas() throws IOException {
+        assertEquals(List.of(List.of("Mesa, roble", "Línea 1\r\nLínea 2", "fin"), List.of("otro")),
+                leerTodo("\"Mesa, roble\",\"Línea 1\r\nLínea 2\",fin\r\notro\r\n"));
+    }
+
+    @Test
+    void desescapaLasComillasDobles() throws IOException {
+        assertEquals(List.of(List.of("Monitor 27\"", "\"", "", "dice \"hola\"")),
+                leerTodo("\"Monitor 27\"\"\",\"\"\"\",\"\",\"dice \"\"hola\"\"\"\n"));
+    }
+
+    @Test
+    void cuentaLosRegistrosAunqueTenganVariasLineas() throws IOException {
+        try (LectorCsv lector = new LectorCsv(new StringReader("\"a\nb\"\nc\n"), ',', 100)) {
+            lector.siguienteRegistro();
+            lector.siguienteRegistro();
+            assertEquals(2, lector.getNumeroRegistro());
+            assertNull(lector.siguienteRegistro());
+        }
+    }
+
+    @Test
+    void rechazaUnRegistroMasLargoQueElMaximo() throws IOException {
+        String texto = "corto\n" + "x".repeat(20) + "\n";
+        try (LectorCsv lector = new LectorCsv(new StringReader(texto), ',', 10)) {
+            assertEquals(List.of("corto"), lector.siguienteRegistro());
+            IOException error = assertThrows(IOException.class, lector::siguienteRegistro);
+            assertTrue(error.getMessage().contains("registro 2"), error.getMessage());
+        }
+        // Una comilla sin cerrar no lee el resto del archivo como un solo campo
+        try (LectorCsv lector = new LectorCsv(new StringReader("\"abierto," + "y".repeat(20)), ',', 10)) {
+            assertThrows(IOException.class, lector::siguienteRegistro);
+        }
+    }
+
+    @Test
+    void rechazaComillasSinCerrar() throws IOException {
+        try (LectorCsv lector = new LectorCsv(new StringReader("a,\"sin cerrar\n"), ',', 100)) {
+            IOException error = assertThrows(IOException.class, lector::siguienteRegistro);
+            assertTrue(error.getMessage().contains("Comillas sin cerrar"), error.getMessage());
+        }
+    }
+
+    /**
+     * Lee todos los registros con lecturas normales y de a un carácter, y verifica
+     * que ambas den lo mismo.
+     */
+    private static List<List<String>> leerTodo(String texto) throws IOException {
+        List<List<String>> completo = leerTodo(new StringReader(texto));
+        assertEquals(completo, leerTodo(new DeAUnCaracter(texto)));
+        return completo;
+    }
+
+    private static List<List<String>> leerTodo(Reader reader) throws IOException {
+        List<List<String>> registros = new ArrayList<>();
+        try (LectorCsv lector = new LectorCsv(reader, ',', 1000)) {
+            List<String> registro;
+            while ((registro = lector.siguienteRegistro()) != null) {
+                registros.add(registro);
+            }
+        }
+        return registros;
+    }
+
+    /**
+     * Reader que devuelve un solo carácter por lectura.
+     */
+    private static class DeAUnCaracter extends StringReader {
+
+        DeAUnCaracter(String texto) {
+            super(texto);
+        }
+
+        @Override
+        public int read(char[] destino, int desde, int cantidad) throws IOException {
+            return super.read(destino, desde, Math.min(cantidad, 1));
+        }
+    }
+}
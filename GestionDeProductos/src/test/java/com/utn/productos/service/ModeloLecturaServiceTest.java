@@ -0,0 +1,155 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.BusquedaProductosDTO;
+import com.utn.productos.dto.FiltroBusquedaDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.dto.ProductoResponseDTO;
+import com.utn.productos.event.CatalogoModificadoEvent;
+import com.utn.productos.exception.ProductoNotFoundException;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import com.utn.productos.repository.ProductoBatchRepository;
+import com.utn.productos.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que el modelo de lectura en memoria devuelva lo mismo que la base de
+ * datos sin ejecutar sentencias: después de la carga en bloques, después de
+ * escrituras con {@link ProductoService} y después de un cambio masivo.
+ * El bloque es chico para que la carga use varios bloques en paralelo.
+ */
+@DataJpaTest
+@Import({ProductoService.class, BufferStockService.class, CacheNegativaService.class,
+        ModeloLecturaService.class, ProductoBatchRepository.class, ContadorSentencias.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "app.modelo-lectura.enabled=true",
+        "app.modelo-lectura.tamano-bloque=7",
+        "app.modelo-lectura.hilos-carga=3"
+})
+class ModeloLecturaServiceTest {
+
+    private static final int PRODUCTOS = 40;
+
+    @Autowired
+    private ModeloLecturaService modeloLectura;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProductoBatchRepository productoBatchRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        productoRepository.deleteAllInBatch();
+        productoBatchRepository.upsertLote(productos(0, PRODUCTOS));
+        modeloLectura.recargar();
+    }
+
+    @Test
+    void cargaEnBloquesYRespondeSinSentencias() {
+        ContadorSentencias.reiniciar();
+        List<ProductoResponseDTO> todos = modeloLectura.obtenerTodos().orElseThrow();
+        List<ProductoResponseDTO> hogar = modeloLectura.obtenerPorCategoria(Categoria.HOGAR).orElseThrow();
+        ProductoResponseDTO primero = modeloLectura.obtenerPorId(todos.get(0).getId()).orElseThrow();
+        modeloLectura.buscar(new FiltroBusquedaDTO("producto", 10.0, 50.0, true, null, 0, 20, "precio", "desc"));
+        assertEquals(0, ContadorSentencias.actual().getTotal(), "Las lecturas no deben ejecutar sentencias");
+
+        assertEquals(PRODUCTOS, todos.size());
+        assertEquals(todos.get(0), primero);
+        assertEquals(ordenadosPorId(productoService.obtenerTodos()), todos);
+        assertEquals(ordenadosPorId(productoService.obtenerPorCategoria(Categoria.HOGAR)), hogar);
+    }
+
+    @Test
+    void escriturasConfirmadasActualizanElModelo() {
+        List<Long> ids = modeloLectura.obtenerTodos().orElseThrow().stream().map(ProductoResponseDTO::getId).toList();
+        ProductoResponseDTO creado = productoService.crearProducto(
+                new ProductoDTO("Nuevo", "Producto creado", 99.0, 3, Categoria.DEPORTES));
+        productoService.actualizarProducto(ids.get(0), new ProductoDTO("Renombrado", "Otra categoría", 5.0, 1, Categoria.ALIMENTOS));
+        productoService.actualizarStock(ids.get(1), new ActualizarStockDTO(777));
+        productoService.eliminarProducto(ids.get(2));
+
+        assertEquals(ordenadosPorId(productoService.obtenerTodos()), modeloLectura.obtenerTodos().orElseThrow());
+        for (Categoria categoria : Categoria.values()) {
+            assertEquals(ordenadosPorId(productoService.obtenerPorCategoria(categoria)),
+                    modeloLectura.obtenerPorCategoria(categoria).orElseThrow(), categoria.name());
+        }
+        assertEquals(creado, modeloLectura.obtenerPorId(creado.getId()).orElseThrow());
+        assertEquals(777, modeloLectura.obtenerPorId(ids.get(1)).orElseThrow().getStock());
+        assertEquals(productoService.obtenerVersion(ids.get(0)), modeloLectura.obtenerVersion(ids.get(0)));
+        assertThrows(ProductoNotFoundException.class, () -> modeloLectura.obtenerPorId(ids.get(2)));
+    }
+
+    @Test
+    void busquedaCoincideConLaBaseDeDatos() {
+        List<FiltroBusquedaDTO> filtros = List.of(
+                new FiltroBusquedaDTO(null, null, null, null, null, 0, 20, "id", "asc"),
+                new FiltroBusquedaDTO(null, null, null, null, null, 1, 15, "id", "desc"),
+                new FiltroBusquedaDTO("PRODUCTO 1", null, null, null, null, 0, 20, "nombre", "asc"),
+                new FiltroBusquedaDTO("prueba", 10.0, 60.0, true, List.of(Categoria.HOGAR, Categoria.ROPA), 0, 5, "precio", "desc"),
+                new FiltroBusquedaDTO(null, null, 30.0, null, List.of(Categoria.ELECTRONICA), 1, 3, "nombre", "desc"),
+                new FiltroBusquedaDTO(null, null, null, true, null, 2, 6, "precio", "asc"),
+                new FiltroBusquedaDTO("inexistente", null, null, null, null, 0, 20, "id", "asc"));
+
+        for (FiltroBusquedaDTO filtro : filtros) {
+            BusquedaProductosDTO esperado = productoService.buscar(filtro);
+            BusquedaProductosDTO obtenido = modeloLectura.buscar(filtro).orElseThrow();
+            assertEquals(esperado, obtenido, filtro.toString());
+        }
+    }
+
+    @Test
+    void cambioMasivoRecargaElModelo() throws Exception {
+        List<Producto> importados = productos(PRODUCTOS, 5);
+        productoBatchRepository.upsertLote(importados);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(importados.size()));
+
+        long limite = System.currentTimeMillis() + 10_000;
+        while (modeloLectura.obtenerTodos().map(List::size).orElse(0) != PRODUCTOS + importados.size()) {
+            assertTrue(System.currentTimeMillis() < limite, "El modelo no se recargó");
+            Thread.sleep(10);
+        }
+        assertEquals(ordenadosPorId(productoService.obtenerTodos()), modeloLectura.obtenerTodos().orElseThrow());
+    }
+
+    private static List<Producto> productos(int desde, int cantidad) {
+        Categoria[] categorias = Categoria.values();
+        List<Producto> productos = new ArrayList<>();
+        for (int i = desde; i < desde + cantidad; i++) {
+            productos.add(new Producto(null, "Producto " + i, "Producto de prueba " + i,
+                    (double) (i * 37 % 70), i % 4, categorias[i % categorias.length], null));
+        }
+        return productos;
+    }
+
+    private static List<ProductoResponseDTO> ordenadosPorId(List<ProductoResponseDTO> productos) {
+        List<ProductoResponseDTO> ordenados = new ArrayList<>(productos);
+        ordenados.sort(Comparator.comparing(ProductoResponseDTO::getId));
+        return ordenados;
+    }
+}
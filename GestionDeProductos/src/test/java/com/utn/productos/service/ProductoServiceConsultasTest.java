@@ -0,0 +1,200 @@
+package com.utn.productos.service;
+
+import com.utn.productos.dto.ActualizarStockDTO;
+import com.utn.productos.dto.FiltroBusquedaDTO;
+import com.utn.productos.dto.ProductoDTO;
+import com.utn.productos.model.Categoria;
+import com.utn.productos.model.Producto;
+import com.utn.productos.repository.ProductoBatchRepository;
+import com.utn.productos.repository.ProductoRepository;
+import net.ttddyy.dsproxy.QueryCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fija la cantidad máxima de sentencias SQL de cada operación de {@link ProductoService}
+ * para detectar regresiones (N+1, consultas de existencia redundantes, flushes extra).
+ * <p>
+ * Los tests no son transaccionales: cada llamada al servicio confirma su propia
+ * transacción, de modo que también se cuentan las sentencias del flush.
+ * Cada método público del servicio debe tener su presupuesto en
+ * {@link #PRESUPUESTOS}; si se agrega uno sin medirlo,
+ * {@link #todasLasOperacionesTienenPresupuesto()} falla.
+ */
+@DataJpaTest
+@Import({ProductoService.class, BufferStockService.class, CacheNegativaService.class,
+        ProductoBatchRepository.class, ContadorSentencias.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductoServiceConsultasTest {
+
+    private static final int PRODUCTOS = 20;
+
+    /**
+     * Máximo de sentencias por operación del servicio.
+     */
+    private static final Map<String, Integer> PRESUPUESTOS = Map.ofEntries(
+            Map.entry("crearProducto", 1),
+            Map.entry("obtenerTodos", 1),
+            Map.entry("obtenerPorId", 1),
+            Map.entry("buscarPorId", 1),
+            Map.entry("obtenerVersion", 1),
+            Map.entry("tieneStockPendiente", 0),
+            Map.entry("obtenerPorCategoria", 1),
+            Map.entry("buscar", 2),
+            Map.entry("actualizarProducto", 2),
+            Map.entry("actualizarStock", 2),
+            Map.entry("eliminarProducto", 2)
+    );
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        productoRepository.deleteAllInBatch();
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < PRODUCTOS; i++) {
+            Categoria categoria = Categoria.values()[i % Categoria.values().length];
+            productos.add(new Producto(null, "Producto " + i, "Producto de prueba " + i, 10.0 + i, i, categoria, null));
+        }
+        ids = productoRepository.saveAll(productos).stream().map(Producto::getId).toList();
+        ContadorSentencias.reiniciar();
+    }
+
+    @Test
+    void todasLasOperacionesTienenPresupuesto() {
+        Set<String> publicas = new TreeSet<>();
+        for (Method metodo : ProductoService.class.getDeclaredMethods()) {
+            if (Modifier.isPublic(metodo.getModifiers()) && !metodo.isSynthetic()) {
+                publicas.add(metodo.getName());
+            }
+        }
+        publicas.removeAll(PRESUPUESTOS.keySet());
+        assertTrue(publicas.isEmpty(), "Operaciones sin presupuesto de sentencias: " + publicas);
+    }
+
+    @Test
+    void crearProducto() {
+        productoService.crearProducto(nuevoDTO());
+        assertSentencias("crearProducto");
+    }
+
+    @Test
+    void obtenerTodosNoCargaProductosUnoPorUno() {
+        assertEquals(PRODUCTOS, productoService.obtenerTodos().size());
+        assertSentencias("obtenerTodos");
+    }
+
+    @Test
+    void obtenerPorId() {
+        productoService.obtenerPorId(ids.get(0));
+        assertSentencias("obtenerPorId");
+    }
+
+    @Test
+    void buscarPorIdInexistente() {
+        productoService.buscarPorId(ids.get(PRODUCTOS - 1) + 1);
+        assertSentencias("buscarPorId");
+    }
+
+    @Test
+    void obtenerVersion() {
+        productoService.obtenerVersion(ids.get(0));
+        assertSentencias("obtenerVersion");
+    }
+
+    @Test
+    void tieneStockPendienteNoConsultaLaBase() {
+        productoService.tieneStockPendiente(ids.get(0));
+        assertSentencias("tieneStockPendiente");
+    }
+
+    @Test
+    void obtenerPorCategoria() {
+        productoService.obtenerPorCategoria(Categoria.ROPA);
+        assertSentencias("obtenerPorCategoria");
+    }
+
+    @Test
+    void buscarNoEjecutaConsultaDeConteo() {
+        FiltroBusquedaDTO filtro = new FiltroBusquedaDTO();
+        filtro.setTexto("producto");
+        filtro.setPrecioMin(12.0);
+        filtro.setCategorias(List.of(Categoria.ROPA, Categoria.HOGAR));
+        productoService.buscar(filtro);
+        assertSentencias("buscar");
+    }
+
+    @Test
+    void buscarDesempataPorIdSinRepetirlo() {
+        FiltroBusquedaDTO filtro = new FiltroBusquedaDTO();
+        filtro.setOrden("id");
+        filtro.setDireccion("desc");
+        assertEquals(Sort.by(Sort.Direction.DESC, "id"), ProductoService.ordenBusqueda(filtro));
+
+        filtro.setOrden("nombre");
+        assertEquals(Sort.by(Sort.Direction.DESC, "nombre").and(Sort.by("id")), ProductoService.ordenBusqueda(filtro));
+    }
+
+    @Test
+    void actualizarProducto() {
+        productoService.actualizarProducto(ids.get(0), nuevoDTO());
+        assertSentencias("actualizarProducto");
+    }
+
+    @Test
+    void actualizarProductoConVersionEsperada() {
+        productoService.actualizarProducto(ids.get(0), nuevoDTO(), 0L);
+        assertSentencias("actualizarProducto");
+    }
+
+    @Test
+    void actualizarStock() {
+        productoService.actualizarStock(ids.get(0), new ActualizarStockDTO(99));
+        assertSentencias("actualizarStock");
+    }
+
+    @Test
+    void eliminarProducto() {
+        productoService.eliminarProducto(ids.get(0));
+        assertSentencias("eliminarProducto");
+    }
+
+    private static ProductoDTO nuevoDTO() {
+        return new ProductoDTO("Producto nuevo", "Producto creado por el test", 50.0, 5, Categoria.HOGAR);
+    }
+
+    private static void assertSentencias(String operacion) {
+        QueryCount conteo = ContadorSentencias.actual();
+        int presupuesto = PRESUPUESTOS.get(operacion);
+        // Sin sentencias contadas el proxy no está activo y el test no verificaría nada
+        assertTrue(presupuesto == 0 || conteo.getTotal() > 0, "No se contaron sentencias para " + operacion);
+        assertTrue(conteo.getTotal() <= presupuesto,
+                operacion + " ejecutó " + conteo.getTotal() + " sentencias (máximo " + presupuesto + "): "
+                        + "select=" + conteo.getSelect() + ", insert=" + conteo.getInsert()
+                        + ", update=" + conteo.getUpdate() + ", delete=" + conteo.getDelete()
+                        + ", otras=" + conteo.getOther());
+    }
+}
@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Levanta un líder y dos seguidores en localhost, escribe en el líder y lee
+# de los seguidores con X-Tareas-Posicion. Después reinicia un seguidor para
+# mostrar que se pone al día solo.
+#
+# Uso: scripts/replicacion-local.sh [tareas]
+set -euo pipefail
+
+TAREAS=${1:-20}
+JAR=build/libs/SistemaDeGestionDeTareas-1.0.0.jar
+PUERTO_REPLICACION=9090
+
+cd "$(dirname "$0")/.."
+./gradlew -q bootJar
+
+PIDS=()
+trap 'kill "${PIDS[@]}" 2>/dev/null || true' EXIT
+
+nodo() { # nodo <nombre> <puerto-http> <argumentos...>
+    local nombre=$1 puerto=$2
+    shift 2
+    java -jar "$JAR" --spring.profiles.active=prod,servidor --app.servidor.puerto="$puerto" "$@" \
+        > "build/replicacion-$nombre.log" 2>&1 &
+    PIDS+=($!)
+    until curl -s -o /dev/null "http://localhost:$puerto/estadisticas"; do sleep 0.5; done
+}
+
+posicion() { # posicion <cabeceras>
+    tr -d '\r' <<< "$1" | awk 'tolower($1) == "x-tareas-posicion:" {print $2}'
+}
+
+nodo lider 8080 --app.replicacion.rol=lider --app.replicacion.puerto=$PUERTO_REPLICACION
+nodo seguidor1 8081 --app.replicacion.rol=seguidor --app.replicacion.lider=localhost:$PUERTO_REPLICACION
+nodo seguidor2 8082 --app.replicacion.rol=seguidor --app.replicacion.lider=localhost:$PUERTO_REPLICACION
+
+for i in $(seq 1 "$TAREAS"); do
+    CABECERAS=$(curl -s -D - -o /dev/null -X POST http://localhost:8080/tareas \
+        -d "{\"descripcion\": \"Tarea replicada $i\", \"prioridad\": \"ALTA\"}")
+done
+POSICION=$(posicion "$CABECERAS")
+echo "Líder en la posición $POSICION"
+
+for puerto in 8081 8082; do
+    echo "Seguidor :$puerto -> $(curl -s -H "X-Tareas-Posicion: $POSICION" http://localhost:$puerto/estadisticas)"
+done
+
+echo "Escritura en un seguidor -> $(curl -s -X POST http://localhost:8081/tareas -d '{"descripcion": "No"}')"
+
+# Reinicia el segundo seguidor mientras el líder sigue escribiendo
+kill "${PIDS[2]}"
+wait "${PIDS[2]}" 2>/dev/null || true
+for i in $(seq 1 5); do
+    CABECERAS=$(curl -s -D - -o /dev/null -X POST http://localhost:8080/tareas/$i/completar)
+done
+POSICION=$(posicion "$CABECERAS")
+nodo seguidor2 8082 --app.replicacion.rol=seguidor --app.replicacion.lider=localhost:$PUERTO_REPLICACION
+echo "Seguidor reiniciado, posición $POSICION -> $(curl -s -H "X-Tareas-Posicion: $POSICION" http://localhost:8082/estadisticas)"
@@ -0,0 +1,109 @@
+package com.utn.tareas.repository;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.III_Result;
+import org.openjdk.jcstress.infra.results.JJ_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Pruebas jcstress de {@link TareaRepositoryImpl}. Cada repositorio arranca
+ * con las 5 tareas de ejemplo, así que la primera alta recibe el ID 6.
+ */
+public class TareaRepositoryStress {
+
+    private TareaRepositoryStress() {
+    }
+
+    /**
+     * Dos altas simultáneas reciben IDs distintos y consecutivos
+     */
+    @JCStressTest
+    @Outcome(id = {"6, 7", "7, 6"}, expect = ACCEPTABLE, desc = "Cada alta recibe un ID propio")
+    @Outcome(expect = FORBIDDEN, desc = "ID repetido o salteado")
+    @State
+    public static class IdsUnicos {
+
+        private final TareaRepositoryImpl repositorio = new TareaRepositoryImpl();
+
+        @Actor
+        public void primera(JJ_Result r) {
+            Tarea tarea = new Tarea(null, "Primera", false, Prioridad.ALTA);
+            repositorio.guardar(tarea);
+            r.r1 = tarea.getId();
+        }
+
+        @Actor
+        public void segunda(JJ_Result r) {
+            Tarea tarea = new Tarea(null, "Segunda", false, Prioridad.BAJA);
+            repositorio.guardar(tarea);
+            r.r2 = tarea.getId();
+        }
+    }
+
+    /**
+     * Una búsqueda concurrente con una eliminación ve la tarea entera o no la
+     * ve, y después de eliminarla nadie la encuentra
+     */
+    @JCStressTest
+    @Outcome(id = {"1, 0", "0, 0"}, expect = ACCEPTABLE, desc = "La búsqueda ocurre antes o después de eliminar")
+    @Outcome(expect = FORBIDDEN, desc = "La tarea eliminada sigue visible")
+    @State
+    public static class EliminarYBuscar {
+
+        private final TareaRepositoryImpl repositorio = new TareaRepositoryImpl();
+
+        @Actor
+        public void eliminar() {
+            repositorio.eliminar(1L);
+        }
+
+        @Actor
+        public void buscar(II_Result r) {
+            r.r1 = repositorio.buscarPorId(1L).map(t -> t.getDescripcion() != null ? 1 : -1).orElse(0);
+        }
+
+        @Arbiter
+        public void despues(II_Result r) {
+            r.r2 = repositorio.buscarPorId(1L).isPresent() ? 1 : 0;
+        }
+    }
+
+    /**
+     * El conteo y el resumen coinciden con el listado una vez terminadas una
+     * alta y una eliminación simultáneas
+     */
+    @JCStressTest
+    @Outcome(id = "5, 5, 5", expect = ACCEPTABLE, desc = "Conteo, resumen y listado coinciden")
+    @Outcome(expect = FORBIDDEN, desc = "El conteo o el resumen no coinciden con el listado")
+    @State
+    public static class ConteoConsistente {
+
+        private final TareaRepositoryImpl repositorio = new TareaRepositoryImpl();
+
+        @Actor
+        public void alta() {
+            repositorio.guardar(new Tarea(null, "Nueva", false, Prioridad.MEDIA));
+        }
+
+        @Actor
+        public void baja() {
+            repositorio.eliminar(2L);
+        }
+
+        @Arbiter
+        public void despues(III_Result r) {
+            r.r1 = (int) repositorio.contar();
+            r.r2 = (int) repositorio.resumir().total();
+            r.r3 = repositorio.listarTodas().size();
+        }
+    }
+}
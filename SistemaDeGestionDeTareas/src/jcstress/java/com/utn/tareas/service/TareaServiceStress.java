@@ -0,0 +1,111 @@
+package com.utn.tareas.service;
+
+import com.utn.tareas.dependencia.GrafoDependencias;
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.repository.PoolDescripciones;
+import com.utn.tareas.repository.TareaRepositoryImpl;
+import com.utn.tareas.vencimiento.PlanificadorVencimientos;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+import java.time.Clock;
+import java.util.Map;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Pruebas jcstress de {@link TareaService}, armado sin Spring sobre un
+ * {@link TareaRepositoryImpl} con sus 5 tareas de ejemplo
+ */
+public class TareaServiceStress {
+
+    private TareaServiceStress() {
+    }
+
+    /**
+     * Dos altas compiten por el último lugar libre: exactamente una lo obtiene
+     */
+    @JCStressTest
+    @Outcome(id = {"1, 0, 6", "0, 1, 6"}, expect = ACCEPTABLE, desc = "Una sola alta ocupa el último lugar")
+    @Outcome(id = "1, 1, 7", expect = FORBIDDEN, desc = "Se superó el límite")
+    @Outcome(expect = FORBIDDEN, desc = "Se rechazaron las dos altas con un lugar libre")
+    @State
+    public static class UltimoLugar {
+
+        private final TareaService servicio = crearServicio(6);
+
+        @Actor
+        public void primera(III_Result r) {
+            r.r1 = agregar(servicio);
+        }
+
+        @Actor
+        public void segunda(III_Result r) {
+            r.r2 = agregar(servicio);
+        }
+
+        @Arbiter
+        public void despues(III_Result r) {
+            r.r3 = servicio.listarTodas().size();
+        }
+    }
+
+    /**
+     * Las estadísticas leídas durante una alta y un completado reflejan cada
+     * operación entera o no la reflejan
+     */
+    @JCStressTest
+    @Outcome(id = {"5, 0", "5, 1", "6, 0", "6, 1"}, expect = ACCEPTABLE, desc = "Cada operación se ve entera o no se ve")
+    @Outcome(expect = FORBIDDEN, desc = "Estadísticas imposibles")
+    @State
+    public static class EstadisticasDuranteCambios {
+
+        private final TareaService servicio = crearServicio(100);
+
+        @Actor
+        public void alta() {
+            servicio.agregarTarea("Nueva", Prioridad.MEDIA);
+        }
+
+        @Actor
+        public void completar() {
+            servicio.marcarComoCompletada(1L);
+        }
+
+        @Actor
+        public void leer(II_Result r) {
+            Map<String, Object> stats = servicio.obtenerEstadisticas();
+            long total = (Long) stats.get("total");
+            long completadas = (Long) stats.get("completadas");
+            boolean coherente = completadas + (Long) stats.get("pendientes") == total;
+            r.r1 = coherente ? (int) total : -1;
+            r.r2 = (int) completadas;
+        }
+    }
+
+    private static int agregar(TareaService servicio) {
+        try {
+            servicio.agregarTarea("Alta simultánea", Prioridad.MEDIA);
+            return 1;
+        } catch (IllegalStateException limite) {
+            return 0;
+        }
+    }
+
+    private static TareaService crearServicio(int maxTareas) {
+        TareaRepositoryImpl repositorio = new TareaRepositoryImpl();
+        Clock reloj = Clock.systemUTC();
+        PlanificadorVencimientos planificador = new PlanificadorVencimientos(repositorio, evento -> { }, reloj,
+            1000, 0);
+        TareaService servicio = new TareaService(repositorio, planificador, reloj,
+            new GrafoDependencias(repositorio), new PoolDescripciones());
+        servicio.setMaxTareas(maxTareas);
+        return servicio;
+    }
+}
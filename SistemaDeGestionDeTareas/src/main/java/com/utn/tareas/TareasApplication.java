@@ -1,15 +1,20 @@
 package com.utn.tareas;
 
+import com.utn.tareas.config.TareasRuntimeHints;
 import com.utn.tareas.model.Prioridad;
 import com.utn.tareas.model.Tarea;
 import com.utn.tareas.service.MensajeService;
 import com.utn.tareas.service.TareaService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -22,11 +27,14 @@ import java.util.List;
  * - Arquitectura en capas desacoplada
  * 
  * La aplicación se ejecuta en modo consola mediante CommandLineRunner.
+ * Con el perfil {@code servidor} se omite la demostración y la aplicación
+ * queda atendiendo la API HTTP de {@code ServidorHttpTareas}.
  * 
  * @author Sistema de Gestión de Tareas UTN
  * @version 1.0
  */
 @SpringBootApplication
+@ImportRuntimeHints(TareasRuntimeHints.class)
 public class TareasApplication implements CommandLineRunner {
     
     private static final Logger logger = LoggerFactory.getLogger(TareasApplication.class);
@@ -41,6 +49,12 @@ public class TareasApplication implements CommandLineRunner {
      */
     private final MensajeService mensajeService;
     
+    /**
+     * Indica si la aplicación corre como servidor HTTP en lugar de la demostración
+     */
+    @Value("${app.servidor.enabled:false}")
+    private boolean modoServidor;
+    
     /**
      * Constructor con inyección de dependencias.
      * Spring automáticamente inyecta las implementaciones correctas
@@ -72,6 +86,11 @@ public class TareasApplication implements CommandLineRunner {
      */
     @Override
     public void run(String... args) {
+        if (modoServidor) {
+            logger.info("Modo servidor activo: se omite el flujo de demostración");
+            return;
+        }
+        
         try {
             // ═══════════════════════════════════════════════════════════
             // 1️⃣ MENSAJE DE BIENVENIDA
@@ -97,7 +116,8 @@ public class TareasApplication implements CommandLineRunner {
             
             tareaService.agregarTarea(
                 "Configurar entorno de integración continua", 
-                Prioridad.ALTA
+                Prioridad.ALTA,
+                Instant.now().plus(Duration.ofDays(3))
             );
             
             tareaService.agregarTarea(
@@ -105,9 +125,11 @@ public class TareasApplication implements CommandLineRunner {
                 Prioridad.MEDIA
             );
             
+            // Con la fecha límite ya pasada: aparece como vencida en las estadísticas
             tareaService.agregarTarea(
                 "Actualizar documentación técnica", 
-                Prioridad.BAJA
+                Prioridad.BAJA,
+                Instant.now().minus(Duration.ofDays(1))
             );
             
             System.out.println("─".repeat(60));
@@ -0,0 +1,22 @@
+package com.utn.tareas.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Reloj de la aplicación. Las fechas de las tareas y los vencimientos lo usan
+ * en lugar de {@code Instant.now()}, así una prueba puede reemplazarlo.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+public class RelojConfig {
+    
+    @Bean
+    public Clock reloj() {
+        return Clock.systemUTC();
+    }
+}
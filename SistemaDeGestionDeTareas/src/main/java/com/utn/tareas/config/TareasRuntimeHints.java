@@ -0,0 +1,43 @@
+package com.utn.tareas.config;
+
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.service.MensajeDevService;
+import com.utn.tareas.service.MensajeProdService;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Pistas para la imagen nativa de GraalVM que el procesamiento AOT de Spring
+ * no deduce por sí solo.
+ * 
+ * <ul>
+ *   <li>{@link Tarea}: constructores y accesores generados por Lombok, para
+ *       herramientas que la recorren por reflexión (serializadores, copia de
+ *       propiedades). La API HTTP escribe el JSON a mano y no los necesita.</li>
+ *   <li>{@link MensajeDevService} y {@link MensajeProdService}: constructores,
+ *       para que ambas implementaciones estén en la imagen aunque AOT solo
+ *       registre como bean la del perfil usado al compilar.</li>
+ *   <li>Los archivos de configuración de cada perfil.</li>
+ * </ul>
+ * 
+ * AOT evalúa {@code @Profile} al compilar: el perfil se elige con
+ * {@code -Pperfil=...} y no puede cambiarse al ejecutar la imagen.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public class TareasRuntimeHints implements RuntimeHintsRegistrar {
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(Tarea.class,
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+            MemberCategory.INVOKE_PUBLIC_METHODS);
+        
+        hints.reflection().registerType(MensajeDevService.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(MensajeProdService.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        
+        hints.resources().registerPattern("application-*.properties");
+    }
+}
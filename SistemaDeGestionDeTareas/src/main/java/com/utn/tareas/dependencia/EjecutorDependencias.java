@@ -0,0 +1,305 @@
+package com.utn.tareas.dependencia;
+
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.TareaRepository;
+import com.utn.tareas.service.TareaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta las tareas pendientes en paralelo respetando sus dependencias.
+ * <p>
+ * Toma una copia de las dependencias entre tareas pendientes y usa un contador
+ * atómico de predecesores por tarea: cuando una tarea termina descuenta los de
+ * sus sucesores y envía al pool los que llegan a cero. Cada tarea se ejecuta
+ * apenas termina su último predecesor, sin esperar a las demás del mismo nivel.
+ * <p>
+ * Al terminar informa el camino crítico: la cadena de dependencias cuyo trabajo
+ * medido suma más tiempo. Es el mínimo que tardaría la ejecución con hilos
+ * ilimitados; si la duración total se acerca a él, agregar hilos no ayuda.
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+public class EjecutorDependencias {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjecutorDependencias.class);
+
+    private final GrafoDependencias grafo;
+
+    private final TareaRepository repositorio;
+
+    private final TareaService tareaService;
+
+    /**
+     * Hilos del pool; 0 usa la cantidad de procesadores disponibles
+     */
+    private final int hilos;
+
+    /**
+     * Constructor con inyección de dependencias
+     *
+     * @param grafo Grafo de dependencias
+     * @param repositorio Repositorio de tareas
+     * @param tareaService Servicio que marca cada tarea como completada
+     * @param hilos Hilos del pool (0 = procesadores disponibles)
+     */
+    public EjecutorDependencias(GrafoDependencias grafo, TareaRepository repositorio, TareaService tareaService,
+                                @Value("${app.dependencias.hilos:0}") int hilos) {
+        this.grafo = grafo;
+        this.repositorio = repositorio;
+        this.tareaService = tareaService;
+        this.hilos = hilos;
+    }
+
+    /**
+     * Ejecuta todas las tareas pendientes y marca como completada cada una
+     * cuyo trabajo termina sin error. Las que dependen de una tarea fallida no
+     * se ejecutan.
+     *
+     * @param trabajo Acción a ejecutar para cada tarea
+     * @return Resultado de la ejecución
+     * @throws InterruptedException Si se interrumpe la espera
+     */
+    public ResultadoEjecucion ejecutar(Consumer<Tarea> trabajo) throws InterruptedException {
+        Map<Long, List<Long>> predecesores = grafo.pendientes();
+        Ejecucion ejecucion = new Ejecucion(predecesores, trabajo);
+        int cantidadHilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        AtomicInteger numero = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(cantidadHilos,
+            r -> new Thread(r, "tareas-dependencias-" + numero.incrementAndGet()));
+        long inicio = System.nanoTime();
+        try {
+            ejecucion.iniciar(pool);
+            ejecucion.terminada.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error inesperado al ejecutar las tareas", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        ResultadoEjecucion resultado = ejecucion.resultado(Duration.ofNanos(System.nanoTime() - inicio));
+        logger.info("Ejecutadas {} tareas ({} fallidas) en {}; camino crítico de {} tareas y {}",
+            resultado.ejecutadas(), resultado.fallidas().size(), resultado.duracionTotal(),
+            resultado.caminoCritico().size(), resultado.duracionCaminoCritico());
+        return resultado;
+    }
+
+    /**
+     * Camino crítico de las tareas pendientes contando tareas, sin ejecutarlas:
+     * la cadena de dependencias más larga, que marca cuántas etapas sucesivas
+     * quedan aunque se trabaje en paralelo
+     *
+     * @return IDs del camino, del primero al último
+     */
+    public List<Long> caminoCriticoPendiente() {
+        Map<Long, List<Long>> predecesores = grafo.pendientes();
+        Map<Long, List<Long>> sucesores = new HashMap<>();
+        Map<Long, Integer> grados = new HashMap<>();
+        List<Long> cola = new ArrayList<>();
+        for (Map.Entry<Long, List<Long>> entrada : predecesores.entrySet()) {
+            grados.put(entrada.getKey(), entrada.getValue().size());
+            if (entrada.getValue().isEmpty()) {
+                cola.add(entrada.getKey());
+            }
+            for (Long predecesor : entrada.getValue()) {
+                sucesores.computeIfAbsent(predecesor, k -> new ArrayList<>()).add(entrada.getKey());
+            }
+        }
+        // Orden topológico: cada tarea se procesa después de todos sus predecesores
+        Map<Long, Integer> largo = new HashMap<>();
+        Map<Long, Long> anterior = new HashMap<>();
+        Long ultimo = null;
+        for (int i = 0; i < cola.size(); i++) {
+            Long id = cola.get(i);
+            int propio = 1 + largo.getOrDefault(id, 0);
+            largo.put(id, propio);
+            if (ultimo == null || propio > largo.get(ultimo)) {
+                ultimo = id;
+            }
+            for (Long sucesor : sucesores.getOrDefault(id, List.of())) {
+                if (propio > largo.getOrDefault(sucesor, 0)) {
+                    largo.put(sucesor, propio);
+                    anterior.put(sucesor, id);
+                }
+                if (grados.merge(sucesor, -1, Integer::sum) == 0) {
+                    cola.add(sucesor);
+                }
+            }
+        }
+        return camino(ultimo, anterior);
+    }
+
+    private static List<Long> camino(Long ultimo, Map<Long, Long> anterior) {
+        List<Long> camino = new ArrayList<>();
+        for (Long id = ultimo; id != null; id = anterior.get(id)) {
+            camino.add(id);
+        }
+        Collections.reverse(camino);
+        return camino;
+    }
+
+    /**
+     * Estado de una ejecución
+     */
+    private final class Ejecucion {
+
+        private final Consumer<Tarea> trabajo;
+
+        private final Map<Long, List<Long>> predecesores;
+
+        private final Map<Long, List<Long>> sucesores = new HashMap<>();
+
+        private final Map<Long, AtomicInteger> restantes = new HashMap<>();
+
+        /**
+         * Duración acumulada del camino más largo que termina en cada tarea
+         */
+        private final Map<Long, Long> caminoHasta = new ConcurrentHashMap<>();
+
+        private final Map<Long, Long> anterior = new ConcurrentHashMap<>();
+
+        private final List<Long> fallidas = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicInteger ejecutadas = new AtomicInteger();
+
+        private final AtomicInteger enCurso = new AtomicInteger();
+
+        private final AtomicInteger paralelismoMaximo = new AtomicInteger();
+
+        /**
+         * Tareas enviadas al pool que todavía no terminaron
+         */
+        private final AtomicInteger sinTerminar = new AtomicInteger();
+
+        private final CompletableFuture<Void> terminada = new CompletableFuture<>();
+
+        private ExecutorService pool;
+
+        private Ejecucion(Map<Long, List<Long>> predecesores, Consumer<Tarea> trabajo) {
+            this.predecesores = predecesores;
+            this.trabajo = trabajo;
+            for (Map.Entry<Long, List<Long>> entrada : predecesores.entrySet()) {
+                restantes.put(entrada.getKey(), new AtomicInteger(entrada.getValue().size()));
+                for (Long predecesor : entrada.getValue()) {
+                    sucesores.computeIfAbsent(predecesor, k -> new ArrayList<>()).add(entrada.getKey());
+                }
+            }
+        }
+
+        private void iniciar(ExecutorService pool) {
+            this.pool = pool;
+            List<Long> iniciales = new ArrayList<>();
+            for (Map.Entry<Long, AtomicInteger> entrada : restantes.entrySet()) {
+                if (entrada.getValue().get() == 0) {
+                    iniciales.add(entrada.getKey());
+                }
+            }
+            if (iniciales.isEmpty()) {
+                terminada.complete(null);
+                return;
+            }
+            sinTerminar.addAndGet(iniciales.size());
+            for (Long id : iniciales) {
+                pool.execute(() -> procesar(id));
+            }
+        }
+
+        private void procesar(Long id) {
+            try {
+                paralelismoMaximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                long inicio = System.nanoTime();
+                boolean exito = completar(id);
+                long duracion = System.nanoTime() - inicio;
+                enCurso.decrementAndGet();
+                if (exito) {
+                    registrarCamino(id, duracion);
+                    liberarSucesores(id);
+                }
+            } catch (RuntimeException e) {
+                terminada.completeExceptionally(e);
+            } finally {
+                if (sinTerminar.decrementAndGet() == 0) {
+                    terminada.complete(null);
+                }
+            }
+        }
+
+        private boolean completar(Long id) {
+            try {
+                Optional<Tarea> tarea = repositorio.buscarPorId(id);
+                if (tarea.isEmpty()) {
+                    return false;
+                }
+                trabajo.accept(tarea.get());
+                tareaService.marcarComoCompletada(id);
+                ejecutadas.incrementAndGet();
+                return true;
+            } catch (RuntimeException e) {
+                logger.warn("La tarea {} falló; no se ejecutarán las que dependen de ella", id, e);
+                fallidas.add(id);
+                return false;
+            }
+        }
+
+        private void registrarCamino(Long id, long duracion) {
+            // Los predecesores ya terminaron: sus caminos están registrados
+            long mayor = 0;
+            Long previo = null;
+            for (Long predecesor : predecesores.get(id)) {
+                long camino = caminoHasta.getOrDefault(predecesor, 0L);
+                if (previo == null || camino > mayor) {
+                    mayor = camino;
+                    previo = predecesor;
+                }
+            }
+            caminoHasta.put(id, mayor + duracion);
+            if (previo != null) {
+                anterior.put(id, previo);
+            }
+        }
+
+        private void liberarSucesores(Long id) {
+            for (Long sucesor : sucesores.getOrDefault(id, List.of())) {
+                if (restantes.get(sucesor).decrementAndGet() == 0) {
+                    // Se cuenta antes de terminar esta tarea, así el total no llega a cero antes de tiempo
+                    sinTerminar.incrementAndGet();
+                    pool.execute(() -> procesar(sucesor));
+                }
+            }
+        }
+
+        private ResultadoEjecucion resultado(Duration total) {
+            Long ultimo = null;
+            for (Map.Entry<Long, Long> entrada : caminoHasta.entrySet()) {
+                if (ultimo == null || entrada.getValue() > caminoHasta.get(ultimo)) {
+                    ultimo = entrada.getKey();
+                }
+            }
+            List<Long> fallidasOrdenadas = new ArrayList<>(fallidas);
+            Collections.sort(fallidasOrdenadas);
+            int bloqueadas = predecesores.size() - ejecutadas.get() - fallidasOrdenadas.size();
+            return new ResultadoEjecucion(ejecutadas.get(), fallidasOrdenadas, bloqueadas,
+                camino(ultimo, anterior),
+                Duration.ofNanos(ultimo != null ? caminoHasta.get(ultimo) : 0),
+                total, paralelismoMaximo.get());
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.utn.tareas.dependencia;
+
+import com.utn.tareas.exception.TareaNoEncontradaException;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.TareaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grafo de dependencias entre tareas, con el conjunto de tareas disponibles.
+ * <p>
+ * Una arista {@code p -> t} indica que {@code t} depende de {@code p}. Cada
+ * nodo cuenta cuántos de sus predecesores siguen pendientes; al completarse una
+ * tarea solo se descuentan los contadores de sus sucesores, sin recorrer el
+ * grafo. Una tarea pendiente cuyo contador llega a cero pasa al conjunto de
+ * disponibles: puede empezarse en paralelo con las demás disponibles.
+ * <p>
+ * Las dependencias se guardan en cada {@link Tarea}; este grafo es un índice
+ * que se arma al iniciar y se mantiene con {@link #registrar} y {@link #quitar}.
+ * Una dependencia nueva entre tareas existentes se rechaza si cerraría un
+ * ciclo; {@link #agregarDependencia} la verifica y la agrega como una sola
+ * operación. Todos los métodos se sincronizan con el monitor del grafo, que
+ * solo cubre cambios en memoria: quien los llama guarda las tareas fuera de él.
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+public class GrafoDependencias {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrafoDependencias.class);
+
+    private final Map<Long, Nodo> nodos = new HashMap<>();
+
+    /**
+     * Tareas pendientes sin predecesores pendientes
+     */
+    private final Set<Long> disponibles = new HashSet<>();
+
+    /**
+     * Constructor que arma el grafo con las tareas existentes
+     *
+     * @param repositorio Repositorio de tareas
+     */
+    public GrafoDependencias(TareaRepository repositorio) {
+        reconstruir(repositorio.listarTodas());
+        logger.debug("Grafo de dependencias inicializado con {} tareas", nodos.size());
+    }
+
+    /**
+     * Agrega o actualiza una tarea: sus dependencias y si está completada.
+     * Las dependencias hacia tareas desconocidas se ignoran.
+     *
+     * @param tarea Tarea guardada
+     */
+    public synchronized void registrar(Tarea tarea) {
+        Nodo nodo = nodos.computeIfAbsent(tarea.getId(), Nodo::new);
+        Set<Long> nuevas = tarea.getDependencias();
+        for (Long anterior : nodo.predecesores) {
+            if (!nuevas.contains(anterior)) {
+                desenlazar(anterior, nodo);
+            }
+        }
+        for (Long predecesor : nuevas) {
+            if (!nodo.predecesores.contains(predecesor)) {
+                enlazar(predecesor, nodo);
+            }
+        }
+        nodo.predecesores = nuevas;
+        if (tarea.isCompletada() != nodo.completada) {
+            nodo.completada = tarea.isCompletada();
+            // Completar libera a los sucesores; reabrir (solo por replicación) los vuelve a bloquear
+            int delta = nodo.completada ? -1 : 1;
+            for (Long sucesor : nodo.sucesores) {
+                Nodo siguiente = nodos.get(sucesor);
+                siguiente.pendientes += delta;
+                actualizarDisponible(siguiente);
+            }
+        }
+        actualizarDisponible(nodo);
+    }
+
+    /**
+     * Quita una tarea eliminada; sus sucesores dejan de depender de ella
+     *
+     * @param id ID de la tarea
+     */
+    public synchronized void quitar(Long id) {
+        Nodo nodo = nodos.remove(id);
+        if (nodo == null) {
+            return;
+        }
+        disponibles.remove(id);
+        for (Long predecesor : nodo.predecesores) {
+            Nodo anterior = nodos.get(predecesor);
+            if (anterior != null) {
+                anterior.sucesores.remove(id);
+            }
+        }
+        for (Long sucesor : nodo.sucesores) {
+            Nodo siguiente = nodos.get(sucesor);
+            if (!nodo.completada) {
+                siguiente.pendientes--;
+                actualizarDisponible(siguiente);
+            }
+        }
+    }
+
+    /**
+     * Descarta el grafo y lo arma de nuevo, por ejemplo al aplicar una
+     * instantánea del líder
+     *
+     * @param tareas Todas las tareas del repositorio
+     */
+    public synchronized void reconstruir(Collection<Tarea> tareas) {
+        nodos.clear();
+        disponibles.clear();
+        // Primero los nodos, para que las aristas no dependan del orden de las tareas
+        for (Tarea tarea : tareas) {
+            Nodo nodo = new Nodo(tarea.getId());
+            nodo.completada = tarea.isCompletada();
+            nodos.put(tarea.getId(), nodo);
+        }
+        for (Tarea tarea : tareas) {
+            Nodo nodo = nodos.get(tarea.getId());
+            for (Long predecesor : tarea.getDependencias()) {
+                enlazar(predecesor, nodo);
+            }
+            nodo.predecesores = tarea.getDependencias();
+            actualizarDisponible(nodo);
+        }
+    }
+
+    /**
+     * Verifica que las tareas indicadas existan
+     *
+     * @param ids IDs de tareas
+     * @throws IllegalArgumentException Si alguna no existe
+     */
+    public void verificarExistentes(Collection<Long> ids) {
+        // Las altas sin dependencias no toman el monitor
+        if (ids.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (Long id : ids) {
+                if (id == null || !nodos.containsKey(id)) {
+                    throw new IllegalArgumentException("La dependencia " + id + " no es una tarea existente");
+                }
+            }
+        }
+    }
+
+    /**
+     * Agrega la dependencia {@code prerequisito -> tarea} si no cierra un
+     * ciclo. La verificación y el cambio son una sola operación, así que dos
+     * dependencias opuestas agregadas a la vez no pueden pasar las dos.
+     *
+     * @param tarea ID de la tarea que pasa a depender
+     * @param prerequisito ID de la tarea que debe completarse antes
+     * @return Las dependencias de la tarea, con la nueva
+     * @throws TareaNoEncontradaException Si alguna de las tareas no existe
+     * @throws IllegalArgumentException Si la dependencia cerraría un ciclo
+     */
+    public synchronized Set<Long> agregarDependencia(Long tarea, Long prerequisito) {
+        verificarSinCiclo(tarea, prerequisito);
+        Nodo nodo = nodos.get(tarea);
+        if (!nodo.predecesores.contains(prerequisito)) {
+            Set<Long> nuevas = new HashSet<>(nodo.predecesores);
+            nuevas.add(prerequisito);
+            enlazar(prerequisito, nodo);
+            nodo.predecesores = Set.copyOf(nuevas);
+            actualizarDisponible(nodo);
+        }
+        return nodo.predecesores;
+    }
+
+    /**
+     * Verifica que agregar la dependencia {@code prerequisito -> tarea} no
+     * cierre un ciclo, es decir, que {@code prerequisito} no dependa ya
+     * (directa o indirectamente) de {@code tarea}
+     *
+     * @param tarea ID de la tarea que pasará a depender
+     * @param prerequisito ID de la tarea que deberá completarse antes
+     * @throws TareaNoEncontradaException Si alguna de las tareas no existe
+     * @throws IllegalArgumentException Si la dependencia cerraría un ciclo
+     */
+    public synchronized void verificarSinCiclo(Long tarea, Long prerequisito) {
+        if (!nodos.containsKey(tarea)) {
+            throw new TareaNoEncontradaException(tarea);
+        }
+        if (!nodos.containsKey(prerequisito)) {
+            throw new TareaNoEncontradaException(prerequisito);
+        }
+        // Búsqueda desde la tarea hacia sus sucesores: solo visita lo que depende de ella
+        ArrayDeque<Long> porVisitar = new ArrayDeque<>();
+        Set<Long> visitados = new HashSet<>();
+        porVisitar.add(tarea);
+        while (!porVisitar.isEmpty()) {
+            Long actual = porVisitar.poll();
+            if (actual.equals(prerequisito)) {
+                throw new IllegalArgumentException(String.format(
+                    "La tarea %d no puede depender de la tarea %d: se formaría un ciclo", tarea, prerequisito));
+            }
+            if (visitados.add(actual)) {
+                porVisitar.addAll(nodos.get(actual).sucesores);
+            }
+        }
+    }
+
+    /**
+     * Predecesores de una tarea que siguen pendientes
+     *
+     * @param id ID de la tarea
+     * @return IDs de las tareas que la bloquean (vacío si está disponible)
+     */
+    public synchronized List<Long> bloqueantes(Long id) {
+        Nodo nodo = nodos.get(id);
+        if (nodo == null || nodo.pendientes == 0) {
+            return List.of();
+        }
+        List<Long> bloqueantes = new ArrayList<>();
+        for (Long predecesor : nodo.predecesores) {
+            Nodo anterior = nodos.get(predecesor);
+            if (anterior != null && !anterior.completada) {
+                bloqueantes.add(predecesor);
+            }
+        }
+        Collections.sort(bloqueantes);
+        return bloqueantes;
+    }
+
+    /**
+     * IDs de las tareas pendientes que no esperan a ninguna otra
+     *
+     * @return Copia ordenada del conjunto de disponibles
+     */
+    public synchronized List<Long> disponibles() {
+        List<Long> ids = new ArrayList<>(disponibles);
+        Collections.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Cantidad de tareas disponibles, sin copiarlas
+     *
+     * @return Tareas pendientes que no esperan a ninguna otra
+     */
+    public synchronized int contarDisponibles() {
+        return disponibles.size();
+    }
+
+    /**
+     * Copia de las dependencias entre tareas pendientes, para ejecutarlas o
+     * calcular su camino crítico sin tomar el monitor
+     *
+     * @return Para cada tarea pendiente, sus predecesores pendientes
+     */
+    public synchronized Map<Long, List<Long>> pendientes() {
+        Map<Long, List<Long>> pendientes = new HashMap<>();
+        for (Nodo nodo : nodos.values()) {
+            if (nodo.completada) {
+                continue;
+            }
+            List<Long> predecesores = new ArrayList<>(nodo.pendientes);
+            for (Long predecesor : nodo.predecesores) {
+                Nodo anterior = nodos.get(predecesor);
+                if (anterior != null && !anterior.completada) {
+                    predecesores.add(predecesor);
+                }
+            }
+            pendientes.put(nodo.id, predecesores);
+        }
+        return pendientes;
+    }
+
+    private void enlazar(Long predecesor, Nodo nodo) {
+        Nodo anterior = nodos.get(predecesor);
+        if (anterior == null) {
+            return;
+        }
+        anterior.sucesores.add(nodo.id);
+        if (!anterior.completada) {
+            nodo.pendientes++;
+        }
+    }
+
+    private void desenlazar(Long predecesor, Nodo nodo) {
+        Nodo anterior = nodos.get(predecesor);
+        if (anterior == null) {
+            return;
+        }
+        anterior.sucesores.remove(nodo.id);
+        if (!anterior.completada) {
+            nodo.pendientes--;
+        }
+    }
+
+    private void actualizarDisponible(Nodo nodo) {
+        if (!nodo.completada && nodo.pendientes == 0) {
+            disponibles.add(nodo.id);
+        } else {
+            disponibles.remove(nodo.id);
+        }
+    }
+
+    /**
+     * Tarea dentro del grafo
+     */
+    private static final class Nodo {
+
+        private final Long id;
+
+        private Set<Long> predecesores = Set.of();
+
+        private final Set<Long> sucesores = new HashSet<>();
+
+        /**
+         * Predecesores que siguen pendientes
+         */
+        private int pendientes;
+
+        private boolean completada;
+
+        private Nodo(Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.utn.tareas.dependencia;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Resultado de {@link EjecutorDependencias#ejecutar}.
+ * 
+ * @param ejecutadas Tareas ejecutadas y completadas
+ * @param fallidas IDs de las tareas cuyo trabajo lanzó una excepción
+ * @param bloqueadas Tareas que no se ejecutaron porque dependen de una fallida
+ * @param caminoCritico IDs de la cadena de dependencias que más tiempo sumó
+ * @param duracionCaminoCritico Tiempo sumado por esa cadena
+ * @param duracionTotal Tiempo de toda la ejecución
+ * @param paralelismoMaximo Mayor cantidad de tareas ejecutadas a la vez
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public record ResultadoEjecucion(int ejecutadas, List<Long> fallidas, int bloqueadas, List<Long> caminoCritico,
+                                 Duration duracionCaminoCritico, Duration duracionTotal, int paralelismoMaximo) {
+}
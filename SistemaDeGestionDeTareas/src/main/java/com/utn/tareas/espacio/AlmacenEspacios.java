@@ -0,0 +1,151 @@
+package com.utn.tareas.espacio;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Guarda cada espacio desalojado en un archivo binario propio,
+ * {@code <directorio>/<espacio>.tareas}.
+ * <p>
+ * Formato: {@link #MAGICO}, {@link #VERSION}, límite, próximo ID, cantidad de
+ * tareas y, por cada una, ID, descripción, estado, prioridad y fechas. La
+ * descripción se escribe como su longitud en bytes UTF-8 seguida de los bytes
+ * ({@code -1} si no hay), sin el límite de 64 KB de {@code writeUTF}. Las
+ * fechas se escriben como segundos y nanosegundos; un nanosegundo {@code -1}
+ * indica que no hay fecha. Se escribe en un archivo temporal que después
+ * reemplaza al anterior, así un corte a mitad de la escritura no deja un
+ * espacio a medias.
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+final class AlmacenEspacios {
+
+    static final int MAGICO = 0x45535041; // "ESPA"
+
+    static final int VERSION = 1;
+
+    private static final String EXTENSION = ".tareas";
+
+    private final Path directorio;
+
+    AlmacenEspacios(Path directorio) {
+        this.directorio = directorio;
+    }
+
+    /**
+     * Lee un espacio guardado
+     *
+     * @param nombre Nombre del espacio
+     * @return El contenido, o vacío si el espacio nunca se guardó
+     * @throws IOException Si el archivo no se puede leer o está dañado
+     */
+    Optional<EspacioTareas.Contenido> leer(String nombre) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivo(nombre))))) {
+            if (entrada.readInt() != MAGICO || entrada.readInt() != VERSION) {
+                throw new IOException("El archivo del espacio " + nombre + " no tiene un formato conocido");
+            }
+            int limite = entrada.readInt();
+            long siguienteId = entrada.readLong();
+            int cantidad = entrada.readInt();
+            List<Tarea> tareas = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                tareas.add(leerTarea(entrada));
+            }
+            return Optional.of(new EspacioTareas.Contenido(limite, siguienteId, tareas));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Guarda un espacio, reemplazando la versión anterior
+     *
+     * @param nombre Nombre del espacio
+     * @param contenido Estado a guardar
+     * @throws IOException Si no se puede escribir
+     */
+    void escribir(String nombre, EspacioTareas.Contenido contenido) throws IOException {
+        Files.createDirectories(directorio);
+        Path temporal = directorio.resolve(nombre + EXTENSION + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeInt(contenido.limite());
+            salida.writeLong(contenido.siguienteId());
+            salida.writeInt(contenido.tareas().size());
+            for (Tarea tarea : contenido.tareas()) {
+                escribirTarea(salida, tarea);
+            }
+        }
+        Files.move(temporal, archivo(nombre), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path archivo(String nombre) {
+        return directorio.resolve(nombre + EXTENSION);
+    }
+
+    private static void escribirTarea(DataOutputStream salida, Tarea tarea) throws IOException {
+        salida.writeLong(tarea.getId());
+        // writeUTF admite como máximo 64 KB; la descripción no tiene límite
+        byte[] descripcion = tarea.getDescripcion() != null
+            ? tarea.getDescripcion().getBytes(StandardCharsets.UTF_8) : null;
+        salida.writeInt(descripcion != null ? descripcion.length : -1);
+        if (descripcion != null) {
+            salida.write(descripcion);
+        }
+        salida.writeBoolean(tarea.isCompletada());
+        salida.writeByte(tarea.getPrioridad() != null ? tarea.getPrioridad().ordinal() : -1);
+        escribirFecha(salida, tarea.getFechaCreacion());
+        escribirFecha(salida, tarea.getFechaVencimiento());
+        escribirFecha(salida, tarea.getFechaCompletada());
+    }
+
+    private static Tarea leerTarea(DataInputStream entrada) throws IOException {
+        long id = entrada.readLong();
+        String descripcion = leerDescripcion(entrada);
+        boolean completada = entrada.readBoolean();
+        byte prioridad = entrada.readByte();
+        return new Tarea(id, descripcion, completada, prioridad >= 0 ? Prioridad.values()[prioridad] : null,
+            leerFecha(entrada), leerFecha(entrada), leerFecha(entrada), Set.of());
+    }
+
+    private static String leerDescripcion(DataInputStream entrada) throws IOException {
+        int longitud = entrada.readInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        entrada.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escribirFecha(DataOutputStream salida, Instant fecha) throws IOException {
+        salida.writeLong(fecha != null ? fecha.getEpochSecond() : 0);
+        salida.writeInt(fecha != null ? fecha.getNano() : -1);
+    }
+
+    private static Instant leerFecha(DataInputStream entrada) throws IOException {
+        long segundos = entrada.readLong();
+        int nanos = entrada.readInt();
+        return nanos >= 0 ? Instant.ofEpochSecond(segundos, nanos) : null;
+    }
+}
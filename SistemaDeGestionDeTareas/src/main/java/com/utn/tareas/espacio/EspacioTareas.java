@@ -0,0 +1,185 @@
+package com.utn.tareas.espacio;
+
+import com.utn.tareas.exception.TareaNoEncontradaException;
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.ResumenTareas;
+import com.utn.tareas.model.Tarea;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Tareas de un espacio (un usuario o un equipo) cargado en memoria.
+ * <p>
+ * Cada espacio tiene su propio mapa, su propia secuencia de IDs y su propio
+ * límite, protegidos por su propio monitor: las operaciones de un espacio no
+ * compiten con las de otro. Las tareas que salen del espacio son copias.
+ * <p>
+ * {@link GestorEspacios} cuenta los usos en curso: un espacio solo se desaloja
+ * cuando nadie lo está usando, y un espacio desalojado ya no admite usos.
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+final class EspacioTareas {
+
+    /**
+     * Valor de {@link #usos} en un espacio desalojado
+     */
+    private static final int DESALOJADO = -1;
+
+    private final String nombre;
+
+    private final TreeMap<Long, Tarea> tareas = new TreeMap<>();
+
+    private long siguienteId;
+
+    private int limite;
+
+    /**
+     * Si hubo cambios desde que se cargó; un espacio sin cambios no se vuelve a escribir
+     */
+    private boolean modificado;
+
+    private final AtomicInteger usos = new AtomicInteger();
+
+    private volatile long ultimoAccesoMs;
+
+    /**
+     * @param nombre Nombre del espacio
+     * @param limite Máximo de tareas
+     * @param siguienteId Próximo ID a asignar
+     * @param tareas Tareas guardadas
+     */
+    EspacioTareas(String nombre, int limite, long siguienteId, Collection<Tarea> tareas) {
+        this.nombre = nombre;
+        this.limite = limite;
+        this.siguienteId = siguienteId;
+        for (Tarea tarea : tareas) {
+            this.tareas.put(tarea.getId(), tarea);
+        }
+    }
+
+    String nombre() {
+        return nombre;
+    }
+
+    synchronized Tarea agregar(String descripcion, Prioridad prioridad, Instant creacion, Instant vencimiento) {
+        if (tareas.size() >= limite) {
+            throw new IllegalStateException(String.format(
+                "El espacio %s alcanzó su límite de %d tareas", nombre, limite));
+        }
+        Tarea tarea = new Tarea(siguienteId++, descripcion, false, prioridad, creacion, vencimiento, null, Set.of());
+        tareas.put(tarea.getId(), tarea);
+        modificado = true;
+        return tarea.copiar();
+    }
+
+    synchronized Tarea completar(Long id, Instant ahora) {
+        Tarea tarea = tareas.get(id);
+        if (tarea == null) {
+            throw new TareaNoEncontradaException(id);
+        }
+        if (!tarea.isCompletada()) {
+            tarea.setCompletada(true);
+            tarea.setFechaCompletada(ahora);
+            modificado = true;
+        }
+        return tarea.copiar();
+    }
+
+    synchronized List<Tarea> listar(Predicate<? super Tarea> filtro) {
+        List<Tarea> resultado = new ArrayList<>();
+        for (Tarea tarea : tareas.values()) {
+            if (filtro.test(tarea)) {
+                resultado.add(tarea.copiar());
+            }
+        }
+        return resultado;
+    }
+
+    synchronized ResumenTareas resumir() {
+        return ResumenTareas.de(tareas.values());
+    }
+
+    synchronized int limite() {
+        return limite;
+    }
+
+    synchronized void definirLimite(int limite) {
+        this.limite = limite;
+        modificado = true;
+    }
+
+    /**
+     * Copia del estado para escribirlo en disco
+     */
+    synchronized Contenido contenido() {
+        List<Tarea> copia = new ArrayList<>(tareas.size());
+        for (Tarea tarea : tareas.values()) {
+            copia.add(tarea.copiar());
+        }
+        return new Contenido(limite, siguienteId, copia);
+    }
+
+    synchronized boolean isModificado() {
+        return modificado;
+    }
+
+    /**
+     * Registra un uso que empieza
+     *
+     * @return false si el espacio ya fue desalojado y hay que volver a cargarlo
+     */
+    boolean adquirir(long ahoraMs) {
+        int actuales;
+        do {
+            actuales = usos.get();
+            if (actuales == DESALOJADO) {
+                return false;
+            }
+        } while (!usos.compareAndSet(actuales, actuales + 1));
+        ultimoAccesoMs = ahoraMs;
+        return true;
+    }
+
+    void liberar() {
+        usos.decrementAndGet();
+    }
+
+    /**
+     * Marca el espacio como desalojado si nadie lo está usando
+     *
+     * @return true si se puede desalojar
+     */
+    boolean cerrar() {
+        return usos.compareAndSet(0, DESALOJADO);
+    }
+
+    /**
+     * Deshace {@link #cerrar()} cuando no se pudo guardar el espacio
+     */
+    void reabrir() {
+        usos.set(0);
+    }
+
+    long ultimoAccesoMs() {
+        return ultimoAccesoMs;
+    }
+
+    /**
+     * Estado de un espacio tal como se guarda en disco
+     *
+     * @param limite Máximo de tareas
+     * @param siguienteId Próximo ID a asignar
+     * @param tareas Tareas del espacio
+     */
+    record Contenido(int limite, long siguienteId, List<Tarea> tareas) {
+    }
+}
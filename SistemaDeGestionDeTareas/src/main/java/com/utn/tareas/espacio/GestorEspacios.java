@@ -0,0 +1,423 @@
+package com.utn.tareas.espacio;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.ResumenTareas;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.PoolDescripciones;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Espacios de tareas independientes, por usuario o por equipo.
+ * <p>
+ * Cada espacio tiene sus propios IDs (empiezan en 1), su propio límite
+ * ({@code app.espacios.max-tareas}, modificable con {@link #definirLimite}) y
+ * sus propias estadísticas. Los espacios en memoria están en un
+ * {@link ConcurrentHashMap} y cada uno se sincroniza por separado: no hay un
+ * lock común, así que un espacio muy usado no demora a los demás.
+ * <p>
+ * Un espacio se carga del disco la primera vez que se usa. Un hilo revisa cada
+ * {@code app.espacios.revision-ms} y desaloja los espacios sin uso durante
+ * {@code app.espacios.inactividad-ms}, y los menos usados si hay más de
+ * {@code app.espacios.max-en-memoria}; los que tienen cambios se guardan en
+ * {@code app.espacios.directorio} antes de salir de memoria. El mapa guarda un
+ * {@link CompletableFuture} por espacio: quien lo carga o lo guarda deja en el
+ * mapa uno pendiente y lee o escribe el disco fuera de las operaciones del mapa,
+ * así que no retiene sus locks internos. Un uso concurrente del mismo espacio
+ * espera ese futuro y después lee lo que se acaba de guardar.
+ * Todos los espacios comparten el {@link PoolDescripciones} del repositorio, así
+ * que un texto repetido en miles de espacios se guarda una sola vez.
+ * <p>
+ * Estos espacios son independientes de las tareas de {@code TareaService}: no
+ * se replican ni tienen dependencias, y su vencimiento se calcula al consultar.
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+public class GestorEspacios implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GestorEspacios.class);
+
+    private static final Pattern NOMBRE_VALIDO = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /**
+     * Espacios por nombre; el futuro está pendiente mientras el espacio se
+     * carga o se guarda al desalojarlo
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<EspacioTareas>> cargados = new ConcurrentHashMap<>();
+
+    private final AlmacenEspacios almacen;
+
+    private final Clock reloj;
+
+    private final PoolDescripciones descripciones;
+
+    private final int limitePorDefecto;
+
+    private final long inactividadMs;
+
+    private final int maxEnMemoria;
+
+    private final long revisionMs;
+
+    private final AtomicLong cargas = new AtomicLong();
+
+    private final AtomicLong desalojos = new AtomicLong();
+
+    private ScheduledExecutorService ejecutor;
+
+    /**
+     * Constructor con inyección de dependencias
+     *
+     * @param reloj Reloj de la aplicación
+     * @param descripciones Pool de descripciones compartido
+     * @param directorio Directorio donde se guardan los espacios desalojados
+     * @param limitePorDefecto Máximo de tareas de un espacio nuevo
+     * @param inactividadMs Tiempo sin uso tras el cual se desaloja un espacio
+     * @param maxEnMemoria Máximo de espacios en memoria tras cada revisión
+     * @param revisionMs Intervalo entre revisiones
+     */
+    public GestorEspacios(Clock reloj, PoolDescripciones descripciones,
+                          @Value("${app.espacios.directorio:${java.io.tmpdir}/tareas-espacios}") Path directorio,
+                          @Value("${app.espacios.max-tareas:${app.max-tareas:100}}") int limitePorDefecto,
+                          @Value("${app.espacios.inactividad-ms:300000}") long inactividadMs,
+                          @Value("${app.espacios.max-en-memoria:10000}") int maxEnMemoria,
+                          @Value("${app.espacios.revision-ms:30000}") long revisionMs) {
+        this.almacen = new AlmacenEspacios(directorio);
+        this.reloj = reloj;
+        this.descripciones = descripciones;
+        this.limitePorDefecto = limitePorDefecto;
+        this.inactividadMs = inactividadMs;
+        this.maxEnMemoria = maxEnMemoria;
+        this.revisionMs = revisionMs;
+    }
+
+    @Override
+    public synchronized void start() {
+        ejecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "tareas-espacios");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.scheduleWithFixedDelay(this::revisar, revisionMs, revisionMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (ejecutor == null) {
+            return;
+        }
+        ejecutor.shutdownNow();
+        ejecutor = null;
+        // Al detenerse se guardan todos los espacios con cambios
+        for (CompletableFuture<EspacioTareas> carga : cargados.values()) {
+            EspacioTareas espacio = cargado(carga);
+            if (espacio != null) {
+                desalojar(espacio);
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return ejecutor != null;
+    }
+
+    /**
+     * Agrega una tarea a un espacio
+     *
+     * @param espacio Nombre del espacio
+     * @param descripcion Descripción de la tarea
+     * @param prioridad Nivel de prioridad
+     * @param vencimiento Fecha límite, o null si no tiene
+     * @return La tarea creada, con un ID propio del espacio
+     * @throws IllegalArgumentException Si el nombre o la descripción no son válidos
+     * @throws IllegalStateException Si el espacio alcanzó su límite
+     */
+    public Tarea agregarTarea(String espacio, String descripcion, Prioridad prioridad, Instant vencimiento) {
+        if (descripcion == null || descripcion.trim().isEmpty()) {
+            throw new IllegalArgumentException("La descripción de la tarea no puede estar vacía");
+        }
+        String texto = descripciones.internar(descripcion.trim());
+        Tarea tarea = usar(espacio, e -> e.agregar(texto, prioridad, Instant.now(reloj), vencimiento));
+        logger.debug("Tarea {} agregada al espacio {}", tarea.getId(), espacio);
+        return tarea;
+    }
+
+    /**
+     * Marca como completada una tarea de un espacio
+     *
+     * @param espacio Nombre del espacio
+     * @param id ID de la tarea dentro del espacio
+     * @return La tarea completada
+     * @throws com.utn.tareas.exception.TareaNoEncontradaException Si la tarea no existe en el espacio
+     */
+    public Tarea marcarComoCompletada(String espacio, Long id) {
+        return usar(espacio, e -> e.completar(id, Instant.now(reloj)));
+    }
+
+    /**
+     * Lista las tareas de un espacio que cumplen un criterio
+     *
+     * @param espacio Nombre del espacio
+     * @param filtro Criterio de selección
+     * @return Copias de las tareas, ordenadas por ID
+     */
+    public List<Tarea> listarFiltradas(String espacio, Predicate<? super Tarea> filtro) {
+        return usar(espacio, e -> e.listar(filtro));
+    }
+
+    /**
+     * Lista las tareas pendientes de un espacio cuyo vencimiento ya pasó
+     *
+     * @param espacio Nombre del espacio
+     * @return Copias de las tareas vencidas, ordenadas por ID
+     */
+    public List<Tarea> listarVencidas(String espacio) {
+        Instant ahora = Instant.now(reloj);
+        return listarFiltradas(espacio, t -> t.estaVencida(ahora));
+    }
+
+    /**
+     * Estadísticas de un espacio
+     *
+     * @param espacio Nombre del espacio
+     * @return Conteos y límite del espacio
+     */
+    public EstadisticasEspacio obtenerEstadisticas(String espacio) {
+        return usar(espacio, e -> new EstadisticasEspacio(e.nombre(), e.resumir(), e.limite()));
+    }
+
+    /**
+     * Cambia el límite de tareas de un espacio. Las tareas que ya tiene se
+     * conservan aunque lo superen.
+     *
+     * @param espacio Nombre del espacio
+     * @param limite Nuevo máximo de tareas
+     * @throws IllegalArgumentException Si el límite es negativo
+     */
+    public void definirLimite(String espacio, int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("El límite de tareas no puede ser negativo");
+        }
+        usar(espacio, e -> {
+            e.definirLimite(limite);
+            return null;
+        });
+    }
+
+    /**
+     * @return Espacios cargados en memoria
+     */
+    public int getEspaciosEnMemoria() {
+        return cargados.size();
+    }
+
+    /**
+     * @return Espacios cargados (o creados) desde el inicio
+     */
+    public long getCargas() {
+        return cargas.get();
+    }
+
+    /**
+     * @return Espacios desalojados de memoria desde el inicio
+     */
+    public long getDesalojos() {
+        return desalojos.get();
+    }
+
+    /**
+     * Desaloja los espacios inactivos y, si siguen siendo demasiados, los
+     * usados hace más tiempo. Lo llama el hilo de revisión.
+     */
+    void revisar() {
+        try {
+            long limiteInactividad = reloj.millis() - inactividadMs;
+            List<EspacioTareas> activos = new ArrayList<>();
+            for (CompletableFuture<EspacioTareas> carga : cargados.values()) {
+                EspacioTareas espacio = cargado(carga);
+                if (espacio == null) {
+                    // Se está cargando o guardando
+                    continue;
+                }
+                if (espacio.ultimoAccesoMs() > limiteInactividad || !desalojar(espacio)) {
+                    activos.add(espacio);
+                }
+            }
+            int sobrantes = activos.size() - maxEnMemoria;
+            if (sobrantes > 0) {
+                activos.sort(Comparator.comparingLong(EspacioTareas::ultimoAccesoMs));
+                for (int i = 0; i < activos.size() && sobrantes > 0; i++) {
+                    if (desalojar(activos.get(i))) {
+                        sobrantes--;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría las revisiones siguientes del ejecutor
+            logger.error("Error al revisar los espacios en memoria", e);
+        }
+    }
+
+    /**
+     * Ejecuta una operación sobre un espacio, cargándolo si no está en memoria
+     */
+    private <R> R usar(String nombre, Function<EspacioTareas, R> operacion) {
+        if (nombre == null || !NOMBRE_VALIDO.matcher(nombre).matches()) {
+            throw new IllegalArgumentException(
+                "Nombre de espacio inválido: use hasta 64 letras, números, '-' o '_'");
+        }
+        while (true) {
+            EspacioTareas espacio = esperar(obtener(nombre));
+            if (espacio.adquirir(reloj.millis())) {
+                try {
+                    return operacion.apply(espacio);
+                } finally {
+                    espacio.liberar();
+                }
+            }
+            // Se desalojó entre la búsqueda y el uso: la próxima vuelta lo vuelve a cargar
+        }
+    }
+
+    /**
+     * Devuelve el futuro del espacio; si no está en el mapa deja uno pendiente
+     * y lo carga del disco fuera de la operación del mapa
+     */
+    private CompletableFuture<EspacioTareas> obtener(String nombre) {
+        CompletableFuture<EspacioTareas> carga = cargados.get(nombre);
+        if (carga != null) {
+            return carga;
+        }
+        CompletableFuture<EspacioTareas> nueva = new CompletableFuture<>();
+        carga = cargados.putIfAbsent(nombre, nueva);
+        if (carga != null) {
+            return carga;
+        }
+        try {
+            nueva.complete(cargar(nombre));
+        } catch (RuntimeException e) {
+            // Se quita antes de fallar, para que el próximo uso lo intente de nuevo
+            cargados.remove(nombre, nueva);
+            nueva.completeExceptionally(e);
+        }
+        return nueva;
+    }
+
+    private static EspacioTareas esperar(CompletableFuture<EspacioTareas> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return El espacio si ya terminó de cargarse, o null
+     */
+    private static EspacioTareas cargado(CompletableFuture<EspacioTareas> carga) {
+        return carga.isDone() && !carga.isCompletedExceptionally() ? carga.join() : null;
+    }
+
+    private EspacioTareas cargar(String nombre) {
+        cargas.incrementAndGet();
+        try {
+            return almacen.leer(nombre)
+                .map(c -> {
+                    for (Tarea tarea : c.tareas()) {
+                        tarea.setDescripcion(descripciones.internar(tarea.getDescripcion()));
+                    }
+                    return new EspacioTareas(nombre, c.limite(), c.siguienteId(), c.tareas());
+                })
+                .orElseGet(() -> new EspacioTareas(nombre, limitePorDefecto, 1, List.of()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cargar el espacio " + nombre, e);
+        }
+    }
+
+    /**
+     * Quita un espacio de memoria si nadie lo está usando, guardándolo antes si tiene cambios
+     *
+     * @return true si se desalojó
+     */
+    private boolean desalojar(EspacioTareas espacio) {
+        String nombre = espacio.nombre();
+        CompletableFuture<EspacioTareas> actual = cargados.get(nombre);
+        if (actual == null || cargado(actual) != espacio || !espacio.cerrar()) {
+            return false;
+        }
+        if (!espacio.isModificado()) {
+            cargados.remove(nombre, actual);
+        } else {
+            // Mientras se escribe, los usos esperan este futuro en lugar de leer el archivo anterior
+            CompletableFuture<EspacioTareas> guardando = new CompletableFuture<>();
+            cargados.replace(nombre, actual, guardando);
+            boolean guardado = false;
+            try {
+                almacen.escribir(nombre, espacio.contenido());
+                guardado = true;
+            } catch (IOException e) {
+                logger.error("No se pudo guardar el espacio {}; queda en memoria", nombre, e);
+            } finally {
+                if (guardado) {
+                    cargados.remove(nombre, guardando);
+                } else {
+                    espacio.reabrir();
+                    cargados.replace(nombre, guardando, actual);
+                }
+                // Con el espacio cerrado, quien esperaba vuelve a buscarlo y lo carga del disco
+                guardando.complete(espacio);
+            }
+            if (!guardado) {
+                return false;
+            }
+        }
+        desalojos.incrementAndGet();
+        logger.debug("Espacio {} desalojado de memoria", nombre);
+        return true;
+    }
+
+    /**
+     * Estadísticas de un espacio
+     *
+     * @param espacio Nombre del espacio
+     * @param resumen Conteos por estado y prioridad
+     * @param limiteMaximo Máximo de tareas del espacio
+     */
+    public record EstadisticasEspacio(String espacio, ResumenTareas resumen, int limiteMaximo) {
+
+        /**
+         * @return Tareas que todavía se pueden agregar
+         */
+        public long espacioDisponible() {
+            return Math.max(0, limiteMaximo - resumen.total());
+        }
+    }
+}
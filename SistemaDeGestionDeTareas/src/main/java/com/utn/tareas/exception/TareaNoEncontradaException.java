@@ -0,0 +1,21 @@
+package com.utn.tareas.exception;
+
+/**
+ * Excepción lanzada cuando se opera sobre una tarea que no existe.
+ * Extiende {@link IllegalArgumentException} para mantener el contrato
+ * original de {@code TareaService#marcarComoCompletada}.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public class TareaNoEncontradaException extends IllegalArgumentException {
+    
+    /**
+     * Constructor con el ID de la tarea buscada
+     * 
+     * @param id Identificador de la tarea inexistente
+     */
+    public TareaNoEncontradaException(Long id) {
+        super(String.format("No existe una tarea con el ID %d", id));
+    }
+}
@@ -0,0 +1,73 @@
+package com.utn.tareas.model;
+
+/**
+ * Conteos de tareas por estado y prioridad.
+ * Se calcula en una sola pasada y dos resúmenes parciales (por ejemplo, de
+ * distintas particiones del repositorio) se combinan sumándolos.
+ * 
+ * @param total Cantidad de tareas
+ * @param completadas Tareas completadas
+ * @param altaPrioridad Tareas de prioridad alta
+ * @param mediaPrioridad Tareas de prioridad media
+ * @param bajaPrioridad Tareas de prioridad baja
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public record ResumenTareas(long total, long completadas, long altaPrioridad,
+                            long mediaPrioridad, long bajaPrioridad) {
+    
+    /**
+     * Resumen de un conjunto vacío
+     */
+    public static final ResumenTareas VACIO = new ResumenTareas(0, 0, 0, 0, 0);
+    
+    /**
+     * Calcula el resumen de un conjunto de tareas
+     * 
+     * @param tareas Tareas a resumir
+     * @return Resumen calculado
+     */
+    public static ResumenTareas de(Iterable<Tarea> tareas) {
+        long total = 0;
+        long completadas = 0;
+        long alta = 0;
+        long media = 0;
+        long baja = 0;
+        for (Tarea tarea : tareas) {
+            total++;
+            if (tarea.isCompletada()) {
+                completadas++;
+            }
+            if (tarea.getPrioridad() == Prioridad.ALTA) {
+                alta++;
+            } else if (tarea.getPrioridad() == Prioridad.MEDIA) {
+                media++;
+            } else if (tarea.getPrioridad() == Prioridad.BAJA) {
+                baja++;
+            }
+        }
+        return new ResumenTareas(total, completadas, alta, media, baja);
+    }
+    
+    /**
+     * Suma dos resúmenes parciales
+     * 
+     * @param otro Resumen a sumar
+     * @return Resumen combinado
+     */
+    public ResumenTareas combinar(ResumenTareas otro) {
+        return new ResumenTareas(total + otro.total, completadas + otro.completadas,
+            altaPrioridad + otro.altaPrioridad, mediaPrioridad + otro.mediaPrioridad,
+            bajaPrioridad + otro.bajaPrioridad);
+    }
+    
+    /**
+     * Tareas que todavía no se completaron
+     * 
+     * @return Cantidad de tareas pendientes
+     */
+    public long pendientes() {
+        return total - completadas;
+    }
+}
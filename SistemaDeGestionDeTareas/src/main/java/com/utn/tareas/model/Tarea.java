@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+import java.util.Set;
+
 /**
  * Clase que representa una tarea en el sistema de gestión.
  * Utiliza Lombok para generar automáticamente getters, setters, 
@@ -37,6 +40,60 @@ public class Tarea {
      */
     private Prioridad prioridad;
     
+    /**
+     * Momento en que se creó la tarea
+     */
+    private Instant fechaCreacion;
+    
+    /**
+     * Fecha límite para completar la tarea (null si no tiene)
+     */
+    private Instant fechaVencimiento;
+    
+    /**
+     * Momento en que se completó la tarea (null si está pendiente)
+     */
+    private Instant fechaCompletada;
+    
+    /**
+     * IDs de las tareas que deben completarse antes que esta. El conjunto no
+     * se modifica: para cambiarlo se reemplaza, así las copias no lo comparten
+     * de forma mutable.
+     */
+    private Set<Long> dependencias = Set.of();
+    
+    /**
+     * Constructor sin fechas, para tareas de ejemplo y pruebas
+     * 
+     * @param id Identificador de la tarea
+     * @param descripcion Descripción de la tarea
+     * @param completada Si la tarea está completada
+     * @param prioridad Nivel de prioridad
+     */
+    public Tarea(Long id, String descripcion, boolean completada, Prioridad prioridad) {
+        this(id, descripcion, completada, prioridad, null, null, null, Set.of());
+    }
+    
+    /**
+     * Crea una copia independiente de esta tarea
+     * 
+     * @return Tarea con los mismos datos
+     */
+    public Tarea copiar() {
+        return new Tarea(id, descripcion, completada, prioridad, fechaCreacion, fechaVencimiento,
+            fechaCompletada, dependencias);
+    }
+    
+    /**
+     * Indica si la tarea sigue pendiente después de su fecha límite
+     * 
+     * @param ahora Momento de referencia
+     * @return true si está pendiente y su vencimiento ya pasó
+     */
+    public boolean estaVencida(Instant ahora) {
+        return !completada && fechaVencimiento != null && !fechaVencimiento.isAfter(ahora);
+    }
+    
     /**
      * Devuelve una representación legible del estado de la tarea
      * 
@@ -53,10 +110,11 @@ public class Tarea {
      */
     @Override
     public String toString() {
-        return String.format("[ID: %d] %s | %s | Prioridad: %s", 
+        String texto = String.format("[ID: %d] %s | %s | Prioridad: %s", 
             id, 
             estadoFormateado(), 
             descripcion, 
             prioridad);
+        return fechaVencimiento != null ? texto + " | Vence: " + fechaVencimiento : texto;
     }
 }
@@ -0,0 +1,51 @@
+package com.utn.tareas.replicacion;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Entrada del registro de cambios que el líder envía a los seguidores.
+ * <p>
+ * Guarda una copia de los campos de la tarea al momento de la escritura:
+ * {@link Tarea} es mutable y el servicio la modifica antes de guardarla.
+ * 
+ * @param posicion Posición en el registro (1, 2, 3...; 0 en una instantánea)
+ * @param tipo Tipo de operación
+ * @param id ID de la tarea
+ * @param descripcion Descripción (null en una eliminación)
+ * @param completada Estado de la tarea
+ * @param prioridad Prioridad (null en una eliminación)
+ * @param fechaCreacion Creación de la tarea (puede ser null)
+ * @param fechaVencimiento Fecha límite (puede ser null)
+ * @param fechaCompletada Momento en que se completó (puede ser null)
+ * @param dependencias IDs de las tareas de las que depende (vacío en una eliminación)
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+record Cambio(long posicion, Tipo tipo, long id, String descripcion, boolean completada, Prioridad prioridad,
+              Instant fechaCreacion, Instant fechaVencimiento, Instant fechaCompletada, Set<Long> dependencias) {
+    
+    enum Tipo { GUARDAR, ELIMINAR }
+    
+    static Cambio guardar(long posicion, Tarea tarea) {
+        return new Cambio(posicion, Tipo.GUARDAR, tarea.getId(), tarea.getDescripcion(),
+            tarea.isCompletada(), tarea.getPrioridad(), tarea.getFechaCreacion(),
+            tarea.getFechaVencimiento(), tarea.getFechaCompletada(), tarea.getDependencias());
+    }
+    
+    static Cambio eliminar(long posicion, long id) {
+        return new Cambio(posicion, Tipo.ELIMINAR, id, null, false, null, null, null, null, Set.of());
+    }
+    
+    /**
+     * Crea una tarea nueva con los datos del cambio
+     */
+    Tarea aTarea() {
+        return new Tarea(id, descripcion, completada, prioridad, fechaCreacion, fechaVencimiento, fechaCompletada,
+            dependencias);
+    }
+}
@@ -0,0 +1,258 @@
+package com.utn.tareas.replicacion;
+
+import com.utn.tareas.dependencia.GrafoDependencias;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.TareaRepositoryLocal;
+import com.utn.tareas.vencimiento.PlanificadorVencimientos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lado del seguidor de la replicación: se conecta al líder, aplica sus
+ * cambios en {@link TareaRepositoryLocal} y se reconecta si la conexión se cae.
+ * Cada cambio aplicado se informa también a {@link PlanificadorVencimientos},
+ * así el seguidor detecta los vencimientos igual que el líder.
+ * <p>
+ * Al reconectarse informa la época y la última posición aplicada, así el líder
+ * solo le envía lo que le falta. Entre reintentos espera de 100 ms a 2 s.
+ * <p>
+ * Con {@code app.replicacion.leer-propias-escrituras=true}, una lectura que
+ * indica una posición espera hasta {@code app.replicacion.espera-maxima-ms} a
+ * que el seguidor la aplique; con {@code false} responde con lo que tenga.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.replicacion", name = "rol", havingValue = "seguidor")
+public class ClienteReplicacion implements SmartLifecycle, PosicionReplicacion {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClienteReplicacion.class);
+    
+    private static final long ESPERA_MINIMA_MS = 100;
+    
+    private static final long ESPERA_MAXIMA_REINTENTO_MS = 2000;
+    
+    private final TareaRepositoryLocal repositorio;
+    
+    private final PlanificadorVencimientos planificador;
+    
+    private final GrafoDependencias grafo;
+    
+    /**
+     * Dirección del líder, como {@code host:puerto}
+     */
+    @Value("${app.replicacion.lider}")
+    private String lider;
+    
+    @Value("${app.replicacion.leer-propias-escrituras:true}")
+    private boolean leerPropiasEscrituras;
+    
+    @Value("${app.replicacion.espera-maxima-ms:1000}")
+    private long esperaMaximaMs;
+    
+    /**
+     * Época y posición aplicadas; protegidas por el monitor, que también
+     * despierta a las lecturas que esperan una posición
+     */
+    private long epoca;
+    
+    private long aplicada;
+    
+    private volatile int instantaneasAplicadas;
+    
+    private volatile boolean activo;
+    
+    private volatile Socket conexion;
+    
+    private Thread hilo;
+    
+    public ClienteReplicacion(TareaRepositoryLocal repositorio, PlanificadorVencimientos planificador,
+                              GrafoDependencias grafo) {
+        this.repositorio = repositorio;
+        this.planificador = planificador;
+        this.grafo = grafo;
+    }
+    
+    @Override
+    public synchronized void start() {
+        activo = true;
+        hilo = new Thread(this::replicar, "tareas-replicacion-seguidor");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+    
+    @Override
+    public void stop() {
+        Thread actual;
+        synchronized (this) {
+            activo = false;
+            actual = hilo;
+            hilo = null;
+        }
+        cerrarConexion();
+        if (actual != null) {
+            actual.interrupt();
+        }
+    }
+    
+    @Override
+    public synchronized boolean isRunning() {
+        return hilo != null;
+    }
+    
+    @Override
+    public synchronized long posicion() {
+        return aplicada;
+    }
+    
+    @Override
+    public synchronized boolean esperar(long posicion) throws InterruptedException {
+        if (!leerPropiasEscrituras) {
+            return true;
+        }
+        long limite = System.currentTimeMillis() + esperaMaximaMs;
+        long restante = esperaMaximaMs;
+        while (aplicada < posicion && restante > 0) {
+            wait(restante);
+            restante = limite - System.currentTimeMillis();
+        }
+        return aplicada >= posicion;
+    }
+    
+    /**
+     * Cantidad de instantáneas recibidas del líder (la primera sincronización
+     * siempre es una)
+     * 
+     * @return Instantáneas aplicadas desde el inicio
+     */
+    public int getInstantaneasAplicadas() {
+        return instantaneasAplicadas;
+    }
+    
+    private void replicar() {
+        long espera = ESPERA_MINIMA_MS;
+        while (activo) {
+            try (Socket socket = new Socket()) {
+                conexion = socket;
+                socket.connect(direccionLider(), (int) ESPERA_MAXIMA_REINTENTO_MS);
+                socket.setTcpNoDelay(true);
+                // Sin noticias del líder durante tres latidos, la conexión se da por caída
+                socket.setSoTimeout(3 * ProtocoloReplicacion.LATIDO_MS);
+                DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                
+                salida.writeInt(ProtocoloReplicacion.MAGICO);
+                salida.writeInt(ProtocoloReplicacion.VERSION);
+                synchronized (this) {
+                    salida.writeLong(epoca);
+                    salida.writeLong(aplicada);
+                }
+                salida.flush();
+                espera = ESPERA_MINIMA_MS;
+                
+                while (activo) {
+                    int mensaje = entrada.readByte();
+                    switch (mensaje) {
+                        case ProtocoloReplicacion.INSTANTANEA -> aplicarInstantanea(entrada);
+                        case ProtocoloReplicacion.CAMBIO -> aplicar(ProtocoloReplicacion.leerCambio(entrada));
+                        case ProtocoloReplicacion.LATIDO -> entrada.readLong();
+                        default -> throw new IOException("Mensaje de replicación desconocido: " + mensaje);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                if (activo) {
+                    logger.warn("Conexión con el líder {} interrumpida: {}; reintento en {} ms",
+                        lider, e, espera);
+                }
+            } finally {
+                conexion = null;
+            }
+            
+            try {
+                Thread.sleep(espera);
+            } catch (InterruptedException e) {
+                return;
+            }
+            espera = Math.min(espera * 2, ESPERA_MAXIMA_REINTENTO_MS);
+        }
+    }
+    
+    private void aplicarInstantanea(DataInputStream entrada) throws IOException {
+        long epocaLider = entrada.readLong();
+        long posicion = entrada.readLong();
+        int cantidad = entrada.readInt();
+        List<Tarea> tareas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            tareas.add(ProtocoloReplicacion.leerTarea(entrada).aTarea());
+        }
+        repositorio.reemplazarTodas(tareas);
+        planificador.reprogramarTodas(tareas);
+        grafo.reconstruir(tareas);
+        synchronized (this) {
+            epoca = epocaLider;
+            aplicada = posicion;
+            notifyAll();
+        }
+        instantaneasAplicadas++;
+        logger.warn("Instantánea del líder aplicada: {} tareas hasta la posición {}", cantidad, posicion);
+    }
+    
+    private void aplicar(Cambio cambio) throws IOException {
+        long esperada;
+        synchronized (this) {
+            esperada = aplicada + 1;
+        }
+        if (cambio.posicion() != esperada) {
+            throw new IOException("Se esperaba la posición " + esperada + " y llegó " + cambio.posicion());
+        }
+        if (cambio.tipo() == Cambio.Tipo.GUARDAR) {
+            Tarea tarea = cambio.aTarea();
+            repositorio.guardar(tarea);
+            planificador.programar(tarea);
+            grafo.registrar(tarea);
+        } else {
+            repositorio.eliminar(cambio.id());
+            planificador.cancelar(cambio.id());
+            grafo.quitar(cambio.id());
+        }
+        synchronized (this) {
+            aplicada = cambio.posicion();
+            notifyAll();
+        }
+    }
+    
+    private InetSocketAddress direccionLider() {
+        int separador = lider.lastIndexOf(':');
+        if (separador < 0) {
+            throw new IllegalStateException("app.replicacion.lider debe tener el formato host:puerto");
+        }
+        return new InetSocketAddress(lider.substring(0, separador),
+            Integer.parseInt(lider.substring(separador + 1)));
+    }
+    
+    private void cerrarConexion() {
+        Socket actual = conexion;
+        if (actual != null) {
+            try {
+                actual.close();
+            } catch (IOException e) {
+                logger.debug("Error al cerrar la conexión con el líder", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.utn.tareas.replicacion;
+
+/**
+ * Posición del registro de cambios alcanzada por este nodo.
+ * <p>
+ * El servidor HTTP la informa en el encabezado {@code X-Tareas-Posicion} de
+ * cada respuesta. Un cliente que escribió en el líder puede enviar esa
+ * posición al leer de un seguidor para ver sus propias escrituras.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public interface PosicionReplicacion {
+    
+    /**
+     * Última posición escrita (líder) o aplicada (seguidor)
+     * 
+     * @return Posición actual
+     */
+    long posicion();
+    
+    /**
+     * Espera a que el nodo alcance la posición indicada
+     * 
+     * @param posicion Posición que el cliente necesita ver
+     * @return false si no se alcanzó dentro de la espera máxima configurada
+     * @throws InterruptedException Si se interrumpe el hilo durante la espera
+     */
+    boolean esperar(long posicion) throws InterruptedException;
+}
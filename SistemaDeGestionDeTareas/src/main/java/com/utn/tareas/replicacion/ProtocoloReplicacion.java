@@ -0,0 +1,161 @@
+package com.utn.tareas.replicacion;
+
+import com.utn.tareas.model.Prioridad;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Formato binario de la conexión TCP entre el líder y un seguidor.
+ * <p>
+ * Al conectarse, el seguidor envía {@link #MAGICO}, {@link #VERSION}, la época
+ * y la última posición que aplicó. Luego el líder envía mensajes:
+ * <ul>
+ *   <li>{@code 'S'} instantánea: época, posición, cantidad y las tareas</li>
+ *   <li>{@code 'C'} cambio: posición, tipo, ID y, si es un guardado, los datos</li>
+ *   <li>{@code 'L'} latido: última posición del líder, cuando no hay cambios</li>
+ * </ul>
+ * Los latidos permiten al seguidor detectar una conexión caída sin esperar
+ * a que el sistema operativo la cierre.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+final class ProtocoloReplicacion {
+    
+    static final int MAGICO = 0x54415245; // "TARE"
+    
+    /**
+     * Versión 2: los datos de una tarea incluyen sus fechas.
+     * Versión 3: incluyen también sus dependencias.
+     */
+    static final int VERSION = 3;
+    
+    static final byte INSTANTANEA = 'S';
+    
+    static final byte CAMBIO = 'C';
+    
+    static final byte LATIDO = 'L';
+    
+    /**
+     * Intervalo entre latidos cuando no hay cambios
+     */
+    static final int LATIDO_MS = 1000;
+    
+    private ProtocoloReplicacion() {
+    }
+    
+    static void escribirInstantanea(DataOutputStream salida, long epoca, long posicion,
+                                    List<Cambio> tareas) throws IOException {
+        salida.writeByte(INSTANTANEA);
+        salida.writeLong(epoca);
+        salida.writeLong(posicion);
+        salida.writeInt(tareas.size());
+        for (Cambio tarea : tareas) {
+            escribirDatos(salida, tarea);
+        }
+    }
+    
+    static void escribirCambio(DataOutputStream salida, Cambio cambio) throws IOException {
+        salida.writeByte(CAMBIO);
+        salida.writeLong(cambio.posicion());
+        salida.writeByte(cambio.tipo().ordinal());
+        if (cambio.tipo() == Cambio.Tipo.GUARDAR) {
+            escribirDatos(salida, cambio);
+        } else {
+            salida.writeLong(cambio.id());
+        }
+    }
+    
+    static void escribirLatido(DataOutputStream salida, long posicion) throws IOException {
+        salida.writeByte(LATIDO);
+        salida.writeLong(posicion);
+    }
+    
+    /**
+     * Lee un cambio; el byte de tipo de mensaje ya fue leído
+     */
+    static Cambio leerCambio(DataInputStream entrada) throws IOException {
+        long posicion = entrada.readLong();
+        int tipo = entrada.readByte();
+        if (tipo == Cambio.Tipo.GUARDAR.ordinal()) {
+            return leerDatos(entrada, posicion);
+        }
+        if (tipo == Cambio.Tipo.ELIMINAR.ordinal()) {
+            return Cambio.eliminar(posicion, entrada.readLong());
+        }
+        throw new IOException("Tipo de cambio desconocido: " + tipo);
+    }
+    
+    /**
+     * Lee una tarea de una instantánea
+     */
+    static Cambio leerTarea(DataInputStream entrada) throws IOException {
+        return leerDatos(entrada, 0);
+    }
+    
+    private static void escribirDatos(DataOutputStream salida, Cambio tarea) throws IOException {
+        salida.writeLong(tarea.id());
+        // writeUTF admite como máximo 64 KB; la descripción no tiene límite
+        byte[] descripcion = tarea.descripcion() != null
+            ? tarea.descripcion().getBytes(StandardCharsets.UTF_8) : null;
+        salida.writeInt(descripcion != null ? descripcion.length : -1);
+        if (descripcion != null) {
+            salida.write(descripcion);
+        }
+        salida.writeBoolean(tarea.completada());
+        salida.writeByte(tarea.prioridad() != null ? tarea.prioridad().ordinal() : -1);
+        escribirFecha(salida, tarea.fechaCreacion());
+        escribirFecha(salida, tarea.fechaVencimiento());
+        escribirFecha(salida, tarea.fechaCompletada());
+        salida.writeInt(tarea.dependencias().size());
+        for (Long dependencia : tarea.dependencias()) {
+            salida.writeLong(dependencia);
+        }
+    }
+    
+    /**
+     * Escribe segundos y nanosegundos, para que el seguidor guarde la misma
+     * fecha que el líder; {@code -1} en los nanosegundos indica null
+     */
+    private static void escribirFecha(DataOutputStream salida, Instant fecha) throws IOException {
+        salida.writeLong(fecha != null ? fecha.getEpochSecond() : 0);
+        salida.writeInt(fecha != null ? fecha.getNano() : -1);
+    }
+    
+    private static Instant leerFecha(DataInputStream entrada) throws IOException {
+        long segundos = entrada.readLong();
+        int nanos = entrada.readInt();
+        return nanos >= 0 ? Instant.ofEpochSecond(segundos, nanos) : null;
+    }
+    
+    private static Cambio leerDatos(DataInputStream entrada, long posicion) throws IOException {
+        long id = entrada.readLong();
+        int longitud = entrada.readInt();
+        String descripcion = null;
+        if (longitud >= 0) {
+            byte[] bytes = new byte[longitud];
+            entrada.readFully(bytes);
+            descripcion = new String(bytes, StandardCharsets.UTF_8);
+        }
+        boolean completada = entrada.readBoolean();
+        int prioridad = entrada.readByte();
+        Prioridad valorPrioridad = prioridad >= 0 ? Prioridad.values()[prioridad] : null;
+        Instant creacion = leerFecha(entrada);
+        Instant vencimiento = leerFecha(entrada);
+        Instant completadaEn = leerFecha(entrada);
+        int cantidadDependencias = entrada.readInt();
+        Set<Long> dependencias = new HashSet<>();
+        for (int i = 0; i < cantidadDependencias; i++) {
+            dependencias.add(entrada.readLong());
+        }
+        return new Cambio(posicion, Cambio.Tipo.GUARDAR, id, descripcion, completada, valorPrioridad,
+            creacion, vencimiento, completadaEn, Set.copyOf(dependencias));
+    }
+}
@@ -0,0 +1,130 @@
+package com.utn.tareas.replicacion;
+
+import com.utn.tareas.model.Tarea;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registro ordenado de los cambios del líder.
+ * <p>
+ * Conserva los últimos {@code app.replicacion.historial} cambios en un
+ * arreglo circular. Un seguidor que se reconecta pide los cambios posteriores
+ * a la última posición que aplicó; si esa posición ya se descartó, recibe una
+ * instantánea completa.
+ * <p>
+ * La época identifica a esta ejecución del líder: si el líder se reinicia las
+ * posiciones vuelven a empezar, y un seguidor con otra época debe pedir una
+ * instantánea. Todos los métodos se sincronizan con el monitor del registro,
+ * que {@link TareaRepositoryLider} también usa para escribir en el repositorio
+ * y en el registro de forma atómica.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.replicacion", name = "rol", havingValue = "lider")
+public class RegistroCambios implements PosicionReplicacion {
+    
+    /**
+     * Nunca es 0, la época con la que se conecta un seguidor nuevo
+     */
+    private final long epoca = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    
+    private final Cambio[] cambios;
+    
+    private long ultima;
+    
+    public RegistroCambios(@Value("${app.replicacion.historial:100000}") int historial) {
+        if (historial <= 0) {
+            throw new IllegalArgumentException("app.replicacion.historial debe ser mayor que 0");
+        }
+        this.cambios = new Cambio[historial];
+    }
+    
+    long epoca() {
+        return epoca;
+    }
+    
+    /**
+     * Agrega un guardado al registro
+     * 
+     * @param tarea Tarea ya guardada, con su ID asignado
+     * @return Posición asignada
+     */
+    synchronized long agregarGuardado(Tarea tarea) {
+        return agregar(Cambio.guardar(ultima + 1, tarea));
+    }
+    
+    /**
+     * Agrega una eliminación al registro
+     * 
+     * @param id ID de la tarea eliminada
+     * @return Posición asignada
+     */
+    synchronized long agregarEliminacion(long id) {
+        return agregar(Cambio.eliminar(ultima + 1, id));
+    }
+    
+    private long agregar(Cambio cambio) {
+        ultima = cambio.posicion();
+        cambios[(int) ((ultima - 1) % cambios.length)] = cambio;
+        notifyAll();
+        return ultima;
+    }
+    
+    @Override
+    public synchronized long posicion() {
+        return ultima;
+    }
+    
+    /**
+     * El líder siempre ve sus propias escrituras
+     */
+    @Override
+    public boolean esperar(long posicion) {
+        return true;
+    }
+    
+    /**
+     * Devuelve los cambios posteriores a una posición, esperando si todavía no hay ninguno
+     * 
+     * @param desde Última posición que tiene el seguidor
+     * @param maximo Cantidad máxima de cambios a devolver
+     * @param esperaMs Tiempo máximo de espera si no hay cambios nuevos
+     * @return Los cambios (vacío si se agotó la espera), o null si alguno ya se descartó
+     * @throws InterruptedException Si se interrumpe el hilo durante la espera
+     */
+    synchronized List<Cambio> esperarDesde(long desde, int maximo, long esperaMs) throws InterruptedException {
+        long limite = System.currentTimeMillis() + esperaMs;
+        long restante = esperaMs;
+        while (ultima <= desde && restante > 0) {
+            wait(restante);
+            restante = limite - System.currentTimeMillis();
+        }
+        if (!disponibleDesde(desde)) {
+            return null;
+        }
+        long hasta = Math.min(ultima, desde + maximo);
+        List<Cambio> lote = new ArrayList<>((int) Math.max(0, hasta - desde));
+        for (long p = desde + 1; p <= hasta; p++) {
+            lote.add(cambios[(int) ((p - 1) % cambios.length)]);
+        }
+        return lote;
+    }
+    
+    /**
+     * Indica si el registro conserva todos los cambios posteriores a la posición
+     * 
+     * @param desde Última posición que tiene el seguidor
+     * @return false si el seguidor necesita una instantánea
+     */
+    synchronized boolean disponibleDesde(long desde) {
+        long primera = Math.max(1, ultima - cambios.length + 1);
+        return desde >= primera - 1 && desde <= ultima;
+    }
+}
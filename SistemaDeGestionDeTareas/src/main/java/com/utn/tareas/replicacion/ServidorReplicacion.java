@@ -0,0 +1,203 @@
+package com.utn.tareas.replicacion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lado del líder de la replicación: acepta seguidores por TCP y les envía el
+ * registro de cambios en orden.
+ * <p>
+ * Cada seguidor tiene su propio hilo. Si el seguidor pide una posición que el
+ * registro todavía conserva, recibe solo los cambios que le faltan; si no (es
+ * nuevo, viene de otra época del líder o quedó demasiado atrasado), recibe
+ * primero una instantánea. Un seguidor lento no frena a los demás ni a las
+ * escrituras: solo se atrasa, y si el registro descarta cambios que todavía
+ * no recibió, se le envía otra instantánea.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.replicacion", name = "rol", havingValue = "lider")
+public class ServidorReplicacion implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServidorReplicacion.class);
+    
+    /**
+     * Cambios enviados como máximo antes de vaciar el buffer de salida
+     */
+    private static final int LOTE = 512;
+    
+    private final RegistroCambios registro;
+    
+    private final TareaRepositoryLider repositorio;
+    
+    /**
+     * Puerto TCP para los seguidores; 0 elige uno libre (usado en los tests)
+     */
+    @Value("${app.replicacion.puerto:9090}")
+    private int puerto;
+    
+    private final Set<Socket> conexiones = ConcurrentHashMap.newKeySet();
+    
+    private ServerSocket servidor;
+    
+    private ExecutorService ejecutor;
+    
+    public ServidorReplicacion(RegistroCambios registro, TareaRepositoryLider repositorio) {
+        this.registro = registro;
+        this.repositorio = repositorio;
+    }
+    
+    @Override
+    public synchronized void start() {
+        AtomicInteger numero = new AtomicInteger();
+        ejecutor = Executors.newCachedThreadPool(r -> {
+            Thread hilo = new Thread(r, "tareas-replicacion-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            servidor = new ServerSocket();
+            servidor.bind(new InetSocketAddress(puerto));
+        } catch (IOException e) {
+            ejecutor.shutdown();
+            throw new UncheckedIOException("No se pudo abrir el puerto de replicación " + puerto, e);
+        }
+        ejecutor.execute(this::aceptar);
+        logger.warn("Líder de replicación escuchando en el puerto {}", getPuerto());
+    }
+    
+    @Override
+    public synchronized void stop() {
+        if (servidor == null) {
+            return;
+        }
+        try {
+            servidor.close();
+        } catch (IOException e) {
+            logger.debug("Error al cerrar el puerto de replicación", e);
+        }
+        cerrarConexiones();
+        ejecutor.shutdownNow();
+        servidor = null;
+    }
+    
+    @Override
+    public synchronized boolean isRunning() {
+        return servidor != null;
+    }
+    
+    /**
+     * Puerto en el que escucha a los seguidores
+     * 
+     * @return Puerto local, o -1 si no está iniciado
+     */
+    public synchronized int getPuerto() {
+        return servidor != null ? servidor.getLocalPort() : -1;
+    }
+    
+    /**
+     * Cierra las conexiones de los seguidores, que se reconectarán solos
+     */
+    public void cerrarConexiones() {
+        for (Socket conexion : conexiones) {
+            try {
+                conexion.close();
+            } catch (IOException e) {
+                logger.debug("Error al cerrar la conexión con {}", conexion.getRemoteSocketAddress(), e);
+            }
+        }
+    }
+    
+    private void aceptar() {
+        ServerSocket socket;
+        synchronized (this) {
+            socket = servidor;
+        }
+        while (!socket.isClosed()) {
+            try {
+                Socket conexion = socket.accept();
+                conexion.setTcpNoDelay(true);
+                conexiones.add(conexion);
+                ejecutor.execute(() -> atender(conexion));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    logger.error("Error al aceptar un seguidor", e);
+                }
+            }
+        }
+    }
+    
+    private void atender(Socket conexion) {
+        Object remoto = conexion.getRemoteSocketAddress();
+        try (conexion) {
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(conexion.getInputStream()));
+            DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(conexion.getOutputStream()));
+            if (entrada.readInt() != ProtocoloReplicacion.MAGICO
+                    || entrada.readInt() != ProtocoloReplicacion.VERSION) {
+                logger.warn("Conexión de replicación rechazada desde {}: protocolo desconocido", remoto);
+                return;
+            }
+            long epoca = entrada.readLong();
+            long enviada = entrada.readLong();
+            
+            if (epoca != registro.epoca() || !registro.disponibleDesde(enviada)) {
+                enviada = enviarInstantanea(salida);
+                logger.warn("Seguidor {} conectado: instantánea hasta la posición {}", remoto, enviada);
+            } else {
+                logger.warn("Seguidor {} conectado: continúa desde la posición {}", remoto, enviada);
+            }
+            
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Cambio> lote = registro.esperarDesde(enviada, LOTE, ProtocoloReplicacion.LATIDO_MS);
+                if (lote == null) {
+                    enviada = enviarInstantanea(salida);
+                    logger.warn("Seguidor {} atrasado: instantánea hasta la posición {}", remoto, enviada);
+                } else if (lote.isEmpty()) {
+                    ProtocoloReplicacion.escribirLatido(salida, enviada);
+                } else {
+                    for (Cambio cambio : lote) {
+                        ProtocoloReplicacion.escribirCambio(salida, cambio);
+                    }
+                    enviada = lote.get(lote.size() - 1).posicion();
+                }
+                salida.flush();
+            }
+        } catch (IOException e) {
+            logger.warn("Seguidor {} desconectado: {}", remoto, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            conexiones.remove(conexion);
+        }
+    }
+    
+    private long enviarInstantanea(DataOutputStream salida) throws IOException {
+        TareaRepositoryLider.Instantanea instantanea = repositorio.instantanea();
+        ProtocoloReplicacion.escribirInstantanea(salida, registro.epoca(),
+            instantanea.posicion(), instantanea.tareas());
+        salida.flush();
+        return instantanea.posicion();
+    }
+}
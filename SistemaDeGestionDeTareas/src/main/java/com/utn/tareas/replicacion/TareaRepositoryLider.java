@@ -0,0 +1,108 @@
+package com.utn.tareas.replicacion;
+
+import com.utn.tareas.model.ResumenTareas;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.TareaRepository;
+import com.utn.tareas.repository.TareaRepositoryLocal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Repositorio del líder: delega en {@link TareaRepositoryLocal} y agrega cada
+ * escritura al {@link RegistroCambios}.
+ * <p>
+ * La escritura en el repositorio y en el registro se hace bajo el monitor del
+ * registro, así el orden del registro es el mismo en que se aplicaron los
+ * cambios y una instantánea siempre corresponde a una posición exacta.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(prefix = "app.replicacion", name = "rol", havingValue = "lider")
+public class TareaRepositoryLider implements TareaRepository {
+    
+    private final TareaRepositoryLocal delegado;
+    
+    private final RegistroCambios registro;
+    
+    public TareaRepositoryLider(TareaRepositoryLocal delegado, RegistroCambios registro) {
+        this.delegado = delegado;
+        this.registro = registro;
+    }
+    
+    @Override
+    public List<Tarea> listarTodas() {
+        return delegado.listarTodas();
+    }
+    
+    @Override
+    public List<Tarea> listarFiltradas(Predicate<? super Tarea> filtro) {
+        return delegado.listarFiltradas(filtro);
+    }
+    
+    @Override
+    public ResumenTareas resumir() {
+        return delegado.resumir();
+    }
+    
+    @Override
+    public int contar() {
+        return delegado.contar();
+    }
+    
+    @Override
+    public void guardar(Tarea tarea) {
+        synchronized (registro) {
+            delegado.guardar(tarea);
+            registro.agregarGuardado(tarea);
+        }
+    }
+    
+    @Override
+    public Optional<Tarea> buscarPorId(Long id) {
+        return delegado.buscarPorId(id);
+    }
+    
+    @Override
+    public void eliminar(Long id) {
+        synchronized (registro) {
+            if (delegado.buscarPorId(id).isPresent()) {
+                delegado.eliminar(id);
+                registro.agregarEliminacion(id);
+            }
+        }
+    }
+    
+    /**
+     * Copia el estado completo junto con la posición a la que corresponde
+     * 
+     * @return Instantánea para un seguidor
+     */
+    Instantanea instantanea() {
+        synchronized (registro) {
+            List<Tarea> tareas = delegado.listarTodas();
+            List<Cambio> copia = new ArrayList<>(tareas.size());
+            for (Tarea tarea : tareas) {
+                copia.add(Cambio.guardar(0, tarea));
+            }
+            return new Instantanea(registro.posicion(), copia);
+        }
+    }
+    
+    /**
+     * Estado completo del repositorio en una posición del registro
+     * 
+     * @param posicion Posición del registro
+     * @param tareas Copia de las tareas
+     */
+    record Instantanea(long posicion, List<Cambio> tareas) {
+    }
+}
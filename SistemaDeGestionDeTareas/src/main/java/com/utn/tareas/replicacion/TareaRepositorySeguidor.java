@@ -0,0 +1,77 @@
+package com.utn.tareas.replicacion;
+
+import com.utn.tareas.model.ResumenTareas;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.TareaRepository;
+import com.utn.tareas.repository.TareaRepositoryLocal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Repositorio de solo lectura de un seguidor.
+ * <p>
+ * Las lecturas van a {@link TareaRepositoryLocal}, que solo modifica
+ * {@link ClienteReplicacion} al aplicar los cambios del líder. Las escrituras
+ * se rechazan con {@link IllegalStateException} (409 en la API HTTP).
+ * {@link #buscarPorId} devuelve una copia: el servicio modifica la tarea antes
+ * de guardarla y, si fuera la almacenada, el seguidor se apartaría del líder
+ * aunque el guardado se rechace.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(prefix = "app.replicacion", name = "rol", havingValue = "seguidor")
+public class TareaRepositorySeguidor implements TareaRepository {
+    
+    private final TareaRepositoryLocal delegado;
+    
+    private static final String SOLO_LECTURA =
+        "Este nodo es un seguidor de solo lectura; las escrituras se envían al líder";
+    
+    public TareaRepositorySeguidor(TareaRepositoryLocal delegado) {
+        this.delegado = delegado;
+    }
+    
+    @Override
+    public List<Tarea> listarTodas() {
+        return delegado.listarTodas();
+    }
+    
+    @Override
+    public List<Tarea> listarFiltradas(Predicate<? super Tarea> filtro) {
+        return delegado.listarFiltradas(filtro);
+    }
+    
+    @Override
+    public ResumenTareas resumir() {
+        return delegado.resumir();
+    }
+    
+    @Override
+    public int contar() {
+        return delegado.contar();
+    }
+    
+    @Override
+    public void guardar(Tarea tarea) {
+        throw new IllegalStateException(SOLO_LECTURA);
+    }
+    
+    @Override
+    public Optional<Tarea> buscarPorId(Long id) {
+        return delegado.buscarPorId(id)
+            .map(Tarea::copiar);
+    }
+    
+    @Override
+    public void eliminar(Long id) {
+        throw new IllegalStateException(SOLO_LECTURA);
+    }
+}
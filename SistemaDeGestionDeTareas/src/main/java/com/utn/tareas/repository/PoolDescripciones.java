@@ -0,0 +1,173 @@
+package com.utn.tareas.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de descripciones: las tareas con el mismo texto comparten una única
+ * instancia de {@link String}.
+ * <p>
+ * Muchas tareas repiten descripciones ("Realizar pruebas unitarias"), y cada
+ * una llega como un {@code String} nuevo (del JSON, de la replicación o del
+ * disco). El repositorio pasa cada descripción por {@link #internar} antes de
+ * guardarla, y las copias repetidas quedan libres para el recolector.
+ * <p>
+ * El pool está dividido en {@value #SEGMENTOS} segmentos según el hash del
+ * texto, cada uno con su propio monitor, así que internar textos distintos casi
+ * nunca compite por el mismo lock. Las entradas son débiles: cuando ninguna
+ * tarea usa un texto, el recolector lo libera y sale del pool.
+ * <p>
+ * No hace falta guardar el texto como UTF-8: desde Java 9 un {@code String}
+ * con caracteres Latin-1 (incluidas las vocales acentuadas y la ñ) ya usa un
+ * byte por carácter.
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+public class PoolDescripciones {
+
+    private static final int SEGMENTOS = 64;
+
+    /**
+     * Encabezado de un {@code String} más el de su arreglo de bytes, con
+     * referencias comprimidas
+     */
+    private static final int ENCABEZADOS_BYTES = 24 + 16;
+
+    private final boolean activo;
+
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+
+    private final LongAdder solicitudes = new LongAdder();
+
+    private final LongAdder aciertos = new LongAdder();
+
+    private final LongAdder bytesAhorrados = new LongAdder();
+
+    /**
+     * Crea un pool activo
+     */
+    public PoolDescripciones() {
+        this(true);
+    }
+
+    /**
+     * Constructor con inyección de configuración
+     *
+     * @param activo false para guardar cada descripción tal como llega
+     */
+    @Autowired
+    public PoolDescripciones(@Value("${app.descripciones.deduplicar:true}") boolean activo) {
+        this.activo = activo;
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento();
+        }
+    }
+
+    /**
+     * Devuelve la instancia compartida de un texto, registrándolo si es nuevo
+     *
+     * @param texto Descripción recibida (puede ser null)
+     * @return Instancia igual a {@code texto} que conviene guardar
+     */
+    public String internar(String texto) {
+        if (!activo || texto == null) {
+            return texto;
+        }
+        solicitudes.increment();
+        int hash = texto.hashCode();
+        Segmento segmento = segmentos[(hash ^ (hash >>> 16)) & (SEGMENTOS - 1)];
+        String compartido;
+        synchronized (segmento) {
+            compartido = segmento.internar(texto);
+        }
+        if (compartido != texto) {
+            aciertos.increment();
+            bytesAhorrados.add(tamanio(texto));
+        }
+        return compartido;
+    }
+
+    /**
+     * @return Textos distintos que siguen en uso
+     */
+    public int getUnicas() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.textos.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return Descripciones que pasaron por el pool desde el inicio
+     */
+    public long getSolicitudes() {
+        return solicitudes.sum();
+    }
+
+    /**
+     * @return Descripciones que ya estaban en el pool y se reemplazaron por la instancia compartida
+     */
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    /**
+     * Memoria que ocuparían las copias descartadas, acumulada desde el inicio.
+     * Es una estimación: no descuenta las tareas eliminadas después.
+     *
+     * @return Bytes estimados
+     */
+    public long getBytesAhorrados() {
+        return bytesAhorrados.sum();
+    }
+
+    /**
+     * Tamaño estimado de un {@code String} con sus bytes, alineado a 8
+     */
+    private static long tamanio(String texto) {
+        long bytes = ENCABEZADOS_BYTES + (esLatin1(texto) ? texto.length() : 2L * texto.length());
+        return (bytes + 7) & ~7L;
+    }
+
+    private static boolean esLatin1(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parte del pool protegida por su propio monitor
+     */
+    private static final class Segmento {
+
+        /**
+         * {@link WeakHashMap} no devuelve su clave: el valor apunta débilmente a
+         * la misma instancia para poder recuperarla
+         */
+        private final Map<String, WeakReference<String>> textos = new WeakHashMap<>();
+
+        private String internar(String texto) {
+            WeakReference<String> referencia = textos.get(texto);
+            String compartido = referencia != null ? referencia.get() : null;
+            if (compartido == null) {
+                textos.put(texto, new WeakReference<>(texto));
+                return texto;
+            }
+            return compartido;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.utn.tareas.repository;
 
+import com.utn.tareas.model.ResumenTareas;
 import com.utn.tareas.model.Tarea;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Interfaz que define el contrato para el repositorio de tareas.
@@ -20,6 +23,33 @@ public interface TareaRepository {
      */
     List<Tarea> listarTodas();
     
+    /**
+     * Obtiene las tareas que cumplen un filtro, en el mismo orden que
+     * {@link #listarTodas()}
+     * 
+     * @param filtro Condición que deben cumplir las tareas
+     * @return Lista con las tareas que cumplen el filtro
+     */
+    default List<Tarea> listarFiltradas(Predicate<? super Tarea> filtro) {
+        return listarTodas().stream().filter(filtro).collect(Collectors.toList());
+    }
+    
+    /**
+     * Cuenta las tareas por estado y prioridad
+     * 
+     * @return Resumen de las tareas almacenadas
+     */
+    default ResumenTareas resumir() {
+        return ResumenTareas.de(listarTodas());
+    }
+    
+    /**
+     * Cuenta las tareas almacenadas sin copiarlas
+     * 
+     * @return Cantidad de tareas
+     */
+    int contar();
+    
     /**
      * Guarda una nueva tarea en el repositorio
      * 
@@ -1,33 +1,52 @@
 package com.utn.tareas.repository;
 
 import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.ResumenTareas;
 import com.utn.tareas.model.Tarea;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 /**
  * Implementación en memoria del repositorio de tareas.
- * Utiliza una lista para almacenar las tareas y un generador atómico de IDs.
- * Se inicializa con datos de ejemplo para facilitar las pruebas.
+ * Utiliza un mapa concurrente ordenado por ID para almacenar las tareas y un
+ * generador atómico de IDs, por lo que puede usarse desde varios hilos (por
+ * ejemplo, el servidor HTTP). Las tareas se listan en orden de creación.
+ * Se inicializa con datos de ejemplo para facilitar las pruebas. Las
+ * descripciones se guardan a través de {@link PoolDescripciones}.
+ * Se usa con {@code app.particiones=1}; con más particiones se usa
+ * {@link TareaRepositoryParticionado}.
  * 
  * @author Sistema de Gestión de Tareas UTN
  * @version 1.0
  */
 @Repository
-public class TareaRepositoryImpl implements TareaRepository {
+@ConditionalOnExpression("${app.particiones:1} <= 1")
+public class TareaRepositoryImpl implements TareaRepositoryLocal {
     
     private static final Logger logger = LoggerFactory.getLogger(TareaRepositoryImpl.class);
     
     /**
-     * Lista que almacena las tareas en memoria
+     * Mapa que almacena las tareas en memoria, indexadas por ID
      */
-    private final List<Tarea> tareas;
+    private final ConcurrentNavigableMap<Long, Tarea> tareas;
+    
+    /**
+     * Cantidad de tareas; {@code size()} del mapa recorre todos los elementos
+     */
+    private final AtomicInteger cantidad = new AtomicInteger();
     
     /**
      * Generador atómico de IDs únicos para las tareas
@@ -35,13 +54,29 @@ public class TareaRepositoryImpl implements TareaRepository {
     private final AtomicLong generadorId;
     
     /**
-     * Constructor que inicializa el repositorio con datos de ejemplo
+     * Instancias compartidas de las descripciones repetidas
+     */
+    private final PoolDescripciones descripciones;
+    
+    /**
+     * Constructor que inicializa el repositorio con datos de ejemplo y un pool de descripciones propio
      */
     public TareaRepositoryImpl() {
-        this.tareas = new ArrayList<>();
+        this(new PoolDescripciones());
+    }
+    
+    /**
+     * Constructor que inicializa el repositorio con datos de ejemplo
+     * 
+     * @param descripciones Pool de descripciones
+     */
+    @Autowired
+    public TareaRepositoryImpl(PoolDescripciones descripciones) {
+        this.descripciones = descripciones;
+        this.tareas = new ConcurrentSkipListMap<>();
         this.generadorId = new AtomicLong(0);
         inicializarDatosEjemplo();
-        logger.debug("Repositorio de tareas inicializado con {} tareas de ejemplo", tareas.size());
+        logger.debug("Repositorio de tareas inicializado con {} tareas de ejemplo", cantidad.get());
     }
     
     /**
@@ -57,8 +92,29 @@ public class TareaRepositoryImpl implements TareaRepository {
     
     @Override
     public List<Tarea> listarTodas() {
-        logger.debug("Listando todas las tareas. Total: {}", tareas.size());
-        return new ArrayList<>(tareas); // Retorna una copia para evitar modificaciones externas
+        logger.debug("Listando todas las tareas. Total: {}", cantidad.get());
+        return new ArrayList<>(tareas.values()); // Retorna una copia para evitar modificaciones externas
+    }
+    
+    @Override
+    public List<Tarea> listarFiltradas(Predicate<? super Tarea> filtro) {
+        List<Tarea> resultado = new ArrayList<>();
+        for (Tarea tarea : tareas.values()) {
+            if (filtro.test(tarea)) {
+                resultado.add(tarea);
+            }
+        }
+        return resultado;
+    }
+    
+    @Override
+    public ResumenTareas resumir() {
+        return ResumenTareas.de(tareas.values());
+    }
+    
+    @Override
+    public int contar() {
+        return cantidad.get();
     }
     
     @Override
@@ -70,20 +126,30 @@ public class TareaRepositoryImpl implements TareaRepository {
         } else {
             logger.debug("Actualizando tarea con ID: {}", tarea.getId());
         }
+        tarea.setDescripcion(descripciones.internar(tarea.getDescripcion()));
         
         // Si la tarea ya existe (mismo ID), la reemplazamos
-        tareas.removeIf(t -> t.getId().equals(tarea.getId()));
-        tareas.add(tarea);
+        if (tareas.put(tarea.getId(), tarea) == null) {
+            cantidad.incrementAndGet();
+        }
         
         logger.info("Tarea guardada exitosamente: {}", tarea.getDescripcion());
     }
     
+    @Override
+    public synchronized void reemplazarTodas(Collection<Tarea> nuevas) {
+        tareas.clear();
+        cantidad.set(0);
+        for (Tarea tarea : nuevas) {
+            guardar(tarea);
+        }
+        logger.debug("Repositorio reemplazado con {} tareas", nuevas.size());
+    }
+    
     @Override
     public Optional<Tarea> buscarPorId(Long id) {
         logger.debug("Buscando tarea con ID: {}", id);
-        Optional<Tarea> resultado = tareas.stream()
-                .filter(t -> t.getId().equals(id))
-                .findFirst();
+        Optional<Tarea> resultado = Optional.ofNullable(tareas.get(id));
         
         if (resultado.isPresent()) {
             logger.debug("Tarea encontrada: {}", resultado.get().getDescripcion());
@@ -97,7 +163,10 @@ public class TareaRepositoryImpl implements TareaRepository {
     @Override
     public void eliminar(Long id) {
         logger.debug("Intentando eliminar tarea con ID: {}", id);
-        boolean eliminada = tareas.removeIf(t -> t.getId().equals(id));
+        boolean eliminada = tareas.remove(id) != null;
+        if (eliminada) {
+            cantidad.decrementAndGet();
+        }
         
         if (eliminada) {
             logger.info("Tarea con ID {} eliminada exitosamente", id);
@@ -0,0 +1,27 @@
+package com.utn.tareas.repository;
+
+import com.utn.tareas.model.Tarea;
+
+import java.util.Collection;
+
+/**
+ * Repositorio que guarda las tareas en la memoria de este proceso.
+ * <p>
+ * Lo implementan {@link TareaRepositoryImpl} y {@link TareaRepositoryParticionado};
+ * según {@code app.particiones} se registra uno u otro. Los repositorios de
+ * replicación lo envuelven y usan {@link #reemplazarTodas} para aplicar las
+ * instantáneas del líder.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public interface TareaRepositoryLocal extends TareaRepository {
+    
+    /**
+     * Reemplaza todas las tareas. Las lecturas concurrentes pueden ver un
+     * estado intermedio mientras se reemplaza.
+     * 
+     * @param nuevas Tareas con su ID ya asignado
+     */
+    void reemplazarTodas(Collection<Tarea> nuevas);
+}
@@ -0,0 +1,349 @@
+package com.utn.tareas.repository;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.ResumenTareas;
+import com.utn.tareas.model.Tarea;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Repositorio en memoria dividido en {@code app.particiones} particiones
+ * independientes.
+ * <p>
+ * Cada partición tiene su propio lock, su propio mapa y su propio rango de IDs:
+ * la partición {@code p} (de {@code n}) asigna los IDs {@code p+1, p+1+n,
+ * p+1+2n...}, así que la partición de una tarea se deduce de su ID. Una tarea
+ * nueva va a una partición elegida al azar, por lo que escritores concurrentes
+ * casi nunca compiten por el mismo lock ni por un contador común.
+ * <p>
+ * Las consultas que recorren todas las tareas (listados, filtros y
+ * estadísticas) se reparten entre las particiones con fork-join y luego se
+ * combinan. Con pocas tareas se resuelven en el hilo que llama, porque
+ * repartirlas costaría más que recorrerlas. Los listados se devuelven
+ * ordenados por ID; con varias particiones el ID ya no refleja el orden exacto
+ * de creación entre particiones. Las descripciones se guardan a través de
+ * {@link PoolDescripciones}, común a todas las particiones.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Repository
+@ConditionalOnExpression("${app.particiones:1} > 1")
+public class TareaRepositoryParticionado implements TareaRepositoryLocal {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TareaRepositoryParticionado.class);
+    
+    /**
+     * Cantidad de tareas a partir de la cual las consultas se reparten entre hilos
+     */
+    static final int UMBRAL_PARALELO = 4096;
+    
+    private static final Comparator<Tarea> POR_ID = Comparator.comparing(Tarea::getId);
+    
+    private final Particion[] particiones;
+    
+    private final PoolDescripciones descripciones;
+    
+    /**
+     * Constructor que crea las particiones, con un pool de descripciones propio
+     * 
+     * @param cantidad Cantidad de particiones
+     */
+    public TareaRepositoryParticionado(int cantidad) {
+        this(cantidad, new PoolDescripciones());
+    }
+    
+    /**
+     * Constructor que crea las particiones y carga los datos de ejemplo
+     * 
+     * @param cantidad Cantidad de particiones
+     * @param descripciones Pool de descripciones
+     */
+    @Autowired
+    public TareaRepositoryParticionado(@Value("${app.particiones}") int cantidad,
+                                       PoolDescripciones descripciones) {
+        this.descripciones = descripciones;
+        if (cantidad < 1) {
+            throw new IllegalArgumentException("app.particiones debe ser al menos 1");
+        }
+        this.particiones = new Particion[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            particiones[i] = new Particion(i, cantidad);
+        }
+        inicializarDatosEjemplo();
+        logger.debug("Repositorio particionado inicializado con {} particiones", cantidad);
+    }
+    
+    /**
+     * Carga los mismos datos de ejemplo que {@link TareaRepositoryImpl}; al
+     * repartirlos en orden reciben los IDs 1, 2, 3...
+     */
+    private void inicializarDatosEjemplo() {
+        String[] descripciones = {
+            "Implementar módulo de autenticación",
+            "Revisar documentación de Spring Boot",
+            "Actualizar dependencias del proyecto",
+            "Realizar pruebas unitarias",
+            "Optimizar consultas a base de datos"
+        };
+        Prioridad[] prioridades = {Prioridad.ALTA, Prioridad.MEDIA, Prioridad.BAJA, Prioridad.ALTA, Prioridad.MEDIA};
+        for (int i = 0; i < descripciones.length; i++) {
+            particiones[i % particiones.length].insertarNueva(
+                new Tarea(null, descripciones[i], false, prioridades[i]));
+        }
+    }
+    
+    @Override
+    public List<Tarea> listarTodas() {
+        return listarFiltradas(t -> true);
+    }
+    
+    @Override
+    public List<Tarea> listarFiltradas(Predicate<? super Tarea> filtro) {
+        List<Tarea> resultado = consultar(p -> p.filtrar(filtro), (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+        // Cada partición ya viene ordenada: el ordenamiento solo intercala tramos
+        resultado.sort(POR_ID);
+        return resultado;
+    }
+    
+    @Override
+    public ResumenTareas resumir() {
+        return consultar(Particion::resumir, ResumenTareas::combinar);
+    }
+    
+    @Override
+    public int contar() {
+        int total = 0;
+        for (Particion particion : particiones) {
+            total += particion.cantidad();
+        }
+        return total;
+    }
+    
+    @Override
+    public void guardar(Tarea tarea) {
+        tarea.setDescripcion(descripciones.internar(tarea.getDescripcion()));
+        if (tarea.getId() == null) {
+            int indice = ThreadLocalRandom.current().nextInt(particiones.length);
+            particiones[indice].insertarNueva(tarea);
+            logger.debug("Guardando nueva tarea con ID {} en la partición {}", tarea.getId(), indice);
+        } else {
+            particionDe(tarea.getId()).guardar(tarea);
+            logger.debug("Actualizando tarea con ID: {}", tarea.getId());
+        }
+        logger.info("Tarea guardada exitosamente: {}", tarea.getDescripcion());
+    }
+    
+    @Override
+    public Optional<Tarea> buscarPorId(Long id) {
+        Tarea tarea = id != null && id > 0 ? particionDe(id).buscar(id) : null;
+        if (tarea == null) {
+            logger.warn("No se encontró tarea con ID: {}", id);
+        }
+        return Optional.ofNullable(tarea);
+    }
+    
+    @Override
+    public void eliminar(Long id) {
+        if (id != null && id > 0 && particionDe(id).eliminar(id)) {
+            logger.info("Tarea con ID {} eliminada exitosamente", id);
+        } else {
+            logger.warn("No se pudo eliminar: tarea con ID {} no encontrada", id);
+        }
+    }
+    
+    @Override
+    public synchronized void reemplazarTodas(Collection<Tarea> nuevas) {
+        for (Particion particion : particiones) {
+            particion.vaciar();
+        }
+        for (Tarea tarea : nuevas) {
+            tarea.setDescripcion(descripciones.internar(tarea.getDescripcion()));
+            particionDe(tarea.getId()).guardar(tarea);
+        }
+        logger.debug("Repositorio reemplazado con {} tareas", nuevas.size());
+    }
+    
+    private Particion particionDe(long id) {
+        return particiones[(int) ((id - 1) % particiones.length)];
+    }
+    
+    /**
+     * Aplica una consulta a todas las particiones y combina los resultados,
+     * en paralelo si hay suficientes tareas
+     */
+    private <R> R consultar(Function<Particion, R> consulta, BinaryOperator<R> combinar) {
+        if (contar() < UMBRAL_PARALELO) {
+            R resultado = consulta.apply(particiones[0]);
+            for (int i = 1; i < particiones.length; i++) {
+                resultado = combinar.apply(resultado, consulta.apply(particiones[i]));
+            }
+            return resultado;
+        }
+        return ForkJoinPool.commonPool().invoke(
+            new ConsultaParticiones<>(particiones, 0, particiones.length, consulta, combinar));
+    }
+    
+    /**
+     * Divide las particiones en mitades hasta llegar a una y combina los
+     * resultados en orden de partición
+     */
+    private static final class ConsultaParticiones<R> extends RecursiveTask<R> {
+        
+        private final Particion[] particiones;
+        private final int desde;
+        private final int hasta;
+        private final Function<Particion, R> consulta;
+        private final BinaryOperator<R> combinar;
+        
+        ConsultaParticiones(Particion[] particiones, int desde, int hasta,
+                            Function<Particion, R> consulta, BinaryOperator<R> combinar) {
+            this.particiones = particiones;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.consulta = consulta;
+            this.combinar = combinar;
+        }
+        
+        @Override
+        protected R compute() {
+            if (hasta - desde == 1) {
+                return consulta.apply(particiones[desde]);
+            }
+            int medio = (desde + hasta) >>> 1;
+            ConsultaParticiones<R> izquierda = new ConsultaParticiones<>(particiones, desde, medio, consulta, combinar);
+            izquierda.fork();
+            R derecha = new ConsultaParticiones<>(particiones, medio, hasta, consulta, combinar).compute();
+            return combinar.apply(izquierda.join(), derecha);
+        }
+    }
+    
+    /**
+     * Una partición: mapa ordenado por ID protegido por su propio lock de
+     * lectura/escritura
+     */
+    private static final class Particion {
+        
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<Long, Tarea> tareas = new TreeMap<>();
+        private final int paso;
+        private final long primerId;
+        
+        /**
+         * Próximo ID a asignar; siempre es {@code primerId + k * paso}
+         */
+        private long siguienteId;
+        
+        Particion(int indice, int cantidad) {
+            this.paso = cantidad;
+            this.primerId = indice + 1;
+            this.siguienteId = primerId;
+        }
+        
+        void insertarNueva(Tarea tarea) {
+            lock.writeLock().lock();
+            try {
+                tarea.setId(siguienteId);
+                siguienteId += paso;
+                tareas.put(tarea.getId(), tarea);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        void guardar(Tarea tarea) {
+            lock.writeLock().lock();
+            try {
+                tareas.put(tarea.getId(), tarea);
+                // Un ID recibido de afuera (replicación) no debe repetirse al crear
+                if (tarea.getId() >= siguienteId) {
+                    siguienteId = tarea.getId() + paso;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        Tarea buscar(long id) {
+            lock.readLock().lock();
+            try {
+                return tareas.get(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        boolean eliminar(long id) {
+            lock.writeLock().lock();
+            try {
+                return tareas.remove(id) != null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        void vaciar() {
+            lock.writeLock().lock();
+            try {
+                tareas.clear();
+                siguienteId = primerId;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        int cantidad() {
+            lock.readLock().lock();
+            try {
+                return tareas.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        List<Tarea> filtrar(Predicate<? super Tarea> filtro) {
+            lock.readLock().lock();
+            try {
+                List<Tarea> resultado = new ArrayList<>();
+                for (Tarea tarea : tareas.values()) {
+                    if (filtro.test(tarea)) {
+                        resultado.add(tarea);
+                    }
+                }
+                return resultado;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        ResumenTareas resumir() {
+            lock.readLock().lock();
+            try {
+                return ResumenTareas.de(tareas.values());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
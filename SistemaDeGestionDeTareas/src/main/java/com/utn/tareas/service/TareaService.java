@@ -1,18 +1,31 @@
 package com.utn.tareas.service;
 
+import com.utn.tareas.dependencia.GrafoDependencias;
+import com.utn.tareas.exception.TareaNoEncontradaException;
 import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.ResumenTareas;
 import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.PoolDescripciones;
 import com.utn.tareas.repository.TareaRepository;
+import com.utn.tareas.vencimiento.PlanificadorVencimientos;
+import com.utn.tareas.vencimiento.TareaVencidaEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Servicio que gestiona la lógica de negocio relacionada con las tareas.
@@ -34,12 +47,49 @@ public class TareaService {
      */
     private final TareaRepository tareaRepository;
     
+    /**
+     * Planificador que detecta los vencimientos sin recorrer las tareas
+     */
+    private final PlanificadorVencimientos planificador;
+    
+    /**
+     * Reloj para las fechas de creación y de completado
+     */
+    private final Clock reloj;
+    
+    /**
+     * Dependencias entre tareas y tareas disponibles
+     */
+    private final GrafoDependencias grafo;
+    
+    /**
+     * Pool de descripciones del repositorio, para informar la memoria ahorrada
+     */
+    private final PoolDescripciones descripciones;
+    
     /**
      * Número máximo de tareas permitidas (configurado por perfil)
      */
     @Value("${app.max-tareas}")
     private int maxTareas;
     
+    /**
+     * Lugares reservados por altas en curso (32 bits bajos) y cantidad de
+     * reservas liberadas (bits altos). Liberar cambia el valor aunque la
+     * cantidad de reservas vuelva a ser la misma, así que un compareAndSet
+     * falla si alguna alta terminó desde que se leyó.
+     */
+    private final AtomicLong reservas = new AtomicLong();
+    
+    private static final long RESERVA_LIBERADA = 1L << 32;
+    
+    /**
+     * Monitores por tarea (según su ID): serializan los cambios de una misma
+     * tarea sin tomar el monitor del grafo mientras se lee o guarda en el
+     * repositorio, así que los cambios de tareas distintas no se esperan.
+     */
+    private final Object[] bloqueos = new Object[64];
+    
     /**
      * Nombre de la aplicación (configurado externamente)
      */
@@ -52,47 +102,138 @@ public class TareaService {
     @Value("${app.mostrar-estadisticas}")
     private boolean mostrarEstadisticas;
     
+    /**
+     * Flag que indica si las operaciones informan su resultado por consola.
+     * El modo servidor lo desactiva: {@code System.out} es sincronizado y
+     * serializaría a todos los hilos que atienden solicitudes.
+     */
+    @Value("${app.salida-consola:true}")
+    private boolean salidaConsola;
+    
     /**
      * Constructor con inyección de dependencias
      * 
      * @param tareaRepository Repositorio de tareas
+     * @param planificador Planificador de vencimientos
+     * @param reloj Reloj de la aplicación
+     * @param grafo Grafo de dependencias entre tareas
+     * @param descripciones Pool de descripciones del repositorio
      */
-    public TareaService(TareaRepository tareaRepository) {
+    public TareaService(TareaRepository tareaRepository, PlanificadorVencimientos planificador, Clock reloj,
+                        GrafoDependencias grafo, PoolDescripciones descripciones) {
         this.tareaRepository = tareaRepository;
+        this.planificador = planificador;
+        this.reloj = reloj;
+        this.grafo = grafo;
+        this.descripciones = descripciones;
+        for (int i = 0; i < bloqueos.length; i++) {
+            bloqueos[i] = new Object();
+        }
         logger.info("TareaService inicializado correctamente");
     }
     
+    /**
+     * Agrega una nueva tarea al sistema, sin fecha límite
+     * 
+     * @param descripcion Descripción de la tarea
+     * @param prioridad Nivel de prioridad de la tarea
+     * @return La tarea creada, con su ID asignado
+     * @throws IllegalStateException Si se excede el límite de tareas
+     * @throws IllegalArgumentException Si la descripción está vacía
+     */
+    public Tarea agregarTarea(String descripcion, Prioridad prioridad) {
+        return agregarTarea(descripcion, prioridad, null);
+    }
+    
     /**
      * Agrega una nueva tarea al sistema
      * 
      * @param descripcion Descripción de la tarea
      * @param prioridad Nivel de prioridad de la tarea
+     * @param vencimiento Fecha límite, o null si no tiene
+     * @return La tarea creada, con su ID asignado
      * @throws IllegalStateException Si se excede el límite de tareas
      * @throws IllegalArgumentException Si la descripción está vacía
      */
-    public void agregarTarea(String descripcion, Prioridad prioridad) {
+    public Tarea agregarTarea(String descripcion, Prioridad prioridad, Instant vencimiento) {
+        return agregarTarea(descripcion, prioridad, vencimiento, Set.of());
+    }
+    
+    /**
+     * Agrega una nueva tarea que depende de otras ya existentes. Como la tarea
+     * es nueva, ninguna otra depende de ella y no puede formarse un ciclo.
+     * 
+     * @param descripcion Descripción de la tarea
+     * @param prioridad Nivel de prioridad de la tarea
+     * @param vencimiento Fecha límite, o null si no tiene
+     * @param dependencias IDs de las tareas que deben completarse antes
+     * @return La tarea creada, con su ID asignado
+     * @throws IllegalStateException Si se excede el límite de tareas
+     * @throws IllegalArgumentException Si la descripción está vacía o una dependencia no existe
+     */
+    public Tarea agregarTarea(String descripcion, Prioridad prioridad, Instant vencimiento,
+                              Set<Long> dependencias) {
         // Validar descripción
         if (descripcion == null || descripcion.trim().isEmpty()) {
             logger.error("Intento de agregar tarea con descripción vacía");
             throw new IllegalArgumentException("La descripción de la tarea no puede estar vacía");
         }
         
-        // Validar límite de tareas
-        List<Tarea> tareasActuales = tareaRepository.listarTodas();
-        if (tareasActuales.size() >= maxTareas) {
-            logger.error("Límite de tareas alcanzado: {}/{}", tareasActuales.size(), maxTareas);
-            throw new IllegalStateException(
-                String.format("Se ha alcanzado el límite máximo de %d tareas. " +
-                             "No se pueden agregar más tareas.", maxTareas)
-            );
-        }
+        grafo.verificarExistentes(dependencias);
         
-        // Crear y guardar la tarea
-        Tarea nuevaTarea = new Tarea(null, descripcion.trim(), false, prioridad);
-        tareaRepository.guardar(nuevaTarea);
+        // Validar límite de tareas (sin copiar la lista completa)
+        reservarLugar();
+        Tarea nuevaTarea;
+        try {
+            // Crear y guardar la tarea
+            nuevaTarea = new Tarea(null, descripcion.trim(), false, prioridad,
+                Instant.now(reloj), vencimiento, null, Set.copyOf(dependencias));
+            tareaRepository.guardar(nuevaTarea);
+        } finally {
+            // Se libera después de guardar: la tarea ya cuenta en el repositorio
+            reservas.addAndGet(RESERVA_LIBERADA - 1);
+        }
+        grafo.registrar(nuevaTarea);
+        if (vencimiento != null) {
+            planificador.programar(nuevaTarea);
+        }
         
         logger.info("Nueva tarea agregada: '{}' con prioridad {}", descripcion, prioridad);
-        System.out.println("✓ Tarea agregada exitosamente: " + nuevaTarea);
+        if (salidaConsola) {
+            System.out.println("✓ Tarea agregada exitosamente: " + nuevaTarea);
+        }
+        return nuevaTarea;
+    }
+    
+    /**
+     * Reserva un lugar para una tarea nueva sin bloquear a las demás altas.
+     * La reserva solo se toma si ninguna otra alta reservó ni liberó un lugar
+     * desde que se contaron las tareas, así que dos altas no pueden pasar las
+     * dos el último lugar libre. Una alta que ya guardó su tarea pero no liberó
+     * su reserva se cuenta dos veces; en ese caso se espera a que la libere
+     * antes de rechazar, para no rechazar con lugar libre.
+     * 
+     * @throws IllegalStateException Si se alcanzó el límite de tareas
+     */
+    private void reservarLugar() {
+        while (true) {
+            long actual = reservas.get();
+            int reservadas = (int) actual;
+            int cantidadActual = tareaRepository.contar();
+            if (cantidadActual + reservadas < maxTareas) {
+                if (reservas.compareAndSet(actual, actual + 1)) {
+                    return;
+                }
+            } else if (reservadas == 0) {
+                logger.error("Límite de tareas alcanzado: {}/{}", cantidadActual, maxTareas);
+                throw new IllegalStateException(
+                    String.format("Se ha alcanzado el límite máximo de %d tareas. " +
+                                 "No se pueden agregar más tareas.", maxTareas)
+                );
+            } else {
+                Thread.onSpinWait();
+            }
+        }
     }
     
     /**
@@ -112,9 +253,7 @@ public class TareaService {
      * @return Lista de tareas pendientes
      */
     public List<Tarea> listarPendientes() {
-        List<Tarea> pendientes = tareaRepository.listarTodas().stream()
-                .filter(t -> !t.isCompletada())
-                .collect(Collectors.toList());
+        List<Tarea> pendientes = tareaRepository.listarFiltradas(t -> !t.isCompletada());
         
         logger.debug("Tareas pendientes encontradas: {}", pendientes.size());
         return pendientes;
@@ -126,43 +265,141 @@ public class TareaService {
      * @return Lista de tareas completadas
      */
     public List<Tarea> listarCompletadas() {
-        List<Tarea> completadas = tareaRepository.listarTodas().stream()
-                .filter(Tarea::isCompletada)
-                .collect(Collectors.toList());
+        List<Tarea> completadas = tareaRepository.listarFiltradas(Tarea::isCompletada);
         
         logger.debug("Tareas completadas encontradas: {}", completadas.size());
         return completadas;
     }
     
     /**
-     * Marca una tarea como completada
+     * Lista las tareas pendientes cuya fecha límite ya pasó, de la más
+     * atrasada a la más reciente. No recorre todas las tareas: usa las que
+     * detectó el planificador de vencimientos.
      * 
-     * @param id Identificador de la tarea
-     * @throws IllegalArgumentException Si la tarea no existe
+     * @return Lista de tareas vencidas
      */
-    public void marcarComoCompletada(Long id) {
-        Optional<Tarea> tareaOpt = tareaRepository.buscarPorId(id);
-        
-        if (tareaOpt.isEmpty()) {
-            logger.error("Intento de completar tarea inexistente con ID: {}", id);
-            throw new IllegalArgumentException(
-                String.format("No existe una tarea con el ID %d", id)
-            );
+    public List<Tarea> listarVencidas() {
+        List<Tarea> vencidas = new ArrayList<>();
+        for (Long id : planificador.idsVencidos()) {
+            tareaRepository.buscarPorId(id)
+                .filter(t -> !t.isCompletada())
+                .ifPresent(vencidas::add);
         }
+        vencidas.sort(Comparator.comparing(Tarea::getFechaVencimiento).thenComparing(Tarea::getId));
         
-        Tarea tarea = tareaOpt.get();
-        
-        if (tarea.isCompletada()) {
-            logger.warn("La tarea con ID {} ya estaba completada", id);
-            System.out.println("⚠ La tarea ya estaba marcada como completada");
-            return;
+        logger.debug("Tareas vencidas encontradas: {}", vencidas.size());
+        return vencidas;
+    }
+    
+    /**
+     * Cuenta las tareas pendientes cuya fecha límite ya pasó
+     * 
+     * @return Cantidad de tareas vencidas
+     */
+    public int contarVencidas() {
+        return planificador.contarVencidas();
+    }
+    
+    /**
+     * Marca una tarea como completada
+     * 
+     * @param id Identificador de la tarea
+     * @return La tarea completada
+     * @throws TareaNoEncontradaException Si la tarea no existe
+     * @throws IllegalStateException Si alguna de sus dependencias sigue pendiente
+     */
+    public Tarea marcarComoCompletada(Long id) {
+        Tarea tarea;
+        // Bajo el monitor de la tarea, para que no se le agregue una dependencia entre
+        // la verificación y el guardado; el del grafo solo se toma para consultarlo y actualizarlo
+        synchronized (bloqueoDe(id)) {
+            Optional<Tarea> tareaOpt = tareaRepository.buscarPorId(id);
+            
+            if (tareaOpt.isEmpty()) {
+                logger.error("Intento de completar tarea inexistente con ID: {}", id);
+                throw new TareaNoEncontradaException(id);
+            }
+            
+            tarea = tareaOpt.get();
+            
+            if (tarea.isCompletada()) {
+                logger.warn("La tarea con ID {} ya estaba completada", id);
+                if (salidaConsola) {
+                    System.out.println("⚠ La tarea ya estaba marcada como completada");
+                }
+                return tarea;
+            }
+            
+            List<Long> bloqueantes = grafo.bloqueantes(id);
+            if (!bloqueantes.isEmpty()) {
+                logger.warn("La tarea con ID {} espera a las tareas {}", id, bloqueantes);
+                throw new IllegalStateException(String.format(
+                    "La tarea %d depende de tareas pendientes: %s", id, bloqueantes));
+            }
+            
+            // Se guarda una copia: la tarea guardada la pueden estar leyendo otros hilos
+            tarea = tarea.copiar();
+            tarea.setCompletada(true);
+            tarea.setFechaCompletada(Instant.now(reloj));
+            tareaRepository.guardar(tarea);
+            grafo.registrar(tarea);
         }
-        
-        tarea.setCompletada(true);
-        tareaRepository.guardar(tarea);
+        planificador.cancelar(id);
         
         logger.info("Tarea con ID {} marcada como completada: '{}'", id, tarea.getDescripcion());
-        System.out.println("✓ Tarea completada: " + tarea.getDescripcion());
+        if (salidaConsola) {
+            System.out.println("✓ Tarea completada: " + tarea.getDescripcion());
+        }
+        return tarea;
+    }
+    
+    /**
+     * Agrega una dependencia entre dos tareas existentes
+     * 
+     * @param id Tarea que pasa a depender de otra
+     * @param prerequisito Tarea que debe completarse antes
+     * @return La tarea actualizada
+     * @throws TareaNoEncontradaException Si alguna de las tareas no existe
+     * @throws IllegalArgumentException Si la dependencia formaría un ciclo
+     * @throws IllegalStateException Si la tarea ya está completada
+     */
+    public Tarea agregarDependencia(Long id, Long prerequisito) {
+        synchronized (bloqueoDe(id)) {
+            Tarea tarea = tareaRepository.buscarPorId(id)
+                .orElseThrow(() -> new TareaNoEncontradaException(id));
+            if (tarea.isCompletada()) {
+                throw new IllegalStateException("La tarea " + id + " ya está completada");
+            }
+            // El grafo verifica el ciclo y agrega la arista de una vez; el guardado queda fuera de su monitor
+            Set<Long> dependencias = grafo.agregarDependencia(id, prerequisito);
+            if (dependencias.equals(tarea.getDependencias())) {
+                return tarea;
+            }
+            tarea = tarea.copiar();
+            tarea.setDependencias(dependencias);
+            tareaRepository.guardar(tarea);
+            logger.info("La tarea {} ahora depende de la tarea {}", id, prerequisito);
+            return tarea;
+        }
+    }
+    
+    private Object bloqueoDe(Long id) {
+        return bloqueos[Objects.hashCode(id) & (bloqueos.length - 1)];
+    }
+    
+    /**
+     * Lista las tareas pendientes que no esperan a ninguna otra: las que
+     * pueden empezarse ahora, en paralelo
+     * 
+     * @return Lista de tareas disponibles, ordenadas por ID
+     */
+    public List<Tarea> listarDisponibles() {
+        List<Tarea> disponibles = new ArrayList<>();
+        for (Long id : grafo.disponibles()) {
+            tareaRepository.buscarPorId(id).ifPresent(disponibles::add);
+        }
+        logger.debug("Tareas disponibles encontradas: {}", disponibles.size());
+        return disponibles;
     }
     
     /**
@@ -171,22 +408,11 @@ public class TareaService {
      * @return Mapa con las estadísticas calculadas
      */
     public Map<String, Object> obtenerEstadisticas() {
-        List<Tarea> todasLasTareas = tareaRepository.listarTodas();
-        
-        // Calcular estadísticas
-        long total = todasLasTareas.size();
-        long completadas = todasLasTareas.stream().filter(Tarea::isCompletada).count();
-        long pendientes = total - completadas;
-        
-        long altaPrioridad = todasLasTareas.stream()
-                .filter(t -> t.getPrioridad() == Prioridad.ALTA)
-                .count();
-        long mediaPrioridad = todasLasTareas.stream()
-                .filter(t -> t.getPrioridad() == Prioridad.MEDIA)
-                .count();
-        long bajaPrioridad = todasLasTareas.stream()
-                .filter(t -> t.getPrioridad() == Prioridad.BAJA)
-                .count();
+        // El repositorio cuenta en una sola pasada, sin copiar la lista
+        ResumenTareas resumen = tareaRepository.resumir();
+        long total = resumen.total();
+        long completadas = resumen.completadas();
+        long pendientes = resumen.pendientes();
         
         double porcentajeCompletadas = total > 0 ? (completadas * 100.0 / total) : 0.0;
         
@@ -196,11 +422,17 @@ public class TareaService {
         estadisticas.put("completadas", completadas);
         estadisticas.put("pendientes", pendientes);
         estadisticas.put("porcentajeCompletadas", porcentajeCompletadas);
-        estadisticas.put("altaPrioridad", altaPrioridad);
-        estadisticas.put("mediaPrioridad", mediaPrioridad);
-        estadisticas.put("bajaPrioridad", bajaPrioridad);
+        estadisticas.put("altaPrioridad", resumen.altaPrioridad());
+        estadisticas.put("mediaPrioridad", resumen.mediaPrioridad());
+        estadisticas.put("bajaPrioridad", resumen.bajaPrioridad());
         estadisticas.put("limiteMaximo", maxTareas);
         estadisticas.put("espacioDisponible", maxTareas - total);
+        estadisticas.put("disponibles", (long) grafo.contarDisponibles());
+        estadisticas.put("vencidas", (long) planificador.contarVencidas());
+        estadisticas.put("vencimientosNotificados", planificador.getVencimientosNotificados());
+        estadisticas.put("recordatoriosNotificados", planificador.getRecordatoriosNotificados());
+        estadisticas.put("descripcionesUnicas", (long) descripciones.getUnicas());
+        estadisticas.put("bytesAhorradosDescripciones", descripciones.getBytesAhorrados());
         
         logger.debug("Estadísticas calculadas: {} total, {} completadas, {} pendientes", 
                     total, completadas, pendientes);
@@ -230,6 +462,10 @@ public class TareaService {
             stats.get("pendientes")));
         System.out.println(String.format("│  Progreso:                  %.1f%%                  │", 
             stats.get("porcentajeCompletadas")));
+        System.out.println(String.format("│  Tareas vencidas:           %-3d                    │", 
+            stats.get("vencidas")));
+        System.out.println(String.format("│  Tareas disponibles:        %-3d                    │", 
+            stats.get("disponibles")));
         System.out.println("├─────────────────────────────────────────────────────┤");
         System.out.println("│           📋 DISTRIBUCIÓN POR PRIORIDAD            │");
         System.out.println("├─────────────────────────────────────────────────────┤");
@@ -244,6 +480,18 @@ public class TareaService {
         logger.info("Estadísticas mostradas en consola");
     }
     
+    /**
+     * Informa por consola las tareas que vencen mientras la aplicación corre
+     * 
+     * @param evento Evento publicado por el planificador de vencimientos
+     */
+    @EventListener
+    public void alVencerTarea(TareaVencidaEvent evento) {
+        if (salidaConsola) {
+            System.out.println("⏰ Tarea vencida: " + evento.tarea());
+        }
+    }
+    
     /**
      * Obtiene el nombre de la aplicación configurado
      * 
@@ -261,4 +509,14 @@ public class TareaService {
     public int getMaxTareas() {
         return maxTareas;
     }
+    
+    /**
+     * Asigna el límite máximo de tareas, como lo haría {@code @Value}.
+     * Permite crear el servicio sin Spring en las pruebas de concurrencia.
+     * 
+     * @param maxTareas Límite máximo de tareas
+     */
+    void setMaxTareas(int maxTareas) {
+        this.maxTareas = maxTareas;
+    }
 }
@@ -0,0 +1,222 @@
+package com.utn.tareas.servidor;
+
+import java.util.Arrays;
+
+/**
+ * Escritor de JSON sobre un buffer de bytes reutilizable.
+ * <p>
+ * Cada hilo del servidor conserva su propia instancia, así que escribir una
+ * respuesta no crea objetos intermedios: los textos se codifican en UTF-8 y
+ * los números se escriben dígito a dígito directamente en el buffer, que solo
+ * crece si una respuesta no entra en él. Un buffer que creció más allá de
+ * {@value #MAXIMO_RETENIDO} bytes se suelta al empezar la respuesta siguiente:
+ * un listado grande no deja esa memoria retenida en cada hilo del servidor.
+ * <p>
+ * No valida la estructura: quien lo usa es responsable de abrir y cerrar
+ * objetos y de separar los campos con {@link #coma()}.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+class EscritorJson {
+    
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    
+    private static final int TAMANO_INICIAL = 4096;
+    
+    /**
+     * Tamaño máximo de buffer que se conserva entre respuestas
+     */
+    static final int MAXIMO_RETENIDO = 256 * 1024;
+    
+    private byte[] buffer = new byte[TAMANO_INICIAL];
+    
+    private int longitud;
+    
+    /**
+     * Descarta el contenido para escribir una nueva respuesta
+     * 
+     * @return Este mismo escritor
+     */
+    EscritorJson reiniciar() {
+        longitud = 0;
+        if (buffer.length > MAXIMO_RETENIDO) {
+            buffer = new byte[TAMANO_INICIAL];
+        }
+        return this;
+    }
+    
+    byte[] bytes() {
+        return buffer;
+    }
+    
+    int longitud() {
+        return longitud;
+    }
+    
+    EscritorJson abrirObjeto() {
+        return byteCrudo('{');
+    }
+    
+    EscritorJson cerrarObjeto() {
+        return byteCrudo('}');
+    }
+    
+    EscritorJson abrirArreglo() {
+        return byteCrudo('[');
+    }
+    
+    EscritorJson cerrarArreglo() {
+        return byteCrudo(']');
+    }
+    
+    EscritorJson coma() {
+        return byteCrudo(',');
+    }
+    
+    /**
+     * Escribe el nombre de un campo seguido de dos puntos
+     * 
+     * @param nombre Nombre del campo; debe ser ASCII sin caracteres a escapar
+     * @return Este mismo escritor
+     */
+    EscritorJson campo(String nombre) {
+        asegurar(nombre.length() + 3);
+        buffer[longitud++] = '"';
+        for (int i = 0; i < nombre.length(); i++) {
+            buffer[longitud++] = (byte) nombre.charAt(i);
+        }
+        buffer[longitud++] = '"';
+        buffer[longitud++] = ':';
+        return this;
+    }
+    
+    /**
+     * Escribe un texto entre comillas, escapado y codificado en UTF-8
+     * 
+     * @param texto Texto a escribir; {@code null} se escribe como {@code null}
+     * @return Este mismo escritor
+     */
+    EscritorJson texto(String texto) {
+        if (texto == null) {
+            return literal("null");
+        }
+        // Peor caso: \\uXXXX por carácter de control
+        asegurar(texto.length() * 6 + 2);
+        buffer[longitud++] = '"';
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x20 && c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buffer[longitud++] = '\\';
+                }
+                buffer[longitud++] = (byte) c;
+            } else if (c < 0x20) {
+                escaparControl(c);
+            } else if (c < 0x800) {
+                buffer[longitud++] = (byte) (0xC0 | (c >> 6));
+                buffer[longitud++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codigo = Character.toCodePoint(c, texto.charAt(++i));
+                buffer[longitud++] = (byte) (0xF0 | (codigo >> 18));
+                buffer[longitud++] = (byte) (0x80 | ((codigo >> 12) & 0x3F));
+                buffer[longitud++] = (byte) (0x80 | ((codigo >> 6) & 0x3F));
+                buffer[longitud++] = (byte) (0x80 | (codigo & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate sin pareja: no es representable en UTF-8
+                buffer[longitud++] = '?';
+            } else {
+                buffer[longitud++] = (byte) (0xE0 | (c >> 12));
+                buffer[longitud++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[longitud++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buffer[longitud++] = '"';
+        return this;
+    }
+    
+    EscritorJson numero(long valor) {
+        if (valor == Long.MIN_VALUE) {
+            return literal(Long.toString(valor));
+        }
+        asegurar(20);
+        if (valor < 0) {
+            buffer[longitud++] = '-';
+            valor = -valor;
+        }
+        int inicio = longitud;
+        do {
+            buffer[longitud++] = (byte) ('0' + (valor % 10));
+            valor /= 10;
+        } while (valor > 0);
+        // Los dígitos quedaron al revés
+        for (int i = inicio, j = longitud - 1; i < j; i++, j--) {
+            byte aux = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = aux;
+        }
+        return this;
+    }
+    
+    /**
+     * Escribe un decimal con una cifra después del punto, como se muestran los
+     * porcentajes en consola
+     * 
+     * @param valor Valor a escribir
+     * @return Este mismo escritor
+     */
+    EscritorJson decimal(double valor) {
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) {
+            return literal("null");
+        }
+        long decimas = Math.round(valor * 10);
+        if (decimas < 0) {
+            byteCrudo('-');
+            decimas = -decimas;
+        }
+        numero(decimas / 10);
+        byteCrudo('.');
+        return byteCrudo((char) ('0' + decimas % 10));
+    }
+    
+    EscritorJson booleano(boolean valor) {
+        return literal(valor ? "true" : "false");
+    }
+    
+    private EscritorJson literal(String ascii) {
+        asegurar(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            buffer[longitud++] = (byte) ascii.charAt(i);
+        }
+        return this;
+    }
+    
+    private EscritorJson byteCrudo(char c) {
+        asegurar(1);
+        buffer[longitud++] = (byte) c;
+        return this;
+    }
+    
+    private void escaparControl(char c) {
+        buffer[longitud++] = '\\';
+        switch (c) {
+            case '\n' -> buffer[longitud++] = 'n';
+            case '\r' -> buffer[longitud++] = 'r';
+            case '\t' -> buffer[longitud++] = 't';
+            default -> {
+                buffer[longitud++] = 'u';
+                buffer[longitud++] = '0';
+                buffer[longitud++] = '0';
+                buffer[longitud++] = HEX[c >> 4];
+                buffer[longitud++] = HEX[c & 0xF];
+            }
+        }
+    }
+    
+    private void asegurar(int adicional) {
+        if (longitud + adicional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, longitud + adicional));
+        }
+    }
+}
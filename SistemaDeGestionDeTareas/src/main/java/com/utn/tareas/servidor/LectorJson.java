@@ -0,0 +1,293 @@
+package com.utn.tareas.servidor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de objetos JSON planos sobre un buffer de bytes.
+ * <p>
+ * Recorre los campos de un objeto sin armar un árbol ni un mapa: los nombres
+ * se comparan directamente contra los bytes del cuerpo y solo se crean los
+ * {@link String} de los valores que se piden. Los valores que no son texto, o
+ * los campos que no interesan, se saltean con {@link #saltarValor()}.
+ * <p>
+ * Cualquier error de sintaxis se informa con {@link IllegalArgumentException},
+ * que el servidor responde como 400.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+class LectorJson {
+    
+    private final byte[] datos;
+    
+    private final int fin;
+    
+    private int posicion;
+    
+    private int inicioClave;
+    
+    private int finClave;
+    
+    private boolean primerCampo = true;
+    
+    LectorJson(byte[] datos, int longitud) {
+        this.datos = datos;
+        this.fin = longitud;
+        saltarEspacios();
+        esperar('{');
+    }
+    
+    /**
+     * Avanza al siguiente campo del objeto
+     * 
+     * @return false si se llegó al cierre del objeto
+     */
+    boolean siguienteCampo() {
+        saltarEspacios();
+        if (posicion < fin && datos[posicion] == '}') {
+            posicion++;
+            saltarEspacios();
+            if (posicion != fin) {
+                throw error();
+            }
+            return false;
+        }
+        if (!primerCampo) {
+            esperar(',');
+            saltarEspacios();
+        }
+        primerCampo = false;
+        esperar('"');
+        inicioClave = posicion;
+        while (posicion < fin && datos[posicion] != '"') {
+            if (datos[posicion] == '\\') {
+                posicion++;
+            }
+            posicion++;
+        }
+        finClave = posicion;
+        esperar('"');
+        saltarEspacios();
+        esperar(':');
+        saltarEspacios();
+        return true;
+    }
+    
+    /**
+     * Indica si el campo actual tiene el nombre dado
+     * 
+     * @param nombre Nombre ASCII del campo
+     * @return true si coincide
+     */
+    boolean claveEs(String nombre) {
+        if (finClave - inicioClave != nombre.length()) {
+            return false;
+        }
+        for (int i = 0; i < nombre.length(); i++) {
+            if (datos[inicioClave + i] != nombre.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Lee el valor del campo actual como texto
+     * 
+     * @return El texto, o {@code null} si el valor es {@code null}
+     */
+    String texto() {
+        if (coincide("null")) {
+            posicion += 4;
+            return null;
+        }
+        esperar('"');
+        int inicio = posicion;
+        while (posicion < fin && datos[posicion] != '"' && datos[posicion] != '\\') {
+            posicion++;
+        }
+        if (posicion < fin && datos[posicion] == '"') {
+            // Caso común: sin secuencias de escape
+            return new String(datos, inicio, posicion++ - inicio, StandardCharsets.UTF_8);
+        }
+        StringBuilder texto = new StringBuilder();
+        texto.append(new String(datos, inicio, posicion - inicio, StandardCharsets.UTF_8));
+        while (true) {
+            if (posicion >= fin) {
+                throw error();
+            }
+            byte b = datos[posicion];
+            if (b == '"') {
+                posicion++;
+                return texto.toString();
+            }
+            if (b == '\\') {
+                texto.append(escape());
+                continue;
+            }
+            int tramo = posicion;
+            while (posicion < fin && datos[posicion] != '"' && datos[posicion] != '\\') {
+                posicion++;
+            }
+            texto.append(new String(datos, tramo, posicion - tramo, StandardCharsets.UTF_8));
+        }
+    }
+    
+    /**
+     * Lee el valor del campo actual como arreglo de enteros
+     * 
+     * @return Los números, o una lista vacía si el valor es {@code null}
+     */
+    List<Long> numeros() {
+        List<Long> numeros = new ArrayList<>();
+        if (coincide("null")) {
+            posicion += 4;
+            return numeros;
+        }
+        esperar('[');
+        saltarEspacios();
+        if (posicion < fin && datos[posicion] == ']') {
+            posicion++;
+            return numeros;
+        }
+        while (true) {
+            saltarEspacios();
+            numeros.add(entero());
+            saltarEspacios();
+            if (posicion < fin && datos[posicion] == ']') {
+                posicion++;
+                return numeros;
+            }
+            esperar(',');
+        }
+    }
+    
+    /**
+     * Saltea el valor del campo actual, sea del tipo que sea
+     */
+    void saltarValor() {
+        if (posicion >= fin) {
+            throw error();
+        }
+        byte b = datos[posicion];
+        if (b == '"') {
+            texto();
+            return;
+        }
+        if (b == '{' || b == '[') {
+            int profundidad = 0;
+            do {
+                b = datos[posicion];
+                if (b == '"') {
+                    texto();
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    profundidad++;
+                } else if (b == '}' || b == ']') {
+                    profundidad--;
+                }
+                posicion++;
+            } while (profundidad > 0 && posicion < fin);
+            if (profundidad > 0) {
+                throw error();
+            }
+            return;
+        }
+        int inicio = posicion;
+        while (posicion < fin && datos[posicion] != ',' && datos[posicion] != '}'
+                && !esEspacio(datos[posicion])) {
+            posicion++;
+        }
+        if (posicion == inicio) {
+            throw error();
+        }
+    }
+    
+    private long entero() {
+        boolean negativo = posicion < fin && datos[posicion] == '-';
+        if (negativo) {
+            posicion++;
+        }
+        int inicio = posicion;
+        long valor = 0;
+        while (posicion < fin && datos[posicion] >= '0' && datos[posicion] <= '9') {
+            if (posicion - inicio >= 18) {
+                throw error();
+            }
+            valor = valor * 10 + (datos[posicion++] - '0');
+        }
+        if (posicion == inicio) {
+            throw error();
+        }
+        return negativo ? -valor : valor;
+    }
+    
+    private char escape() {
+        posicion++;
+        if (posicion >= fin) {
+            throw error();
+        }
+        byte b = datos[posicion++];
+        switch (b) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                if (posicion + 4 > fin) {
+                    throw error();
+                }
+                int codigo = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digito = Character.digit(datos[posicion++], 16);
+                    if (digito < 0) {
+                        throw error();
+                    }
+                    codigo = codigo * 16 + digito;
+                }
+                return (char) codigo;
+            default:
+                throw error();
+        }
+    }
+    
+    private boolean coincide(String literal) {
+        if (posicion + literal.length() > fin) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (datos[posicion + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void esperar(char c) {
+        if (posicion >= fin || datos[posicion] != c) {
+            throw error();
+        }
+        posicion++;
+    }
+    
+    private void saltarEspacios() {
+        while (posicion < fin && esEspacio(datos[posicion])) {
+            posicion++;
+        }
+    }
+    
+    private static boolean esEspacio(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+    
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("JSON inválido en la posición " + posicion);
+    }
+}
@@ -0,0 +1,541 @@
+package com.utn.tareas.servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.utn.tareas.espacio.GestorEspacios;
+import com.utn.tareas.exception.TareaNoEncontradaException;
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.ResumenTareas;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.replicacion.PosicionReplicacion;
+import com.utn.tareas.service.TareaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP/JSON que expone {@link TareaService} a otros procesos.
+ * <p>
+ * Se activa con {@code app.servidor.enabled=true} (perfil {@code servidor}) y
+ * usa el {@link HttpServer} del JDK, sin agregar dependencias al proyecto.
+ * Rutas disponibles:
+ * <ul>
+ *   <li>{@code GET /tareas[?estado=pendientes|completadas|vencidas|disponibles]} - lista las tareas</li>
+ *   <li>{@code POST /tareas} - crea una tarea a partir de
+ *       {@code {"descripcion": "...", "prioridad": "ALTA|MEDIA|BAJA",
+ *       "vencimiento": "2025-12-31T23:59:00Z", "dependencias": [1, 2]}} (201);
+ *       la prioridad, el vencimiento y las dependencias son opcionales</li>
+ *   <li>{@code POST /tareas/{id}/completar} - marca la tarea como completada;
+ *       409 si alguna de sus dependencias sigue pendiente</li>
+ *   <li>{@code GET /estadisticas} - estadísticas de {@link TareaService#obtenerEstadisticas()}</li>
+ *   <li>{@code /espacios/{espacio}/tareas}, {@code /espacios/{espacio}/tareas/{id}/completar}
+ *       y {@code /espacios/{espacio}/estadisticas} - las mismas rutas sobre un
+ *       espacio de {@link GestorEspacios}, con sus propios IDs y su propio límite
+ *       (sin dependencias ni {@code estado=disponibles})</li>
+ * </ul>
+ * Los errores se responden como {@code {"error": "..."}}: 400 para datos
+ * inválidos, 404 para tareas o rutas inexistentes, 405 para métodos no
+ * soportados y 409 cuando se alcanzó el límite de tareas.
+ * <p>
+ * Las solicitudes se atienden en un pool fijo de {@code app.servidor.hilos}
+ * hilos. Cada hilo reutiliza su buffer de lectura y su {@link EscritorJson},
+ * por lo que leer el cuerpo y escribir la respuesta no genera basura propia.
+ * <p>
+ * Con replicación activa, cada respuesta informa en {@code X-Tareas-Posicion}
+ * la posición del registro de cambios alcanzada por el nodo. Un GET que envía
+ * ese encabezado espera a que el nodo llegue a esa posición, y si no llega
+ * responde 503: así un cliente lee sus propias escrituras en un seguidor.
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.servidor", name = "enabled", havingValue = "true")
+public class ServidorHttpTareas implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServidorHttpTareas.class);
+    
+    private static final String RUTA_TAREAS = "/tareas";
+    
+    private static final String SUFIJO_COMPLETAR = "/completar";
+    
+    private static final String RUTA_ESTADISTICAS = "/estadisticas";
+    
+    private static final String RUTA_ESPACIOS = "/espacios/";
+    
+    private static final String ENCABEZADO_POSICION = "X-Tareas-Posicion";
+    
+    /**
+     * Tamaño máximo del cuerpo de una solicitud
+     */
+    private static final int MAX_CUERPO = 8192;
+    
+    private static final ThreadLocal<EscritorJson> ESCRITOR = ThreadLocal.withInitial(EscritorJson::new);
+    
+    private static final ThreadLocal<byte[]> CUERPO = ThreadLocal.withInitial(() -> new byte[MAX_CUERPO]);
+    
+    static {
+        // Sin TCP_NODELAY, los clientes keep-alive esperan el ACK retrasado del
+        // sistema operativo (hasta 40 ms) entre una respuesta y la siguiente
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+    
+    private final TareaService tareaService;
+    
+    private final GestorEspacios espacios;
+    
+    /**
+     * Posición de replicación de este nodo, o null si no hay replicación
+     */
+    private final PosicionReplicacion replicacion;
+    
+    /**
+     * Puerto de escucha; 0 elige uno libre (usado en los tests)
+     */
+    @Value("${app.servidor.puerto:8080}")
+    private int puerto;
+    
+    /**
+     * Conexiones pendientes de aceptar que admite el sistema operativo
+     */
+    @Value("${app.servidor.backlog:1024}")
+    private int backlog;
+    
+    /**
+     * Hilos que atienden solicitudes; 0 usa el doble de los procesadores disponibles
+     */
+    @Value("${app.servidor.hilos:0}")
+    private int hilos;
+    
+    private HttpServer servidor;
+    
+    private ExecutorService ejecutor;
+    
+    /**
+     * Constructor con inyección de dependencias
+     * 
+     * @param tareaService Servicio de gestión de tareas
+     * @param espacios Espacios de tareas por usuario o equipo
+     * @param replicacion Posición de replicación, si el nodo es líder o seguidor
+     */
+    public ServidorHttpTareas(TareaService tareaService, GestorEspacios espacios,
+                              ObjectProvider<PosicionReplicacion> replicacion) {
+        this.tareaService = tareaService;
+        this.espacios = espacios;
+        this.replicacion = replicacion.getIfAvailable();
+    }
+    
+    @Override
+    public synchronized void start() {
+        int cantidadHilos = hilos > 0 ? hilos : 2 * Runtime.getRuntime().availableProcessors();
+        AtomicInteger numero = new AtomicInteger();
+        ejecutor = Executors.newFixedThreadPool(cantidadHilos,
+                r -> new Thread(r, "tareas-http-" + numero.incrementAndGet()));
+        try {
+            servidor = HttpServer.create(new InetSocketAddress(puerto), backlog);
+        } catch (IOException e) {
+            ejecutor.shutdown();
+            throw new UncheckedIOException("No se pudo abrir el puerto " + puerto, e);
+        }
+        servidor.createContext("/", this::atender);
+        servidor.setExecutor(ejecutor);
+        servidor.start();
+        logger.warn("Servidor HTTP de tareas escuchando en el puerto {} con {} hilos",
+                getPuerto(), cantidadHilos);
+    }
+    
+    @Override
+    public synchronized void stop() {
+        if (servidor == null) {
+            return;
+        }
+        // Deja hasta un segundo para terminar las respuestas en curso
+        servidor.stop(1);
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        servidor = null;
+        logger.warn("Servidor HTTP de tareas detenido");
+    }
+    
+    @Override
+    public synchronized boolean isRunning() {
+        return servidor != null;
+    }
+    
+    /**
+     * Puerto en el que escucha el servidor
+     * 
+     * @return Puerto local, o -1 si no está iniciado
+     */
+    public synchronized int getPuerto() {
+        return servidor != null ? servidor.getAddress().getPort() : -1;
+    }
+    
+    private void atender(HttpExchange exchange) {
+        EscritorJson json = ESCRITOR.get().reiniciar();
+        try {
+            String metodo = exchange.getRequestMethod();
+            int estado;
+            if (replicacion != null && metodo.equals("GET") && !alcanzoPosicion(exchange)) {
+                estado = error(503, "El nodo todavía no alcanzó la posición indicada en "
+                    + ENCABEZADO_POSICION, json);
+            } else {
+                estado = enrutar(exchange, metodo, json);
+            }
+            if (replicacion != null) {
+                exchange.getResponseHeaders().set(ENCABEZADO_POSICION, Long.toString(replicacion.posicion()));
+            }
+            responder(exchange, estado, json);
+        } catch (TareaNoEncontradaException e) {
+            responderError(exchange, 404, e.getMessage(), json);
+        } catch (IllegalArgumentException e) {
+            responderError(exchange, 400, e.getMessage(), json);
+        } catch (IllegalStateException e) {
+            responderError(exchange, 409, e.getMessage(), json);
+        } catch (IOException e) {
+            // El cliente cerró la conexión antes de recibir la respuesta
+            logger.debug("Error de E/S atendiendo {}", exchange.getRequestURI(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            responderError(exchange, 503, "El servidor se está deteniendo", json);
+        } catch (RuntimeException e) {
+            logger.error("Error no controlado en {}", exchange.getRequestURI(), e);
+            responderError(exchange, 500, "Error interno del servidor", json);
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private int enrutar(HttpExchange exchange, String metodo, EscritorJson json) throws IOException {
+        String ruta = exchange.getRequestURI().getRawPath();
+        // En /espacios/{espacio}/... el resto de la ruta se atiende igual, sobre ese espacio
+        String espacio = null;
+        if (ruta.startsWith(RUTA_ESPACIOS)) {
+            int fin = ruta.indexOf('/', RUTA_ESPACIOS.length());
+            if (fin < 0) {
+                return error(404, "Recurso no encontrado", json);
+            }
+            espacio = ruta.substring(RUTA_ESPACIOS.length(), fin);
+            ruta = ruta.substring(fin);
+        }
+        int estado;
+        if (ruta.equals(RUTA_TAREAS) || ruta.equals(RUTA_TAREAS + "/")) {
+            if (metodo.equals("GET")) {
+                estado = listar(espacio, exchange.getRequestURI().getRawQuery(), json);
+            } else if (metodo.equals("POST")) {
+                estado = crear(espacio, exchange, json);
+            } else {
+                estado = error(405, "Método no permitido", json);
+            }
+        } else if (ruta.startsWith(RUTA_TAREAS + "/") && ruta.endsWith(SUFIJO_COMPLETAR)) {
+            if (metodo.equals("POST")) {
+                estado = completar(espacio, ruta, json);
+            } else {
+                estado = error(405, "Método no permitido", json);
+            }
+        } else if (ruta.equals(RUTA_ESTADISTICAS)) {
+            if (metodo.equals("GET")) {
+                estado = espacio != null ? estadisticas(espacio, json) : estadisticas(json);
+            } else {
+                estado = error(405, "Método no permitido", json);
+            }
+        } else {
+            estado = error(404, "Recurso no encontrado", json);
+        }
+        return estado;
+    }
+    
+    /**
+     * Espera, si el cliente lo pide, a que el nodo alcance la posición de su última escritura
+     */
+    private boolean alcanzoPosicion(HttpExchange exchange) throws InterruptedException {
+        String posicion = exchange.getRequestHeaders().getFirst(ENCABEZADO_POSICION);
+        if (posicion == null) {
+            return true;
+        }
+        try {
+            return replicacion.esperar(Long.parseLong(posicion.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Posición inválida en " + ENCABEZADO_POSICION + ": " + posicion);
+        }
+    }
+    
+    private int listar(String espacio, String consulta, EscritorJson json) {
+        String filtro = parametro(consulta, "estado");
+        List<Tarea> tareas;
+        if (espacio != null) {
+            tareas = listarEspacio(espacio, filtro);
+        } else if (filtro == null || filtro.equals("todas")) {
+            tareas = tareaService.listarTodas();
+        } else if (filtro.equals("pendientes")) {
+            tareas = tareaService.listarPendientes();
+        } else if (filtro.equals("completadas")) {
+            tareas = tareaService.listarCompletadas();
+        } else if (filtro.equals("vencidas")) {
+            tareas = tareaService.listarVencidas();
+        } else if (filtro.equals("disponibles")) {
+            tareas = tareaService.listarDisponibles();
+        } else {
+            throw new IllegalArgumentException(
+                "Estado inválido: use 'pendientes', 'completadas', 'vencidas', 'disponibles' o 'todas'");
+        }
+        json.abrirArreglo();
+        for (int i = 0; i < tareas.size(); i++) {
+            if (i > 0) {
+                json.coma();
+            }
+            escribirTarea(tareas.get(i), json);
+        }
+        json.cerrarArreglo();
+        return 200;
+    }
+    
+    private List<Tarea> listarEspacio(String espacio, String filtro) {
+        if (filtro == null || filtro.equals("todas")) {
+            return espacios.listarFiltradas(espacio, t -> true);
+        } else if (filtro.equals("pendientes")) {
+            return espacios.listarFiltradas(espacio, t -> !t.isCompletada());
+        } else if (filtro.equals("completadas")) {
+            return espacios.listarFiltradas(espacio, Tarea::isCompletada);
+        } else if (filtro.equals("vencidas")) {
+            return espacios.listarVencidas(espacio);
+        }
+        throw new IllegalArgumentException(
+            "Estado inválido: use 'pendientes', 'completadas', 'vencidas' o 'todas'");
+    }
+    
+    private int crear(String espacio, HttpExchange exchange, EscritorJson json) throws IOException {
+        byte[] cuerpo = CUERPO.get();
+        int longitud = leerCuerpo(exchange.getRequestBody(), cuerpo);
+        
+        String descripcion = null;
+        String prioridad = null;
+        String vencimiento = null;
+        List<Long> dependencias = List.of();
+        LectorJson lector = new LectorJson(cuerpo, longitud);
+        while (lector.siguienteCampo()) {
+            if (lector.claveEs("descripcion")) {
+                descripcion = lector.texto();
+            } else if (lector.claveEs("prioridad")) {
+                prioridad = lector.texto();
+            } else if (lector.claveEs("vencimiento")) {
+                vencimiento = lector.texto();
+            } else if (lector.claveEs("dependencias")) {
+                dependencias = lector.numeros();
+            } else {
+                lector.saltarValor();
+            }
+        }
+        
+        Tarea tarea;
+        if (espacio == null) {
+            tarea = tareaService.agregarTarea(descripcion, prioridad(prioridad), fecha(vencimiento),
+                Set.copyOf(dependencias));
+        } else if (dependencias.isEmpty()) {
+            tarea = espacios.agregarTarea(espacio, descripcion, prioridad(prioridad), fecha(vencimiento));
+        } else {
+            throw new IllegalArgumentException("Las tareas de un espacio no admiten dependencias");
+        }
+        escribirTarea(tarea, json);
+        return 201;
+    }
+    
+    private int completar(String espacio, String ruta, EscritorJson json) {
+        int inicio = RUTA_TAREAS.length() + 1;
+        int fin = ruta.length() - SUFIJO_COMPLETAR.length();
+        if (fin <= inicio) {
+            return error(404, "Recurso no encontrado", json);
+        }
+        long id;
+        try {
+            id = Long.parseLong(ruta, inicio, fin, 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ID de tarea inválido: " + ruta.substring(inicio, fin));
+        }
+        escribirTarea(espacio != null ? espacios.marcarComoCompletada(espacio, id)
+            : tareaService.marcarComoCompletada(id), json);
+        return 200;
+    }
+    
+    private int estadisticas(EscritorJson json) {
+        Map<String, Object> stats = tareaService.obtenerEstadisticas();
+        json.abrirObjeto();
+        json.campo("total").numero(((Number) stats.get("total")).longValue()).coma();
+        json.campo("completadas").numero(((Number) stats.get("completadas")).longValue()).coma();
+        json.campo("pendientes").numero(((Number) stats.get("pendientes")).longValue()).coma();
+        json.campo("porcentajeCompletadas")
+            .decimal(((Number) stats.get("porcentajeCompletadas")).doubleValue()).coma();
+        json.campo("altaPrioridad").numero(((Number) stats.get("altaPrioridad")).longValue()).coma();
+        json.campo("mediaPrioridad").numero(((Number) stats.get("mediaPrioridad")).longValue()).coma();
+        json.campo("bajaPrioridad").numero(((Number) stats.get("bajaPrioridad")).longValue()).coma();
+        json.campo("limiteMaximo").numero(((Number) stats.get("limiteMaximo")).longValue()).coma();
+        json.campo("espacioDisponible").numero(((Number) stats.get("espacioDisponible")).longValue()).coma();
+        json.campo("disponibles").numero(((Number) stats.get("disponibles")).longValue()).coma();
+        json.campo("vencidas").numero(((Number) stats.get("vencidas")).longValue()).coma();
+        json.campo("vencimientosNotificados")
+            .numero(((Number) stats.get("vencimientosNotificados")).longValue()).coma();
+        json.campo("recordatoriosNotificados")
+            .numero(((Number) stats.get("recordatoriosNotificados")).longValue()).coma();
+        json.campo("descripcionesUnicas").numero(((Number) stats.get("descripcionesUnicas")).longValue()).coma();
+        json.campo("bytesAhorradosDescripciones")
+            .numero(((Number) stats.get("bytesAhorradosDescripciones")).longValue());
+        json.cerrarObjeto();
+        return 200;
+    }
+    
+    private int estadisticas(String espacio, EscritorJson json) {
+        GestorEspacios.EstadisticasEspacio stats = espacios.obtenerEstadisticas(espacio);
+        ResumenTareas resumen = stats.resumen();
+        json.abrirObjeto();
+        json.campo("espacio").texto(stats.espacio()).coma();
+        json.campo("total").numero(resumen.total()).coma();
+        json.campo("completadas").numero(resumen.completadas()).coma();
+        json.campo("pendientes").numero(resumen.pendientes()).coma();
+        json.campo("altaPrioridad").numero(resumen.altaPrioridad()).coma();
+        json.campo("mediaPrioridad").numero(resumen.mediaPrioridad()).coma();
+        json.campo("bajaPrioridad").numero(resumen.bajaPrioridad()).coma();
+        json.campo("limiteMaximo").numero(stats.limiteMaximo()).coma();
+        json.campo("espacioDisponible").numero(stats.espacioDisponible());
+        json.cerrarObjeto();
+        return 200;
+    }
+    
+    private static void escribirTarea(Tarea tarea, EscritorJson json) {
+        json.abrirObjeto()
+            .campo("id").numero(tarea.getId()).coma()
+            .campo("descripcion").texto(tarea.getDescripcion()).coma()
+            .campo("completada").booleano(tarea.isCompletada()).coma()
+            .campo("prioridad").texto(tarea.getPrioridad() != null ? tarea.getPrioridad().name() : null).coma()
+            .campo("fechaCreacion").texto(texto(tarea.getFechaCreacion())).coma()
+            .campo("fechaVencimiento").texto(texto(tarea.getFechaVencimiento())).coma()
+            .campo("fechaCompletada").texto(texto(tarea.getFechaCompletada())).coma()
+            .campo("dependencias").abrirArreglo();
+        if (!tarea.getDependencias().isEmpty()) {
+            // Ordenadas, para que la respuesta no dependa del orden interno del conjunto
+            long[] dependencias = tarea.getDependencias().stream().mapToLong(Long::longValue).sorted().toArray();
+            for (int i = 0; i < dependencias.length; i++) {
+                if (i > 0) {
+                    json.coma();
+                }
+                json.numero(dependencias[i]);
+            }
+        }
+        json.cerrarArreglo().cerrarObjeto();
+    }
+    
+    private static String texto(Instant fecha) {
+        return fecha != null ? fecha.toString() : null;
+    }
+    
+    /**
+     * Interpreta una fecha ISO-8601 en UTC, por ejemplo {@code 2025-12-31T23:59:00Z}
+     */
+    private static Instant fecha(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Vencimiento inválido: use el formato 2025-12-31T23:59:00Z");
+        }
+    }
+    
+    /**
+     * Interpreta la prioridad recibida; si no se indica se usa MEDIA
+     */
+    private static Prioridad prioridad(String valor) {
+        if (valor == null) {
+            return Prioridad.MEDIA;
+        }
+        try {
+            return Prioridad.valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Prioridad inválida: use ALTA, MEDIA o BAJA");
+        }
+    }
+    
+    /**
+     * Busca un parámetro en la query sin decodificarla; los valores admitidos
+     * son palabras ASCII
+     */
+    private static String parametro(String consulta, String nombre) {
+        if (consulta == null) {
+            return null;
+        }
+        int inicio = 0;
+        while (inicio < consulta.length()) {
+            int fin = consulta.indexOf('&', inicio);
+            if (fin < 0) {
+                fin = consulta.length();
+            }
+            if (fin - inicio > nombre.length()
+                    && consulta.startsWith(nombre, inicio)
+                    && consulta.charAt(inicio + nombre.length()) == '=') {
+                return consulta.substring(inicio + nombre.length() + 1, fin);
+            }
+            inicio = fin + 1;
+        }
+        return null;
+    }
+    
+    private static int leerCuerpo(InputStream entrada, byte[] cuerpo) throws IOException {
+        int longitud = 0;
+        int leidos;
+        while ((leidos = entrada.read(cuerpo, longitud, cuerpo.length - longitud)) > 0) {
+            longitud += leidos;
+            if (longitud == cuerpo.length && entrada.read() >= 0) {
+                throw new IllegalArgumentException(
+                    String.format("El cuerpo supera el máximo de %d bytes", MAX_CUERPO));
+            }
+        }
+        return longitud;
+    }
+    
+    private static int error(int estado, String mensaje, EscritorJson json) {
+        json.reiniciar().abrirObjeto().campo("error").texto(mensaje).cerrarObjeto();
+        return estado;
+    }
+    
+    private static void responderError(HttpExchange exchange, int estado, String mensaje, EscritorJson json) {
+        try {
+            responder(exchange, error(estado, mensaje, json), json);
+        } catch (IOException e) {
+            logger.debug("No se pudo enviar el error {} a {}", estado, exchange.getRequestURI(), e);
+        }
+    }
+    
+    private static void responder(HttpExchange exchange, int estado, EscritorJson json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(estado, json.longitud());
+        try (OutputStream salida = exchange.getResponseBody()) {
+            salida.write(json.bytes(), 0, json.longitud());
+        }
+    }
+}
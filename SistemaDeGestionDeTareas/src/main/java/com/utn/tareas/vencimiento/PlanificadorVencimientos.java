@@ -0,0 +1,322 @@
+package com.utn.tareas.vencimiento;
+
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.TareaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detecta las tareas que alcanzan su fecha límite sin recorrer el repositorio.
+ * <p>
+ * Cada tarea pendiente con vencimiento tiene hasta dos temporizadores en una
+ * {@link RuedaTemporizadora}: el recordatorio ({@code app.vencimientos.recordatorio-ms}
+ * antes) y el vencimiento. Un único hilo avanza la rueda cada
+ * {@code app.vencimientos.resolucion-ms} y publica
+ * {@link RecordatorioVencimientoEvent} y {@link TareaVencidaEvent}; programar,
+ * cancelar y disparar cuesta O(1) por tarea, sin una entrada por tarea en un
+ * {@link ScheduledExecutorService}.
+ * <p>
+ * El conjunto de tareas vencidas se mantiene al disparar y al cancelar, así que
+ * consultarlo no recorre todas las tareas. Una tarea creada con un vencimiento
+ * ya pasado se cuenta como vencida de inmediato. Quien modifica las tareas
+ * ({@code TareaService} y, en un seguidor, {@code ClienteReplicacion}) avisa
+ * con {@link #programar} o {@link #cancelar}.
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+@Component
+public class PlanificadorVencimientos implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanificadorVencimientos.class);
+
+    private final TareaRepository repositorio;
+
+    private final ApplicationEventPublisher eventos;
+
+    private final Clock reloj;
+
+    private final long resolucionMs;
+
+    private final long anticipacionRecordatorioMs;
+
+    /**
+     * Rueda y programaciones por ID de tarea; se modifican bajo el monitor. Las
+     * programaciones se consultan sin tomarlo, para no serializar las altas y
+     * los completados de tareas sin vencimiento.
+     */
+    private RuedaTemporizadora<Aviso> rueda;
+
+    private final Map<Long, Programacion> programaciones = new ConcurrentHashMap<>();
+
+    /**
+     * IDs de las tareas vencidas; se lee sin tomar el monitor
+     */
+    private final Set<Long> vencidas = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong vencimientosNotificados = new AtomicLong();
+
+    private final AtomicLong recordatoriosNotificados = new AtomicLong();
+
+    private ScheduledExecutorService ejecutor;
+
+    /**
+     * Constructor con inyección de dependencias
+     *
+     * @param repositorio Repositorio de tareas
+     * @param eventos Publicador de los eventos de vencimiento
+     * @param reloj Reloj de la aplicación
+     * @param resolucionMs Duración de un tick de la rueda
+     * @param anticipacionRecordatorioMs Anticipación del recordatorio; 0 lo desactiva
+     */
+    public PlanificadorVencimientos(TareaRepository repositorio, ApplicationEventPublisher eventos, Clock reloj,
+                                    @Value("${app.vencimientos.resolucion-ms:1000}") long resolucionMs,
+                                    @Value("${app.vencimientos.recordatorio-ms:3600000}") long anticipacionRecordatorioMs) {
+        this.repositorio = repositorio;
+        this.eventos = eventos;
+        this.reloj = reloj;
+        this.resolucionMs = resolucionMs;
+        this.anticipacionRecordatorioMs = anticipacionRecordatorioMs;
+        this.rueda = new RuedaTemporizadora<>(resolucionMs, reloj.millis());
+    }
+
+    @Override
+    public synchronized void start() {
+        // Una sola vez al iniciar; después los cambios llegan por programar y cancelar
+        reprogramarTodas(repositorio.listarFiltradas(t -> !t.isCompletada() && t.getFechaVencimiento() != null));
+        ejecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "tareas-vencimientos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.scheduleAtFixedRate(this::avanzar, resolucionMs, resolucionMs, TimeUnit.MILLISECONDS);
+        logger.debug("Planificador de vencimientos iniciado con {} temporizadores", rueda.cantidad());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return ejecutor != null;
+    }
+
+    /**
+     * Programa el recordatorio y el vencimiento de una tarea, reemplazando los
+     * anteriores. Si la tarea está completada o no tiene vencimiento, solo los
+     * cancela, y si no tenía avisos no toma el monitor.
+     *
+     * @param tarea Tarea guardada
+     */
+    public void programar(Tarea tarea) {
+        Long id = tarea.getId();
+        boolean sinAvisos = tarea.isCompletada() || tarea.getFechaVencimiento() == null;
+        if (sinAvisos && !tieneAvisos(id)) {
+            return;
+        }
+        synchronized (this) {
+            cancelarProgramacion(id);
+            if (!sinAvisos) {
+                programarAvisos(tarea);
+            }
+        }
+    }
+
+    private void programarAvisos(Tarea tarea) {
+        Long id = tarea.getId();
+        long vencimiento = tarea.getFechaVencimiento().toEpochMilli();
+        long ahora = reloj.millis();
+        Programacion programacion = new Programacion();
+        programacion.vencimiento = rueda.programar(new Aviso(id, vencimiento, false), vencimiento);
+        long recordatorio = vencimiento - anticipacionRecordatorioMs;
+        if (anticipacionRecordatorioMs > 0 && recordatorio > ahora) {
+            programacion.recordatorio = rueda.programar(new Aviso(id, vencimiento, true), recordatorio);
+        }
+        programaciones.put(id, programacion);
+        if (vencimiento <= ahora) {
+            vencidas.add(id);
+        }
+    }
+
+    /**
+     * Cancela los avisos de una tarea completada o eliminada. Si no tenía
+     * avisos no toma el monitor.
+     *
+     * @param id ID de la tarea
+     */
+    public void cancelar(Long id) {
+        if (!tieneAvisos(id)) {
+            return;
+        }
+        synchronized (this) {
+            cancelarProgramacion(id);
+        }
+    }
+
+    /**
+     * @param id ID de la tarea
+     * @return true si la tarea tiene avisos programados o cuenta como vencida
+     */
+    private boolean tieneAvisos(Long id) {
+        return programaciones.containsKey(id) || vencidas.contains(id);
+    }
+
+    /**
+     * Descarta todos los avisos y programa los de las tareas indicadas, por
+     * ejemplo al aplicar una instantánea del líder
+     *
+     * @param tareas Todas las tareas del repositorio
+     */
+    public synchronized void reprogramarTodas(Collection<Tarea> tareas) {
+        rueda = new RuedaTemporizadora<>(resolucionMs, reloj.millis());
+        programaciones.clear();
+        vencidas.clear();
+        for (Tarea tarea : tareas) {
+            programar(tarea);
+        }
+    }
+
+    /**
+     * IDs de las tareas pendientes cuyo vencimiento ya se detectó
+     *
+     * @return Vista de solo lectura, que refleja los cambios posteriores
+     */
+    public Set<Long> idsVencidos() {
+        return Collections.unmodifiableSet(vencidas);
+    }
+
+    /**
+     * Cantidad de tareas vencidas, sin recorrer el repositorio
+     *
+     * @return Tareas pendientes cuyo vencimiento ya se detectó
+     */
+    public int contarVencidas() {
+        return vencidas.size();
+    }
+
+    /**
+     * Cantidad de temporizadores pendientes (recordatorios y vencimientos)
+     *
+     * @return Temporizadores en la rueda
+     */
+    public synchronized int getTemporizadoresProgramados() {
+        return rueda.cantidad();
+    }
+
+    /**
+     * @return Eventos de vencimiento publicados desde el inicio
+     */
+    public long getVencimientosNotificados() {
+        return vencimientosNotificados.get();
+    }
+
+    /**
+     * @return Recordatorios publicados desde el inicio
+     */
+    public long getRecordatoriosNotificados() {
+        return recordatoriosNotificados.get();
+    }
+
+    /**
+     * Avanza la rueda hasta el momento actual y publica los avisos vencidos.
+     * Lo llama el hilo del planificador en cada tick.
+     */
+    void avanzar() {
+        List<Aviso> disparados = new ArrayList<>();
+        synchronized (this) {
+            rueda.avanzar(reloj.millis(), aviso -> {
+                if (aviso.recordatorio()) {
+                    Programacion programacion = programaciones.get(aviso.id());
+                    if (programacion != null) {
+                        programacion.recordatorio = null;
+                    }
+                } else {
+                    programaciones.remove(aviso.id());
+                    vencidas.add(aviso.id());
+                }
+                disparados.add(aviso);
+            });
+        }
+        // Los eventos se publican fuera del monitor: los listeners pueden tardar
+        for (Aviso aviso : disparados) {
+            try {
+                notificar(aviso);
+            } catch (RuntimeException e) {
+                // Una excepción cancelaría las ejecuciones siguientes del ejecutor
+                logger.error("Error al notificar el vencimiento de la tarea {}", aviso.id(), e);
+            }
+        }
+    }
+
+    private void notificar(Aviso aviso) {
+        Optional<Tarea> tarea = repositorio.buscarPorId(aviso.id());
+        // La tarea pudo completarse o cambiar de vencimiento después de disparar el aviso
+        if (tarea.isEmpty() || tarea.get().isCompletada() || tarea.get().getFechaVencimiento() == null
+                || tarea.get().getFechaVencimiento().toEpochMilli() != aviso.vencimientoMs()) {
+            return;
+        }
+        if (aviso.recordatorio()) {
+            recordatoriosNotificados.incrementAndGet();
+            logger.info("La tarea {} vence el {}", aviso.id(), tarea.get().getFechaVencimiento());
+            eventos.publishEvent(new RecordatorioVencimientoEvent(tarea.get()));
+        } else {
+            vencimientosNotificados.incrementAndGet();
+            logger.warn("La tarea {} venció el {}", aviso.id(), tarea.get().getFechaVencimiento());
+            eventos.publishEvent(new TareaVencidaEvent(tarea.get()));
+        }
+    }
+
+    private void cancelarProgramacion(Long id) {
+        Programacion programacion = programaciones.remove(id);
+        if (programacion != null) {
+            rueda.cancelar(programacion.vencimiento);
+            if (programacion.recordatorio != null) {
+                rueda.cancelar(programacion.recordatorio);
+            }
+        }
+        vencidas.remove(id);
+    }
+
+    /**
+     * Dato de cada temporizador de la rueda
+     *
+     * @param id ID de la tarea
+     * @param vencimientoMs Vencimiento programado, para descartar avisos de un vencimiento anterior
+     * @param recordatorio true para el recordatorio, false para el vencimiento
+     */
+    private record Aviso(long id, long vencimientoMs, boolean recordatorio) {
+    }
+
+    /**
+     * Temporizadores pendientes de una tarea
+     */
+    private static final class Programacion {
+
+        private RuedaTemporizadora.Temporizador<Aviso> vencimiento;
+
+        private RuedaTemporizadora.Temporizador<Aviso> recordatorio;
+    }
+}
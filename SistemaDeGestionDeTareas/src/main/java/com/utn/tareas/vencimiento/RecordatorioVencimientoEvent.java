@@ -0,0 +1,15 @@
+package com.utn.tareas.vencimiento;
+
+import com.utn.tareas.model.Tarea;
+
+/**
+ * Evento publicado {@code app.vencimientos.recordatorio-ms} antes de la fecha
+ * límite de una tarea pendiente.
+ * 
+ * @param tarea Tarea próxima a vencer, tal como estaba al publicar el evento
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public record RecordatorioVencimientoEvent(Tarea tarea) {
+}
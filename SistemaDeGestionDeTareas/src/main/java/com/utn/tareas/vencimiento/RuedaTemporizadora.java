@@ -0,0 +1,259 @@
+package com.utn.tareas.vencimiento;
+
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores jerárquica.
+ * <p>
+ * El tiempo avanza en ticks de {@code resolucionMs}. Cada nivel tiene
+ * {@value #RANURAS} ranuras: una ranura del nivel 0 abarca un tick, una del
+ * nivel 1 abarca 64 ticks, una del nivel 2 abarca 4096, y así hasta
+ * {@value #NIVELES} niveles. Un temporizador se guarda en el nivel más bajo
+ * que alcanza su vencimiento, en una lista doblemente enlazada, por lo que
+ * programarlo y cancelarlo cuesta O(1) sin importar cuántos haya.
+ * <p>
+ * Al avanzar, cada vez que el nivel {@code n} completa una vuelta se vacía la
+ * ranura siguiente del nivel {@code n+1} y sus temporizadores se reubican más
+ * abajo. Cada temporizador se reubica a lo sumo una vez por nivel, así que su
+ * costo total sigue siendo constante. Los temporizadores vencen en el primer
+ * tick que no es anterior a su vencimiento: nunca antes, y a lo sumo un tick
+ * después.
+ * <p>
+ * No es segura para varios hilos: quien la usa debe sincronizar el acceso.
+ *
+ * @param <T> Tipo de dato asociado a cada temporizador
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+final class RuedaTemporizadora<T> {
+
+    static final int BITS_POR_NIVEL = 6;
+
+    static final int RANURAS = 1 << BITS_POR_NIVEL;
+
+    /**
+     * Con 8 niveles la rueda abarca 64^8 ticks: miles de años con ticks de 1 ms
+     */
+    static final int NIVELES = 8;
+
+    private static final int MASCARA = RANURAS - 1;
+
+    private final long resolucionMs;
+
+    /**
+     * Centinelas de las listas circulares de cada ranura
+     */
+    private final Temporizador<T>[][] ranuras;
+
+    /**
+     * Temporizadores programados con un vencimiento que ya pasó
+     */
+    private final Temporizador<T> inmediatos = new Temporizador<>(null, 0);
+
+    private long tickActual;
+
+    private int cantidad;
+
+    /**
+     * @param resolucionMs Duración de un tick en milisegundos
+     * @param inicioMs Momento inicial, en milisegundos desde la época
+     */
+    @SuppressWarnings("unchecked")
+    RuedaTemporizadora(long resolucionMs, long inicioMs) {
+        if (resolucionMs <= 0) {
+            throw new IllegalArgumentException("La resolución debe ser mayor que cero");
+        }
+        this.resolucionMs = resolucionMs;
+        this.tickActual = Math.floorDiv(inicioMs, resolucionMs);
+        this.ranuras = new Temporizador[NIVELES][RANURAS];
+        for (Temporizador<T>[] nivel : ranuras) {
+            for (int i = 0; i < RANURAS; i++) {
+                nivel[i] = new Temporizador<>(null, 0);
+            }
+        }
+    }
+
+    /**
+     * Programa un temporizador
+     *
+     * @param elemento Dato que se entrega al vencer
+     * @param vencimientoMs Vencimiento, en milisegundos desde la época
+     * @return Temporizador, para poder cancelarlo
+     */
+    Temporizador<T> programar(T elemento, long vencimientoMs) {
+        // Redondeo hacia arriba: un temporizador nunca vence antes de tiempo
+        Temporizador<T> temporizador = new Temporizador<>(elemento, Math.floorDiv(vencimientoMs - 1, resolucionMs) + 1);
+        ubicar(temporizador);
+        cantidad++;
+        return temporizador;
+    }
+
+    /**
+     * Cancela un temporizador que todavía no venció
+     *
+     * @param temporizador Temporizador devuelto por {@link #programar}
+     * @return true si estaba programado
+     */
+    boolean cancelar(Temporizador<T> temporizador) {
+        if (temporizador.anterior == null) {
+            return false;
+        }
+        temporizador.desenlazar();
+        cantidad--;
+        return true;
+    }
+
+    /**
+     * Avanza hasta un momento y entrega los temporizadores vencidos
+     *
+     * @param ahoraMs Momento actual, en milisegundos desde la época
+     * @param alVencer Recibe el dato de cada temporizador vencido
+     * @return Cantidad de temporizadores vencidos
+     */
+    int avanzar(long ahoraMs, Consumer<? super T> alVencer) {
+        long objetivo = Math.floorDiv(ahoraMs, resolucionMs);
+        int vencidos = vaciar(inmediatos, alVencer);
+        while (tickActual < objetivo) {
+            if (cantidad == 0) {
+                // Sin temporizadores no hay ranuras que recorrer
+                tickActual = objetivo;
+                break;
+            }
+            tickActual++;
+            cascada();
+            vencidos += vaciar(ranuras[0][(int) (tickActual & MASCARA)], alVencer);
+            vencidos += vaciar(inmediatos, alVencer);
+        }
+        return vencidos;
+    }
+
+    /**
+     * Cantidad de temporizadores programados
+     */
+    int cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Reubica las ranuras de los niveles superiores que empiezan en este tick,
+     * de arriba hacia abajo para que lo bajado de un nivel se procese en el siguiente
+     */
+    private void cascada() {
+        int nivel = 1;
+        while (nivel < NIVELES && (tickActual & ((1L << (BITS_POR_NIVEL * nivel)) - 1)) == 0) {
+            nivel++;
+        }
+        for (int n = nivel - 1; n >= 1; n--) {
+            Temporizador<T> centinela = ranuras[n][(int) ((tickActual >>> (BITS_POR_NIVEL * n)) & MASCARA)];
+            Temporizador<T> actual = centinela.separarTodos();
+            while (actual != null) {
+                Temporizador<T> siguiente = actual.siguiente;
+                actual.siguiente = null;
+                ubicar(actual);
+                actual = siguiente;
+            }
+        }
+    }
+
+    private void ubicar(Temporizador<T> temporizador) {
+        long delta = temporizador.tick - tickActual;
+        if (delta <= 0) {
+            inmediatos.enlazar(temporizador);
+            return;
+        }
+        int nivel = 0;
+        while (nivel < NIVELES - 1 && delta >= 1L << (BITS_POR_NIVEL * (nivel + 1))) {
+            nivel++;
+        }
+        long indice;
+        if (delta >= 1L << (BITS_POR_NIVEL * NIVELES)) {
+            // Fuera del alcance: espera en la última ranura de la vuelta y se reubica al llegar
+            indice = (tickActual >>> (BITS_POR_NIVEL * nivel)) + MASCARA;
+        } else {
+            indice = temporizador.tick >>> (BITS_POR_NIVEL * nivel);
+        }
+        ranuras[nivel][(int) (indice & MASCARA)].enlazar(temporizador);
+    }
+
+    private int vaciar(Temporizador<T> centinela, Consumer<? super T> alVencer) {
+        Temporizador<T> actual = centinela.separarTodos();
+        int vencidos = 0;
+        while (actual != null) {
+            Temporizador<T> siguiente = actual.siguiente;
+            actual.siguiente = null;
+            cantidad--;
+            vencidos++;
+            alVencer.accept(actual.elemento);
+            actual = siguiente;
+        }
+        return vencidos;
+    }
+
+    /**
+     * Temporizador programado. También se usa como centinela de cada lista
+     * circular: un temporizador sin lista tiene {@code anterior == null}.
+     *
+     * @param <T> Tipo de dato asociado
+     */
+    static final class Temporizador<T> {
+
+        private final T elemento;
+
+        private final long tick;
+
+        private Temporizador<T> anterior;
+
+        private Temporizador<T> siguiente;
+
+        private Temporizador(T elemento, long tick) {
+            this.elemento = elemento;
+            this.tick = tick;
+        }
+
+        /**
+         * Dato asociado al temporizador
+         */
+        T elemento() {
+            return elemento;
+        }
+
+        private void enlazar(Temporizador<T> temporizador) {
+            if (siguiente == null) {
+                // Lista vacía: el centinela apunta a sí mismo
+                anterior = this;
+                siguiente = this;
+            }
+            temporizador.anterior = anterior;
+            temporizador.siguiente = this;
+            anterior.siguiente = temporizador;
+            anterior = temporizador;
+        }
+
+        private void desenlazar() {
+            anterior.siguiente = siguiente;
+            siguiente.anterior = anterior;
+            anterior = null;
+            siguiente = null;
+        }
+
+        /**
+         * Vacía la lista de este centinela
+         *
+         * @return Primer temporizador, encadenado por {@code siguiente} y terminado en null
+         */
+        private Temporizador<T> separarTodos() {
+            if (siguiente == null || siguiente == this) {
+                return null;
+            }
+            Temporizador<T> primero = siguiente;
+            anterior.siguiente = null;
+            for (Temporizador<T> t = primero; t != null; t = t.siguiente) {
+                t.anterior = null;
+            }
+            anterior = this;
+            siguiente = this;
+            return primero;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.utn.tareas.vencimiento;
+
+import com.utn.tareas.model.Tarea;
+
+/**
+ * Evento publicado cuando una tarea pendiente alcanza su fecha límite.
+ * 
+ * @param tarea Tarea vencida, tal como estaba al publicar el evento
+ * 
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public record TareaVencidaEvent(Tarea tarea) {
+}
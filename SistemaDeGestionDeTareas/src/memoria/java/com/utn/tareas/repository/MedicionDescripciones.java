@@ -0,0 +1,74 @@
+package com.utn.tareas.repository;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mide el heap que retiene un {@link TareaRepositoryImpl} con y sin
+ * {@link PoolDescripciones}: es la medición de la tabla "Descripciones
+ * Compartidas" del README.
+ * <p>
+ * Guarda la cantidad de tareas indicada con {@value #DISTINTAS} descripciones
+ * distintas, cada una recibida como un {@code String} nuevo, como las que llegan
+ * del JSON, de la replicación o del disco. Cada configuración corre en una JVM
+ * propia ({@code gradle medirDescripciones -Pmemoria}), para que los objetos de
+ * una no se cuenten en la otra.
+ *
+ * @author Sistema de Gestión de Tareas UTN
+ * @version 1.0
+ */
+public final class MedicionDescripciones {
+
+    private static final int DISTINTAS = 500;
+
+    private MedicionDescripciones() {
+    }
+
+    /**
+     * @param args Cantidad de tareas y {@code true} para usar el pool o {@code false} para no usarlo
+     */
+    public static void main(String[] args) {
+        int cantidad = Integer.parseInt(args[0]);
+        boolean conPool = Boolean.parseBoolean(args[1]);
+
+        String[] textos = new String[DISTINTAS];
+        for (int i = 0; i < DISTINTAS; i++) {
+            textos[i] = "Revisar la documentación del módulo de facturación nº " + i;
+        }
+        Instant creacion = Instant.now();
+
+        long antes = heapUsado();
+        PoolDescripciones pool = new PoolDescripciones(conPool);
+        TareaRepositoryImpl repositorio = new TareaRepositoryImpl(pool);
+        repositorio.reemplazarTodas(List.of());
+        for (int i = 0; i < cantidad; i++) {
+            String descripcion = new String(textos[i % DISTINTAS].toCharArray());
+            repositorio.guardar(new Tarea(null, descripcion, false, Prioridad.MEDIA, creacion, null, null,
+                Set.of()));
+        }
+        long retenido = heapUsado() - antes;
+        Reference.reachabilityFence(repositorio);
+
+        System.out.printf("%s pool: %,d tareas, %d MB retenidos (%d B/tarea)%n",
+            conPool ? "Con" : "Sin", cantidad, retenido / (1024 * 1024), retenido / cantidad);
+        if (conPool) {
+            System.out.printf("Ahorro estimado por el pool: %d MB%n", pool.getBytesAhorrados() / (1024 * 1024));
+        }
+    }
+
+    /**
+     * Heap ocupado tras varias recolecciones completas, sin la basura pendiente
+     */
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,32 @@
+package com.utn.tareas.config;
+
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.service.MensajeProdService;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica las pistas registradas para la imagen nativa
+ */
+class TareasRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registraTareaMensajesYPerfiles() throws Exception {
+        new TareasRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Tarea.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Tarea.class.getMethod("getDescripcion"))
+            .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(MensajeProdService.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("application-prod.properties").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("application-servidor.properties").test(hints));
+    }
+}
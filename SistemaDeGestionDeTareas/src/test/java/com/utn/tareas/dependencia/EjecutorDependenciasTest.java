@@ -0,0 +1,91 @@
+package com.utn.tareas.dependencia;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.repository.TareaRepository;
+import com.utn.tareas.service.TareaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ejecuta un grafo de tareas real a través del servicio
+ */
+@SpringBootTest(properties = {
+    "app.salida-consola=false",
+    "app.max-tareas=50",
+    "app.dependencias.hilos=4"
+})
+class EjecutorDependenciasTest {
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private TareaRepository repositorio;
+
+    @Autowired
+    private EjecutorDependencias ejecutor;
+
+    @Test
+    void ejecutaCadaTareaDespuesDeSusDependenciasYMideElCaminoCritico() throws InterruptedException {
+        Long inicio = agregar("Relevar requisitos");
+        Long larga = agregar("Implementar backend", inicio);
+        Long corta = agregar("Maquetar pantallas", inicio);
+        Long fin = agregar("Probar integración", larga, corta);
+        Long fallida = agregar("Publicar versión preliminar");
+        Long bloqueada = agregar("Anunciar versión preliminar", fallida);
+        assertEquals(List.of(inicio, larga, fin), ejecutor.caminoCriticoPendiente());
+
+        AtomicLong reloj = new AtomicLong();
+        Map<Long, Long> terminadas = new ConcurrentHashMap<>();
+        ResultadoEjecucion resultado = ejecutor.ejecutar(tarea -> {
+            if (tarea.getId().equals(fallida)) {
+                throw new IllegalStateException("Sin acceso al repositorio de versiones");
+            }
+            if (tarea.getId().equals(larga)) {
+                dormir(Duration.ofMillis(200));
+            }
+            terminadas.put(tarea.getId(), reloj.incrementAndGet());
+        });
+
+        assertTrue(terminadas.get(inicio) < terminadas.get(larga));
+        assertTrue(terminadas.get(inicio) < terminadas.get(corta));
+        assertTrue(terminadas.get(larga) < terminadas.get(fin));
+        assertTrue(terminadas.get(corta) < terminadas.get(fin));
+        assertFalse(terminadas.containsKey(bloqueada));
+
+        assertEquals(List.of(fallida), resultado.fallidas());
+        assertEquals(1, resultado.bloqueadas());
+        assertEquals(List.of(inicio, larga, fin), resultado.caminoCritico());
+        assertTrue(resultado.duracionCaminoCritico().compareTo(Duration.ofMillis(200)) >= 0);
+        assertTrue(resultado.paralelismoMaximo() >= 1);
+
+        assertFalse(repositorio.buscarPorId(bloqueada).orElseThrow().isCompletada());
+        assertThrows(IllegalStateException.class, () -> tareaService.marcarComoCompletada(bloqueada));
+        assertThrows(IllegalArgumentException.class, () -> tareaService.agregarDependencia(fallida, bloqueada));
+    }
+
+    private Long agregar(String descripcion, Long... dependencias) {
+        return tareaService.agregarTarea(descripcion, Prioridad.MEDIA, null, Set.of(dependencias)).getId();
+    }
+
+    private static void dormir(Duration duracion) {
+        try {
+            Thread.sleep(duracion.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.utn.tareas.dependencia;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.TareaRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica el conjunto de disponibles y el rechazo de ciclos sobre un repositorio en memoria
+ */
+class GrafoDependenciasTest {
+
+    private TareaRepositoryImpl repositorio;
+    private GrafoDependencias grafo;
+
+    @BeforeEach
+    void setUp() {
+        repositorio = new TareaRepositoryImpl();
+        // Sin las tareas de ejemplo, para comparar el conjunto de disponibles completo
+        repositorio.reemplazarTodas(List.of());
+        grafo = new GrafoDependencias(repositorio);
+    }
+
+    @Test
+    void completarLiberaSoloALosSucesoresSinOtrasDependencias() {
+        Tarea a = guardar();
+        Tarea b = guardar();
+        Tarea c = guardar(a.getId());
+        Tarea d = guardar(a.getId(), b.getId());
+        assertEquals(List.of(a.getId(), b.getId()), grafo.disponibles());
+        assertEquals(List.of(a.getId(), b.getId()), grafo.bloqueantes(d.getId()));
+
+        completar(a);
+        assertEquals(List.of(b.getId(), c.getId()), grafo.disponibles());
+        assertEquals(List.of(b.getId()), grafo.bloqueantes(d.getId()));
+
+        completar(b);
+        assertEquals(List.of(c.getId(), d.getId()), grafo.disponibles());
+        assertEquals(Map.of(c.getId(), List.of(), d.getId(), List.of()), grafo.pendientes());
+    }
+
+    @Test
+    void rechazaLasDependenciasQueCierranUnCiclo() {
+        Tarea a = guardar();
+        Tarea b = guardar(a.getId());
+        Tarea c = guardar(b.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> grafo.verificarSinCiclo(a.getId(), c.getId()));
+        assertThrows(IllegalArgumentException.class, () -> grafo.verificarSinCiclo(a.getId(), a.getId()));
+        assertThrows(IllegalArgumentException.class, () -> grafo.verificarExistentes(Set.of(99L)));
+        // Depender de una tarea que no depende de ella es válido aunque ya estén conectadas
+        grafo.verificarSinCiclo(c.getId(), a.getId());
+    }
+
+    @Test
+    void agregarDependenciaVerificaYEnlazaDeUnaVez() {
+        Tarea a = guardar();
+        Tarea b = guardar();
+
+        assertEquals(Set.of(a.getId()), grafo.agregarDependencia(b.getId(), a.getId()));
+        assertEquals(List.of(a.getId()), grafo.bloqueantes(b.getId()));
+        assertEquals(List.of(a.getId()), grafo.disponibles());
+        // La opuesta cerraría un ciclo con la que ya quedó en el grafo
+        assertThrows(IllegalArgumentException.class, () -> grafo.agregarDependencia(a.getId(), b.getId()));
+        assertEquals(Set.of(a.getId()), grafo.agregarDependencia(b.getId(), a.getId()));
+    }
+
+    @Test
+    void reconstruirIgnoraElOrdenDeLasTareas() {
+        Tarea a = guardar();
+        Tarea b = guardar(a.getId());
+        completar(a);
+
+        GrafoDependencias reconstruido = new GrafoDependencias(repositorio);
+        reconstruido.reconstruir(List.of(b, a));
+        assertEquals(List.of(b.getId()), reconstruido.disponibles());
+
+        reconstruido.quitar(a.getId());
+        assertEquals(List.of(), reconstruido.bloqueantes(b.getId()));
+        assertEquals(List.of(b.getId()), reconstruido.disponibles());
+    }
+
+    private Tarea guardar(Long... dependencias) {
+        Tarea tarea = new Tarea(null, "Tarea", false, Prioridad.MEDIA, Instant.now(), null, null,
+            Set.of(dependencias));
+        repositorio.guardar(tarea);
+        grafo.registrar(tarea);
+        return tarea;
+    }
+
+    private void completar(Tarea tarea) {
+        tarea.setCompletada(true);
+        repositorio.guardar(tarea);
+        grafo.registrar(tarea);
+    }
+}
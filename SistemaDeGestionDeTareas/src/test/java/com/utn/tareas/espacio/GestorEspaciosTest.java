@@ -0,0 +1,149 @@
+package com.utn.tareas.espacio;
+
+import com.utn.tareas.exception.TareaNoEncontradaException;
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.PoolDescripciones;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el aislamiento entre espacios y su desalojo a disco, sin el hilo de revisión
+ */
+class GestorEspaciosTest {
+
+    @TempDir
+    Path directorio;
+
+    private final Instant inicio = Instant.parse("2025-03-10T12:00:00Z");
+    private GestorEspacios gestor;
+
+    @BeforeEach
+    void setUp() {
+        gestor = nuevoGestor(Clock.fixed(inicio, ZoneOffset.UTC), 3);
+    }
+
+    @Test
+    void cadaEspacioTieneSusPropiosIdsLimiteYEstadisticas() {
+        Tarea deAna = gestor.agregarTarea("ana", "Estudiar", Prioridad.ALTA, null);
+        Tarea deEquipo = gestor.agregarTarea("equipo-1", "Planificar sprint", Prioridad.MEDIA, null);
+        assertEquals(1L, deAna.getId());
+        assertEquals(1L, deEquipo.getId());
+
+        gestor.agregarTarea("ana", "Repasar", Prioridad.BAJA, null);
+        gestor.agregarTarea("ana", "Entregar", Prioridad.BAJA, null);
+        assertThrows(IllegalStateException.class, () -> gestor.agregarTarea("ana", "Una más", Prioridad.BAJA, null));
+        gestor.agregarTarea("equipo-1", "Otra del equipo", Prioridad.BAJA, null);
+
+        gestor.marcarComoCompletada("ana", 1L);
+        GestorEspacios.EstadisticasEspacio ana = gestor.obtenerEstadisticas("ana");
+        assertEquals(3, ana.resumen().total());
+        assertEquals(1, ana.resumen().completadas());
+        assertEquals(0, ana.espacioDisponible());
+        assertEquals(2, gestor.obtenerEstadisticas("equipo-1").resumen().total());
+
+        assertThrows(TareaNoEncontradaException.class, () -> gestor.marcarComoCompletada("equipo-1", 3L));
+        assertThrows(IllegalArgumentException.class, () -> gestor.listarFiltradas("../otro", t -> true));
+    }
+
+    @Test
+    void unEspacioInactivoSeGuardaYSeVuelveACargar() {
+        Instant vencimiento = inicio.minus(Duration.ofDays(1));
+        gestor.agregarTarea("ana", "Atrasada", Prioridad.ALTA, vencimiento);
+        gestor.definirLimite("ana", 10);
+        gestor.listarFiltradas("sin-cambios", t -> true);
+        assertEquals(2, gestor.getEspaciosEnMemoria());
+
+        gestor.revisar();
+        assertEquals(0, gestor.getEspaciosEnMemoria());
+        assertEquals(2, gestor.getDesalojos());
+        assertTrue(Files.exists(directorio.resolve("ana.tareas")));
+        assertFalse(Files.exists(directorio.resolve("sin-cambios.tareas")));
+
+        // Otra instancia sobre el mismo directorio, como tras reiniciar la aplicación
+        gestor = nuevoGestor(Clock.fixed(inicio, ZoneOffset.UTC), 3);
+        Tarea tarea = gestor.agregarTarea("ana", "Nueva", Prioridad.BAJA, null);
+        assertEquals(2L, tarea.getId());
+        assertEquals(10, gestor.obtenerEstadisticas("ana").limiteMaximo());
+        List<Tarea> vencidas = gestor.listarVencidas("ana");
+        assertEquals(1, vencidas.size());
+        assertEquals(vencimiento, vencidas.get(0).getFechaVencimiento());
+        assertEquals(inicio, vencidas.get(0).getFechaCreacion());
+    }
+
+    @Test
+    void unaDescripcionDeMasDe64KbSeGuardaYSeVuelveACargar() {
+        String larga = "ñ".repeat(40_000); // 80.000 bytes en UTF-8
+        gestor.agregarTarea("ana", larga, Prioridad.MEDIA, null);
+
+        gestor.revisar();
+        assertEquals(1, gestor.getDesalojos(), "El espacio no se pudo guardar");
+
+        gestor = nuevoGestor(Clock.fixed(inicio, ZoneOffset.UTC), 3);
+        assertEquals(larga, gestor.listarFiltradas("ana", t -> true).get(0).getDescripcion());
+    }
+
+    @Test
+    void unEspacioQueNoSePudoCargarSeVuelveAIntentar() throws Exception {
+        Files.createDirectories(directorio);
+        Files.write(directorio.resolve("ana.tareas"), new byte[] {1, 2, 3});
+
+        assertThrows(UncheckedIOException.class, () -> gestor.listarFiltradas("ana", t -> true));
+        assertEquals(0, gestor.getEspaciosEnMemoria());
+
+        Files.delete(directorio.resolve("ana.tareas"));
+        assertEquals(1L, gestor.agregarTarea("ana", "Nueva", Prioridad.BAJA, null).getId());
+    }
+
+    @Test
+    void losUsosConcurrentesNoPierdenTareasAunqueSeDesalojeElEspacio() throws Exception {
+        gestor = nuevoGestor(Clock.fixed(inicio, ZoneOffset.UTC), 10_000);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> envios = new ArrayList<>();
+            for (int hilo = 0; hilo < 4; hilo++) {
+                String espacio = "espacio-" + (hilo % 2);
+                envios.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        gestor.agregarTarea(espacio, "Tarea " + i, Prioridad.MEDIA, null);
+                    }
+                }));
+            }
+            while (envios.stream().anyMatch(f -> !f.isDone())) {
+                gestor.revisar();
+            }
+            for (Future<?> envio : envios) {
+                envio.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1000, gestor.obtenerEstadisticas("espacio-0").resumen().total());
+        assertEquals(1000, gestor.listarFiltradas("espacio-1", t -> true).size());
+        assertTrue(gestor.getCargas() > 2, "los espacios deberían haberse desalojado y recargado");
+    }
+
+    private GestorEspacios nuevoGestor(Clock reloj, int limite) {
+        // Inactividad negativa: cada revisión desaloja todos los espacios que no se están usando
+        return new GestorEspacios(reloj, new PoolDescripciones(), directorio, limite, -1, 10_000, 1000);
+    }
+}
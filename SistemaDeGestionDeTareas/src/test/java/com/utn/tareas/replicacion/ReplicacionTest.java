@@ -0,0 +1,160 @@
+package com.utn.tareas.replicacion;
+
+import com.utn.tareas.TareasApplication;
+import com.utn.tareas.servidor.ServidorHttpTareas;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Levanta un líder y un seguidor en la misma JVM, cada uno con su contexto,
+ * su puerto HTTP y la conexión de replicación por TCP
+ */
+class ReplicacionTest {
+
+    private static final HttpClient cliente = HttpClient.newHttpClient();
+
+    private static ConfigurableApplicationContext lider;
+    private static ConfigurableApplicationContext seguidor;
+
+    @BeforeAll
+    static void iniciar() {
+        lider = nodo("--app.replicacion.rol=lider", "--app.replicacion.puerto=0",
+            "--app.replicacion.historial=4");
+        int puertoReplicacion = lider.getBean(ServidorReplicacion.class).getPuerto();
+        seguidor = nodo("--app.replicacion.rol=seguidor",
+            "--app.replicacion.lider=localhost:" + puertoReplicacion,
+            "--app.replicacion.espera-maxima-ms=5000");
+    }
+
+    @AfterAll
+    static void detener() {
+        seguidor.close();
+        lider.close();
+    }
+
+    @Test
+    void elSeguidorLeeLasEscriturasDelLider() throws Exception {
+        HttpResponse<String> creada = enviar(lider, "POST", "/tareas",
+            "{\"descripcion\": \"Replicar al seguidor\", \"prioridad\": \"ALTA\"}", null);
+        assertEquals(201, creada.statusCode());
+        String posicion = creada.headers().firstValue("X-Tareas-Posicion").orElseThrow();
+
+        HttpResponse<String> leida = enviar(seguidor, "GET", "/tareas", null, posicion);
+        assertEquals(200, leida.statusCode());
+        assertTrue(leida.body().contains("Replicar al seguidor"), leida.body());
+        assertTrue(Long.parseLong(leida.headers().firstValue("X-Tareas-Posicion").orElseThrow())
+            >= Long.parseLong(posicion));
+    }
+
+    @Test
+    void elSeguidorRechazaEscrituras() throws Exception {
+        HttpResponse<String> respuesta = enviar(seguidor, "POST", "/tareas",
+            "{\"descripcion\": \"No se acepta\"}", null);
+        assertEquals(409, respuesta.statusCode());
+        assertTrue(respuesta.body().contains("solo lectura"), respuesta.body());
+
+        HttpResponse<String> completar = enviar(seguidor, "POST", "/tareas/1/completar", "", null);
+        assertEquals(409, completar.statusCode());
+        assertFalse(enviar(seguidor, "GET", "/tareas?estado=completadas", null, null).body()
+            .contains("\"id\":1,"));
+    }
+
+    @Test
+    void elSeguidorContinuaDesdeSuPosicionAlReconectarse() throws Exception {
+        sincronizar();
+        ClienteReplicacion cliente = seguidor.getBean(ClienteReplicacion.class);
+        int instantaneas = cliente.getInstantaneasAplicadas();
+
+        lider.getBean(ServidorReplicacion.class).cerrarConexiones();
+        // Menos cambios que el historial del líder: el seguidor no necesita instantánea
+        crear("Durante la desconexión A");
+        crear("Durante la desconexión B");
+
+        assertEquals(estadisticas(lider), estadisticas(seguidor, sincronizar()));
+        assertEquals(instantaneas, cliente.getInstantaneasAplicadas());
+    }
+
+    @Test
+    void elSeguidorConvergeAunqueElLiderDescarteCambios() throws Exception {
+        sincronizar();
+        lider.getBean(ServidorReplicacion.class).cerrarConexiones();
+        // Más cambios que el historial: según cuándo se reconecte el seguidor,
+        // continúa desde su posición o recibe una instantánea
+        for (int i = 0; i < 6; i++) {
+            crear("Historial excedido " + i);
+        }
+        assertEquals(201, crear("Otra más").statusCode());
+        enviar(lider, "POST", "/tareas/2/completar", "", null);
+
+        assertEquals(estadisticas(lider), estadisticas(seguidor, sincronizar()));
+    }
+
+    @Test
+    void respondeServicioNoDisponibleSiNoAlcanzaLaPosicion() throws Exception {
+        HttpResponse<String> respuesta = enviar(seguidor, "GET", "/tareas", null,
+            String.valueOf(Long.MAX_VALUE));
+        assertEquals(503, respuesta.statusCode());
+    }
+
+    private static HttpResponse<String> crear(String descripcion) throws IOException, InterruptedException {
+        return enviar(lider, "POST", "/tareas", "{\"descripcion\": \"" + descripcion + "\"}", null);
+    }
+
+    /**
+     * Espera a que el seguidor alcance la posición actual del líder
+     *
+     * @return La posición del líder
+     */
+    private static String sincronizar() throws IOException, InterruptedException {
+        String posicion = enviar(lider, "GET", "/estadisticas", null, null)
+            .headers().firstValue("X-Tareas-Posicion").orElseThrow();
+        assertEquals(200, enviar(seguidor, "GET", "/estadisticas", null, posicion).statusCode());
+        return posicion;
+    }
+
+    /**
+     * Estadísticas sin el límite de tareas, que cada nodo configura por su cuenta
+     */
+    private static String estadisticas(ConfigurableApplicationContext nodo, String posicion)
+            throws IOException, InterruptedException {
+        return enviar(nodo, "GET", "/estadisticas", null, posicion).body().replaceAll(",\"limiteMaximo.*", "");
+    }
+
+    private static String estadisticas(ConfigurableApplicationContext nodo) throws IOException, InterruptedException {
+        return estadisticas(nodo, null);
+    }
+
+    private static ConfigurableApplicationContext nodo(String... argumentos) {
+        String[] comunes = {"--spring.profiles.active=prod,servidor", "--app.servidor.puerto=0"};
+        String[] todos = new String[comunes.length + argumentos.length];
+        System.arraycopy(comunes, 0, todos, 0, comunes.length);
+        System.arraycopy(argumentos, 0, todos, comunes.length, argumentos.length);
+        return new SpringApplicationBuilder(TareasApplication.class).run(todos);
+    }
+
+    private static HttpResponse<String> enviar(ConfigurableApplicationContext nodo, String metodo, String ruta,
+                                               String cuerpo, String posicion)
+            throws IOException, InterruptedException {
+        int puerto = nodo.getBean(ServidorHttpTareas.class).getPuerto();
+        HttpRequest.Builder solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+            .method(metodo, cuerpo != null
+                ? HttpRequest.BodyPublishers.ofString(cuerpo) : HttpRequest.BodyPublishers.noBody());
+        if (posicion != null) {
+            solicitud.header("X-Tareas-Posicion", posicion);
+        }
+        return cliente.send(solicitud.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
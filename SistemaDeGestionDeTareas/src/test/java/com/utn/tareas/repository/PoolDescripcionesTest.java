@@ -0,0 +1,59 @@
+package com.utn.tareas.repository;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que las descripciones repetidas compartan instancia y que el pool
+ * libere las que ya no se usan
+ */
+class PoolDescripcionesTest {
+
+    @Test
+    void lasTareasConLaMismaDescripcionCompartenElTexto() {
+        PoolDescripciones pool = new PoolDescripciones();
+        TareaRepositoryImpl repositorio = new TareaRepositoryImpl(pool);
+        Tarea primera = new Tarea(null, new String("Realizar pruebas de carga"), false, Prioridad.ALTA);
+        Tarea segunda = new Tarea(null, new String("Realizar pruebas de carga"), false, Prioridad.BAJA);
+        assertNotSame(primera.getDescripcion(), segunda.getDescripcion());
+
+        repositorio.guardar(primera);
+        repositorio.guardar(segunda);
+        assertSame(primera.getDescripcion(), segunda.getDescripcion());
+        assertEquals(1, pool.getAciertos());
+        // 24 + 16 + 25 bytes Latin-1, alineado a 8
+        assertEquals(72, pool.getBytesAhorrados());
+
+        // Volver a guardar la misma tarea no cuenta como ahorro
+        repositorio.guardar(segunda);
+        assertEquals(1, pool.getAciertos());
+    }
+
+    @Test
+    void liberaLosTextosQueYaNoSeUsan() throws InterruptedException {
+        PoolDescripciones pool = new PoolDescripciones();
+        for (int i = 0; i < 1000; i++) {
+            pool.internar("Tarea temporal " + i);
+        }
+        for (int intento = 0; intento < 50 && pool.getUnicas() > 0; intento++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertTrue(pool.getUnicas() < 1000, "el recolector debería liberar los textos sin referencias");
+    }
+
+    @Test
+    void desactivadoGuardaCadaTextoTalComoLlega() {
+        PoolDescripciones pool = new PoolDescripciones(false);
+        String texto = new String("Revisar PR");
+        assertSame(texto, pool.internar(texto));
+        assertNotSame(texto, pool.internar(new String("Revisar PR")));
+        assertEquals(0, pool.getSolicitudes());
+    }
+}
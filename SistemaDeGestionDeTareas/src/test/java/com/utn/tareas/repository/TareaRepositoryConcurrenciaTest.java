@@ -0,0 +1,130 @@
+package com.utn.tareas.repository;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Usa los repositorios en memoria desde muchos hilos a la vez; se repite con
+ * una partición ({@link TareaRepositoryImpl}) y con varias
+ * ({@link TareaRepositoryParticionado})
+ */
+class TareaRepositoryConcurrenciaTest {
+
+    private static final int HILOS = 8;
+
+    private static final int ALTAS_POR_HILO = 5_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    void cadaIdSeAsignaUnaSolaVez(int particiones) throws Exception {
+        TareaRepositoryLocal repositorio = crear(particiones);
+        List<List<Long>> porHilo = enParalelo(() -> {
+            List<Long> ids = new ArrayList<>(ALTAS_POR_HILO);
+            for (int i = 0; i < ALTAS_POR_HILO; i++) {
+                Tarea tarea = new Tarea(null, "Alta concurrente", false, Prioridad.MEDIA);
+                repositorio.guardar(tarea);
+                ids.add(tarea.getId());
+            }
+            return ids;
+        });
+
+        Set<Long> ids = new HashSet<>();
+        porHilo.forEach(ids::addAll);
+        int esperadas = 5 + HILOS * ALTAS_POR_HILO;
+        assertEquals(HILOS * ALTAS_POR_HILO, ids.size());
+        assertEquals(esperadas, repositorio.contar());
+        assertEquals(esperadas, repositorio.listarTodas().size());
+        assertEquals(esperadas, repositorio.resumir().total());
+        if (particiones == 1) {
+            // Con un solo generador los IDs no dejan huecos
+            assertEquals(esperadas, ids.stream().mapToLong(Long::longValue).max().orElseThrow());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    void cadaOperacionVeLaAnteriorDelMismoHilo(int particiones) throws Exception {
+        TareaRepositoryLocal repositorio = crear(particiones);
+        AtomicBoolean terminado = new AtomicBoolean();
+        ExecutorService lector = Executors.newSingleThreadExecutor();
+        // Mientras tanto, los recorridos nunca ven tareas nulas ni un conteo imposible
+        Future<Integer> recorridos = lector.submit(() -> {
+            int vueltas = 0;
+            while (!terminado.get()) {
+                for (Tarea tarea : repositorio.listarFiltradas(t -> true)) {
+                    assertTrue(tarea.getId() != null && tarea.getDescripcion() != null);
+                }
+                long total = repositorio.resumir().total();
+                assertTrue(total >= 5 && total <= 5 + HILOS, "total imposible: " + total);
+                vueltas++;
+            }
+            return vueltas;
+        });
+        try {
+            enParalelo(() -> {
+                for (int i = 0; i < ALTAS_POR_HILO; i++) {
+                    Tarea tarea = new Tarea(null, "Temporal", false, Prioridad.BAJA);
+                    repositorio.guardar(tarea);
+                    Optional<Tarea> encontrada = repositorio.buscarPorId(tarea.getId());
+                    assertSame(tarea, encontrada.orElseThrow());
+                    repositorio.eliminar(tarea.getId());
+                    assertFalse(repositorio.buscarPorId(tarea.getId()).isPresent());
+                }
+                return null;
+            });
+        } finally {
+            terminado.set(true);
+            lector.shutdown();
+        }
+        assertTrue(recorridos.get() > 0);
+        assertEquals(5, repositorio.contar());
+        assertEquals(5, repositorio.listarTodas().size());
+    }
+
+    private static TareaRepositoryLocal crear(int particiones) {
+        return particiones == 1 ? new TareaRepositoryImpl() : new TareaRepositoryParticionado(particiones);
+    }
+
+    /**
+     * Ejecuta la misma acción en {@link #HILOS} hilos que arrancan a la vez
+     */
+    static <T> List<T> enParalelo(Callable<T> accion) throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        CyclicBarrier largada = new CyclicBarrier(HILOS);
+        try {
+            List<Future<T>> resultados = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                resultados.add(hilos.submit(() -> {
+                    largada.await();
+                    return accion.call();
+                }));
+            }
+            List<T> valores = new ArrayList<>();
+            for (Future<T> resultado : resultados) {
+                valores.add(resultado.get());
+            }
+            return valores;
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.utn.tareas.repository;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.ResumenTareas;
+import com.utn.tareas.model.Tarea;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el repositorio particionado sin levantar el contexto de Spring
+ */
+class TareaRepositoryParticionadoTest {
+
+    @Test
+    void conservaLosIdsDeLosDatosDeEjemplo() {
+        TareaRepositoryParticionado repositorio = new TareaRepositoryParticionado(3);
+
+        List<Tarea> tareas = repositorio.listarTodas();
+        assertEquals(5, repositorio.contar());
+        for (int i = 0; i < tareas.size(); i++) {
+            assertEquals(i + 1, tareas.get(i).getId());
+        }
+        assertEquals("Realizar pruebas unitarias", repositorio.buscarPorId(4L).orElseThrow().getDescripcion());
+    }
+
+    @Test
+    void altasConcurrentesRecibenIdsUnicos() throws Exception {
+        TareaRepositoryParticionado repositorio = new TareaRepositoryParticionado(4);
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < 4; h++) {
+                tareas.add(hilos.submit(() -> {
+                    for (int i = 0; i < 2500; i++) {
+                        repositorio.guardar(new Tarea(null, "Tarea " + i, i % 3 == 0, Prioridad.BAJA));
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            hilos.shutdown();
+        }
+
+        // Más tareas que el umbral: los listados se reparten con fork-join
+        List<Tarea> todas = repositorio.listarTodas();
+        assertEquals(10_005, repositorio.contar());
+        assertEquals(10_005, todas.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < todas.size(); i++) {
+            assertTrue(ids.add(todas.get(i).getId()));
+            if (i > 0) {
+                assertTrue(todas.get(i - 1).getId() < todas.get(i).getId());
+            }
+        }
+
+        ResumenTareas resumen = repositorio.resumir();
+        assertEquals(ResumenTareas.de(todas), resumen);
+        assertEquals(resumen.completadas(), repositorio.listarFiltradas(Tarea::isCompletada).size());
+        assertEquals(resumen.pendientes(), repositorio.listarFiltradas(t -> !t.isCompletada()).size());
+    }
+
+    @Test
+    void reemplazarTodasRespetaLosIdsRecibidos() {
+        TareaRepositoryParticionado repositorio = new TareaRepositoryParticionado(2);
+        repositorio.reemplazarTodas(List.of(
+            new Tarea(7L, "Replicada", false, Prioridad.ALTA),
+            new Tarea(10L, "Otra replicada", true, Prioridad.MEDIA)));
+
+        assertEquals(2, repositorio.contar());
+        assertFalse(repositorio.buscarPorId(1L).isPresent());
+
+        // Las altas posteriores no reutilizan los IDs recibidos
+        Tarea nueva = new Tarea(null, "Nueva", false, Prioridad.BAJA);
+        repositorio.guardar(nueva);
+        assertTrue(nueva.getId() == 9 || nueva.getId() == 12, "ID " + nueva.getId());
+        assertEquals(3, repositorio.contar());
+
+        repositorio.eliminar(7L);
+        assertFalse(repositorio.buscarPorId(7L).isPresent());
+        assertEquals(2, repositorio.contar());
+    }
+}
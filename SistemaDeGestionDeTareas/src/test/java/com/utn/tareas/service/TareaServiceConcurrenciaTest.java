@@ -0,0 +1,202 @@
+package com.utn.tareas.service;
+
+import com.utn.tareas.dependencia.GrafoDependencias;
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.PoolDescripciones;
+import com.utn.tareas.repository.TareaRepository;
+import com.utn.tareas.repository.TareaRepositoryImpl;
+import com.utn.tareas.vencimiento.PlanificadorVencimientos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compite por el último lugar libre y completa tareas desde varios hilos, y
+ * verifica que una alta en curso no ocupe dos lugares, que las tareas ya
+ * leídas no cambien por debajo y que guardar no retenga el monitor del grafo
+ */
+@SpringBootTest(properties = {
+    "app.salida-consola=false",
+    "app.max-tareas=400"
+})
+class TareaServiceConcurrenciaTest {
+
+    private static final int HILOS = 8;
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private TareaRepository repositorio;
+
+    @Test
+    void elLimiteSeRespetaConAltasSimultaneasYLasEstadisticasCoinciden() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        CyclicBarrier largada = new CyclicBarrier(HILOS);
+        List<Future<List<Tarea>>> envios = new ArrayList<>();
+        try {
+            for (int h = 0; h < HILOS; h++) {
+                envios.add(hilos.submit(() -> {
+                    largada.await();
+                    List<Tarea> creadas = new ArrayList<>();
+                    while (true) {
+                        try {
+                            Tarea tarea = tareaService.agregarTarea("Alta simultánea", Prioridad.MEDIA);
+                            creadas.add(tarea);
+                            // Completar la mitad, para que las estadísticas cambien mientras se leen
+                            if (tarea.getId() % 2 == 0) {
+                                tareaService.marcarComoCompletada(tarea.getId());
+                            }
+                            tareaService.obtenerEstadisticas();
+                        } catch (IllegalStateException limite) {
+                            return creadas;
+                        }
+                    }
+                }));
+            }
+            Set<Long> ids = new HashSet<>();
+            int creadas = 0;
+            for (Future<List<Tarea>> envio : envios) {
+                for (Tarea tarea : envio.get()) {
+                    ids.add(tarea.getId());
+                    creadas++;
+                }
+            }
+            assertEquals(creadas, ids.size());
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        Map<String, Object> stats = tareaService.obtenerEstadisticas();
+        List<Tarea> todas = tareaService.listarTodas();
+        assertEquals(400, repositorio.contar());
+        assertEquals(400L, stats.get("total"));
+        assertEquals(todas.size(), ((Number) stats.get("total")).intValue());
+        assertEquals(tareaService.listarCompletadas().size(), ((Number) stats.get("completadas")).intValue());
+        assertEquals(tareaService.listarPendientes().size(), ((Number) stats.get("pendientes")).intValue());
+        assertEquals(0L, stats.get("espacioDisponible"));
+    }
+
+    @Test
+    void unaAltaGuardadaSinLiberarSuReservaNoOcupaDosLugares() throws Exception {
+        CountDownLatch guardada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        // Las 5 tareas de ejemplo más dos lugares libres
+        TareaRepositoryImpl repositorio = new TareaRepositoryImpl() {
+            @Override
+            public void guardar(Tarea tarea) {
+                super.guardar(tarea);
+                if (tarea.getDescripcion().equals("Lenta")) {
+                    guardada.countDown();
+                    try {
+                        liberar.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        TareaService servicio = crearServicio(repositorio, 7);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<Tarea> lenta = hilos.submit(() -> servicio.agregarTarea("Lenta", Prioridad.MEDIA));
+            assertTrue(guardada.await(10, TimeUnit.SECONDS));
+            // La lenta ya está en el repositorio y todavía tiene su reserva: queda un lugar
+            Future<Tarea> ultima = hilos.submit(() -> servicio.agregarTarea("Última", Prioridad.MEDIA));
+            Thread.sleep(50);
+            liberar.countDown();
+
+            lenta.get(10, TimeUnit.SECONDS);
+            ultima.get(10, TimeUnit.SECONDS);
+            assertEquals(7, repositorio.contar());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void completarNoModificaLaTareaQueOtrosHilosYaLeyeron() {
+        TareaRepositoryImpl repositorio = new TareaRepositoryImpl();
+        TareaService servicio = crearServicio(repositorio, 100);
+        Tarea leida = repositorio.buscarPorId(1L).orElseThrow();
+        Tarea prerequisito = servicio.agregarTarea("Prerequisito", Prioridad.BAJA);
+
+        servicio.agregarDependencia(1L, prerequisito.getId());
+        assertTrue(leida.getDependencias().isEmpty(), "Las dependencias se agregan sobre una copia");
+        servicio.marcarComoCompletada(prerequisito.getId());
+        servicio.marcarComoCompletada(1L);
+
+        assertTrue(!leida.isCompletada() && leida.getFechaCompletada() == null,
+            "Un listado en curso ve la tarea entera antes o después del cambio, nunca a medias");
+        Tarea guardada = repositorio.buscarPorId(1L).orElseThrow();
+        assertTrue(guardada.isCompletada() && guardada.getFechaCompletada() != null);
+        assertEquals(Set.of(prerequisito.getId()), guardada.getDependencias());
+    }
+
+    @Test
+    void completarUnaTareaNoFrenaAlGrafoMientrasSeGuarda() throws Exception {
+        CountDownLatch guardando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        TareaRepositoryImpl repositorio = new TareaRepositoryImpl() {
+            @Override
+            public void guardar(Tarea tarea) {
+                super.guardar(tarea);
+                if (tarea.getDescripcion().equals("Lenta") && tarea.isCompletada()) {
+                    guardando.countDown();
+                    try {
+                        liberar.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        TareaService servicio = crearServicio(repositorio, 100);
+        Tarea lenta = servicio.agregarTarea("Lenta", Prioridad.MEDIA);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<Tarea> completarLenta = hilos.submit(() -> servicio.marcarComoCompletada(lenta.getId()));
+            assertTrue(guardando.await(10, TimeUnit.SECONDS));
+            // Mientras la lenta se guarda, otra tarea se completa y el grafo se consulta
+            Future<Tarea> otra = hilos.submit(() -> servicio.marcarComoCompletada(1L));
+            assertTrue(otra.get(5, TimeUnit.SECONDS).isCompletada());
+            assertTrue(!servicio.listarDisponibles().isEmpty());
+            liberar.countDown();
+            assertTrue(completarLenta.get(10, TimeUnit.SECONDS).isCompletada());
+        } finally {
+            liberar.countDown();
+            hilos.shutdownNow();
+        }
+    }
+
+    /**
+     * Arma el servicio sin Spring sobre el repositorio dado, con sus 5 tareas de ejemplo
+     */
+    private static TareaService crearServicio(TareaRepositoryImpl repositorio, int maxTareas) {
+        Clock reloj = Clock.systemUTC();
+        TareaService servicio = new TareaService(repositorio,
+            new PlanificadorVencimientos(repositorio, evento -> { }, reloj, 1000, 0), reloj,
+            new GrafoDependencias(repositorio), new PoolDescripciones());
+        servicio.setMaxTareas(maxTareas);
+        return servicio;
+    }
+}
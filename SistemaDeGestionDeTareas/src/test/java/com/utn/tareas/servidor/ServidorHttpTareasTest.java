@@ -0,0 +1,166 @@
+package com.utn.tareas.servidor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica las rutas de la API HTTP contra el servidor levantado en un puerto libre
+ */
+@SpringBootTest(properties = {
+    "app.servidor.enabled=true",
+    "app.servidor.puerto=0",
+    "app.salida-consola=false",
+    "app.espacios.directorio=${java.io.tmpdir}/tareas-espacios-${random.uuid}"
+})
+class ServidorHttpTareasTest {
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @Autowired
+    private ServidorHttpTareas servidor;
+
+    @Test
+    void creaYCompletaUnaTarea() throws Exception {
+        HttpResponse<String> creada = post("/tareas",
+            "{\"descripcion\": \"Preparar \\\"demo\\\" de la API ✓\", \"prioridad\": \"alta\", \"extra\": [1, {\"a\": 2}]}");
+        assertEquals(201, creada.statusCode());
+        assertTrue(creada.body().contains("\"descripcion\":\"Preparar \\\"demo\\\" de la API ✓\""), creada.body());
+        assertTrue(creada.body().contains("\"completada\":false"), creada.body());
+        assertTrue(creada.body().contains("\"prioridad\":\"ALTA\""), creada.body());
+
+        String id = creada.body().replaceAll("^\\{\"id\":(\\d+),.*$", "$1");
+        HttpResponse<String> completada = post("/tareas/" + id + "/completar", "");
+        assertEquals(200, completada.statusCode());
+        assertTrue(completada.body().contains("\"completada\":true"), completada.body());
+
+        assertTrue(get("/tareas?estado=completadas").body().contains("\"id\":" + id + ","));
+        assertFalse(get("/tareas?estado=pendientes").body().contains("\"id\":" + id + ","));
+    }
+
+    @Test
+    void devuelveEstadisticas() throws Exception {
+        HttpResponse<String> respuesta = get("/estadisticas");
+        assertEquals(200, respuesta.statusCode());
+        assertEquals("application/json; charset=utf-8",
+            respuesta.headers().firstValue("Content-Type").orElse(""));
+        assertTrue(respuesta.body().matches(
+            "\\{\"total\":\\d+,.*\"espacioDisponible\":\\d+,\"disponibles\":\\d+,\"vencidas\":\\d+,"
+                + ".*\"recordatoriosNotificados\":\\d+,\"descripcionesUnicas\":\\d+,"
+                + "\"bytesAhorradosDescripciones\":\\d+}"),
+            respuesta.body());
+    }
+
+    @Test
+    void listaLasTareasVencidas() throws Exception {
+        HttpResponse<String> creada = post("/tareas",
+            "{\"descripcion\": \"Entregar informe\", \"vencimiento\": \"2020-01-01T00:00:00Z\"}");
+        assertEquals(201, creada.statusCode());
+        assertTrue(creada.body().contains("\"fechaVencimiento\":\"2020-01-01T00:00:00Z\""), creada.body());
+        assertTrue(creada.body().contains("\"fechaCompletada\":null"), creada.body());
+
+        String id = creada.body().replaceAll("^\\{\"id\":(\\d+),.*$", "$1");
+        assertTrue(get("/tareas?estado=vencidas").body().contains("\"id\":" + id + ","));
+
+        assertEquals(200, post("/tareas/" + id + "/completar", "").statusCode());
+        assertFalse(get("/tareas?estado=vencidas").body().contains("\"id\":" + id + ","));
+    }
+
+    @Test
+    void respetaLasDependenciasAlCompletar() throws Exception {
+        String previa = id(post("/tareas", "{\"descripcion\": \"Diseñar esquema\"}"));
+        HttpResponse<String> creada = post("/tareas",
+            "{\"descripcion\": \"Migrar datos\", \"dependencias\": [ " + previa + " ]}");
+        assertEquals(201, creada.statusCode());
+        assertTrue(creada.body().endsWith("\"dependencias\":[" + previa + "]}"), creada.body());
+        String id = id(creada);
+
+        assertTrue(get("/tareas?estado=disponibles").body().contains("\"id\":" + previa + ","));
+        assertFalse(get("/tareas?estado=disponibles").body().contains("\"id\":" + id + ","));
+        assertEquals(409, post("/tareas/" + id + "/completar", "").statusCode());
+
+        assertEquals(200, post("/tareas/" + previa + "/completar", "").statusCode());
+        assertTrue(get("/tareas?estado=disponibles").body().contains("\"id\":" + id + ","));
+        assertEquals(200, post("/tareas/" + id + "/completar", "").statusCode());
+
+        assertEquals(400, post("/tareas", "{\"descripcion\": \"x\", \"dependencias\": [999999]}").statusCode());
+        assertEquals(400, post("/tareas", "{\"descripcion\": \"x\", \"dependencias\": [1,]}").statusCode());
+    }
+
+    @Test
+    void separaLasTareasDeCadaEspacio() throws Exception {
+        HttpResponse<String> creada = post("/espacios/equipo-http/tareas", "{\"descripcion\": \"Retro\"}");
+        assertEquals(201, creada.statusCode());
+        String id = id(creada);
+        assertEquals(200, post("/espacios/equipo-http/tareas/" + id + "/completar", "").statusCode());
+
+        assertTrue(get("/espacios/equipo-http/tareas?estado=completadas").body().contains("\"descripcion\":\"Retro\""));
+        assertFalse(get("/tareas").body().contains("\"descripcion\":\"Retro\""));
+        assertTrue(get("/espacios/equipo-http/estadisticas").body()
+            .matches("\\{\"espacio\":\"equipo-http\",\"total\":1,\"completadas\":1,.*}"));
+        assertEquals("[]", get("/espacios/otro-equipo/tareas").body());
+
+        assertEquals(400, get("/espacios/no%20valido/tareas").statusCode());
+        assertEquals(400, post("/espacios/equipo-http/tareas",
+            "{\"descripcion\": \"x\", \"dependencias\": [1]}").statusCode());
+        assertEquals(404, get("/espacios/equipo-http").statusCode());
+    }
+
+    @Test
+    void informaErroresComoJson() throws Exception {
+        HttpResponse<String> inexistente = post("/tareas/999999/completar", "");
+        assertEquals(404, inexistente.statusCode());
+        assertEquals("{\"error\":\"No existe una tarea con el ID 999999\"}", inexistente.body());
+
+        assertEquals(400, post("/tareas", "{\"descripcion\": \"  \"}").statusCode());
+        assertEquals(400, post("/tareas", "{\"descripcion\": ").statusCode());
+        assertEquals(400, post("/tareas", "{\"descripcion\": \"x\", \"prioridad\": \"URGENTE\"}").statusCode());
+        assertEquals(400, post("/tareas", "{\"descripcion\": \"x\", \"vencimiento\": \"mañana\"}").statusCode());
+        assertEquals(400, post("/tareas/abc/completar", "").statusCode());
+        assertEquals(400, get("/tareas?estado=otras").statusCode());
+        assertEquals(405, get("/tareas/1/completar").statusCode());
+        assertEquals(404, get("/usuarios").statusCode());
+    }
+
+    @Test
+    void elEscritorNoRetieneElBufferDeUnaRespuestaGrande() {
+        EscritorJson json = new EscritorJson();
+        json.reiniciar().texto("x".repeat(EscritorJson.MAXIMO_RETENIDO));
+        assertTrue(json.bytes().length > EscritorJson.MAXIMO_RETENIDO);
+
+        json.reiniciar().texto("chica");
+        assertEquals("\"chica\"", new String(json.bytes(), 0, json.longitud()));
+        assertTrue(json.bytes().length <= EscritorJson.MAXIMO_RETENIDO,
+            "Cada hilo del servidor conservaría el buffer del listado más grande");
+    }
+
+    private static String id(HttpResponse<String> creada) {
+        return creada.body().replaceAll("^\\{\"id\":(\\d+),.*$", "$1");
+    }
+
+    private HttpResponse<String> get(String ruta) throws IOException, InterruptedException {
+        return cliente.send(HttpRequest.newBuilder(uri(ruta)).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String ruta, String cuerpo) throws IOException, InterruptedException {
+        return cliente.send(HttpRequest.newBuilder(uri(ruta))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://localhost:" + servidor.getPuerto() + ruta);
+    }
+}
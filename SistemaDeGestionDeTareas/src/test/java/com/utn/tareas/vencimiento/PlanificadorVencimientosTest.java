@@ -0,0 +1,146 @@
+package com.utn.tareas.vencimiento;
+
+import com.utn.tareas.model.Prioridad;
+import com.utn.tareas.model.Tarea;
+import com.utn.tareas.repository.TareaRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Avanza el planificador con un reloj manual, sin su hilo
+ */
+class PlanificadorVencimientosTest {
+
+    private final RelojManual reloj = new RelojManual(Instant.parse("2025-03-10T12:00:00Z"));
+    private final List<Object> eventos = new ArrayList<>();
+    private TareaRepositoryImpl repositorio;
+    private PlanificadorVencimientos planificador;
+
+    @BeforeEach
+    void setUp() {
+        repositorio = new TareaRepositoryImpl();
+        planificador = new PlanificadorVencimientos(repositorio, eventos::add, reloj,
+            1000, Duration.ofHours(1).toMillis());
+    }
+
+    @Test
+    void publicaElRecordatorioYLuegoElVencimiento() {
+        Tarea tarea = guardar(reloj.instant().plus(Duration.ofHours(2)));
+
+        avanzar(Duration.ofMinutes(59));
+        assertTrue(eventos.isEmpty());
+
+        avanzar(Duration.ofMinutes(1));
+        assertEquals(1, eventos.size());
+        assertInstanceOf(RecordatorioVencimientoEvent.class, eventos.get(0));
+        assertEquals(0, planificador.contarVencidas());
+
+        avanzar(Duration.ofHours(1));
+        assertEquals(2, eventos.size());
+        assertEquals(tarea.getId(), ((TareaVencidaEvent) eventos.get(1)).tarea().getId());
+        assertEquals(Set.of(tarea.getId()), planificador.idsVencidos());
+        assertEquals(1, planificador.getVencimientosNotificados());
+        assertEquals(1, planificador.getRecordatoriosNotificados());
+        assertEquals(0, planificador.getTemporizadoresProgramados());
+    }
+
+    @Test
+    void completarCancelaLosAvisosYLaQuitaDeVencidas() {
+        Tarea pendiente = guardar(reloj.instant().plus(Duration.ofMinutes(10)));
+        Tarea atrasada = guardar(reloj.instant().minus(Duration.ofDays(1)));
+
+        // Una tarea creada con el vencimiento ya pasado cuenta como vencida de inmediato
+        assertEquals(Set.of(atrasada.getId()), planificador.idsVencidos());
+
+        pendiente.setCompletada(true);
+        planificador.programar(pendiente);
+        atrasada.setCompletada(true);
+        planificador.cancelar(atrasada.getId());
+
+        avanzar(Duration.ofHours(1));
+        assertTrue(eventos.isEmpty());
+        assertEquals(0, planificador.contarVencidas());
+    }
+
+    @Test
+    void reprogramarReemplazaElVencimientoAnterior() {
+        Tarea tarea = guardar(reloj.instant().plus(Duration.ofMinutes(5)));
+        tarea.setFechaVencimiento(reloj.instant().plus(Duration.ofHours(3)));
+        planificador.programar(tarea);
+
+        avanzar(Duration.ofMinutes(10));
+        assertTrue(eventos.isEmpty());
+        assertEquals(2, planificador.getTemporizadoresProgramados());
+    }
+
+    @Test
+    void lasTareasSinVencimientoNoEsperanElMonitor() throws Exception {
+        Tarea sinVencimiento = guardar(null);
+        CompletableFuture<Void> cambios;
+        synchronized (planificador) {
+            cambios = CompletableFuture.runAsync(() -> {
+                planificador.programar(sinVencimiento);
+                sinVencimiento.setCompletada(true);
+                planificador.programar(sinVencimiento);
+                planificador.cancelar(sinVencimiento.getId());
+            });
+            cambios.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(0, planificador.getTemporizadoresProgramados());
+    }
+
+    private Tarea guardar(Instant vencimiento) {
+        Tarea tarea = new Tarea(null, "Con vencimiento", false, Prioridad.MEDIA, reloj.instant(), vencimiento, null,
+            Set.of());
+        repositorio.guardar(tarea);
+        planificador.programar(tarea);
+        return tarea;
+    }
+
+    private void avanzar(Duration duracion) {
+        reloj.ahora = reloj.ahora.plus(duracion);
+        planificador.avanzar();
+    }
+
+    /**
+     * Reloj que solo avanza cuando la prueba lo indica
+     */
+    private static final class RelojManual extends Clock {
+
+        private Instant ahora;
+
+        RelojManual(Instant ahora) {
+            this.ahora = ahora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zona) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
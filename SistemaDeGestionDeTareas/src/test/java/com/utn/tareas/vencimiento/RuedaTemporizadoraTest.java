@@ -0,0 +1,96 @@
+package com.utn.tareas.vencimiento;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara la rueda con el cálculo directo del tick en que debe vencer cada temporizador
+ */
+class RuedaTemporizadoraTest {
+
+    private static final long RESOLUCION = 10;
+
+    @Test
+    void venceEnElPrimerTickQueNoEsAnteriorAlVencimiento() {
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(RESOLUCION, 1_000);
+        List<String> vencidos = new ArrayList<>();
+        rueda.programar("exacto", 1_050);
+        rueda.programar("redondeado", 1_051);
+
+        rueda.avanzar(1_049, vencidos::add);
+        assertTrue(vencidos.isEmpty());
+        rueda.avanzar(1_050, vencidos::add);
+        assertEquals(List.of("exacto"), vencidos);
+        rueda.avanzar(1_059, vencidos::add);
+        assertEquals(List.of("exacto"), vencidos);
+        rueda.avanzar(1_060, vencidos::add);
+        assertEquals(List.of("exacto", "redondeado"), vencidos);
+        assertEquals(0, rueda.cantidad());
+    }
+
+    @Test
+    void cascadaEntreNivelesYCancelacionesAleatorias() {
+        Random azar = new Random(42);
+        long inicio = 1_234_567;
+        RuedaTemporizadora<Integer> rueda = new RuedaTemporizadora<>(RESOLUCION, inicio);
+
+        // Vencimientos en los tres primeros niveles, algunos ya pasados
+        int cantidad = 20_000;
+        long[] vencimientos = new long[cantidad];
+        List<RuedaTemporizadora.Temporizador<Integer>> temporizadores = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            vencimientos[i] = inicio - 50 + azar.nextInt(64 * 64 * 64 * (int) RESOLUCION);
+            temporizadores.add(rueda.programar(i, vencimientos[i]));
+        }
+        boolean[] cancelados = new boolean[cantidad];
+        for (int i = 0; i < cantidad; i += 7) {
+            assertTrue(rueda.cancelar(temporizadores.get(i)));
+            assertFalse(rueda.cancelar(temporizadores.get(i)));
+            cancelados[i] = true;
+        }
+
+        Map<Integer, Long> vencidoEn = new HashMap<>();
+        long anterior = inicio;
+        long ahora = inicio;
+        while (rueda.cantidad() > 0) {
+            ahora += 1 + azar.nextInt(5_000);
+            long momento = ahora;
+            rueda.avanzar(momento, i -> assertEquals(null, vencidoEn.put(i, momento), "vencido dos veces: " + i));
+            for (Map.Entry<Integer, Long> vencido : vencidoEn.entrySet()) {
+                if (vencido.getValue() == momento) {
+                    long tick = Math.floorDiv(vencimientos[vencido.getKey()] - 1, RESOLUCION) + 1;
+                    assertTrue(tick <= Math.floorDiv(momento, RESOLUCION), "vencido antes de tiempo");
+                    assertTrue(anterior == inicio || tick > Math.floorDiv(anterior, RESOLUCION),
+                        "vencido tarde: " + vencido.getKey());
+                }
+            }
+            anterior = momento;
+        }
+
+        for (int i = 0; i < cantidad; i++) {
+            assertEquals(!cancelados[i], vencidoEn.containsKey(i), "temporizador " + i);
+        }
+    }
+
+    @Test
+    void vencimientosFueraDeAlcanceNoSeDisparanAntes() {
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(1, 0);
+        RuedaTemporizadora.Temporizador<String> lejano = rueda.programar("lejano", Long.MAX_VALUE / 2);
+        List<String> vencidos = new ArrayList<>();
+
+        rueda.avanzar(1_000_000, vencidos::add);
+        assertTrue(vencidos.isEmpty());
+        assertEquals(1, rueda.cantidad());
+        assertTrue(rueda.cancelar(lejano));
+        assertEquals(0, rueda.cantidad());
+    }
+}